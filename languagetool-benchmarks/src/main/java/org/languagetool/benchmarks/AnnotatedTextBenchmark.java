@@ -0,0 +1,80 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps the positions of many matches in a markup-heavy document (about 1 MB of HTML-like
+ * markup and text) back to the original text, like it's done for every match of a check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnnotatedTextBenchmark {
+
+  private static final int DOCUMENT_CHARS = 1024 * 1024;
+
+  @Param({"5000"})
+  private int matches;
+
+  private AnnotatedText text;
+  private int[] positions;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    AnnotatedTextBuilder builder = new AnnotatedTextBuilder();
+    int length = 0;
+    for (int i = 0; length < DOCUMENT_CHARS; i++) {
+      String word = "word" + i;
+      builder.addMarkup("<span class=\"w\">").addText(word).addMarkup("</span>").addText(" ");
+      length += word.length() + 24;
+      if (i % 20 == 0) {
+        builder.addMarkup("<br/>", "\n");
+        length += 5;
+      }
+    }
+    text = builder.build();
+    int plainTextLength = text.getPlainText().length();
+    Random random = new Random(42);
+    positions = new int[matches];
+    for (int i = 0; i < matches; i++) {
+      positions[i] = random.nextInt(plainTextLength - 10);
+    }
+  }
+
+  @Benchmark
+  public long mapMatchPositions() {
+    long sum = 0;
+    for (int position : positions) {
+      sum += text.getOriginalTextPositionFor(position, false);
+      sum += text.getOriginalTextPositionFor(position + 5, true);
+    }
+    return sum;
+  }
+
+}
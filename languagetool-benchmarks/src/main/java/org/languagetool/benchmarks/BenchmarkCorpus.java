@@ -0,0 +1,66 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.tools.StringTools;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fixed texts the benchmarks run on, so numbers stay comparable between runs and commits.
+ * Don't modify the corpus files without noting it in the commit message, as this
+ * invalidates all older results.
+ */
+public final class BenchmarkCorpus {
+
+  private BenchmarkCorpus() {
+  }
+
+  /**
+   * @param langCode the language code without variant, e.g. {@code en} or {@code de}
+   * @return the corpus text for the given language
+   */
+  public static String get(String langCode) throws IOException {
+    String path = "/org/languagetool/benchmarks/corpus-" + langCode + ".txt";
+    try (InputStream stream = BenchmarkCorpus.class.getResourceAsStream(path)) {
+      if (stream == null) {
+        throw new IllegalArgumentException("No benchmark corpus for language '" + langCode + "', expected " + path);
+      }
+      return StringTools.readStream(stream, "utf-8");
+    }
+  }
+
+  /**
+   * @param copies how often the corpus gets repeated, to simulate long documents
+   * @return the corpus text for the given language, repeated {@code copies} times as separate paragraphs
+   */
+  public static String get(String langCode, int copies) throws IOException {
+    String text = get(langCode);
+    StringBuilder sb = new StringBuilder(text.length() * copies + copies);
+    for (int i = 0; i < copies; i++) {
+      sb.append(text);
+      if (!text.endsWith("\n")) {
+        sb.append('\n');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,56 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the results contain the allocation
+ * rate ({@code gc.alloc.rate.norm}) next to the throughput. Usage:
+ * <pre>
+ *   java -jar languagetool-benchmarks-*.jar [benchmark regex] [result.json]
+ * </pre>
+ * For full control over JMH's options, use {@code org.openjdk.jmh.Main} as the main class instead.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    if (args.length > 2) {
+      System.out.println("Usage: " + BenchmarkRunner.class.getSimpleName() + " [benchmark regex] [result.json]");
+      System.exit(1);
+    }
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*");
+    builder.addProfiler(GCProfiler.class);
+    if (args.length > 1) {
+      builder.resultFormat(ResultFormatType.JSON);
+      builder.result(args[1]);
+    }
+    Options options = builder.build();
+    new Runner(options).run();
+  }
+}
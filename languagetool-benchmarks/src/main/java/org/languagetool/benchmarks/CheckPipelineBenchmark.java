@@ -0,0 +1,119 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.*;
+import org.languagetool.rules.patterns.AbstractPatternRule;
+import org.languagetool.tagging.disambiguation.Disambiguator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per stage that {@link JLanguageTool#check(org.languagetool.markup.AnnotatedText, boolean,
+ * JLanguageTool.ParagraphHandling, org.languagetool.RuleMatchListener, JLanguageTool.Mode, JLanguageTool.Level)}
+ * goes through, in pipeline order. Each operation processes the whole corpus of the language,
+ * so the throughput is "corpora per second". Run via {@link BenchmarkRunner} to also get
+ * allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CheckPipelineBenchmark {
+
+  @Benchmark
+  public List<String> sentenceTokenizer(PipelineState state) {
+    return state.language.getSentenceTokenizer().tokenize(state.text);
+  }
+
+  @Benchmark
+  public void wordTokenizer(PipelineState state, Blackhole bh) {
+    for (String sentence : state.sentences) {
+      bh.consume(state.language.getWordTokenizer().tokenize(sentence));
+    }
+  }
+
+  @Benchmark
+  public void tagger(PipelineState state, Blackhole bh) throws IOException {
+    for (List<String> tokens : state.sentenceTokens) {
+      bh.consume(state.language.getTagger().tag(tokens));
+    }
+  }
+
+  /**
+   * Note: this includes the cost of {@link AnalyzedSentence#copy(AnalyzedSentence)}, as some disambiguators
+   * modify the readings they get and we need to start from the same raw sentence every time.
+   */
+  @Benchmark
+  public void disambiguator(PipelineState state, Blackhole bh) throws IOException {
+    Disambiguator disambiguator = state.language.getDisambiguator();
+    for (AnalyzedSentence raw : state.rawSentences) {
+      bh.consume(disambiguator.disambiguate(raw.copy(raw)));
+    }
+  }
+
+  @Benchmark
+  public void rulesForSentence(PipelineState state, Blackhole bh) {
+    for (AnalyzedSentence sentence : state.analyzedSentences) {
+      bh.consume(state.ruleSet.rulesForSentence(sentence));
+    }
+  }
+
+  /**
+   * Runs all pattern rules that {@link #rulesForSentence} considers applicable,
+   * i.e. mostly {@code PatternRuleMatcher.match}.
+   */
+  @Benchmark
+  public void patternRuleMatcher(PipelineState state, Blackhole bh) throws IOException {
+    for (int i = 0; i < state.analyzedSentences.size(); i++) {
+      AnalyzedSentence sentence = state.analyzedSentences.get(i);
+      for (AbstractPatternRule rule : state.patternRulesPerSentence.get(i)) {
+        bh.consume(rule.match(sentence));
+      }
+    }
+  }
+
+  /**
+   * The filter chain that {@code JLanguageTool.filterMatches} applies to the matches of the corpus.
+   */
+  @Benchmark
+  public List<RuleMatch> filterMatches(PipelineState state) {
+    List<RuleMatch> matches = new SameRuleGroupFilter().filter(state.ruleMatches);
+    matches = new LanguageDependentMergeSuggestionFilter(state.language, state.ruleSet).filter(matches, state.annotatedText);
+    matches = new CleanOverlappingFilter(state.language, false).filter(matches);
+    return new LanguageDependentFilter(state.language, state.ruleSet).filter(matches);
+  }
+
+  /**
+   * The complete pipeline, for comparison with the sum of the stages.
+   */
+  @Benchmark
+  public List<RuleMatch> check(PipelineState state) throws IOException {
+    return state.lt.check(state.annotatedText, true, JLanguageTool.ParagraphHandling.NORMAL, null,
+      JLanguageTool.Mode.ALL, JLanguageTool.Level.DEFAULT);
+  }
+
+}
@@ -0,0 +1,89 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.Languages;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.patterns.AbstractPatternRule;
+import org.languagetool.rules.patterns.RuleSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the checking pipeline once for the corpus of the given language and keeps
+ * the intermediate result of every stage, so each benchmark can measure exactly one stage.
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+
+  @Param({"en-US", "de-DE"})
+  public String languageCode;
+
+  Language language;
+  JLanguageTool lt;
+  String text;
+  AnnotatedText annotatedText;
+  List<String> sentences;
+  List<List<String>> sentenceTokens;
+  List<AnalyzedSentence> rawSentences;
+  List<AnalyzedSentence> analyzedSentences;
+  RuleSet ruleSet;
+  List<List<AbstractPatternRule>> patternRulesPerSentence;
+  List<RuleMatch> ruleMatches;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    language = Languages.getLanguageForShortCode(languageCode);
+    lt = new JLanguageTool(language);
+    text = BenchmarkCorpus.get(language.getShortCode());
+    annotatedText = new AnnotatedTextBuilder().addText(text).build();
+    sentences = lt.sentenceTokenize(text);
+    sentenceTokens = new ArrayList<>(sentences.size());
+    rawSentences = new ArrayList<>(sentences.size());
+    analyzedSentences = new ArrayList<>(sentences.size());
+    for (String sentence : sentences) {
+      sentenceTokens.add(language.getWordTokenizer().tokenize(sentence));
+      rawSentences.add(lt.getRawAnalyzedSentence(sentence));
+      analyzedSentences.add(lt.getAnalyzedSentence(sentence));
+    }
+    ruleSet = RuleSet.textLemmaHinted(lt.getAllActiveRules());
+    patternRulesPerSentence = new ArrayList<>(analyzedSentences.size());
+    for (AnalyzedSentence sentence : analyzedSentences) {
+      List<AbstractPatternRule> rules = ruleSet.rulesForSentence(sentence).stream()
+        .filter(AbstractPatternRule.class::isInstance)
+        .map(AbstractPatternRule.class::cast)
+        .collect(Collectors.toList());
+      patternRulesPerSentence.add(rules);
+    }
+    ruleMatches = lt.check(annotatedText, true, JLanguageTool.ParagraphHandling.NORMAL, null,
+      JLanguageTool.Mode.ALL, JLanguageTool.Level.DEFAULT);
+    if (ruleMatches.isEmpty()) {
+      throw new IllegalStateException("Corpus for " + language + " should contain errors, but no rule matches were found");
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Languages;
+import org.languagetool.MultiThreadedJLanguageTool;
+import org.languagetool.rules.RuleMatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link MultiThreadedJLanguageTool.Scheduling} strategies on a short text
+ * (the corpus, about one page) and a long one (the corpus repeated 100 times).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SchedulingBenchmark {
+
+  @Param({"en-US", "de-DE"})
+  public String languageCode;
+
+  @Param({"1", "100"})
+  public int pages;
+
+  @Param({"RULES", "SENTENCE_TILES"})
+  public MultiThreadedJLanguageTool.Scheduling scheduling;
+
+  private MultiThreadedJLanguageTool lt;
+  private String text;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    lt = new MultiThreadedJLanguageTool(Languages.getLanguageForShortCode(languageCode));
+    lt.setScheduling(scheduling);
+    text = BenchmarkCorpus.get(lt.getLanguage().getShortCode(), pages);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    lt.shutdown();
+  }
+
+  @Benchmark
+  public List<RuleMatch> check() throws IOException {
+    return lt.check(text, true, JLanguageTool.ParagraphHandling.NORMAL);
+  }
+
+}
@@ -0,0 +1,75 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.benchmarks;
+
+import org.languagetool.rules.spelling.morfologik.MorfologikSpeller;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a single shared {@link MorfologikSpeller} from 16 threads, like the pipelines of
+ * one language do in the server, to measure how much the threads slow each other down.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class SpellerContentionBenchmark {
+
+  private static final String[] WORDS = {
+    "recieve", "seperate", "definately", "occured", "untill", "wich", "beleive", "tommorow",
+    "acommodate", "goverment", "enviroment", "existance", "foriegn", "independant", "neccessary", "wierd"
+  };
+
+  private MorfologikSpeller speller;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    speller = new MorfologikSpeller("/en/hunspell/en_US.dict", 1);
+  }
+
+  @State(Scope.Thread)
+  public static class WordIndex {
+    int i;
+    String next() {
+      return WORDS[i++ % WORDS.length];
+    }
+  }
+
+  @Benchmark
+  public List<String> findReplacements(WordIndex words) {
+    return speller.findReplacements(words.next());
+  }
+
+  @Benchmark
+  public int getFrequency(WordIndex words) {
+    return speller.getFrequency(words.next());
+  }
+
+  @Benchmark
+  public boolean isMisspelled(WordIndex words) {
+    return speller.isMisspelled(words.next());
+  }
+
+}
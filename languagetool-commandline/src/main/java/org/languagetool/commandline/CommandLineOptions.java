@@ -59,6 +59,7 @@ public class CommandLineOptions {
   private boolean autoDetect = false;
   private boolean xmlFiltering = false;
   private boolean lineByLine = false;
+  private boolean streaming = false;
   private boolean enableTempOff = false;
   private boolean cleanOverlapping = false;
   private JLanguageTool.Level level = JLanguageTool.Level.DEFAULT;
@@ -122,6 +123,20 @@ public class CommandLineOptions {
     this.lineByLine = lineByLine;
   }
 
+  /**
+   * @since 6.4
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   public boolean isEnableTempOff() {
     return enableTempOff;
   }
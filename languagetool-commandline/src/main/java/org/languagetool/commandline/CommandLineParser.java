@@ -49,6 +49,8 @@ class CommandLineParser {
         options.setVerbose(true);
       } else if (args[i].equals("--line-by-line")) {
         options.setLineByLine(true);
+      } else if (args[i].equals("--stream")) {
+        options.setStreaming(true);
       } else if (args[i].equals("--enable-temp-off")) {
         options.setEnableTempOff(true);
       } else if (args[i].equals("--clean-overlapping")) {
@@ -174,6 +176,11 @@ class CommandLineParser {
         throw new UnknownParameterException("Unknown parameter: " + args[i]);
       }
     }
+    if (options.isStreaming() && (options.isLineByLine() || options.isApplySuggestions() || options.isTaggerOnly() ||
+        options.isProfile() || options.isBitext() || options.isAutoDetect() || options.isListUnknown() || options.isXmlFiltering())) {
+      throw new IllegalArgumentException("--stream can only be used for checking, not together with --line-by-line, " +
+        "--apply, --taggeronly, --profile, --bitext, --autoDetect, --list-unknown, or --xmlfilter");
+    }
     return options;
   }
 
@@ -222,6 +229,9 @@ class CommandLineParser {
             + "  --fasttextbinary FILE    fasttext executable (optional), see https://fasttext.cc/docs/en/support.html\n"
             + "  --xmlfilter              [deprecated] remove XML/HTML elements from input before checking\n"
             + "  --line-by-line           work on file line by line (for development, e.g. inside an IDE)\n"
+            + "  --stream                 check large files with constant memory: paragraphs are read and checked in\n"
+            + "                           overlapping windows, matches are printed as soon as they are found\n"
+            + "                           (with --json: one JSON document per line)\n"
             + "  --enable-temp-off        enable all temp_off rules (for testing and development)\n"
             + "  --clean-overlapping      clean overlapping matches (show only the highest priority match)\n"
             + "  --level level            enable the given level (currently only 'PICKY')"
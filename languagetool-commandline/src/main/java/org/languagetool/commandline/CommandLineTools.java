@@ -49,7 +49,7 @@ import static org.languagetool.JLanguageTool.Level.*;
  */
 public final class CommandLineTools {
 
-  private static final int DEFAULT_CONTEXT_SIZE = 45;
+  static final int DEFAULT_CONTEXT_SIZE = 45;
 
   private CommandLineTools() {
   }
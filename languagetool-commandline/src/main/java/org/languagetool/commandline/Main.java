@@ -265,6 +265,20 @@ class Main {
     }
   }
 
+  private void runOnFileStreaming(String filename, String encoding, JLanguageTool.Level level) throws IOException {
+    if (options.isVerbose()) {
+      lt.setOutput(System.err);
+    }
+    if (isStdIn(filename)) {
+      System.err.println("Working on STDIN...");
+    } else {
+      System.err.println("Working on " + filename + "...");
+    }
+    try (BufferedReader reader = new BufferedReader(getInputStreamReader(filename, encoding))) {
+      new ParagraphStreamChecker(lt, options.isJsonFormat(), level, options.isVerbose()).check(reader);
+    }
+  }
+
   private void handleLine(ApiPrintMode mode, int lineOffset, StringBuilder sb, JLanguageTool.Level level) throws IOException {
     int matches = 0;
     String s = filterXML(sb.toString());
@@ -315,7 +329,9 @@ class Main {
         if (file.isDirectory()) {
           runRecursive(file.getAbsolutePath(), encoding, xmlFiltering, level);
         } else {
-          if (options.isLineByLine()) {
+          if (options.isStreaming()) {
+            runOnFileStreaming(file.getAbsolutePath(), encoding, level);
+          } else if (options.isLineByLine()) {
             runOnFileLineByLine(file.getAbsolutePath(), encoding, level);
           } else {
             runOnFile(file.getAbsolutePath(), encoding, xmlFiltering);
@@ -448,7 +464,9 @@ class Main {
     if (options.isRecursive()) {
       prg.runRecursive(options.getFilename(), options.getEncoding(), options.isXmlFiltering(), options.getLevel());
     } else {
-      if (options.isLineByLine()) {
+      if (options.isStreaming()) {
+        prg.runOnFileStreaming(options.getFilename(), options.getEncoding(), options.getLevel());
+      } else if (options.isLineByLine()) {
         prg.runOnFileLineByLine(options.getFilename(), options.getEncoding(), options.getLevel());
       } else {
         prg.runOnFile(options.getFilename(), options.getEncoding(), options.isXmlFiltering());
@@ -0,0 +1,201 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.commandline;
+
+import org.languagetool.DetectedLanguage;
+import org.languagetool.JLanguageTool;
+import org.languagetool.markup.AnnotatedTextBuilder;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.tools.RuleMatchesAsJsonSerializer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a text from a reader without loading it completely into memory. The paragraphs
+ * are checked in windows of about {@code windowSize} characters. Each window starts with up to
+ * {@code overlapSize} characters of the paragraphs that have already been checked, so that
+ * text-level rules still see some context, but only the matches in the new paragraphs are
+ * printed. Paragraphs longer than the window are split at line breaks, lines longer than
+ * the window are split at whitespace (or anywhere, if there's no whitespace).
+ * Line numbers and offsets of the matches refer to the whole text. With JSON output,
+ * there's one JSON document per window, each on its own line.
+ * @since 6.4
+ */
+class ParagraphStreamChecker {
+
+  static final int DEFAULT_WINDOW_SIZE = 20_000;
+  static final int DEFAULT_OVERLAP_SIZE = 2_000;
+
+  private final JLanguageTool lt;
+  private final boolean isJsonFormat;
+  private final int windowSize;
+  private final int overlapSize;
+  private final JLanguageTool.Level level;
+  private final boolean verbose;
+
+  private final Deque<String> paragraphs = new ArrayDeque<>();  // the context paragraphs, then the new ones
+  private int contextLength;
+  private int windowLength;
+  private int windowLine;
+  private long windowOffset;
+  private int matchCount;
+  private PrintStream out;
+
+  ParagraphStreamChecker(JLanguageTool lt, boolean isJsonFormat, JLanguageTool.Level level, boolean verbose) {
+    this(lt, isJsonFormat, DEFAULT_WINDOW_SIZE, DEFAULT_OVERLAP_SIZE, level, verbose);
+  }
+
+  ParagraphStreamChecker(JLanguageTool lt, boolean isJsonFormat, int windowSize, int overlapSize,
+                         JLanguageTool.Level level, boolean verbose) {
+    if (windowSize <= 0 || overlapSize < 0) {
+      throw new IllegalArgumentException("windowSize must be > 0 and overlapSize >= 0: " + windowSize + ", " + overlapSize);
+    }
+    this.lt = lt;
+    this.isJsonFormat = isJsonFormat;
+    this.windowSize = windowSize;
+    this.overlapSize = overlapSize;
+    this.level = level;
+    this.verbose = verbose;
+  }
+
+  /**
+   * Check the text and print the matches to System.out as soon as they have been found.
+   * @return the number of rule matches
+   */
+  int check(BufferedReader reader) throws IOException {
+    out = new PrintStream(System.out, true, "UTF-8");
+    boolean singleLineBreakMarksParagraph = lt.getLanguage().getSentenceTokenizer().singleLineBreaksMarksPara();
+    StringBuilder paragraph = new StringBuilder();
+    StringBuilder line = new StringBuilder();
+    while (readLine(reader, line, windowSize)) {
+      int end = getLineEnd(line);
+      paragraph.append(line, 0, end);
+      if (singleLineBreakMarksParagraph && end == line.length() || isEmptyLine(line) || paragraph.length() >= windowSize) {
+        addParagraph(paragraph.toString());
+        paragraph.setLength(0);
+      }
+      line.delete(0, end);  // the rest of a line that has been cut
+    }
+    if (paragraph.length() > 0) {
+      addParagraph(paragraph.toString());
+    }
+    if (windowLength > contextLength) {
+      checkWindow();
+    }
+    return matchCount;
+  }
+
+  /**
+   * Like {@link BufferedReader#readLine()}, but keeps the line break so that offsets are not changed,
+   * and stops after {@code maxLength} characters. Appends to what's already in {@code line}.
+   */
+  private static boolean readLine(BufferedReader reader, StringBuilder line, int maxLength) throws IOException {
+    int c;
+    // don't stop between '\r' and '\n':
+    while ((line.length() < maxLength || line.charAt(line.length() - 1) == '\r') && (c = reader.read()) != -1) {
+      line.append((char) c);
+      if (c == '\n') {
+        return true;
+      }
+    }
+    return line.length() > 0;
+  }
+
+  /**
+   * @return where to cut the line: at its end, unless it has been cut by {@link #readLine}, then after its last whitespace
+   */
+  private int getLineEnd(CharSequence line) {
+    int length = line.length();
+    if (length < windowSize || line.charAt(length - 1) == '\n') {
+      return length;
+    }
+    for (int i = length; i > 0; i--) {
+      if (Character.isWhitespace(line.charAt(i - 1))) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  private static boolean isEmptyLine(CharSequence line) {
+    int length = line.length();
+    return length == 1 && line.charAt(0) == '\n' || length == 2 && line.charAt(0) == '\r' && line.charAt(1) == '\n';
+  }
+
+  private void addParagraph(String paragraph) throws IOException {
+    paragraphs.add(paragraph);
+    windowLength += paragraph.length();
+    if (windowLength - contextLength >= windowSize) {
+      checkWindow();
+    }
+  }
+
+  private void checkWindow() throws IOException {
+    String text = String.join("", paragraphs);
+    List<RuleMatch> ruleMatches = lt.check(new AnnotatedTextBuilder().addText(text).build(), true,
+      JLanguageTool.ParagraphHandling.NORMAL, null, JLanguageTool.Mode.ALL, level);
+    // matches in the context have already been printed for the previous window:
+    List<RuleMatch> matches = ruleMatches.stream()
+      .filter(match -> match.getFromPos() >= contextLength)
+      .collect(Collectors.toList());
+    matches.parallelStream().forEach(r -> {
+      r.setLine(r.getLine() + windowLine);
+      r.setEndLine(r.getEndLine() + windowLine);
+      // calculate lazy suggestions in parallel and cache them
+      r.getSuggestedReplacementObjects();
+    });
+    if (isJsonFormat) {
+      RuleMatchesAsJsonSerializer serializer = new RuleMatchesAsJsonSerializer();
+      serializer.setTextOffset(windowOffset);
+      out.println(serializer.ruleMatchesToJson(matches, text, CommandLineTools.DEFAULT_CONTEXT_SIZE,
+        new DetectedLanguage(lt.getLanguage(), lt.getLanguage())));
+    } else if (!matches.isEmpty()) {
+      if (matchCount > 0) {
+        System.out.println();
+      }
+      CommandLineTools.printMatches(matches, matchCount, text, CommandLineTools.DEFAULT_CONTEXT_SIZE, lt.getLanguage(), verbose);
+    }
+    matchCount += matches.size();
+    // keep the last paragraphs as the context of the next window:
+    while (windowLength > overlapSize) {
+      String paragraph = paragraphs.removeFirst();
+      windowLength -= paragraph.length();
+      windowOffset += paragraph.length();
+      windowLine += countLineBreaks(paragraph);
+    }
+    contextLength = windowLength;
+  }
+
+  private static int countLineBreaks(String s) {
+    int count = 0;
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+}
@@ -227,6 +227,29 @@ public class MainTest extends AbstractSecurityTestCase {
     assertTrue("Got: " + tagText, tagText.contains("<S> This[this/DT,B-NP-singular|E-NP-singular] is[be/VBZ,B-VP] an[a/DT,B-NP-singular] test[test/NN,E-NP-singular].[./.,</S>./PCT,O]"));
   }
 
+  @Test
+  public void testEnglishFileStreaming() throws Exception {
+    String[] args = {"-l", "en", "--stream", getTestFilePath()};
+    Main.main(args);
+    String stdout = new String(this.out.toByteArray());
+    assertTrue(stdout.contains("1.) Line 1, column 9, Rule ID: EN_A_VS_AN"));
+    assertTrue(stdout.contains("Line 3, column 16, Rule ID: ENGLISH_WORD_REPEAT_RULE"));
+    assertTrue(stdout.contains("Line 5, column 6, Rule ID: ENGLISH_WORD_REPEAT_RULE"));
+  }
+
+  @Test
+  public void testStreamingWithApplySuggestions() throws Exception {
+    String[] args = {"-l", "en", "--stream", "--apply", getTestFilePath()};
+    try {
+      Main.main(args);
+      fail("LT should have exited with status 1!");
+    } catch (ExitException e) {
+      String stderr = new String(this.err.toByteArray());
+      assertTrue(stderr.contains("--stream can only be used for checking"));
+      assertEquals("Exit status", 1, e.status);
+    }
+  }
+
   @Test
   public void testEnglishFileApplySuggestions() throws Exception {
     String[] args = {"-l", "en", "--apply", getTestFilePath()};
@@ -0,0 +1,157 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.commandline;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.TestTools;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.TextLevelRule;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParagraphStreamCheckerTest {
+
+  private static final String TEXT = "This is a sentence.\n\nThis is a sentence.\n\nOther text here.\n\nMore text.\n\nMore text.\n";
+
+  private ByteArrayOutputStream out;
+  private PrintStream stdout;
+
+  @Before
+  public void setUp() {
+    this.stdout = System.out;
+    this.out = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(this.out));
+  }
+
+  @After
+  public void tearDown() {
+    System.setOut(this.stdout);
+  }
+
+  @Test
+  public void testCheck() throws IOException {
+    JLanguageTool lt = getLanguageTool();
+    List<RuleMatch> matches = lt.check(TEXT);
+    assertEquals(2, matches.size());
+    // one paragraph per window, the context is enough to find the repeated sentences:
+    assertEquals(2, check(lt, false, 20, 40));
+    String output = new String(out.toByteArray());
+    for (int i = 0; i < matches.size(); i++) {
+      RuleMatch match = matches.get(i);
+      String expected = (i + 1) + ".) Line " + (match.getLine() + 1) + ", column " + match.getColumn() + ", Rule ID: REPEATED_SENTENCE";
+      assertTrue(output, output.contains(expected));
+    }
+    assertTrue(output, output.contains("2.) Line 9,"));
+    assertFalse(output, output.contains("3.)"));
+    out.reset();
+    // without context, text-level rules can't work across windows:
+    assertEquals(0, check(lt, false, 20, 0));
+    // everything in one window:
+    assertEquals(2, check(lt, false, 1000, 0));
+  }
+
+  @Test
+  public void testCheckJson() throws IOException {
+    assertEquals(2, check(getLanguageTool(), true, 30, 40));
+    String[] lines = new String(out.toByteArray()).split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[0], lines[0].contains("\"offset\":21,\"length\":19,\"context\":{\"text\":\"This is a sentence.  This is a sentence.  \",\"offset\":21,"));
+    assertTrue(lines[1], lines[1].contains("\"matches\":[]"));
+    assertTrue(lines[2], lines[2].contains("\"offset\":72,\"length\":10,\"context\":{\"text\":\"Other text here.  More text.  More text. \",\"offset\":30,"));
+  }
+
+  @Test
+  public void testCheckLongLine() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 10; i++) {
+      text.append("This is a sentence. ");
+    }
+    // the line is cut at whitespace, so the sentences stay complete:
+    assertEquals(9, check(getLanguageTool(), true, 42, 100, text.toString()));
+    String[] lines = new String(out.toByteArray()).split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[1], lines[1].contains("\"offset\":80,\"length\":19,"));
+  }
+
+  private int check(JLanguageTool lt, boolean isJsonFormat, int windowSize, int overlapSize) throws IOException {
+    return check(lt, isJsonFormat, windowSize, overlapSize, TEXT);
+  }
+
+  private int check(JLanguageTool lt, boolean isJsonFormat, int windowSize, int overlapSize, String text) throws IOException {
+    ParagraphStreamChecker checker = new ParagraphStreamChecker(lt, isJsonFormat, windowSize, overlapSize, JLanguageTool.Level.DEFAULT, false);
+    return checker.check(new BufferedReader(new StringReader(text)));
+  }
+
+  private JLanguageTool getLanguageTool() {
+    JLanguageTool lt = new JLanguageTool(TestTools.getDemoLanguage());
+    for (Rule rule : lt.getAllActiveRules()) {
+      lt.disableRule(rule.getId());
+    }
+    lt.addRule(new RepeatedSentenceRule());
+    return lt;
+  }
+
+  /**
+   * Finds a sentence that is the same as the sentence before it.
+   */
+  private static class RepeatedSentenceRule extends TextLevelRule {
+    @Override
+    public String getId() {
+      return "REPEATED_SENTENCE";
+    }
+    @Override
+    public String getDescription() {
+      return "Repeated sentence";
+    }
+    @Override
+    public RuleMatch[] match(List<AnalyzedSentence> sentences) {
+      List<RuleMatch> matches = new ArrayList<>();
+      String prevSentence = null;
+      int pos = 0;
+      for (AnalyzedSentence sentence : sentences) {
+        String text = sentence.getText().trim();
+        if (text.equals(prevSentence)) {
+          int fromPos = pos + sentence.getText().indexOf(text);
+          matches.add(new RuleMatch(this, sentence, fromPos, fromPos + text.length(), "Repeated sentence"));
+        }
+        prevSentence = text;
+        pos += sentence.getCorrectedTextLength();
+      }
+      return toRuleMatchArray(matches);
+    }
+    @Override
+    public int minToCheckParagraph() {
+      return -1;
+    }
+  }
+
+}
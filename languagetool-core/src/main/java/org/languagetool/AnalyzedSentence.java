@@ -40,6 +40,9 @@ public final class AnalyzedSentence {
   private final int[] whPositions;  // maps positions without whitespace to positions that include whitespaces
   private final Map<String, List<Integer>> tokenOffsets;
   private final Map<String, List<Integer>> lemmaOffsets;
+  private final MutableState mutableState;  // null unless created by mutableCopy()
+  private volatile String[] lowerCaseTokens;
+  int cacheWeight = -1;  // the estimated memory, set by ResultCache when it's first cached
 
   /**
    * Creates an AnalyzedSentence from the given {@link AnalyzedTokenReadings}. Whitespace is also a token.
@@ -59,13 +62,14 @@ public final class AnalyzedSentence {
     this.nonBlankPreDisambigTokens = getNonBlankReadings(preDisambigTokens, whCounter, nonWhCounter, mapping).toArray(new AnalyzedTokenReadings[0]);
     tokenOffsets = indexTokens(nonBlankTokens);
     lemmaOffsets = indexLemmas(nonBlankTokens);
+    mutableState = null;
   }
 
   @NotNull
   private List<AnalyzedTokenReadings> getNonBlankReadings(AnalyzedTokenReadings[] tokens, int whCounter, int nonWhCounter, int[] mapping) {
     List<AnalyzedTokenReadings> l = new ArrayList<>();
     for (AnalyzedTokenReadings token : tokens) {
-      if (!token.isWhitespace() || token.isSentenceStart() || token.isSentenceEnd() || token.isParagraphEnd()) {
+      if (isNonBlank(token)) {
         l.add(token);
         mapping[nonWhCounter] = whCounter;
         nonWhCounter++;
@@ -83,32 +87,65 @@ public final class AnalyzedSentence {
     this.nonBlankPreDisambigTokens = nonBlankPreDisambigTokens;
     tokenOffsets = indexTokens(nonBlankTokens);
     lemmaOffsets = indexLemmas(nonBlankTokens);
+    mutableState = null;
+  }
+
+  private AnalyzedSentence(AnalyzedTokenReadings[] tokens, AnalyzedTokenReadings[] preDisambigTokens, int[] mapping,
+                           AnalyzedTokenReadings[] nonBlankTokens, AnalyzedTokenReadings[] nonBlankPreDisambigTokens,
+                           Map<String, List<Integer>> tokenOffsets, Map<String, List<Integer>> lemmaOffsets,
+                           @Nullable MutableState mutableState) {
+    this.tokens = tokens;
+    this.preDisambigTokens = preDisambigTokens;
+    this.whPositions = mapping;
+    this.nonBlankTokens = nonBlankTokens;
+    this.nonBlankPreDisambigTokens = nonBlankPreDisambigTokens;
+    this.tokenOffsets = tokenOffsets;
+    this.lemmaOffsets = lemmaOffsets;
+    this.mutableState = mutableState;
   }
 
   private static Map<String, List<Integer>> indexTokens(AnalyzedTokenReadings[] tokens) {
+    return makeUnmodifiable(indexTokensMutable(tokens));
+  }
+
+  private static Map<String, List<Integer>> indexTokensMutable(AnalyzedTokenReadings[] tokens) {
     Map<String, List<Integer>> result = new HashMap<>(tokens.length);
     for (int i = 0; i < tokens.length; i++) {
-      result.computeIfAbsent(tokens[i].getToken().toLowerCase(), __ -> new ArrayList<>(1)).add(i);
+      result.computeIfAbsent(tokenKey(tokens[i]), __ -> new ArrayList<>(1)).add(i);
     }
-    return makeUnmodifiable(result);
+    return result;
   }
 
   private static Map<String, List<Integer>> indexLemmas(AnalyzedTokenReadings[] tokens) {
+    return makeUnmodifiable(indexLemmasMutable(tokens));
+  }
+
+  private static Map<String, List<Integer>> indexLemmasMutable(AnalyzedTokenReadings[] tokens) {
     Map<String, List<Integer>> result = new HashMap<>(tokens.length);
     for (int i = 0; i < tokens.length; i++) {
       AnalyzedTokenReadings tr = tokens[i];
       int readingsLength = tr.getReadingsLength();
       for (int j = 0; j < readingsLength; j++) {
-        AnalyzedToken token = tr.getAnalyzedToken(j);
-        String lemma = token.getLemma();
-        String key = (lemma != null ? lemma : token.getToken()).toLowerCase();
-        List<Integer> list = result.computeIfAbsent(key, __ -> new ArrayList<>(1));
+        List<Integer> list = result.computeIfAbsent(lemmaKey(tr.getAnalyzedToken(j)), __ -> new ArrayList<>(1));
         if (list.isEmpty() || list.get(list.size() - 1) != i) {
           list.add(i);
         }
       }
     }
-    return makeUnmodifiable(result);
+    return result;
+  }
+
+  private static String tokenKey(AnalyzedTokenReadings token) {
+    return token.getToken().toLowerCase();
+  }
+
+  private static String lemmaKey(AnalyzedToken token) {
+    String lemma = token.getLemma();
+    return (lemma != null ? lemma : token.getToken()).toLowerCase();
+  }
+
+  private static boolean isNonBlank(AnalyzedTokenReadings token) {
+    return !token.isWhitespace() || token.isSentenceStart() || token.isSentenceEnd() || token.isParagraphEnd();
   }
 
   private static Map<String, List<Integer>> makeUnmodifiable(Map<String, List<Integer>> result) {
@@ -135,6 +172,84 @@ public final class AnalyzedSentence {
     return new AnalyzedSentence(copyTokens, sentence.whPositions, sentence.getTokensWithoutWhitespace(), sentence.getPreDisambigTokensWithoutWhitespace());
   }
 
+  /**
+   * Creates a copy of this sentence whose tokens can be replaced with {@link #replaceTokens}. This is faster
+   * than creating a new sentence for each change, as the whitespace mapping and the token and lemma
+   * indexes are only updated for the replaced tokens. Once all changes are done, get an immutable
+   * sentence with {@link #freeze()}. The copy must not be used by several threads.
+   * @since 6.4
+   */
+  @ApiStatus.Internal
+  public AnalyzedSentence mutableCopy() {
+    AnalyzedTokenReadings[] nonBlank = nonBlankTokens.clone();
+    MutableState state = new MutableState(tokens.length, nonBlank);
+    for (int i = 0; i < nonBlank.length; i++) {
+      state.nonBlankIndex[whPositions[i]] = i;
+    }
+    return new AnalyzedSentence(tokens.clone(), preDisambigTokens.clone(), whPositions, nonBlank,
+      nonBlankPreDisambigTokens.clone(), indexTokensMutable(nonBlank), indexLemmasMutable(nonBlank), state);
+  }
+
+  /**
+   * Replaces the tokens of a sentence created by {@link #mutableCopy()}. The previous tokens become the
+   * {@link #getPreDisambigTokens() pre-disambiguation tokens}, as with {@code new AnalyzedSentence(newTokens, getTokens())}.
+   * @param newTokens the new tokens, including whitespace, must have the same length as {@link #getTokens()}
+   * @param changedPositions positions of tokens whose readings have been changed in-place (so the index
+   *                         can't tell from the object identity that they have been changed)
+   * @return this sentence, or a new mutable sentence if the whitespace structure has changed
+   * @since 6.4
+   */
+  @ApiStatus.Internal
+  public AnalyzedSentence replaceTokens(AnalyzedTokenReadings[] newTokens, BitSet changedPositions) {
+    MutableState state = mutableState;
+    if (state == null || state.frozen) {
+      throw new IllegalStateException("Sentence is immutable, use mutableCopy() first");
+    }
+    if (newTokens.length != tokens.length) {
+      throw new IllegalArgumentException("Expected " + tokens.length + " tokens, got " + newTokens.length);
+    }
+    for (int i = 0; i < tokens.length; i++) {
+      if (isNonBlank(tokens[i]) != isNonBlank(newTokens[i])) {
+        state.frozen = true;
+        return new AnalyzedSentence(newTokens, tokens.clone()).mutableCopy();
+      }
+    }
+    System.arraycopy(tokens, 0, preDisambigTokens, 0, tokens.length);
+    System.arraycopy(nonBlankTokens, 0, nonBlankPreDisambigTokens, 0, nonBlankTokens.length);
+    for (int i = 0; i < tokens.length; i++) {
+      AnalyzedTokenReadings token = newTokens[i];
+      if (token != tokens[i] || changedPositions.get(i)) {
+        tokens[i] = token;
+        int nonBlankIndex = state.nonBlankIndex[i];
+        if (nonBlankIndex >= 0) {
+          nonBlankTokens[nonBlankIndex] = token;
+          state.reindex(nonBlankIndex, token, tokenOffsets, lemmaOffsets);
+        }
+      }
+    }
+    text = null;
+    return this;
+  }
+
+  /**
+   * @return an immutable sentence with the tokens of this sentence created by {@link #mutableCopy()},
+   * which must not be changed anymore
+   * @since 6.4
+   */
+  @ApiStatus.Internal
+  public AnalyzedSentence freeze() {
+    MutableState state = mutableState;
+    if (state == null) {
+      return this;
+    }
+    if (state.frozen) {
+      throw new IllegalStateException("Sentence has already been frozen");
+    }
+    state.frozen = true;
+    return new AnalyzedSentence(tokens, preDisambigTokens, whPositions, nonBlankTokens, nonBlankPreDisambigTokens,
+      makeUnmodifiable(tokenOffsets), makeUnmodifiable(lemmaOffsets), null);
+  }
+
   /**
    * Returns the {@link AnalyzedTokenReadings} of the analyzed text. Whitespace
    * is also a token.
@@ -163,6 +278,27 @@ public final class AnalyzedSentence {
     return nonBlankTokens.clone();
   }
 
+  /**
+   * @return the lowercase texts of {@link #getTokensWithoutWhitespace()}, computed only once per sentence.
+   * The array must not be modified.
+   * @since 6.4
+   */
+  @ApiStatus.Internal
+  public String[] getLowerCaseTokensWithoutWhitespace() {
+    if (mutableState != null) {
+      return mutableState.tokenKeys;
+    }
+    String[] result = lowerCaseTokens;
+    if (result == null) {
+      result = new String[nonBlankTokens.length];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = tokenKey(nonBlankTokens[i]);
+      }
+      lowerCaseTokens = result;
+    }
+    return result;
+  }
+
   /**
    * @since 4.5
    */
@@ -370,4 +506,73 @@ public final class AnalyzedSentence {
     return Objects.hash(nonBlankTokens, tokens, whPositions);
   }
 
+  /**
+   * What's needed to update the token and lemma indexes of a sentence created by {@link #mutableCopy()}.
+   */
+  private static class MutableState {
+    private final int[] nonBlankIndex;  // the reverse of whPositions, -1 for whitespace
+    private final String[] tokenKeys;   // the keys each non-blank token is indexed with
+    private final String[][] lemmaKeys;
+    private boolean frozen;
+
+    MutableState(int tokenCount, AnalyzedTokenReadings[] nonBlankTokens) {
+      nonBlankIndex = new int[tokenCount];
+      Arrays.fill(nonBlankIndex, -1);
+      tokenKeys = new String[nonBlankTokens.length];
+      lemmaKeys = new String[nonBlankTokens.length][];
+      for (int i = 0; i < nonBlankTokens.length; i++) {
+        tokenKeys[i] = tokenKey(nonBlankTokens[i]);
+        lemmaKeys[i] = lemmaKeys(nonBlankTokens[i]);
+      }
+    }
+
+    private static String[] lemmaKeys(AnalyzedTokenReadings token) {
+      String[] keys = new String[token.getReadingsLength()];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = lemmaKey(token.getAnalyzedToken(i));
+      }
+      return keys;
+    }
+
+    void reindex(int index, AnalyzedTokenReadings token, Map<String, List<Integer>> tokenOffsets, Map<String, List<Integer>> lemmaOffsets) {
+      String tokenKey = tokenKey(token);
+      if (!tokenKey.equals(tokenKeys[index])) {
+        removeOffset(tokenOffsets, tokenKeys[index], index);
+        addOffset(tokenOffsets, tokenKey, index);
+        tokenKeys[index] = tokenKey;
+      }
+      String[] newLemmaKeys = lemmaKeys(token);
+      if (!Arrays.equals(newLemmaKeys, lemmaKeys[index])) {
+        for (String key : lemmaKeys[index]) {
+          removeOffset(lemmaOffsets, key, index);
+        }
+        for (String key : newLemmaKeys) {
+          addOffset(lemmaOffsets, key, index);
+        }
+        lemmaKeys[index] = newLemmaKeys;
+      }
+    }
+
+    private static void addOffset(Map<String, List<Integer>> offsets, String key, int index) {
+      List<Integer> list = offsets.computeIfAbsent(key, __ -> new ArrayList<>(1));
+      int pos = Collections.binarySearch(list, index);
+      if (pos < 0) {
+        list.add(-pos - 1, index);
+      }
+    }
+
+    private static void removeOffset(Map<String, List<Integer>> offsets, String key, int index) {
+      List<Integer> list = offsets.get(key);
+      if (list != null) {
+        int pos = Collections.binarySearch(list, index);
+        if (pos >= 0) {
+          list.remove(pos);
+          if (list.isEmpty()) {
+            offsets.remove(key);
+          }
+        }
+      }
+    }
+  }
+
 }
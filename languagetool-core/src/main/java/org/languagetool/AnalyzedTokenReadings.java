@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.languagetool.chunking.ChunkTag;
+import org.languagetool.tagging.PosTagMatcher;
 import org.languagetool.tools.StringTools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -256,8 +257,20 @@ public final class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
    * @since 2.9
    */
   public boolean matchesPosTagRegex(String posTagRegex) {
-    Pattern pattern = Pattern.compile(posTagRegex);
-    return matchesPosTagRegex(pattern);
+    return matchesPosTag(PosTagMatcher.regexp(posTagRegex));
+  }
+
+  /**
+   * Checks if at least one of the readings is matched by the given matcher.
+   * @since 6.4
+   */
+  public boolean matchesPosTag(PosTagMatcher matcher) {
+    for (AnalyzedToken reading : anTokReadings) {
+      if (matcher.matches(reading)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -289,9 +302,9 @@ public final class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
    * @since 5.5
    */
   public AnalyzedToken readingWithTagRegex(String posTagRegex) {
-    Pattern pattern = Pattern.compile(posTagRegex);
+    PosTagMatcher matcher = PosTagMatcher.regexp(posTagRegex);
     for (AnalyzedToken reading : anTokReadings) {
-      if (reading.getPOSTag() != null && pattern.matcher(reading.getPOSTag()).matches()) {
+      if (matcher.matches(reading)) {
         return reading;
       }
     }
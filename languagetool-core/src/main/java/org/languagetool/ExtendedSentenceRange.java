@@ -44,6 +44,14 @@ public final class ExtendedSentenceRange implements Comparable<ExtendedSentenceR
     this.languageConfidenceRates = new LinkedHashMap<>(languageConfidenceRates);
   }
 
+  /**
+   * Returns a copy of this range with both positions moved by {@code delta} characters.
+   * @since 6.4
+   */
+  public ExtendedSentenceRange shift(int delta) {
+    return new ExtendedSentenceRange(fromPos + delta, toPos + delta, languageConfidenceRates);
+  }
+
   public void updateLanguageConfidenceRates(@NotNull Map<String, Float> languageConfidenceRates) {
     this.languageConfidenceRates.clear();
     this.languageConfidenceRates.putAll(languageConfidenceRates);
@@ -86,6 +86,10 @@ class InputSentence {
   public String getText() {
     return text;
   }
+
+  Language getLanguage() {
+    return lang;
+  }
   
   @Override
   public boolean equals(Object o) {
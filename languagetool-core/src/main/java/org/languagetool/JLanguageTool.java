@@ -18,6 +18,8 @@
  */
 package org.languagetool;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.opentelemetry.api.common.Attributes;
 import org.apache.commons.lang3.StringUtils;
@@ -34,6 +36,7 @@ import org.languagetool.markup.TextPart;
 import org.languagetool.rules.*;
 import org.languagetool.rules.patterns.*;
 import org.languagetool.rules.spelling.SpellingCheckRule;
+import org.languagetool.tagging.Tagset;
 import org.languagetool.tools.LoggingTools;
 import org.languagetool.tools.LtThreadPoolFactory;
 import org.languagetool.tools.TelemetryProvider;
@@ -74,6 +77,8 @@ public class JLanguageTool {
 
   private static final Logger logger = LoggerFactory.getLogger(JLanguageTool.class);
   private static final Pattern ZERO_WIDTH_NBSP = Pattern.compile("(?<=\uFEFF)|(?=\uFEFF)");
+  // how many rule selections to keep the RuleSets of by default, see setRuleSelectionCacheSize():
+  private static final int DEFAULT_RULE_SELECTION_CACHE_SIZE = 4;
 
   /**
    * LanguageTool version as a string like {@code 2.3} or {@code 2.4-SNAPSHOT}.
@@ -157,6 +162,9 @@ public class JLanguageTool {
   private final Set<CategoryId> disabledRuleCategories = new HashSet<>();
   private final Set<String> enabledRules = new HashSet<>();
   private final Set<CategoryId> enabledRuleCategories = new HashSet<>();
+  // immutable copy of the four sets above, created lazily for use in cache keys:
+  private volatile RuleSelection ruleSelection;
+  private RuleSelection savedRuleSelection;
   private final Language language;
   private final List<Language> altLanguages;
   private final Language motherTongue;
@@ -449,6 +457,19 @@ public class JLanguageTool {
     this.maxErrorsPerWordRate = maxErrorsPerWordRate;
   }
 
+  /**
+   * How many different rule selections (i.e. combinations of enabled and disabled rules and categories)
+   * to keep the active rules of, so that switching between them doesn't need to set up the rules again.
+   * Also limits how many results of {@link #applyRuleSelection(Object, Runnable)} are kept.
+   * Set this to at least the number of rule selections that are used in turn. Default: 4.
+   *
+   * @since 6.4
+   */
+  public void setRuleSelectionCacheSize(int size) {
+    ruleSetCache = CacheBuilder.newBuilder().maximumSize(size).build();
+    selectionCache = CacheBuilder.newBuilder().maximumSize(size).build();
+  }
+
   /**
    * Callback to determine if result of executing {@link #check(String)} is still needed.
    */
@@ -555,7 +576,7 @@ public class JLanguageTool {
     } catch (Exception e) {
       throw new RuntimeException("Could not load language model capable rules.", e);
     }
-    ruleSetCache.clear();
+    rulesChanged();
   }
 
   /**
@@ -613,7 +634,7 @@ public class JLanguageTool {
     Function<Rule, Rule> enhanced = language.getRemoteEnhancedRules(getMessageBundle(language), remoteRuleConfigs, userConfig, motherTongue, altLanguages, inputLogging);
     transformRules(enhanced, builtinRules);
     transformRules(enhanced, userRules);
-    ruleSetCache.clear();
+    rulesChanged();
   }
 
   /**
@@ -636,6 +657,7 @@ public class JLanguageTool {
     }
     List<Rule> transformed = transformPatternRules(patternRules, language);
     userRules.addAll(transformed);
+    rulesChanged();
   }
 
   private List<Rule> transformPatternRules(List<AbstractPatternRule> patternRules, Language lang) {
@@ -660,7 +682,7 @@ public class JLanguageTool {
     throws ParserConfigurationException, SAXException, IOException {
     String falseFriendRulesFilename = JLanguageTool.getDataBroker().getRulesDir() + "/" + FALSE_FRIEND_FILE;
     userRules.addAll(loadFalseFriendRules(falseFriendRulesFilename));
-    ruleSetCache.clear();
+    rulesChanged();
   }
 
   /**
@@ -679,7 +701,7 @@ public class JLanguageTool {
    */
   public void addRule(Rule rule) {
     userRules.add(rule);
-    ruleSetCache.clear();
+    rulesChanged();
   }
 
   /**
@@ -691,7 +713,7 @@ public class JLanguageTool {
   public void disableRule(String ruleId) {
     disabledRules.add(ruleId);
     enabledRules.remove(ruleId);
-    ruleSetCache.clear();
+    ruleSelectionChanged();
   }
 
   /**
@@ -703,7 +725,7 @@ public class JLanguageTool {
   public void disableRules(List<String> ruleIds) {
     disabledRules.addAll(ruleIds);
     enabledRules.removeAll(ruleIds);
-    ruleSetCache.clear();
+    ruleSelectionChanged();
   }
 
   /**
@@ -716,7 +738,7 @@ public class JLanguageTool {
   public void disableCategory(CategoryId id) {
     disabledRuleCategories.add(id);
     enabledRuleCategories.remove(id);
-    ruleSetCache.clear();
+    ruleSelectionChanged();
   }
 
   /**
@@ -755,7 +777,7 @@ public class JLanguageTool {
   public void enableRule(String ruleId) {
     disabledRules.remove(ruleId);
     enabledRules.add(ruleId);
-    ruleSetCache.clear();
+    ruleSelectionChanged();
   }
 
   /**
@@ -768,7 +790,105 @@ public class JLanguageTool {
   public void enableRuleCategory(CategoryId id) {
     disabledRuleCategories.remove(id);
     enabledRuleCategories.add(id);
-    ruleSetCache.clear();
+    ruleSelectionChanged();
+  }
+
+  /**
+   * Remember which rules and categories are currently enabled and disabled, so that this state
+   * can be restored with {@link #restoreRuleSelection()}.
+   * @since 6.4
+   */
+  protected void saveRuleSelection() {
+    savedRuleSelection = getRuleSelection();
+  }
+
+  /**
+   * Enable and disable rules and categories as they were when {@link #saveRuleSelection()} was called.
+   * @since 6.4
+   */
+  protected void restoreRuleSelection() {
+    if (savedRuleSelection == null) {
+      throw new IllegalStateException("saveRuleSelection() needs to be called first");
+    }
+    setRuleSelection(savedRuleSelection);
+  }
+
+  /**
+   * Change the enabled and disabled rules and categories by running {@code selector}, which is skipped
+   * if it has been run for the same {@code key} before, starting from the same rule selection. In that
+   * case, its result is applied directly. Use this if making the selection is expensive (e.g. because it
+   * iterates over all rules) and repeats often, like for each request on a server.
+   *
+   * @param key identifies what {@code selector} does, needs to implement {@code equals()} and {@code hashCode()}
+   * @param selector enables and disables rules and categories of this instance
+   * @see #setRuleSelectionCacheSize(int)
+   * @since 6.4
+   */
+  protected void applyRuleSelection(Object key, Runnable selector) {
+    List<Object> cacheKey = Arrays.asList(getRuleSelection(), key);
+    RuleSelection selection = selectionCache.getIfPresent(cacheKey);
+    if (selection != null) {
+      setRuleSelection(selection);
+    } else {
+      selector.run();
+      selectionCache.put(cacheKey, getRuleSelection());
+    }
+  }
+
+  private void setRuleSelection(RuleSelection selection) {
+    if (!selection.equals(getRuleSelection())) {
+      disabledRules.clear();
+      disabledRules.addAll(selection.disabledRules);
+      disabledRuleCategories.clear();
+      disabledRuleCategories.addAll(selection.disabledRuleCategories);
+      enabledRules.clear();
+      enabledRules.addAll(selection.enabledRules);
+      enabledRuleCategories.clear();
+      enabledRuleCategories.addAll(selection.enabledRuleCategories);
+      ruleSelection = selection;
+    }
+  }
+
+  private RuleSelection getRuleSelection() {
+    RuleSelection selection = ruleSelection;
+    if (selection == null) {
+      selection = new RuleSelection(disabledRules, disabledRuleCategories, enabledRules, enabledRuleCategories);
+      ruleSelection = selection;
+    }
+    return selection;
+  }
+
+  private void ruleSelectionChanged() {
+    // the rule sets are cached per selection, so switching back and forth (as done for pooled pipelines) doesn't rebuild them
+    ruleSelection = null;
+  }
+
+  private void rulesChanged() {
+    rulesByFullId = null;
+    ruleSetCache.invalidateAll();
+    // selectors might have enabled or disabled the changed rules:
+    selectionCache.invalidateAll();
+  }
+
+  /**
+   * Find one of this instance's rules (including those of the {@link UserConfig}) by its
+   * {@link Rule#getFullId() full ID}, e.g. to restore cached matches that only store the ID.
+   * @return the rule, or {@code null} if there's no rule with that ID
+   */
+  @Nullable
+  Rule getRuleByFullId(String fullId) {
+    Map<String, Rule> rules = rulesByFullId;
+    if (rules == null) {
+      rules = new HashMap<>();
+      for (Rule rule : getAllRules()) {
+        rules.putIfAbsent(rule.getFullId(), rule);
+      }
+      for (Rule rule : userConfig.getRules()) {
+        rules.putIfAbsent(rule.getFullId(), rule);
+      }
+      rulesByFullId = rules;
+    }
+    return rules.get(fullId);
   }
 
   /**
@@ -1078,7 +1198,13 @@ public class JLanguageTool {
     return applyCustomFilters(ruleMatches, annotatedText);
   }
 
-  private final Map<LevelToneTagCacheKey, RuleSet> ruleSetCache = new ConcurrentHashMap<>();
+  // the rule sets of the most recently used rule selections:
+  private volatile Cache<RuleSelection, Map<LevelToneTagCacheKey, RuleSet>> ruleSetCache =
+    CacheBuilder.newBuilder().maximumSize(DEFAULT_RULE_SELECTION_CACHE_SIZE).build();
+  // the rule selections made by applyRuleSelection(), by the selection they started from and their key:
+  private volatile Cache<List<Object>, RuleSelection> selectionCache =
+    CacheBuilder.newBuilder().maximumSize(DEFAULT_RULE_SELECTION_CACHE_SIZE).build();
+  private volatile Map<String, Rule> rulesByFullId;
 
   static boolean isRuleActiveForLevelAndToneTags(Rule rule, Level level, Set<ToneTag> toneTags) {
 
@@ -1115,7 +1241,8 @@ public class JLanguageTool {
 
   private RuleSet getActiveRulesForLevelAndToneTags(Level level, Set<ToneTag> toneTags) {
     LevelToneTagCacheKey key = new LevelToneTagCacheKey(level, toneTags);
-    return ruleSetCache.computeIfAbsent(key, levelToneTagCacheKey -> {
+    Map<LevelToneTagCacheKey, RuleSet> ruleSets = ruleSetCache.asMap().computeIfAbsent(getRuleSelection(), selection -> new ConcurrentHashMap<>());
+    return ruleSets.computeIfAbsent(key, levelToneTagCacheKey -> {
       List<Rule> allRules = new ArrayList<>(getAllActiveRules());
       allRules.removeIf(rule -> !isRuleActiveForLevelAndToneTags(rule, level, toneTags));
       return RuleSet.textLemmaHinted(allRules);
@@ -1205,11 +1332,11 @@ public class JLanguageTool {
       }
       if (cache != null && result.isSuccess()) {
         // store in cache
+        RuleSelection selection = getRuleSelection();
         InputSentence cacheKey = new InputSentence(
-          sentence.getText(), language, motherTongue, disabledRules, disabledRuleCategories,
-          enabledRules, enabledRuleCategories, userConfig, altLanguages, mode, level, textSessionID, toneTags);
-        Map<String, List<RuleMatch>> cacheEntry = cache.getRemoteMatchesCache().get(cacheKey, HashMap::new);
-        cacheEntry.put(ruleKey, matches);
+          sentence.getText(), language, motherTongue, selection.disabledRules, selection.disabledRuleCategories,
+          selection.enabledRules, selection.enabledRuleCategories, userConfig, altLanguages, mode, level, textSessionID, toneTags);
+        cache.putRemoteMatches(cacheKey, ruleKey, matches);
       }
       // adjust rule match position
       // rules check all sentences batched, but should keep position adjustment logic out of rule
@@ -1249,8 +1376,9 @@ public class JLanguageTool {
       AnalyzedSentence s = analyzedSentences.get(i);
       matchOffset.put(i, offset);
       offset += s.getText().length();
+      RuleSelection selection = getRuleSelection();
       InputSentence cacheKey = new InputSentence(s.getText(), language, motherTongue,
-        disabledRules, disabledRuleCategories, enabledRules, enabledRuleCategories,
+        selection.disabledRules, selection.disabledRuleCategories, selection.enabledRules, selection.enabledRuleCategories,
         userConfig, altLanguages, mode, level, textSessionID, toneTags);
       cacheKeys.add(cacheKey);
     }
@@ -1265,15 +1393,7 @@ public class JLanguageTool {
           InputSentence cacheKey = cacheKeys.get(sentenceIndex);
           String ruleKey = rule.getId();
           AnalyzedSentence sentence = analyzedSentences.get(sentenceIndex);
-          Map<String, List<RuleMatch>> cacheEntry;
-          try {
-            cacheEntry = cache.getRemoteMatchesCache().get(cacheKey, HashMap::new);
-          } catch (ExecutionException e) {
-            throw new RuntimeException(e);
-          }
-          if (cacheEntry == null) {
-            throw new RuntimeException("Couldn't access remote matches cache.");
-          }
+          Map<String, List<RuleMatch>> cacheEntry = cache.getRemoteMatches(cacheKey, sentence, this::getRuleByFullId);
           List<RuleMatch> cachedMatches = cacheEntry.get(ruleKey);
           // mark for check or retrieve from cache
           if (cachedMatches == null) {
@@ -1441,7 +1561,7 @@ public class JLanguageTool {
       if (rule instanceof TextLevelRule || !checkRemoteRules && rule instanceof RemoteRule) {
         continue;
       }
-      if (checkCancelledCallback != null && checkCancelledCallback.checkCancelled()) {
+      if (isCheckCancelled()) {
         break;
       }
       RuleMatch[] thisMatches = rule.match(analyzedSentence);
@@ -1453,17 +1573,48 @@ public class JLanguageTool {
           errorRateLog.add("With rule: " + rule.getFullId() + " " + (i+1) + "/" + rulesSize + " the sentence error rate increased by: " + (errorsPerWord - tmpErrorsPerWord) + " from: " + tmpErrorsPerWord + " to total: " + errorsPerWord);
           tmpErrorsPerWord = errorsPerWord;
         }
-        if (maxErrorsPerWordRate > 0 && errorsPerWord > maxErrorsPerWordRate && wordCounter > 25) {
-          errorRateLog.forEach(e -> logger.info(LoggingTools.BAD_REQUEST, e));
-          logger.info(LoggingTools.BAD_REQUEST, "ErrorRateTooHigh is reached by a single sentence after rule: " + rule.getFullId() + ". " +
-            "The whole text contains " + wordCounter + " words " +
-            " and this sentence has " + sentenceMatches.size() + " matches.");
-          throw new ErrorRateTooHighException("ErrorRateTooHigh is reached by a single sentence after rule: " + rule.getFullId() + ". " +
-            "The whole text contains " + wordCounter + " words " +
-            "and this sentence has " + sentenceMatches.size() + " matches.");
-        }
+        checkSentenceErrorRate(sentenceMatches.size(), wordCounter, rule.getFullId(), errorRateLog);
       }
     }
+    return filterSentenceMatches(sentenceMatches, analyzedSentence);
+  }
+
+  /**
+   * @return whether the {@link CheckCancelledCallback} says that the current check has been cancelled
+   * @since 6.4
+   */
+  protected boolean isCheckCancelled() {
+    return checkCancelledCallback != null && checkCancelledCallback.checkCancelled();
+  }
+
+  /**
+   * Throw an {@link ErrorRateTooHighException} if a single sentence already has more matches
+   * than the {@link #setMaxErrorsPerWordRate(float) maximum error rate} allows for the whole text.
+   * @param sentenceMatchCount the number of matches found in the sentence so far, before filtering
+   * @param wordCounter the number of words of the whole text
+   * @param ruleId the rule that found the latest matches, for logging
+   * @param errorRateLog how the error rate increased, logged if the exception is thrown
+   * @since 6.4
+   */
+  protected void checkSentenceErrorRate(int sentenceMatchCount, int wordCounter, String ruleId, List<String> errorRateLog) {
+    float errorsPerWord = sentenceMatchCount / (float) wordCounter;
+    if (maxErrorsPerWordRate > 0 && errorsPerWord > maxErrorsPerWordRate && wordCounter > 25) {
+      errorRateLog.forEach(e -> logger.info(LoggingTools.BAD_REQUEST, e));
+      logger.info(LoggingTools.BAD_REQUEST, "ErrorRateTooHigh is reached by a single sentence after rule: " + ruleId + ". " +
+        "The whole text contains " + wordCounter + " words " +
+        " and this sentence has " + sentenceMatchCount + " matches.");
+      throw new ErrorRateTooHighException("ErrorRateTooHigh is reached by a single sentence after rule: " + ruleId + ". " +
+        "The whole text contains " + wordCounter + " words " +
+        "and this sentence has " + sentenceMatchCount + " matches.");
+    }
+  }
+
+  /**
+   * Filter the matches that all the rules together found in a single sentence,
+   * as done for every sentence before its matches are stored in the {@link ResultCache}.
+   * @since 6.4
+   */
+  protected List<RuleMatch> filterSentenceMatches(List<RuleMatch> sentenceMatches, AnalyzedSentence analyzedSentence) {
     if (sentenceMatches.isEmpty()) {
       return sentenceMatches;
     }
@@ -1477,6 +1628,33 @@ public class JLanguageTool {
     return applyCustomFilters(new SameRuleGroupFilter().filter(sentenceMatches), text);
   }
 
+  /**
+   * @return the key under which the matches of the given sentence are stored in the {@link ResultCache}
+   * @since 6.4
+   */
+  protected InputSentence getSentenceCacheKey(String sentence, Mode mode, Level level, Set<ToneTag> toneTags) {
+    RuleSelection selection = getRuleSelection();
+    return new InputSentence(sentence, language, motherTongue,
+            selection.disabledRules, selection.disabledRuleCategories,
+            selection.enabledRules, selection.enabledRuleCategories, userConfig, altLanguages, mode, level, toneTags);
+  }
+
+  /**
+   * @return the cache used for analyzed sentences and their matches, or {@code null}
+   * @since 6.4
+   */
+  @Nullable
+  protected ResultCache getCache() {
+    return cache;
+  }
+
+  /**
+   * @since 6.4
+   */
+  protected UserConfig getUserConfig() {
+    return userConfig;
+  }
+
   private boolean ignoreRule(Rule rule) {
     Category ruleCategory = rule.getCategory();
     boolean isCategoryDisabled = (disabledRuleCategories.contains(ruleCategory.getId()) || rule.getCategory().isDefaultOff())
@@ -1696,6 +1874,15 @@ public class JLanguageTool {
     if (tokenArray.length == lastToken + 1 && tokenArray[lastToken].isLinebreak()) {
       tokenArray[lastToken].setParagraphEnd();
     }
+
+    // give the readings the ids of their POS tags in the language's tagset, so that POS tag
+    // matchers that aren't specific to a language use that tagset, too (see PosTagMatcher):
+    Tagset tagset = Tagset.forLanguage(language);
+    for (int i = 0; i < toArrayCount; i++) {
+      for (AnalyzedToken reading : tokenArray[i]) {
+        reading.getPOSTagId(tagset);
+      }
+    }
     return new AnalyzedSentence(tokenArray);
   }
 
@@ -1901,11 +2088,11 @@ public class JLanguageTool {
 
   static class SentenceData {
     final AnalyzedSentence analyzed;
-    private final String text;
+    final String text;
     private final int startOffset;
     private final int startLine;
     private final int startColumn;
-    private final int wordCount;
+    final int wordCount;
 
     SentenceData(AnalyzedSentence analyzed, String text, int startOffset, int startLine, int startColumn) {
       this.analyzed = analyzed;
@@ -1927,10 +2114,36 @@ public class JLanguageTool {
     private final Mode mode;
     private final Level level;
     private final Set<ToneTag> toneTags;
+    private final boolean useCache;
+    private final List<List<RuleMatch>> precomputedMatches;
 
     TextCheckCallable(RuleSet rules, List<SentenceData> sentences,
                       ParagraphHandling paraMode, AnnotatedText annotatedText,
                       RuleMatchListener listener, Mode mode, Level level, boolean checkRemoteRules, Set<ToneTag> toneTags) {
+      this(rules, sentences, paraMode, annotatedText, listener, mode, level, checkRemoteRules, toneTags, true);
+    }
+
+    /**
+     * @param useCache whether to read and write sentence matches from/to the {@link ResultCache}, if there is one.
+     *                 Must be {@code false} if {@code rules} is only a part of the active rules, as the cache
+     *                 entries are supposed to contain the matches of all rules.
+     */
+    TextCheckCallable(RuleSet rules, List<SentenceData> sentences,
+                      ParagraphHandling paraMode, AnnotatedText annotatedText,
+                      RuleMatchListener listener, Mode mode, Level level, boolean checkRemoteRules, Set<ToneTag> toneTags,
+                      boolean useCache) {
+      this(rules, sentences, paraMode, annotatedText, listener, mode, level, checkRemoteRules, toneTags, useCache, null);
+    }
+
+    /**
+     * @param precomputedMatches the (filtered, not yet adjusted) matches of each sentence, if they have already
+     *                           been computed elsewhere, e.g. in parallel. The rules are then only run for
+     *                           sentences with a {@code null} entry.
+     */
+    TextCheckCallable(RuleSet rules, List<SentenceData> sentences,
+                      ParagraphHandling paraMode, AnnotatedText annotatedText,
+                      RuleMatchListener listener, Mode mode, Level level, boolean checkRemoteRules, Set<ToneTag> toneTags,
+                      boolean useCache, @Nullable List<List<RuleMatch>> precomputedMatches) {
       this.rules = rules;
       this.checkRemoteRules = checkRemoteRules;
       this.sentences = Objects.requireNonNull(sentences);
@@ -1940,6 +2153,8 @@ public class JLanguageTool {
       this.mode = Objects.requireNonNull(mode);
       this.level = Objects.requireNonNull(level);
       this.toneTags = toneTags;
+      this.useCache = useCache;
+      this.precomputedMatches = precomputedMatches;
     }
 
     @Override
@@ -2037,20 +2252,18 @@ public class JLanguageTool {
           //if (analyzedSentence.getText().contains("fakecrash")) {
           //  throw new RuntimeException("fake crash");
           //}
-          List<RuleMatch> sentenceMatches = null;
+          List<RuleMatch> sentenceMatches = precomputedMatches != null ? precomputedMatches.get(i) : null;
           InputSentence cacheKey = null;
-          if (cache != null) {
-            cacheKey = new InputSentence(sentence.text, language, motherTongue,
-                    disabledRules, disabledRuleCategories,
-                    enabledRules, enabledRuleCategories, userConfig, altLanguages, mode, level, toneTags);
-            sentenceMatches = cache.getIfPresent(cacheKey);
+          if (sentenceMatches == null && cache != null && useCache) {
+            cacheKey = getSentenceCacheKey(sentence.text, mode, level, toneTags);
+            sentenceMatches = cache.getIfPresent(cacheKey, sentence.analyzed, JLanguageTool.this::getRuleByFullId);
           }
           if (sentenceMatches == null) {
             List<Rule> rules = new ArrayList<>(this.rules.rulesForSentence(sentence.analyzed));
             rules.addAll(userConfig.getRules());
             sentenceMatches = checkAnalyzedSentence(paraMode, rules, sentence.analyzed, checkRemoteRules, textWordCounter);
           }
-          if (cache != null) {
+          if (cacheKey != null) {
             cache.put(cacheKey, sentenceMatches);
           }
           if (!sentenceMatches.isEmpty()) {
@@ -2137,4 +2350,39 @@ public class JLanguageTool {
     userConfig.insertConfigValues(v);
   }
 
+  /**
+   * Immutable copy of the explicitly enabled and disabled rules and categories, so that cache keys
+   * stay valid when rules get enabled or disabled later.
+   */
+  private static final class RuleSelection {
+    private final Set<String> disabledRules;
+    private final Set<CategoryId> disabledRuleCategories;
+    private final Set<String> enabledRules;
+    private final Set<CategoryId> enabledRuleCategories;
+
+    private RuleSelection(Set<String> disabledRules, Set<CategoryId> disabledRuleCategories,
+                          Set<String> enabledRules, Set<CategoryId> enabledRuleCategories) {
+      this.disabledRules = Collections.unmodifiableSet(new HashSet<>(disabledRules));
+      this.disabledRuleCategories = Collections.unmodifiableSet(new HashSet<>(disabledRuleCategories));
+      this.enabledRules = Collections.unmodifiableSet(new HashSet<>(enabledRules));
+      this.enabledRuleCategories = Collections.unmodifiableSet(new HashSet<>(enabledRuleCategories));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      RuleSelection other = (RuleSelection) o;
+      return disabledRules.equals(other.disabledRules) &&
+        disabledRuleCategories.equals(other.disabledRuleCategories) &&
+        enabledRules.equals(other.enabledRules) &&
+        enabledRuleCategories.equals(other.enabledRuleCategories);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(disabledRules, disabledRuleCategories, enabledRules, enabledRuleCategories);
+    }
+  }
+
 }
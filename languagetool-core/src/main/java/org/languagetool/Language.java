@@ -23,6 +23,9 @@ import org.jetbrains.annotations.Nullable;
 import org.languagetool.broker.ResourceDataBroker;
 import org.languagetool.chunking.Chunker;
 import org.languagetool.language.Contributor;
+import org.languagetool.languagemodel.BaseLanguageModel;
+import org.languagetool.languagemodel.CachingLanguageModel;
+import org.languagetool.languagemodel.CompactLanguageModel;
 import org.languagetool.languagemodel.LanguageModel;
 import org.languagetool.languagemodel.LuceneLanguageModel;
 import org.languagetool.markup.AnnotatedText;
@@ -194,7 +197,8 @@ public abstract class Language {
   }
 
   /**
-   * @param indexDir directory with a '3grams' sub directory which contains a Lucene index with 3gram occurrence counts
+   * @param indexDir directory with a '3grams' sub directory which contains a Lucene index with 3gram occurrence counts,
+   *                 or with files {@code 1grams.bin} etc. as used by {@link CompactLanguageModel}
    * @return a LanguageModel or {@code null} if this language doesn't support one
    * @since 2.7
    */
@@ -206,11 +210,16 @@ public abstract class Language {
   protected LanguageModel initLanguageModel(File indexDir, LanguageModel languageModel) {
     if (languageModel == null) {
       File topIndexDir = new File(indexDir, getShortCode());
-      if (topIndexDir.exists()) {
+      if (CompactLanguageModel.isCompactIndex(topIndexDir)) {
+        languageModel = new CompactLanguageModel(topIndexDir);
+      } else if (topIndexDir.exists()) {
         languageModel = new LuceneLanguageModel(topIndexDir);
       } else if (noLmWarningPrinted.compareAndSet(false, true)) {
         System.err.println("WARN: ngram index dir " + topIndexDir + " not found for " + getName());
       }
+      if (languageModel instanceof BaseLanguageModel && CachingLanguageModel.getMaxSize() > 0) {
+        languageModel = new CachingLanguageModel((BaseLanguageModel) languageModel, topIndexDir.getAbsolutePath());
+      }
     }
     return languageModel;
   }
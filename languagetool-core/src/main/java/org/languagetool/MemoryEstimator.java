@@ -0,0 +1,264 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.chunking.ChunkTag;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestedReplacement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Estimates the heap memory retained by the objects kept in a {@link ResultCache}, assuming a
+ * 64-bit JVM with compressed references. Objects referenced more than once from the same entry
+ * (e.g. the sentence of several matches) are only counted once. Objects shared with the rest of the
+ * application, like rules and languages, are not counted.
+ * @since 6.4
+ */
+final class MemoryEstimator {
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+  // a HashMap entry with its share of the table, for the token and lemma indexes of AnalyzedSentence
+  // (an entry's List<Integer> of positions is counted separately):
+  private static final int MAP_ENTRY = 40;
+  private static final int LIST_WITH_ONE_INTEGER = 64;
+  private static final int POSITION = align(OBJECT_HEADER + 2 * 4);
+  private static final int ARRAY_LIST = align(OBJECT_HEADER + 2 * 4 + REFERENCE);
+  private static final int ANALYZED_SENTENCE = shallowSize(AnalyzedSentence.class);
+  private static final int ANALYZED_TOKEN_READINGS = shallowSize(AnalyzedTokenReadings.class);
+  private static final int ANALYZED_TOKEN = shallowSize(AnalyzedToken.class);
+  private static final int CHUNK_TAG = shallowSize(ChunkTag.class);
+  private static final int RULE_MATCH = shallowSize(RuleMatch.class);
+  private static final int SUGGESTED_REPLACEMENT = shallowSize(SuggestedReplacement.class);
+  private static final int INPUT_SENTENCE = shallowSize(InputSentence.class);
+
+  private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+  private long bytes;
+
+  private MemoryEstimator() {
+  }
+
+  static int estimate(InputSentence key, List<RuleMatch> matches) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    estimator.add(key);
+    estimator.addMatches(matches);
+    return estimator.result();
+  }
+
+  static int estimate(InputSentence key, Map<String, List<RuleMatch>> matchesByRule) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    estimator.add(key);
+    estimator.bytes += align(OBJECT_HEADER + 5 * REFERENCE) + array(REFERENCE, Math.max(16, matchesByRule.size() * 2));
+    for (Map.Entry<String, List<RuleMatch>> entry : matchesByRule.entrySet()) {
+      estimator.bytes += MAP_ENTRY;
+      estimator.add(entry.getKey());
+      estimator.addMatches(entry.getValue());
+    }
+    return estimator.result();
+  }
+
+  static int estimate(SimpleInputSentence key, AnalyzedSentence sentence) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    estimator.bytes += align(OBJECT_HEADER + 2 * REFERENCE);
+    estimator.add(key.getText());
+    estimator.add(sentence);
+    return estimator.result();
+  }
+
+  /**
+   * @return the estimated retained size of the sentence, including its tokens and their readings
+   */
+  static long estimate(AnalyzedSentence sentence) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    estimator.add(sentence);
+    return estimator.bytes;
+  }
+
+  /**
+   * @return the estimated retained size of the match, including its sentence (if any) and suggestions
+   */
+  static long estimate(RuleMatch match) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    estimator.add(match);
+    return estimator.bytes;
+  }
+
+  private int result() {
+    return (int) Math.min(Integer.MAX_VALUE, bytes);
+  }
+
+  private void add(InputSentence key) {
+    bytes += INPUT_SENTENCE;
+    add(key.getText());
+  }
+
+  private void addMatches(List<RuleMatch> matches) {
+    bytes += ARRAY_LIST + array(REFERENCE, matches.size());
+    for (RuleMatch match : matches) {
+      add(match);
+    }
+  }
+
+  private void add(RuleMatch match) {
+    if (!seen.add(match)) {
+      return;
+    }
+    bytes += RULE_MATCH + 5 * POSITION;
+    add(match.getMessage());
+    add(match.getShortMessage());
+    add(match.getOriginalErrorStr());
+    addFloatMap(match.getFeatures());
+    addFloatMap(match.getNewLanguageMatches());
+    // don't trigger the computation of lazy suggestions just to weigh them:
+    if (match.isSuggestionsComputed()) {
+      List<SuggestedReplacement> suggestions = match.getSuggestedReplacementObjects();
+      bytes += ARRAY_LIST + array(REFERENCE, suggestions.size());
+      for (SuggestedReplacement suggestion : suggestions) {
+        bytes += SUGGESTED_REPLACEMENT;
+        add(suggestion.getReplacement());
+        add(suggestion.getShortDescription());
+        add(suggestion.getSuffix());
+        addFloatMap(suggestion.getFeatures());
+      }
+    }
+    if (match.getSentence() != null) {
+      add(match.getSentence());
+    }
+  }
+
+  private void add(AnalyzedSentence sentence) {
+    if (!seen.add(sentence)) {
+      return;
+    }
+    AnalyzedTokenReadings[] tokens = sentence.getTokens();
+    int nonBlankTokens = sentence.getTokensWithoutWhitespace().length;
+    bytes += ANALYZED_SENTENCE;
+    bytes += 2 * array(REFERENCE, tokens.length) + 2 * array(REFERENCE, nonBlankTokens) + array(4, nonBlankTokens);
+    // token and lemma index:
+    bytes += (long) (sentence.getTokenSet().size() + sentence.getLemmaSet().size()) * (MAP_ENTRY + LIST_WITH_ONE_INTEGER);
+    add(sentence.getText());
+    for (AnalyzedTokenReadings token : tokens) {
+      add(token);
+    }
+    for (AnalyzedTokenReadings token : sentence.getPreDisambigTokens()) {
+      add(token);
+    }
+  }
+
+  private void add(AnalyzedTokenReadings readings) {
+    if (!seen.add(readings)) {
+      return;
+    }
+    bytes += ANALYZED_TOKEN_READINGS + array(REFERENCE, readings.getReadingsLength());
+    add(readings.getToken());
+    add(readings.getCleanToken());
+    add(readings.getWhitespaceBefore());
+    add(readings.getHistoricalAnnotations());
+    for (int i = 0; i < readings.getReadingsLength(); i++) {
+      AnalyzedToken reading = readings.getAnalyzedToken(i);
+      if (seen.add(reading)) {
+        bytes += ANALYZED_TOKEN;
+        add(reading.getToken());
+        add(reading.getPOSTag());
+        add(reading.getLemma());
+      }
+    }
+    List<ChunkTag> chunkTags = readings.getChunkTags();
+    if (!chunkTags.isEmpty() && seen.add(chunkTags)) {
+      bytes += ARRAY_LIST + array(REFERENCE, chunkTags.size());
+      for (ChunkTag chunkTag : chunkTags) {
+        if (seen.add(chunkTag)) {
+          bytes += CHUNK_TAG;
+          add(chunkTag.getChunkTag());
+        }
+      }
+    }
+  }
+
+  private void addFloatMap(Map<String, Float> map) {
+    if (map.isEmpty() || !seen.add(map)) {
+      return;
+    }
+    bytes += align(OBJECT_HEADER + 6 * REFERENCE);
+    for (String key : map.keySet()) {
+      bytes += MAP_ENTRY + POSITION;  // entry and boxed Float
+      add(key);
+    }
+  }
+
+  private void add(String s) {
+    if (s == null || s.isEmpty() || !seen.add(s)) {
+      return;
+    }
+    // compact strings: one byte per character if all are Latin-1, two otherwise
+    int bytesPerChar = 1;
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) > 0xFF) {
+        bytesPerChar = 2;
+        break;
+      }
+    }
+    bytes += align(OBJECT_HEADER + REFERENCE + 8) + array(bytesPerChar, s.length());
+  }
+
+  /**
+   * @return the size of an instance of the class without the objects it refers to, from its
+   *  declared fields (and those of its superclasses), so it stays correct when fields are added
+   */
+  static int shallowSize(Class<?> clazz) {
+    int size = OBJECT_HEADER;
+    for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          size += fieldSize(field.getType());
+        }
+      }
+    }
+    return align(size);
+  }
+
+  private static int fieldSize(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return REFERENCE;
+    } else if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private static long array(int elementSize, int length) {
+    return align(ARRAY_HEADER + (long) elementSize * length);
+  }
+
+  private static int align(int size) {
+    return (size + 7) & ~7;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+}
@@ -18,14 +18,14 @@
  */
 package org.languagetool;
 
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.TextLevelRule;
 import org.languagetool.rules.patterns.RuleSet;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -43,9 +43,29 @@ import java.util.stream.IntStream;
  * <p><b>Thread-safety:</b> this class is <b>not</b> thread-safe, see the remarks at {@link JLanguageTool}.
  */
 public class MultiThreadedJLanguageTool extends JLanguageTool {
-  
+
+  /**
+   * How the work of checking the sentences is split between the threads.
+   * @since 6.4
+   */
+  public enum Scheduling {
+    /**
+     * Each task runs one rule over all the sentences it might match. This is the default.
+     */
+    RULES,
+    /**
+     * Each task runs a chunk of the rules applicable to a single sentence, on a {@link ForkJoinPool}
+     * with work stealing. Keeps all cores busy on long texts even if only a few rules are expensive.
+     */
+    SENTENCE_TILES
+  }
+
+  private static final int TILE_RULE_COUNT = 64;
+
   private final int threadPoolSize;
-  private final ExecutorService threadPool;
+  private final ForkJoinPool threadPool;
+
+  private Scheduling scheduling = Scheduling.RULES;
 
   public MultiThreadedJLanguageTool(Language language) {
     this(language, null);
@@ -91,7 +111,20 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
    */
   public MultiThreadedJLanguageTool(Language language, Language motherTongue, int threadPoolSize,
                                     GlobalConfig globalConfig, UserConfig userConfig) {
-    super(language, Collections.emptyList(), motherTongue, null, globalConfig, userConfig);
+    this(language, motherTongue, threadPoolSize, null, globalConfig, userConfig);
+  }
+
+  /**
+   * @see #shutdown()
+   * @param threadPoolSize the number of concurrent threads
+   * @param cache a cache to speed up checking if the same sentences get checked more than once,
+   *              e.g. when a document gets re-checked after an edit. Only sentences not found in
+   *              the cache are checked (in parallel). Use {@code null} to deactivate the cache.
+   * @since 6.4
+   */
+  public MultiThreadedJLanguageTool(Language language, Language motherTongue, int threadPoolSize, ResultCache cache,
+                                    GlobalConfig globalConfig, UserConfig userConfig) {
+    super(language, Collections.emptyList(), motherTongue, cache, globalConfig, userConfig);
     this.threadPoolSize = threadPoolSize <= 0 ? getDefaultThreadCount() : threadPoolSize;
     threadPool = new ForkJoinPool(this.threadPoolSize, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
   }
@@ -112,6 +145,22 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     threadPool.shutdown();
   }
 
+  /**
+   * Set how the work of checking the sentences is split between the threads. The result of
+   * the check, including the order of the matches, doesn't depend on this.
+   * @since 6.4
+   */
+  public void setScheduling(Scheduling scheduling) {
+    this.scheduling = Objects.requireNonNull(scheduling);
+  }
+
+  /**
+   * @since 6.4
+   */
+  public Scheduling getScheduling() {
+    return scheduling;
+  }
+
   private static int getDefaultThreadCount() {
     return Runtime.getRuntime().availableProcessors();
   }
@@ -172,19 +221,135 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
   protected CheckResults performCheck(List<AnalyzedSentence> analyzedSentences, List<String> sentenceTexts,
                                          RuleSet ruleSet, ParagraphHandling paraMode,
                                          AnnotatedText annotatedText, RuleMatchListener listener, Mode mode, Level level, boolean checkRemoteRules, Set<ToneTag> toneTags) {
-    List<Rule> allRules = ruleSet.allRules();
     List<SentenceData> sentences = computeSentenceData(analyzedSentences, sentenceTexts);
+    return performSentenceCheck(sentences, ruleSet, paraMode, annotatedText, listener, mode, level, toneTags);
+  }
+
+  /**
+   * Checks the sentences with the sentence-level rules in parallel (as configured with {@link #setScheduling}),
+   * skipping sentences whose matches are found in the cache, if there's one. The merged matches of each
+   * checked sentence are put into the cache. Text-level rules always need the complete text and are not cached.
+   */
+  private CheckResults performSentenceCheck(List<SentenceData> sentences, RuleSet ruleSet, ParagraphHandling paraMode,
+                                            AnnotatedText annotatedText, RuleMatchListener listener, Mode mode, Level level,
+                                            Set<ToneTag> toneTags) {
+    ResultCache cache = getCache();
+    boolean checkTextLevel = mode != Mode.ALL_BUT_TEXTLEVEL_ONLY && paraMode != ParagraphHandling.ONLYNONPARA;
+    boolean checkSentenceLevel = mode != Mode.TEXTLEVEL_ONLY && paraMode != ParagraphHandling.ONLYPARA;
+
+    List<Rule> allRules = ruleSet.allRules();
+    List<Future<CheckResults>> textLevelFutures = new ArrayList<>();
+    if (checkTextLevel) {
+      for (Rule rule : allRules) {
+        if (rule instanceof TextLevelRule) {
+          textLevelFutures.add(getExecutorService().submit(new TextCheckCallable(RuleSet.plain(Collections.singletonList(rule)), sentences,
+            paraMode, annotatedText, listener, Mode.TEXTLEVEL_ONLY, level, true, toneTags, false)));
+        }
+      }
+    }
+
+    List<List<RuleMatch>> sentenceMatches = new ArrayList<>(Collections.nCopies(sentences.size(), null));
+    if (checkSentenceLevel) {
+      InputSentence[] cacheKeys = new InputSentence[sentences.size()];
+      BitSet uncached = new BitSet();
+      for (int i = 0; i < sentences.size(); i++) {
+        if (cache != null) {
+          cacheKeys[i] = getSentenceCacheKey(sentences.get(i).text, mode, level, toneTags);
+          sentenceMatches.set(i, cache.getIfPresent(cacheKeys[i], sentences.get(i).analyzed, this::getRuleByFullId));
+        }
+        if (sentenceMatches.get(i) == null) {
+          uncached.set(i);
+        }
+      }
+      List<RuleMatch[][]> uncachedMatches = scheduling == Scheduling.SENTENCE_TILES ?
+        checkByTiles(sentences, uncached, ruleSet) : checkByRules(sentences, uncached, ruleSet);
+      // matches of a cancelled check may be incomplete, so they're not cached:
+      boolean cancelled = isCheckCancelled();
+      int textWordCount = sentences.stream().mapToInt(sentence -> sentence.wordCount).sum();
+      for (int i = uncached.nextSetBit(0), j = 0; i >= 0; i = uncached.nextSetBit(i + 1), j++) {
+        List<RuleMatch> matches = new ArrayList<>();
+        for (RuleMatch[] ruleMatches : uncachedMatches.get(j)) {
+          if (ruleMatches != null) {
+            Collections.addAll(matches, ruleMatches);
+          }
+        }
+        if (!matches.isEmpty() && textWordCount > 0) {
+          checkSentenceErrorRate(matches.size(), textWordCount, matches.get(matches.size() - 1).getRule().getFullId(), Collections.emptyList());
+        }
+        matches = filterSentenceMatches(matches, sentences.get(i).analyzed);
+        sentenceMatches.set(i, matches);
+        if (cache != null && !cancelled) {
+          cache.put(cacheKeys[i], matches);
+        }
+      }
+    }
+
+    List<RuleMatch> ruleMatches = new ArrayList<>();
+    List<Range> ignoreRanges = new ArrayList<>();
+    List<ExtendedSentenceRange> extendedSentenceRanges = new ArrayList<>();
+    try {
+      for (Future<CheckResults> future : textLevelFutures) {
+        ruleMatches.addAll(future.get().getRuleMatches());
+      }
+      if (checkSentenceLevel) {
+        // the rules have been applied already, this only adjusts the match positions to the complete text:
+        CheckResults res = new TextCheckCallable(ruleSet, sentences, paraMode, annotatedText, listener,
+          Mode.ALL_BUT_TEXTLEVEL_ONLY, level, true, toneTags, false, sentenceMatches).call();
+        ruleMatches.addAll(res.getRuleMatches());
+        ignoreRanges.addAll(res.getIgnoredRanges());
+        extendedSentenceRanges.addAll(res.getExtendedSentenceRanges());
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    sortMatches(ruleMatches, ruleSet);
+    List<RuleMatch> rm = applyCustomFilters(ruleMatches, annotatedText);
+    return new CheckResults(rm, ignoreRanges, extendedSentenceRanges);
+  }
+
+  /**
+   * Sorts the matches by position and, at the same position, by the order of their rules (user rules last).
+   * This way, the result doesn't depend on whether the work was split by rules or by sentences.
+   */
+  private void sortMatches(List<RuleMatch> matches, RuleSet ruleSet) {
+    if (matches.size() < 2) {
+      return;
+    }
+    Map<Rule, Integer> ruleOrder = new IdentityHashMap<>();
+    for (Rule rule : ruleSet.allRules()) {
+      ruleOrder.putIfAbsent(rule, ruleOrder.size());
+    }
+    for (Rule rule : getUserConfig().getRules()) {
+      ruleOrder.putIfAbsent(rule, ruleOrder.size());
+    }
+    matches.sort(Comparator.comparingInt(RuleMatch::getFromPos)
+      .thenComparingInt(match -> ruleOrder.getOrDefault(match.getRule(), Integer.MAX_VALUE)));
+  }
 
+  /**
+   * Each task takes the next rule and runs it over all the given sentences it might match.
+   * @return for each sentence in {@code sentenceIndices}, the matches per rule index (user rules last)
+   */
+  private List<RuleMatch[][]> checkByRules(List<SentenceData> sentences, BitSet sentenceIndices, RuleSet ruleSet) {
+    List<Rule> allRules = new ArrayList<>(ruleSet.allRules());
+    int builtinRuleCount = allRules.size();
+    allRules.addAll(getUserConfig().getRules());
+    // sentence index -> (rule index -> matches):
+    Map<Integer, SortedMap<Integer, RuleMatch[]>> result = new HashMap<>();
     Map<Rule, BitSet> map = new HashMap<>();
-    for (int i = 0; i < sentences.size(); i++) {
+    for (int i = sentenceIndices.nextSetBit(0); i >= 0; i = sentenceIndices.nextSetBit(i + 1)) {
+      result.put(i, Collections.synchronizedSortedMap(new TreeMap<>()));
       for (Rule rule : ruleSet.rulesForSentence(sentences.get(i).analyzed)) {
         map.computeIfAbsent(rule, __ -> new BitSet()).set(i);
       }
+      for (Rule rule : allRules.subList(builtinRuleCount, allRules.size())) {
+        map.computeIfAbsent(rule, __ -> new BitSet()).set(i);
+      }
     }
 
     AtomicInteger ruleIndex = new AtomicInteger();
-    Map<Integer, List<RuleMatch>> ruleMatches = new TreeMap<>();
-    List<Range> ignoreRanges = new ArrayList<>();
     List<Future<?>> futures = IntStream.range(0, getThreadPoolSize()).mapToObj(__ -> getExecutorService().submit(() -> {
       while (true) {
         int index = ruleIndex.getAndIncrement();
@@ -192,18 +357,12 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
 
         Rule rule = allRules.get(index);
         BitSet applicable = map.get(rule);
-        if (applicable == null) continue;
-
-        // less need for special treatment of remote rules when execution is already parallel
-        CheckResults res = new TextCheckCallable(RuleSet.plain(Collections.singletonList(rule)),
-          RuleSet.filterList(applicable, sentences),
-          paraMode, annotatedText, listener, mode, level, true, toneTags).call();
-        if (!res.getRuleMatches().isEmpty()) {
-          synchronized (ruleMatches) {
-            ruleMatches.put(index, res.getRuleMatches());
-          }
-          synchronized (ignoreRanges) {
-            ignoreRanges.addAll(res.getIgnoredRanges());
+        if (applicable == null || rule instanceof TextLevelRule) continue;
+        for (int i = applicable.nextSetBit(0); i >= 0; i = applicable.nextSetBit(i + 1)) {
+          if (isCheckCancelled()) return null;
+          RuleMatch[] matches = rule.match(sentences.get(i).analyzed);
+          if (matches.length > 0) {
+            result.get(i).put(index, matches);
           }
         }
       }
@@ -216,9 +375,94 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     } catch (InterruptedException | ExecutionException e) {
       throw new RuntimeException(e);
     }
+    return sentenceIndices.stream()
+      .mapToObj(i -> result.get(i).values().toArray(new RuleMatch[0][]))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Splits the work into tiles of one sentence and up to {@link #TILE_RULE_COUNT} of the rules applicable
+   * to it. The tiles are processed on a {@link ForkJoinPool}, so idle threads steal work from busy ones.
+   * @return for each sentence in {@code sentenceIndices}, the matches per tile (in rule order, user rules last)
+   */
+  private List<RuleMatch[][]> checkByTiles(List<SentenceData> sentences, BitSet sentenceIndices, RuleSet ruleSet) {
+    List<Rule> userRules = getUserConfig().getRules();
+    List<Tile> tiles = new ArrayList<>();
+    List<RuleMatch[][]> result = new ArrayList<>();
+    for (int i = sentenceIndices.nextSetBit(0); i >= 0; i = sentenceIndices.nextSetBit(i + 1)) {
+      AnalyzedSentence sentence = sentences.get(i).analyzed;
+      List<Rule> rules = new ArrayList<>(ruleSet.rulesForSentence(sentence));
+      rules.addAll(userRules);
+      rules.removeIf(rule -> rule instanceof TextLevelRule);
+      int tileCount = (rules.size() + TILE_RULE_COUNT - 1) / TILE_RULE_COUNT;
+      RuleMatch[][] sentenceResult = new RuleMatch[tileCount][];
+      for (int t = 0; t < tileCount; t++) {
+        tiles.add(new Tile(sentence, rules.subList(t * TILE_RULE_COUNT, Math.min(rules.size(), (t + 1) * TILE_RULE_COUNT)), sentenceResult, t));
+      }
+      result.add(sentenceResult);
+    }
+    if (!tiles.isEmpty()) {
+      getForkJoinPool().invoke(new TileTask(tiles, 0, tiles.size()));
+    }
+    return result;
+  }
+
+  private ForkJoinPool getForkJoinPool() {
+    ExecutorService executorService = getExecutorService();
+    return executorService instanceof ForkJoinPool ? (ForkJoinPool) executorService : threadPool;
+  }
+
+  private class Tile {
+    private final AnalyzedSentence sentence;
+    private final List<Rule> rules;
+    private final RuleMatch[][] result;
+    private final int resultIndex;
+
+    private Tile(AnalyzedSentence sentence, List<Rule> rules, RuleMatch[][] result, int resultIndex) {
+      this.sentence = sentence;
+      this.rules = rules;
+      this.result = result;
+      this.resultIndex = resultIndex;
+    }
 
-    List<RuleMatch> rm = applyCustomFilters(Lists.newArrayList(Iterables.concat(ruleMatches.values())), annotatedText);
-    return new CheckResults(rm, ignoreRanges);
+    private void run() throws IOException {
+      List<RuleMatch> matches = new ArrayList<>();
+      for (Rule rule : rules) {
+        if (isCheckCancelled()) {
+          break;
+        }
+        Collections.addAll(matches, rule.match(sentence));
+      }
+      if (!matches.isEmpty()) {
+        result[resultIndex] = matches.toArray(new RuleMatch[0]);
+      }
+    }
+  }
+
+  private static class TileTask extends RecursiveAction {
+    private final List<Tile> tiles;
+    private final int from;
+    private final int to;
+
+    private TileTask(List<Tile> tiles, int from, int to) {
+      this.tiles = tiles;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        try {
+          tiles.get(from).run();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      } else {
+        int mid = (from + to) >>> 1;
+        invokeAll(new TileTask(tiles, from, mid), new TileTask(tiles, mid, to));
+      }
+    }
   }
 
   private class AnalyzeSentenceCallable implements Callable<AnalyzedSentence> {
@@ -0,0 +1,193 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A byte-bounded LRU store for serialized values, kept in direct memory outside the Java heap.
+ * The memory is allocated once and divided into blocks of {@link #BLOCK_SIZE} bytes, a value
+ * occupies as many blocks as it needs. Only the index (keys and block numbers) lives on the heap.
+ * @since 6.4
+ */
+final class OffHeapStore<K> {
+
+  static final int BLOCK_SIZE = 256;
+  private static final int MAX_SLAB_SIZE = 1 << 30;
+
+  private final ByteBuffer[] slabs;
+  private final int blocksPerSlab;
+  private final int blockCount;
+  private final long expireAfterNanos;
+  private final IntArrayList freeBlocks;
+  // in access order, i.e. the least recently used entry comes first:
+  private final LinkedHashMap<K, Entry> index = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long usedBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * @param capacityBytes maximum memory to use for the values
+   * @param expireAfterNanos time after which values are considered outdated, counted from when they were stored
+   */
+  OffHeapStore(long capacityBytes, long expireAfterNanos) {
+    if (capacityBytes < BLOCK_SIZE) {
+      throw new IllegalArgumentException("capacityBytes must be >= " + BLOCK_SIZE + ": " + capacityBytes);
+    }
+    long blocks = capacityBytes / BLOCK_SIZE;
+    if (blocks > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("capacityBytes too large: " + capacityBytes);
+    }
+    blockCount = (int) blocks;
+    blocksPerSlab = MAX_SLAB_SIZE / BLOCK_SIZE;
+    slabs = new ByteBuffer[(blockCount + blocksPerSlab - 1) / blocksPerSlab];
+    for (int i = 0; i < slabs.length; i++) {
+      int slabBlocks = Math.min(blocksPerSlab, blockCount - i * blocksPerSlab);
+      slabs[i] = ByteBuffer.allocateDirect(slabBlocks * BLOCK_SIZE);
+    }
+    freeBlocks = new IntArrayList(blockCount);
+    for (int i = blockCount - 1; i >= 0; i--) {
+      freeBlocks.add(i);
+    }
+    this.expireAfterNanos = expireAfterNanos;
+  }
+
+  /**
+   * Store the value, evicting the least recently used values if needed. Values larger than
+   * the whole store are ignored.
+   */
+  synchronized void put(K key, byte[] value) {
+    free(index.remove(key));
+    int neededBlocks = (value.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    if (neededBlocks > blockCount) {
+      return;
+    }
+    Iterator<Entry> lru = index.values().iterator();
+    while (freeBlocks.size() < neededBlocks) {
+      Entry eldest = lru.next();
+      lru.remove();
+      free(eldest);
+      evictionCount++;
+    }
+    int[] blocks = new int[neededBlocks];
+    for (int i = 0; i < neededBlocks; i++) {
+      blocks[i] = freeBlocks.popInt();
+      int offset = i * BLOCK_SIZE;
+      write(blocks[i], value, offset, Math.min(BLOCK_SIZE, value.length - offset));
+    }
+    index.put(key, new Entry(blocks, value.length, System.nanoTime()));
+    usedBytes += value.length;
+  }
+
+  /**
+   * Remove the value and return it, e.g. to move it to a faster cache.
+   * @return the value or {@code null} if there's none or if it has expired
+   */
+  @Nullable
+  synchronized byte[] remove(K key) {
+    Entry entry = index.remove(key);
+    if (entry == null || System.nanoTime() - entry.createdNanos > expireAfterNanos) {
+      free(entry);
+      missCount++;
+      return null;
+    }
+    byte[] value = new byte[entry.length];
+    for (int i = 0; i < entry.blocks.length; i++) {
+      int offset = i * BLOCK_SIZE;
+      read(entry.blocks[i], value, offset, Math.min(BLOCK_SIZE, value.length - offset));
+    }
+    free(entry);
+    hitCount++;
+    return value;
+  }
+
+  synchronized void invalidateAll() {
+    for (Entry entry : index.values()) {
+      free(entry);
+    }
+    index.clear();
+  }
+
+  synchronized long size() {
+    return index.size();
+  }
+
+  /**
+   * @return the number of bytes used by the stored values (not including the unused rest of their last block)
+   */
+  synchronized long usedBytes() {
+    return usedBytes;
+  }
+
+  long capacityBytes() {
+    return (long) blockCount * BLOCK_SIZE;
+  }
+
+  synchronized long hitCount() {
+    return hitCount;
+  }
+
+  synchronized long missCount() {
+    return missCount;
+  }
+
+  synchronized long evictionCount() {
+    return evictionCount;
+  }
+
+  private void free(@Nullable Entry entry) {
+    if (entry != null) {
+      for (int block : entry.blocks) {
+        freeBlocks.add(block);
+      }
+      usedBytes -= entry.length;
+    }
+  }
+
+  private void write(int block, byte[] src, int offset, int length) {
+    ByteBuffer slab = slabs[block / blocksPerSlab];
+    ((Buffer) slab).position((block % blocksPerSlab) * BLOCK_SIZE);
+    slab.put(src, offset, length);
+  }
+
+  private void read(int block, byte[] dest, int offset, int length) {
+    ByteBuffer slab = slabs[block / blocksPerSlab];
+    ((Buffer) slab).position((block % blocksPerSlab) * BLOCK_SIZE);
+    slab.get(dest, offset, length);
+  }
+
+  private static class Entry {
+    private final int[] blocks;
+    private final int length;
+    private final long createdNanos;
+    private Entry(int[] blocks, int length, long createdNanos) {
+      this.blocks = blocks;
+      this.length = length;
+      this.createdNanos = createdNanos;
+    }
+  }
+}
@@ -20,13 +20,17 @@ package org.languagetool;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.Weigher;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * A cache to speed up text checking for use cases where sentences are checked more than once. This
@@ -37,6 +41,11 @@ import java.util.concurrent.TimeUnit;
  * Using a cache with bitext rules isn't supported either.
  * It is okay however, to use the same cache for {@link JLanguageTool} objects with different languages, as
  * cached results are not used for a different language.
+ * <p>Optionally, rule matches evicted from the cache because of its size are moved to a second,
+ * larger level outside the Java heap, where they're stored in serialized form. They're moved back
+ * when they're requested again with {@link #getIfPresent(InputSentence, AnalyzedSentence, Function)} or
+ * {@link #getRemoteMatches(InputSentence, AnalyzedSentence, Function)}. Matches whose lazy suggestions
+ * haven't been computed yet are not moved but dropped.
  * @since 3.7
  */
 public class ResultCache {
@@ -49,6 +58,20 @@ public class ResultCache {
   private final Cache<InputSentence, List<RuleMatch>> matchesCache;
   private final Cache<SimpleInputSentence, AnalyzedSentence> sentenceCache;
 
+  @Nullable
+  private final OffHeapStore<InputSentence> offHeapMatches;
+  @Nullable
+  private final OffHeapStore<InputSentence> offHeapRemoteMatches;
+  private final RuleMatchCodec codec = new RuleMatchCodec();
+
+  // the estimated memory of the entries, only used if the size is limited by memory:
+  @Nullable
+  private final AtomicLong matchesBytes;
+  @Nullable
+  private final AtomicLong remoteMatchesBytes;
+  @Nullable
+  private final AtomicLong sentenceBytes;
+
   /**
    * Create a cache that expires items 5 minutes after the latest read access.
    * @param maxSize maximum cache size in number of sentences
@@ -62,26 +85,155 @@ public class ResultCache {
    * @param expireAfter time to expire sentences from the cache after last read access 
    */
   public ResultCache(long maxSize, long expireAfter, TimeUnit timeUnit) {
+    this(maxSize, expireAfter, timeUnit, 0);
+  }
+
+  /**
+   * @param maxSize maximum cache size in number of sentences
+   * @param expireAfter time to expire sentences from the cache after last read access
+   * @param offHeapBytes memory to use outside the Java heap for rule matches evicted from the cache,
+   *                     or {@code 0} to not keep evicted matches. Half of it is used for the matches of
+   *                     remote rules. The memory is allocated immediately.
+   * @since 6.4
+   */
+  public ResultCache(long maxSize, long expireAfter, TimeUnit timeUnit, long offHeapBytes) {
+    this(maxSize, false, expireAfter, timeUnit, offHeapBytes);
+  }
+
+  /**
+   * Create a cache whose size is limited by the estimated heap memory of its entries, which is
+   * safer than a limit by number of sentences, as the memory needed by a sentence varies a lot.
+   * 40% of {@code maxBytes} are used for analyzed sentences, 40% for rule matches (including the
+   * analyzed sentences they refer to) and 20% for matches of remote rules.
+   * @param expireAfter time to expire sentences from the cache after last read access
+   * @param offHeapBytes see {@link #ResultCache(long, long, TimeUnit, long)}
+   * @since 6.4
+   */
+  public static ResultCache withMaxBytes(long maxBytes, long expireAfter, TimeUnit timeUnit, long offHeapBytes) {
+    return new ResultCache(maxBytes, true, expireAfter, timeUnit, offHeapBytes);
+  }
+
+  private ResultCache(long maxSize, boolean sizeInBytes, long expireAfter, TimeUnit timeUnit, long offHeapBytes) {
     if (maxSize < 0) {
       throw new IllegalArgumentException("Result cache size must be >= 0: " + maxSize);
     }
+    if (offHeapBytes < 0) {
+      throw new IllegalArgumentException("Off-heap result cache size must be >= 0: " + offHeapBytes);
+    }
+    if (offHeapBytes > 0) {
+      long expireAfterNanos = timeUnit.toNanos(expireAfter);
+      offHeapMatches = new OffHeapStore<>(offHeapBytes / 2, expireAfterNanos);
+      offHeapRemoteMatches = new OffHeapStore<>(offHeapBytes / 2, expireAfterNanos);
+    } else {
+      offHeapMatches = null;
+      offHeapRemoteMatches = null;
+    }
+    // a value's estimate is stored with it, so the same amount is subtracted when it's removed,
+    // even if it has been modified in the meantime (e.g. a PARA_END reading added to a sentence):
+    Weigher<InputSentence, List<RuleMatch>> matchesEstimator = (key, value) -> {
+      if (!(value instanceof WeighedMatches)) {
+        return MemoryEstimator.estimate(key, value);
+      }
+      WeighedMatches matches = (WeighedMatches) value;
+      if (matches.weight < 0) {
+        matches.weight = MemoryEstimator.estimate(key, value);
+      }
+      return matches.weight;
+    };
+    Weigher<InputSentence, Map<String, List<RuleMatch>>> remoteMatchesEstimator = (key, value) -> {
+      if (!(value instanceof WeighedRemoteMatches)) {
+        return MemoryEstimator.estimate(key, value);
+      }
+      WeighedRemoteMatches matches = (WeighedRemoteMatches) value;
+      if (matches.weight < 0) {
+        matches.weight = MemoryEstimator.estimate(key, value);
+      }
+      return matches.weight;
+    };
+    Weigher<SimpleInputSentence, AnalyzedSentence> sentenceEstimator = (key, sentence) -> {
+      if (sentence.cacheWeight < 0) {
+        sentence.cacheWeight = MemoryEstimator.estimate(key, sentence);
+      }
+      return sentence.cacheWeight;
+    };
+    matchesBytes = sizeInBytes ? new AtomicLong() : null;
+    remoteMatchesBytes = sizeInBytes ? new AtomicLong() : null;
+    sentenceBytes = sizeInBytes ? new AtomicLong() : null;
     matchesCache = CacheBuilder.newBuilder().
-            maximumWeight(maxSize/2).weigher(new MatchesWeigher()).
+            maximumWeight(sizeInBytes ? maxSize / 5 * 2 : maxSize/2).
+            weigher(sizeInBytes ? adding(matchesBytes, matchesEstimator) : new MatchesWeigher()).
             recordStats().
             expireAfterAccess(expireAfter, timeUnit).
+            <InputSentence, List<RuleMatch>>removalListener(notification -> {
+              InputSentence key = notification.getKey();
+              if (matchesBytes != null) {
+                matchesBytes.addAndGet(-matchesEstimator.weigh(key, notification.getValue()));
+              }
+              // matches with lazy suggestions are dropped, computing them here would slow down the evicting request:
+              if (offHeapMatches != null && notification.getCause() == RemovalCause.SIZE &&
+                  RuleMatchCodec.canEncode(notification.getValue())) {
+                offHeapMatches.put(key, codec.encodeMatches(notification.getValue()));
+              }
+            }).
             build();
     remoteMatchesCache = CacheBuilder.newBuilder().
-            maximumWeight(maxSize/2).weigher(new RemoteMatchesWeigher()).
+            maximumWeight(sizeInBytes ? maxSize / 5 : maxSize/2).
+            weigher(sizeInBytes ? adding(remoteMatchesBytes, remoteMatchesEstimator) : new RemoteMatchesWeigher()).
             recordStats().
             expireAfterAccess(expireAfter, timeUnit).
+            <InputSentence, Map<String, List<RuleMatch>>>removalListener(notification -> {
+              InputSentence key = notification.getKey();
+              if (remoteMatchesBytes != null) {
+                remoteMatchesBytes.addAndGet(-remoteMatchesEstimator.weigh(key, notification.getValue()));
+              }
+              if (offHeapRemoteMatches != null && notification.getCause() == RemovalCause.SIZE &&
+                  notification.getValue().values().stream().allMatch(RuleMatchCodec::canEncode)) {
+                offHeapRemoteMatches.put(key, codec.encodeRemoteMatches(notification.getValue()));
+              }
+            }).
             build();
     sentenceCache = CacheBuilder.newBuilder().
-            maximumWeight(maxSize/2).weigher(new SentenceWeigher()).
+            maximumWeight(sizeInBytes ? maxSize / 5 * 2 : maxSize/2).
+            weigher(sizeInBytes ? adding(sentenceBytes, sentenceEstimator) : new SentenceWeigher()).
             recordStats().
             expireAfterAccess(expireAfter, timeUnit).
+            <SimpleInputSentence, AnalyzedSentence>removalListener(notification -> {
+              if (sentenceBytes != null) {
+                sentenceBytes.addAndGet(-sentenceEstimator.weigh(notification.getKey(), notification.getValue()));
+              }
+            }).
             build();
   }
+
+  /**
+   * Adds the estimate of each inserted entry to {@code total}, the removal listeners subtract it again.
+   */
+  private static <K, V> Weigher<K, V> adding(AtomicLong total, Weigher<K, V> estimator) {
+    return (key, value) -> {
+      int weight = estimator.weigh(key, value);
+      total.addAndGet(weight);
+      return weight;
+    };
+  }
   
+  /**
+   * The cached matches of a sentence, with their estimated memory.
+   */
+  private static final class WeighedMatches extends ArrayList<RuleMatch> {
+    private int weight = -1;
+
+    WeighedMatches(Collection<RuleMatch> matches) {
+      super(matches);
+    }
+  }
+
+  /**
+   * The cached matches of a sentence by remote rule, with their estimated memory.
+   */
+  private static final class WeighedRemoteMatches extends HashMap<String, List<RuleMatch>> {
+    private int weight = -1;
+  }
+
   static class MatchesWeigher implements Weigher<InputSentence, List<RuleMatch>> {
     @Override
     public int weigh(InputSentence sentence, List<RuleMatch> matches) {
@@ -123,12 +275,83 @@ public class ResultCache {
     return matchesCache.getIfPresent(key);
   }
 
+  /**
+   * Like {@link #getIfPresent(InputSentence)}, but also considers the matches that have been
+   * moved out of the Java heap, which are then moved back.
+   * @param sentence the sentence the matches refer to, as it's not stored outside the heap
+   * @param ruleLookup finds the caller's rule by its {@link Rule#getFullId() full ID}, as rules aren't stored outside the heap
+   * @since 6.4
+   */
+  @Nullable
+  public List<RuleMatch> getIfPresent(InputSentence key, AnalyzedSentence sentence, Function<String, Rule> ruleLookup) {
+    List<RuleMatch> matches = matchesCache.getIfPresent(key);
+    if (matches == null && offHeapMatches != null) {
+      byte[] data = offHeapMatches.remove(key);
+      if (data != null) {
+        matches = codec.decodeMatches(data, sentence, ruleLookup);
+        if (matches != null) {
+          matches = weighed(matches);
+          matchesCache.put(key, matches);
+        }
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Get the cached matches of remote rules by rule ID, including those that have been moved out of the
+   * Java heap (which are then moved back).
+   * @param sentence the sentence the matches refer to, as it's not stored outside the heap
+   * @param ruleLookup finds the caller's rule by its {@link Rule#getFullId() full ID}, as rules aren't stored outside the heap
+   * @return an unmodifiable map, empty if nothing is cached for the sentence
+   * @since 6.4
+   */
+  public Map<String, List<RuleMatch>> getRemoteMatches(InputSentence key, AnalyzedSentence sentence, Function<String, Rule> ruleLookup) {
+    Map<String, List<RuleMatch>> matches = remoteMatchesCache.getIfPresent(key);
+    if (matches == null && offHeapRemoteMatches != null) {
+      byte[] data = offHeapRemoteMatches.remove(key);
+      if (data != null) {
+        matches = codec.decodeRemoteMatches(data, sentence, ruleLookup);
+        if (matches != null) {
+          if (remoteMatchesBytes != null) {
+            Map<String, List<RuleMatch>> weighed = new WeighedRemoteMatches();
+            weighed.putAll(matches);
+            matches = weighed;
+          }
+          remoteMatchesCache.put(key, matches);
+        }
+      }
+    }
+    return matches != null ? Collections.unmodifiableMap(matches) : Collections.emptyMap();
+  }
+
+  /**
+   * Add the matches of one remote rule to the cached remote matches of a sentence.
+   * @since 6.4
+   */
+  public void putRemoteMatches(InputSentence key, String ruleKey, List<RuleMatch> matches) {
+    // replace the map instead of modifying it, so it's weighed again:
+    remoteMatchesCache.asMap().compute(key, (k, oldMatches) -> {
+      Map<String, List<RuleMatch>> newMatches = remoteMatchesBytes != null ? new WeighedRemoteMatches() : new HashMap<>();
+      if (oldMatches != null) {
+        newMatches.putAll(oldMatches);
+      }
+      newMatches.put(ruleKey, matches);
+      return newMatches;
+    });
+  }
+
   public AnalyzedSentence getIfPresent(SimpleInputSentence key) {
     return sentenceCache.getIfPresent(key);
   }
 
   public void put(InputSentence key, List<RuleMatch> sentenceMatches) {
-    matchesCache.put(key, sentenceMatches);
+    matchesCache.put(key, weighed(sentenceMatches));
+  }
+
+  private List<RuleMatch> weighed(List<RuleMatch> matches) {
+    // a cache hit that's put again is already a WeighedMatches:
+    return matchesBytes == null || matches instanceof WeighedMatches ? matches : new WeighedMatches(matches);
   }
 
   public void put(SimpleInputSentence key, AnalyzedSentence aSentence) {
@@ -149,4 +372,63 @@ public class ResultCache {
   public Cache<SimpleInputSentence, AnalyzedSentence> getSentenceCache() {
     return sentenceCache;
   }
+
+  /**
+   * @return the estimated heap memory used by the entries of {@link #getMatchesCache()}, in bytes,
+   *  or {@code 0} if the cache size isn't {@link #withMaxBytes limited by memory}
+   * @since 6.4
+   */
+  public long getMatchesCacheBytes() {
+    return matchesBytes != null ? matchesBytes.get() : 0;
+  }
+
+  /**
+   * @return the estimated heap memory used by the entries of {@link #getRemoteMatchesCache()}, in bytes,
+   *  or {@code 0} if the cache size isn't {@link #withMaxBytes limited by memory}
+   * @since 6.4
+   */
+  public long getRemoteMatchesCacheBytes() {
+    return remoteMatchesBytes != null ? remoteMatchesBytes.get() : 0;
+  }
+
+  /**
+   * @return the estimated heap memory used by the entries of {@link #getSentenceCache()}, in bytes,
+   *  or {@code 0} if the cache size isn't {@link #withMaxBytes limited by memory}
+   * @since 6.4
+   */
+  public long getSentenceCacheBytes() {
+    return sentenceBytes != null ? sentenceBytes.get() : 0;
+  }
+
+  /**
+   * @return the number of sentences whose (local or remote) matches are stored outside the Java heap
+   * @since 6.4
+   */
+  public long offHeapSize() {
+    return offHeapMatches != null ? offHeapMatches.size() + offHeapRemoteMatches.size() : 0;
+  }
+
+  /**
+   * @return the number of bytes used outside the Java heap for serialized matches
+   * @since 6.4
+   */
+  public long offHeapUsedBytes() {
+    return offHeapMatches != null ? offHeapMatches.usedBytes() + offHeapRemoteMatches.usedBytes() : 0;
+  }
+
+  /**
+   * @return how often matches not found in the on-heap cache were found outside the heap
+   * @since 6.4
+   */
+  public long offHeapHitCount() {
+    return offHeapMatches != null ? offHeapMatches.hitCount() + offHeapRemoteMatches.hitCount() : 0;
+  }
+
+  /**
+   * @return how often matches were found neither in the on-heap cache nor outside the heap
+   * @since 6.4
+   */
+  public long offHeapMissCount() {
+    return offHeapMatches != null ? offHeapMatches.missCount() + offHeapRemoteMatches.missCount() : 0;
+  }
 }
@@ -0,0 +1,253 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestedReplacement;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Converts the cached rule matches of a sentence to bytes and back, for {@link OffHeapStore}.
+ * Instead of the {@link Rule}, only its full ID is written. When reading, the rule object is looked up
+ * in the rules of the {@link JLanguageTool} that requests the matches, so restored matches never refer to
+ * the rules (and user configuration) of another instance. The sentence isn't written either but
+ * must be provided when reading.
+ * @since 6.4
+ */
+final class RuleMatchCodec {
+
+  private static final byte VERSION = 1;
+
+  private static final RuleMatch.Type[] MATCH_TYPES = RuleMatch.Type.values();
+  private static final SuggestedReplacement.SuggestionType[] SUGGESTION_TYPES = SuggestedReplacement.SuggestionType.values();
+
+  /**
+   * @return whether the matches can be written without computing their suggestions, as
+   *  {@link #encodeMatches(List)} would otherwise compute lazy suggestions
+   */
+  static boolean canEncode(List<RuleMatch> matches) {
+    for (RuleMatch match : matches) {
+      if (!match.isSuggestionsComputed()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  byte[] encodeMatches(List<RuleMatch> matches) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      writeMatches(out, matches);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  byte[] encodeRemoteMatches(Map<String, List<RuleMatch>> matchesByRule) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeInt(matchesByRule.size());
+      for (Map.Entry<String, List<RuleMatch>> entry : matchesByRule.entrySet()) {
+        writeString(out, entry.getKey());
+        writeMatches(out, entry.getValue());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @param ruleLookup finds a rule by its full ID, returns {@code null} if there's no such rule
+   * @return the matches, or {@code null} if they can't be restored (e.g. because they were written by an older version
+   *  or refer to a rule that {@code ruleLookup} doesn't know)
+   */
+  @Nullable
+  List<RuleMatch> decodeMatches(byte[] data, @Nullable AnalyzedSentence sentence, Function<String, Rule> ruleLookup) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      if (in.readByte() != VERSION) {
+        return null;
+      }
+      return readMatches(in, sentence, ruleLookup);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return the matches by remote rule ID, or {@code null} if they can't be restored
+   */
+  @Nullable
+  Map<String, List<RuleMatch>> decodeRemoteMatches(byte[] data, @Nullable AnalyzedSentence sentence, Function<String, Rule> ruleLookup) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      if (in.readByte() != VERSION) {
+        return null;
+      }
+      int size = in.readInt();
+      Map<String, List<RuleMatch>> result = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        String ruleKey = readString(in);
+        List<RuleMatch> matches = readMatches(in, sentence, ruleLookup);
+        if (matches == null) {
+          return null;
+        }
+        result.put(ruleKey, matches);
+      }
+      return result;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeMatches(DataOutputStream out, List<RuleMatch> matches) throws IOException {
+    out.writeInt(matches.size());
+    for (RuleMatch match : matches) {
+      writeString(out, match.getRule().getFullId());
+      writeString(out, match.getMessage());
+      writeNullableString(out, match.getShortMessage());
+      out.writeInt(match.getFromPos());
+      out.writeInt(match.getToPos());
+      out.writeInt(match.getPatternFromPos());
+      out.writeInt(match.getPatternToPos());
+      out.writeInt(match.getFromPosSentence());
+      out.writeInt(match.getToPosSentence());
+      out.writeInt(match.getLine());
+      out.writeInt(match.getEndLine());
+      out.writeInt(match.getColumn());
+      out.writeInt(match.getEndColumn());
+      writeNullableString(out, match.getUrl() != null ? match.getUrl().toString() : null);
+      out.writeByte(match.getType().ordinal());
+      out.writeBoolean(match.isAutoCorrect());
+      writeFloatMap(out, match.getFeatures());
+      writeFloatMap(out, match.getNewLanguageMatches());
+      writeString(out, match.getSpecificRuleId());
+      writeString(out, match.getOriginalErrorStr());
+      List<SuggestedReplacement> suggestions = match.getSuggestedReplacementObjects();
+      out.writeInt(suggestions.size());
+      for (SuggestedReplacement suggestion : suggestions) {
+        writeString(out, suggestion.getReplacement());
+        writeNullableString(out, suggestion.getShortDescription());
+        writeNullableString(out, suggestion.getSuffix());
+        out.writeBoolean(suggestion.getConfidence() != null);
+        if (suggestion.getConfidence() != null) {
+          out.writeFloat(suggestion.getConfidence());
+        }
+        out.writeByte(suggestion.getType().ordinal());
+        writeFloatMap(out, suggestion.getFeatures());
+      }
+    }
+  }
+
+  @Nullable
+  private List<RuleMatch> readMatches(DataInputStream in, @Nullable AnalyzedSentence sentence, Function<String, Rule> ruleLookup) throws IOException {
+    int size = in.readInt();
+    List<RuleMatch> matches = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Rule rule = ruleLookup.apply(readString(in));
+      if (rule == null) {
+        return null;
+      }
+      String message = readString(in);
+      String shortMessage = readNullableString(in);
+      int fromPos = in.readInt();
+      int toPos = in.readInt();
+      int patternFromPos = in.readInt();
+      int patternToPos = in.readInt();
+      RuleMatch match = new RuleMatch(rule, sentence, fromPos, toPos, patternFromPos, patternToPos, message, shortMessage);
+      match.setSentencePosition(in.readInt(), in.readInt());
+      match.setLine(in.readInt());
+      match.setEndLine(in.readInt());
+      match.setColumn(in.readInt());
+      match.setEndColumn(in.readInt());
+      String url = readNullableString(in);
+      match.setUrl(url != null ? new URL(url) : null);
+      match.setType(MATCH_TYPES[in.readByte()]);
+      match.setAutoCorrect(in.readBoolean());
+      match.setFeatures(readFloatMap(in, new TreeMap<>()));
+      match.setNewLanguageMatches(readFloatMap(in, new LinkedHashMap<>()));
+      match.setSpecificRuleId(readString(in));
+      match.setOriginalErrorStr(readString(in));
+      int suggestionCount = in.readInt();
+      List<SuggestedReplacement> suggestions = new ArrayList<>(suggestionCount);
+      for (int j = 0; j < suggestionCount; j++) {
+        SuggestedReplacement suggestion = new SuggestedReplacement(readString(in), readNullableString(in), readNullableString(in));
+        if (in.readBoolean()) {
+          suggestion.setConfidence(in.readFloat());
+        }
+        suggestion.setType(SUGGESTION_TYPES[in.readByte()]);
+        suggestion.setFeatures(readFloatMap(in, new TreeMap<>()));
+        suggestions.add(suggestion);
+      }
+      match.setSuggestedReplacementObjects(suggestions);
+      matches.add(match);
+    }
+    return matches;
+  }
+
+  // unlike writeUTF(), this is not limited to 64KB:
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeNullableString(DataOutputStream out, @Nullable String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) {
+      writeString(out, s);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  private static void writeFloatMap(DataOutputStream out, Map<String, Float> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<String, Float> entry : map.entrySet()) {
+      writeString(out, entry.getKey());
+      out.writeFloat(entry.getValue());
+    }
+  }
+
+  private static <M extends Map<String, Float>> M readFloatMap(DataInputStream in, M map) throws IOException {
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      map.put(readString(in), in.readFloat());
+    }
+    return map;
+  }
+}
@@ -75,6 +75,14 @@ public class SentenceRange implements Comparable<SentenceRange>{
     return sentenceRanges;
   }
 
+  /**
+   * Returns a copy of this range with both positions moved by {@code delta} characters.
+   * @since 6.4
+   */
+  public SentenceRange shift(int delta) {
+    return new SentenceRange(fromPos + delta, toPos + delta);
+  }
+
   public int getFromPos() {
     return fromPos;
   }
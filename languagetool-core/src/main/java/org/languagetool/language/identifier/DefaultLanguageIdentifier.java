@@ -120,7 +120,22 @@ public class DefaultLanguageIdentifier extends LanguageIdentifier {
   }
 
   void enableFasttext(File fasttextBinary, File fasttextModel) {
-    if (fasttextBinary != null && fasttextModel != null) {
+    enableFasttext(fasttextBinary, fasttextModel, false);
+  }
+
+  /**
+   * @param inProcess if {@code true} and {@code fasttextBinary} is {@code null}, the model is used
+   *                  in-process instead of running the fastText binary
+   */
+  void enableFasttext(File fasttextBinary, File fasttextModel, boolean inProcess) {
+    if (fasttextBinary == null && fasttextModel != null && inProcess) {
+      try {
+        fastTextDetector = new FastTextDetector(fasttextModel);
+        logger.info("Loaded fastText model for in-process language identification @ {}", fasttextModel);
+      } catch (IOException e) {
+        throw new RuntimeException("Could not load fastText model for language identification @ " + fasttextModel, e);
+      }
+    } else if (fasttextBinary != null && fasttextModel != null) {
       try {
         fastTextDetector = new FastTextDetector(fasttextModel, fasttextBinary);
         logger.info("Started fastText process for language identification: Binary {} with model @ {}", fasttextBinary, fasttextModel);
@@ -50,10 +50,26 @@ public enum LanguageIdentifierService {
                                                                       @Nullable File ngramLangIdentData,
                                                                       @Nullable File fasttextBinary,
                                                                       @Nullable File fasttextModel) {
+    return getDefaultLanguageIdentifier(maxLength, ngramLangIdentData, fasttextBinary, fasttextModel, false);
+  }
+
+  /**
+   * Like {@link #getDefaultLanguageIdentifier(int, File, File, File)}, but optionally uses the fasttext model
+   * in-process, i.e. without the fasttext binary. This is experimental, as its results have not been compared
+   * with those of the binary for the models used in production (like {@code lid.176.bin}) yet.
+   * @param fasttextInProcess  - if {@code true} and {@code fasttextBinary} is {@code null}, the fasttext model
+   *                           will be used in-process
+   * @since 6.4
+   */
+  public synchronized LanguageIdentifier getDefaultLanguageIdentifier(int maxLength,
+                                                                      @Nullable File ngramLangIdentData,
+                                                                      @Nullable File fasttextBinary,
+                                                                      @Nullable File fasttextModel,
+                                                                      boolean fasttextInProcess) {
     if (defaultIdentifier == null) {
       DefaultLanguageIdentifier defaultIdentifier = maxLength > 0 ? new DefaultLanguageIdentifier(maxLength) : new DefaultLanguageIdentifier();
       defaultIdentifier.enableNgrams(ngramLangIdentData);
-      defaultIdentifier.enableFasttext(fasttextBinary, fasttextModel);
+      defaultIdentifier.enableFasttext(fasttextBinary, fasttextModel, fasttextInProcess);
       this.defaultIdentifier = defaultIdentifier;
     }
     return this.defaultIdentifier;
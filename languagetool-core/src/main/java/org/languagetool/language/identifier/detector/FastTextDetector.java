@@ -44,6 +44,7 @@ public class FastTextDetector {
   
   private File modelPath;
   private File binaryPath;
+  private FastTextModel model;
 
   public static class FastTextException extends RuntimeException {
     private final boolean disabled;
@@ -67,6 +68,16 @@ public class FastTextDetector {
     init();
   }
   
+  /**
+   * Use the model in-process, i.e. without starting the fastText binary. Unlike the
+   * binary's pipe, this doesn't serialize concurrent calls and never needs a restart.
+   * @since 6.4
+   */
+  public FastTextDetector(File modelPath) throws IOException {
+    this.modelPath = modelPath;
+    this.model = new FastTextModel(modelPath);
+  }
+
   private void init() throws IOException{
     fasttextProcess = new ProcessBuilder(binaryPath.getPath(), "predict-prob", modelPath.getPath(), "-", "" + K_HIGHEST_SCORES).start();
     // avoid buffering, we want to flush/read all data immediately
@@ -84,6 +95,13 @@ public class FastTextDetector {
 
   public Map<String, Double> runFasttext(String text, List<String> additionalLanguageCodes) throws IOException {
     String joined = text.replace('\n', ' ').toLowerCase(Locale.ROOT);
+    if (model != null) {
+      Map<String, Double> probabilities = new HashMap<>();
+      for (Map.Entry<String, Double> entry : model.predict(joined, K_HIGHEST_SCORES).entrySet()) {
+        addProbability(probabilities, entry.getKey(), entry.getValue(), additionalLanguageCodes);
+      }
+      return probabilities;
+    }
     char[] cbuf = new char[BUFFER_SIZE];
     synchronized (this) {
       fasttextOut.write(joined + System.lineSeparator());
@@ -123,18 +141,22 @@ public class FastTextDetector {
     }
     Map<String, Double> probabilities = new HashMap<>();
     for (int i = 0; i < values.length; i += 2) {
-      String lang = values[i];
-      String langCode = lang.substring(lang.lastIndexOf("__") + 2);
-      String prob = values[i + 1];
-      Double probValue = Double.parseDouble(prob);
-      if (LanguageIdentifierService.INSTANCE.canLanguageBeDetected(langCode, additionalLanguageCodes)) {
-        probabilities.put(langCode, probValue);
-      }
+      addProbability(probabilities, values[i], Double.parseDouble(values[i + 1]), additionalLanguageCodes);
     }
     return probabilities;
   }
 
+  private static void addProbability(Map<String, Double> probabilities, String label, double prob, List<String> additionalLanguageCodes) {
+    String langCode = label.substring(label.lastIndexOf("__") + 2);
+    if (LanguageIdentifierService.INSTANCE.canLanguageBeDetected(langCode, additionalLanguageCodes)) {
+      probabilities.put(langCode, prob);
+    }
+  }
+
   public synchronized boolean restartProcess() throws IOException {
+    if (model != null) {
+      return false;  // there's no process
+    }
     try {
       runFasttext("This is a test text that should work.", Collections.emptyList());
     } catch (IOException | FastTextException e) {
@@ -150,7 +172,9 @@ public class FastTextDetector {
   }
 
   void destroy() {
-    fasttextProcess.destroy();
+    if (fasttextProcess != null) {
+      fasttextProcess.destroy();
+    }
   }
 
 }
@@ -0,0 +1,604 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.language.identifier.detector;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A supervised fastText model (as used for language identification, e.g. {@code lid.176.bin}
+ * or {@code lid.176.ftz}) that predicts labels in-process, i.e. without running the fastText binary.
+ * The model file is memory-mapped, only the dictionary is read into the heap. Prediction follows
+ * fastText's {@code predict-prob}: the text is handled as one line, words and their character
+ * ngrams are hashed directly on the UTF-8 bytes of the text. The model is immutable after loading,
+ * so one instance can be used by several threads at the same time.
+ * @since 6.4
+ */
+public final class FastTextModel {
+
+  private static final int MAGIC = 793712314;
+  private static final int MAX_VERSION = 12;
+  private static final int MODEL_SUPERVISED = 3;
+  private static final int LOSS_HS = 1;
+  private static final int LOSS_SOFTMAX = 3;
+  private static final int LOSS_OVA = 4;
+  private static final byte TYPE_WORD = 0;
+  private static final byte[] EOS = "</s>".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LABEL_PREFIX = "__label__".getBytes(StandardCharsets.UTF_8);
+  private static final int FNV_OFFSET = (int) 2166136261L;
+  private static final int FNV_PRIME = 16777619;
+  private static final int WORD_NGRAM_PRIME = 116049371;
+  private static final int SIGMOID_TABLE_SIZE = 512;
+  private static final int MAX_SIGMOID = 8;
+  private static final float[] SIGMOID_TABLE = new float[SIGMOID_TABLE_SIZE + 1];
+
+  static {
+    for (int i = 0; i < SIGMOID_TABLE.length; i++) {
+      float x = (float) (i * 2 * MAX_SIGMOID) / SIGMOID_TABLE_SIZE - MAX_SIGMOID;
+      SIGMOID_TABLE[i] = (float) (1.0 / (1.0 + Math.exp(-x)));
+    }
+  }
+
+  private final int dim;
+  private final int wordNgrams;
+  private final int loss;
+  private final int bucket;
+  private final int minn;
+  private final int maxn;
+
+  // the dictionary: the UTF-8 bytes of all entries (words first, then labels) in one array
+  private final int nwords;
+  private final byte[] entryBytes;
+  private final int[] entryOffsets;
+  private final byte[] entryTypes;
+  private final int[] entryTable;  // open addressing, entry index + 1 (0 = empty slot)
+  private final long pruneIdxSize;
+  private final Int2IntMap pruneIdx;
+  private final String[] labels;
+
+  private final Matrix input;
+  private final Matrix output;
+  private final int[] treeLeft;   // Huffman tree over the labels, for hierarchical softmax only
+  private final int[] treeRight;
+
+  public FastTextModel(File file) throws IOException {
+    ByteBuffer buf;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("fastText models larger than 2GB are not supported: " + file);
+      }
+      buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    try {
+      int magic = buf.getInt();
+      int version = buf.getInt();
+      if (magic != MAGIC || version > MAX_VERSION) {
+        throw new IOException("Not a fastText model or unsupported version " + version + ": " + file);
+      }
+      dim = buf.getInt();
+      buf.getInt();  // ws
+      buf.getInt();  // epoch
+      buf.getInt();  // minCount
+      buf.getInt();  // neg
+      wordNgrams = buf.getInt();
+      loss = buf.getInt();
+      int model = buf.getInt();
+      bucket = buf.getInt();
+      minn = buf.getInt();
+      // old supervised models don't use character ngrams:
+      int maxnValue = buf.getInt();
+      maxn = version == 11 && model == MODEL_SUPERVISED ? 0 : maxnValue;
+      buf.getInt();  // lrUpdateRate
+      buf.getDouble();  // t
+      if (model != MODEL_SUPERVISED) {
+        throw new IOException("Only supervised fastText models can be used for prediction: " + file);
+      }
+      if (loss < LOSS_HS || loss > LOSS_OVA) {
+        throw new IOException("Unknown loss " + loss + " in fastText model " + file);
+      }
+
+      int size = buf.getInt();
+      nwords = buf.getInt();
+      int nlabels = buf.getInt();
+      buf.getLong();  // ntokens
+      pruneIdxSize = buf.getLong();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      entryOffsets = new int[size + 1];
+      entryTypes = new byte[size];
+      long[] labelCounts = new long[nlabels];
+      for (int i = 0; i < size; i++) {
+        entryOffsets[i] = bytes.size();
+        byte b;
+        while ((b = buf.get()) != 0) {
+          bytes.write(b);
+        }
+        long count = buf.getLong();
+        entryTypes[i] = buf.get();
+        if (i >= nwords) {
+          labelCounts[i - nwords] = count;
+        }
+      }
+      entryOffsets[size] = bytes.size();
+      entryBytes = bytes.toByteArray();
+      pruneIdx = new Int2IntOpenHashMap();
+      for (long i = 0; i < pruneIdxSize; i++) {
+        int from = buf.getInt();
+        pruneIdx.put(from, buf.getInt());
+      }
+      entryTable = new int[Integer.highestOneBit(Math.max(size, 1) * 2) * 2];
+      for (int i = 0; i < size; i++) {
+        int start = entryOffsets[i];
+        int end = entryOffsets[i + 1];
+        entryTable[findSlot(entryBytes, start, end, hash(entryBytes, start, end))] = i + 1;
+      }
+      labels = new String[nlabels];
+      for (int i = 0; i < nlabels; i++) {
+        int start = entryOffsets[nwords + i];
+        labels[i] = new String(entryBytes, start, entryOffsets[nwords + i + 1] - start, StandardCharsets.UTF_8);
+      }
+
+      boolean quantInput = buf.get() != 0;
+      input = quantInput ? new QuantMatrix(buf) : new DenseMatrix(buf);
+      boolean quantOutput = buf.get() != 0;
+      output = quantInput && quantOutput ? new QuantMatrix(buf) : new DenseMatrix(buf);
+      if (input.cols() != dim || output.cols() != dim) {
+        throw new IOException("Unexpected matrix dimension in fastText model " + file);
+      }
+      if (loss == LOSS_HS) {
+        treeLeft = new int[2 * nlabels - 1];
+        treeRight = new int[2 * nlabels - 1];
+        buildTree(labelCounts);
+      } else {
+        treeLeft = null;
+        treeRight = null;
+      }
+    } catch (RuntimeException e) {
+      throw new IOException("Could not read fastText model " + file, e);
+    }
+  }
+
+  /**
+   * Predict the {@code k} most probable labels of a text, like {@code fasttext predict-prob model - k}.
+   * @return labels (as in the model, e.g. {@code __label__en}) and their probabilities, most probable label first
+   */
+  public Map<String, Double> predict(String text, int k) {
+    if (k <= 0) {
+      return Collections.emptyMap();
+    }
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    byte[] bowWordEow = new byte[bytes.length + 2];
+    IntArrayList ids = new IntArrayList();
+    IntArrayList wordHashes = new IntArrayList();
+    int start = -1;
+    for (int i = 0; i <= bytes.length; i++) {
+      if (i == bytes.length || isDelimiter(bytes[i])) {
+        if (start >= 0) {
+          addToken(bytes, start, i, bowWordEow, ids, wordHashes);
+          start = -1;
+        }
+      } else if (start < 0) {
+        start = i;
+      }
+    }
+    addToken(EOS, 0, EOS.length, bowWordEow, ids, wordHashes);
+    addWordNgrams(wordHashes, ids);
+    if (ids.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    float[] hidden = new float[dim];
+    for (int i = 0; i < ids.size(); i++) {
+      input.addRowTo(hidden, ids.getInt(i));
+    }
+    float scale = (float) (1.0 / ids.size());
+    for (int i = 0; i < dim; i++) {
+      hidden[i] *= scale;
+    }
+    TopK top = new TopK(Math.min(k, labels.length));
+    if (loss == LOSS_HS) {
+      dfs(top, 2 * labels.length - 2, 0.0f, hidden);
+    } else {
+      float[] probs = computeOutput(hidden);
+      for (int i = 0; i < probs.length; i++) {
+        float score = stdLog(probs[i]);
+        if (!top.isFull() || score >= top.min()) {
+          top.add(score, i);
+        }
+      }
+    }
+    Map<String, Double> result = new LinkedHashMap<>();
+    for (int i = 0; i < top.size; i++) {
+      result.put(labels[top.ids[i]], (double) (float) Math.exp(top.scores[i]));
+    }
+    return result;
+  }
+
+  private static boolean isDelimiter(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == 0x0B || b == '\f' || b == 0;
+  }
+
+  private void addToken(byte[] bytes, int start, int end, byte[] bowWordEow, IntArrayList ids, IntArrayList wordHashes) {
+    int h = hash(bytes, start, end);
+    int id = entryTable[findSlot(bytes, start, end, h)] - 1;
+    boolean isWord = id < 0 ? !startsWith(bytes, start, end, LABEL_PREFIX) : entryTypes[id] == TYPE_WORD;
+    if (!isWord) {
+      return;
+    }
+    if (id >= 0) {
+      ids.add(id);
+    }
+    if ((id < 0 || maxn > 0) && !equals(bytes, start, end, EOS, 0, EOS.length)) {
+      int length = end - start;
+      bowWordEow[0] = '<';
+      System.arraycopy(bytes, start, bowWordEow, 1, length);
+      bowWordEow[length + 1] = '>';
+      addSubwords(bowWordEow, length + 2, ids);
+    }
+    wordHashes.add(h);
+  }
+
+  private void addSubwords(byte[] word, int length, IntArrayList ids) {
+    for (int i = 0; i < length; i++) {
+      if ((word[i] & 0xC0) == 0x80) {
+        continue;  // not the start of a UTF-8 character
+      }
+      int h = FNV_OFFSET;
+      for (int j = i, n = 1; j < length && n <= maxn; n++) {
+        h = (h ^ word[j++]) * FNV_PRIME;
+        while (j < length && (word[j] & 0xC0) == 0x80) {
+          h = (h ^ word[j++]) * FNV_PRIME;
+        }
+        if (n >= minn && !(n == 1 && (i == 0 || j == length))) {
+          addHash(ids, (int) ((h & 0xFFFFFFFFL) % bucket));
+        }
+      }
+    }
+  }
+
+  private void addWordNgrams(IntArrayList wordHashes, IntArrayList ids) {
+    if (bucket == 0) {
+      return;
+    }
+    for (int i = 0; i < wordHashes.size(); i++) {
+      long h = wordHashes.getInt(i);
+      for (int j = i + 1; j < wordHashes.size() && j < i + wordNgrams; j++) {
+        h = h * WORD_NGRAM_PRIME + wordHashes.getInt(j);
+        addHash(ids, (int) Long.remainderUnsigned(h, bucket));
+      }
+    }
+  }
+
+  private void addHash(IntArrayList ids, int id) {
+    if (pruneIdxSize == 0 || id < 0) {
+      return;
+    }
+    if (pruneIdxSize > 0) {
+      if (!pruneIdx.containsKey(id)) {
+        return;
+      }
+      id = pruneIdx.get(id);
+    }
+    ids.add(nwords + id);
+  }
+
+  private float[] computeOutput(float[] hidden) {
+    float[] out = new float[labels.length];
+    for (int i = 0; i < out.length; i++) {
+      out[i] = output.dotRow(hidden, i);
+    }
+    if (loss == LOSS_SOFTMAX) {
+      float max = out[0];
+      for (float f : out) {
+        max = Math.max(f, max);
+      }
+      float z = 0.0f;
+      for (int i = 0; i < out.length; i++) {
+        out[i] = (float) Math.exp(out[i] - max);
+        z += out[i];
+      }
+      for (int i = 0; i < out.length; i++) {
+        out[i] /= z;
+      }
+    } else {
+      for (int i = 0; i < out.length; i++) {
+        out[i] = sigmoid(out[i]);
+      }
+    }
+    return out;
+  }
+
+  private void buildTree(long[] counts) {
+    int osz = counts.length;
+    long[] treeCounts = new long[2 * osz - 1];
+    Arrays.fill(treeLeft, -1);
+    Arrays.fill(treeRight, -1);
+    Arrays.fill(treeCounts, (long) 1e15);
+    System.arraycopy(counts, 0, treeCounts, 0, osz);
+    int leaf = osz - 1;
+    int node = osz;
+    for (int i = osz; i < 2 * osz - 1; i++) {
+      int[] mini = new int[2];
+      for (int j = 0; j < 2; j++) {
+        if (leaf >= 0 && treeCounts[leaf] < treeCounts[node]) {
+          mini[j] = leaf--;
+        } else {
+          mini[j] = node++;
+        }
+      }
+      treeLeft[i] = mini[0];
+      treeRight[i] = mini[1];
+      treeCounts[i] = treeCounts[mini[0]] + treeCounts[mini[1]];
+    }
+  }
+
+  private void dfs(TopK top, int node, float score, float[] hidden) {
+    if (score < stdLog(0.0f) || (top.isFull() && score < top.min())) {
+      return;
+    }
+    if (treeLeft[node] == -1 && treeRight[node] == -1) {
+      top.add(score, node);
+      return;
+    }
+    float f = output.dotRow(hidden, node - labels.length);
+    f = (float) (1.0 / (1 + Math.exp(-f)));
+    dfs(top, treeLeft[node], score + stdLog(1.0f - f), hidden);
+    dfs(top, treeRight[node], score + stdLog(f), hidden);
+  }
+
+  private static float stdLog(float x) {
+    return (float) Math.log(x + 1e-5);
+  }
+
+  private static float sigmoid(float x) {
+    if (x < -MAX_SIGMOID) {
+      return 0.0f;
+    } else if (x > MAX_SIGMOID) {
+      return 1.0f;
+    }
+    return SIGMOID_TABLE[(int) ((x + MAX_SIGMOID) * SIGMOID_TABLE_SIZE / MAX_SIGMOID / 2)];
+  }
+
+  /**
+   * FNV-1a as used by fastText, which sign-extends the bytes.
+   */
+  private static int hash(byte[] bytes, int start, int end) {
+    int h = FNV_OFFSET;
+    for (int i = start; i < end; i++) {
+      h = (h ^ bytes[i]) * FNV_PRIME;
+    }
+    return h;
+  }
+
+  private int findSlot(byte[] bytes, int start, int end, int hash) {
+    int mask = entryTable.length - 1;
+    int slot = hash & mask;
+    while (entryTable[slot] != 0) {
+      int entry = entryTable[slot] - 1;
+      if (equals(entryBytes, entryOffsets[entry], entryOffsets[entry + 1], bytes, start, end)) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static boolean startsWith(byte[] bytes, int start, int end, byte[] prefix) {
+    return end - start >= prefix.length && equals(bytes, start, start + prefix.length, prefix, 0, prefix.length);
+  }
+
+  private static boolean equals(byte[] a, int aStart, int aEnd, byte[] b, int bStart, int bEnd) {
+    if (aEnd - aStart != bEnd - bStart) {
+      return false;
+    }
+    for (int i = 0; i < aEnd - aStart; i++) {
+      if (a[aStart + i] != b[bStart + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The {@code k} highest scores, sorted descending.
+   */
+  private static class TopK {
+    private final float[] scores;
+    private final int[] ids;
+    private int size;
+
+    TopK(int k) {
+      scores = new float[k];
+      ids = new int[k];
+    }
+
+    boolean isFull() {
+      return size == scores.length;
+    }
+
+    float min() {
+      return scores[size - 1];
+    }
+
+    void add(float score, int id) {
+      int i = isFull() ? size - 1 : size++;
+      while (i > 0 && scores[i - 1] < score) {
+        scores[i] = scores[i - 1];
+        ids[i] = ids[i - 1];
+        i--;
+      }
+      scores[i] = score;
+      ids[i] = id;
+    }
+  }
+
+  private interface Matrix {
+    int cols();
+    void addRowTo(float[] x, int row);
+    float dotRow(float[] x, int row);
+  }
+
+  private static class DenseMatrix implements Matrix {
+    private final FloatBuffer data;
+    private final int cols;
+
+    DenseMatrix(ByteBuffer buf) {
+      long rows = buf.getLong();
+      cols = (int) buf.getLong();
+      ByteBuffer slice = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+      slice.limit(Math.toIntExact(rows * cols * Float.BYTES));
+      data = slice.asFloatBuffer();
+      buf.position(buf.position() + slice.limit());
+    }
+
+    @Override
+    public int cols() {
+      return cols;
+    }
+
+    @Override
+    public void addRowTo(float[] x, int row) {
+      int offset = row * cols;
+      for (int i = 0; i < cols; i++) {
+        x[i] += data.get(offset + i);
+      }
+    }
+
+    @Override
+    public float dotRow(float[] x, int row) {
+      int offset = row * cols;
+      float d = 0.0f;
+      for (int i = 0; i < cols; i++) {
+        d += data.get(offset + i) * x[i];
+      }
+      return d;
+    }
+  }
+
+  private static class QuantMatrix implements Matrix {
+    private final int cols;
+    private final ByteBuffer codes;
+    private final ProductQuantizer pq;
+    private final ByteBuffer normCodes;
+    private final ProductQuantizer npq;
+
+    QuantMatrix(ByteBuffer buf) {
+      boolean qnorm = buf.get() != 0;
+      long rows = buf.getLong();
+      cols = (int) buf.getLong();
+      int codeSize = buf.getInt();
+      codes = slice(buf, codeSize);
+      pq = new ProductQuantizer(buf);
+      if (qnorm) {
+        normCodes = slice(buf, Math.toIntExact(rows));
+        npq = new ProductQuantizer(buf);
+      } else {
+        normCodes = null;
+        npq = null;
+      }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buf, int length) {
+      ByteBuffer slice = buf.slice();
+      slice.limit(length);
+      buf.position(buf.position() + length);
+      return slice;
+    }
+
+    private float norm(int row) {
+      return npq == null ? 1.0f : npq.centroids[npq.centroidOffset(0, normCodes.get(row) & 0xFF)];
+    }
+
+    @Override
+    public int cols() {
+      return cols;
+    }
+
+    @Override
+    public void addRowTo(float[] x, int row) {
+      float norm = norm(row);
+      int code = pq.nsubq * row;
+      int d = pq.dsub;
+      for (int m = 0; m < pq.nsubq; m++) {
+        int c = pq.centroidOffset(m, codes.get(code + m) & 0xFF);
+        if (m == pq.nsubq - 1) {
+          d = pq.lastdsub;
+        }
+        for (int n = 0; n < d; n++) {
+          x[m * pq.dsub + n] += norm * pq.centroids[c + n];
+        }
+      }
+    }
+
+    @Override
+    public float dotRow(float[] x, int row) {
+      float res = 0.0f;
+      int code = pq.nsubq * row;
+      int d = pq.dsub;
+      for (int m = 0; m < pq.nsubq; m++) {
+        int c = pq.centroidOffset(m, codes.get(code + m) & 0xFF);
+        if (m == pq.nsubq - 1) {
+          d = pq.lastdsub;
+        }
+        for (int n = 0; n < d; n++) {
+          res += x[m * pq.dsub + n] * pq.centroids[c + n];
+        }
+      }
+      return res * norm(row);
+    }
+  }
+
+  private static class ProductQuantizer {
+    private static final int KSUB = 256;
+    private final int nsubq;
+    private final int dsub;
+    private final int lastdsub;
+    private final float[] centroids;
+
+    ProductQuantizer(ByteBuffer buf) {
+      int dim = buf.getInt();
+      nsubq = buf.getInt();
+      dsub = buf.getInt();
+      lastdsub = buf.getInt();
+      centroids = new float[dim * KSUB];
+      for (int i = 0; i < centroids.length; i++) {
+        centroids[i] = buf.getFloat();
+      }
+    }
+
+    int centroidOffset(int m, int i) {
+      if (m == nsubq - 1) {
+        return m * KSUB * dsub + i * lastdsub;
+      }
+      return (m * KSUB + i) * dsub;
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.languagemodel;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches the ngram counts of another language model. Rules like the {@code ConfusionProbabilityRule}
+ * look up the same ngrams again and again (e.g. the first word of the context for each candidate, or
+ * frequent ngrams like "of the"), so this avoids most of the index lookups. There's one cache
+ * for all instances, with entries keyed by the name of the model (usually its directory)
+ * and the ngram, so language variants that use the same ngram data also share the cached counts.
+ * Caching is disabled by default, the server enables it with its {@code ngramCacheSize} option.
+ * @since 6.4
+ */
+public class CachingLanguageModel extends BaseLanguageModel {
+
+  private static volatile Cache<Key, Long> cache = build(0);
+  private static volatile long maxSize = 0;
+
+  private final BaseLanguageModel lm;
+  private final String name;
+  private volatile long totalTokenCount = -1;
+
+  /**
+   * @param name identifies the ngram data of {@code lm}, models with the same name share their cache entries
+   */
+  public CachingLanguageModel(BaseLanguageModel lm, String name) {
+    this.lm = Objects.requireNonNull(lm);
+    this.name = name.intern();
+  }
+
+  private static Cache<Key, Long> build(long maxSize) {
+    return CacheBuilder.newBuilder()
+      .maximumSize(maxSize)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Set the maximum number of ngram counts cached for all models, 0 (the default) disables caching.
+   * {@link org.languagetool.Language} only uses a caching model for language models created afterwards.
+   * A new size replaces the cache and drops all cached counts, so get the cache with {@link #getCache()}
+   * (e.g. to monitor it) after the last change. Setting the current size again keeps the cache.
+   */
+  public static synchronized void setMaxSize(long maxSize) {
+    if (maxSize == CachingLanguageModel.maxSize) {
+      return;
+    }
+    cache = build(Math.max(0, maxSize));
+    CachingLanguageModel.maxSize = maxSize;
+  }
+
+  public static long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * The cache shared by all instances, e.g. to expose its statistics (hit rate etc.).
+   * It's replaced when {@link #setMaxSize(long)} changes the size.
+   */
+  public static Cache<?, Long> getCache() {
+    return cache;
+  }
+
+  @Override
+  public long getCount(String token1) {
+    return getCachedCount(token1, null);
+  }
+
+  @Override
+  public long getCount(List<String> tokens) {
+    return getCachedCount(String.join(" ", tokens), tokens);
+  }
+
+  private long getCachedCount(String ngram, List<String> tokens) {
+    if (maxSize <= 0) {
+      return tokens == null ? lm.getCount(ngram) : lm.getCount(tokens);
+    }
+    try {
+      return cache.get(new Key(name, ngram), () -> tokens == null ? lm.getCount(ngram) : lm.getCount(tokens));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  @Override
+  public long getTotalTokenCount() {
+    if (totalTokenCount == -1) {
+      totalTokenCount = lm.getTotalTokenCount();
+    }
+    return totalTokenCount;
+  }
+
+  @Override
+  public void close() {
+    lm.close();
+  }
+
+  @Override
+  public String toString() {
+    return lm.toString();
+  }
+
+  private static class Key {
+    private final String name;
+    private final String ngram;
+
+    Key(String name, String ngram) {
+      this.name = name;
+      this.ngram = ngram;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key other = (Key) o;
+      return name.equals(other.name) && ngram.equals(other.ngram);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * name.hashCode() + ngram.hashCode();
+    }
+  }
+
+}
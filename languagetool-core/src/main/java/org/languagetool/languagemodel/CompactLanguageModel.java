@@ -0,0 +1,232 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.languagemodel;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Information about ngram occurrences, like {@link LuceneLanguageModel}, but taken from
+ * memory-mapped files {@code 1grams.bin}, {@code 2grams.bin} etc. as written by
+ * {@link CompactNgramIndexWriter}. Ngrams are not stored, only a 64 bit hash of them,
+ * sorted so they can be found with an interpolation search, and their counts, packed
+ * to as few bytes as the largest count needs. A lookup thus touches a few pages of the file and
+ * creates no objects except for the hash calculation. The price is that in very rare cases
+ * an ngram that's not in the index gets the count of another ngram with the same hash.
+ * @since 6.4
+ */
+public class CompactLanguageModel extends BaseLanguageModel {
+
+  static final int MAGIC = 0x4C544E47;  // "LTNG"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  static final String FILE_SUFFIX = "grams.bin";
+
+  // keys are mapped in several buffers, as a single buffer can only hold 2GB:
+  private static final int SEGMENT_BITS = 27;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+  private static final int MAX_INTERPOLATION_STEPS = 8;
+
+  private static final HashFunction hashFunction = Hashing.murmur3_128();
+  private static final Map<File,NgramFile> fileToNgramFile = new ConcurrentHashMap<>();  // static to save memory for language variants
+
+  private final Map<Integer,NgramFile> ngramFiles = new HashMap<>();
+  private final File topIndexDir;
+  private final int maxNgram;
+
+  /**
+   * @return true if the directory contains at least a {@code 1grams.bin} file
+   */
+  public static boolean isCompactIndex(File topIndexDir) {
+    return new File(topIndexDir, "1" + FILE_SUFFIX).isFile();
+  }
+
+  /**
+   * The hash under which the ngram (its tokens joined by a space) is stored.
+   */
+  static long hash(String ngram) {
+    return hashFunction.hashString(ngram, UTF_8).asLong();
+  }
+
+  /**
+   * @param topIndexDir a directory with files {@code 1grams.bin}, {@code 2grams.bin} etc.
+   */
+  public CompactLanguageModel(File topIndexDir) {
+    this.topIndexDir = topIndexDir;
+    for (int i = 1; i <= 4; i++) {
+      File file = new File(topIndexDir, i + FILE_SUFFIX);
+      if (file.isFile()) {
+        ngramFiles.put(i, fileToNgramFile.computeIfAbsent(file, k -> new NgramFile(k, k.getName().charAt(0) - '0')));
+      }
+    }
+    if (!ngramFiles.containsKey(1)) {
+      throw new RuntimeException("No file '1" + FILE_SUFFIX + "' found in " + topIndexDir);
+    }
+    maxNgram = Collections.max(ngramFiles.keySet());
+  }
+
+  @Override
+  public long getCount(List<String> tokens) {
+    Objects.requireNonNull(tokens);
+    if (tokens.size() > maxNgram) {
+      throw new RuntimeException("Requested " + tokens.size() + "gram but index has only up to " + maxNgram + "gram: " + tokens);
+    }
+    return getNgramFile(tokens.size()).getCount(hash(String.join(" ", tokens)));
+  }
+
+  @Override
+  public long getCount(String token1) {
+    Objects.requireNonNull(token1);
+    return getNgramFile(1).getCount(hash(token1));
+  }
+
+  @Override
+  public long getTotalTokenCount() {
+    return getNgramFile(1).totalTokenCount;
+  }
+
+  private NgramFile getNgramFile(int ngramSize) {
+    NgramFile ngramFile = ngramFiles.get(ngramSize);
+    if (ngramFile == null) {
+      throw new RuntimeException("No " + ngramSize + FILE_SUFFIX + " file found in " + topIndexDir);
+    }
+    return ngramFile;
+  }
+
+  /**
+   * Nothing to do, the files are mapped for the lifetime of the JVM and shared by all instances.
+   */
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public String toString() {
+    return topIndexDir.toString();
+  }
+
+  private static class NgramFile {
+    private final long entries;
+    private final int countBytes;
+    private final long totalTokenCount;
+    private final LongBuffer[] keys;
+    private final ByteBuffer[] counts;
+
+    NgramFile(File file, int ngramSize) {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+          throw new RuntimeException("Not an ngram file of version " + VERSION + ": " + file);
+        }
+        int fileNgramSize = header.getInt();
+        if (fileNgramSize != ngramSize) {
+          throw new RuntimeException("Expected " + ngramSize + "grams, found " + fileNgramSize + "grams in " + file);
+        }
+        countBytes = header.getInt();
+        entries = header.getLong();
+        totalTokenCount = header.getLong();
+        long expectedSize = HEADER_BYTES + entries * (8 + countBytes);
+        if (channel.size() != expectedSize) {
+          throw new RuntimeException("Expected size of " + expectedSize + " bytes, found " + channel.size() + ": " + file);
+        }
+        int segments = (int) ((entries + SEGMENT_MASK) >>> SEGMENT_BITS);
+        keys = new LongBuffer[segments];
+        counts = new ByteBuffer[segments];
+        long countsStart = HEADER_BYTES + entries * 8;
+        for (int i = 0; i < segments; i++) {
+          long first = (long) i << SEGMENT_BITS;
+          long size = Math.min(SEGMENT_MASK + 1, entries - first);
+          keys[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * 8, size * 8).asLongBuffer();
+          counts[i] = channel.map(FileChannel.MapMode.READ_ONLY, countsStart + first * countBytes, size * countBytes);
+        }
+        // mappings stay valid after the channel has been closed
+      } catch (IOException e) {
+        throw new RuntimeException("Could not map " + file, e);
+      }
+    }
+
+    long getCount(long hash) {
+      long pos = find(hash);
+      if (pos < 0) {
+        return 0;
+      }
+      ByteBuffer buffer = counts[(int) (pos >>> SEGMENT_BITS)];
+      int offset = (int) (pos & SEGMENT_MASK) * countBytes;
+      long count = 0;
+      for (int i = 0; i < countBytes; i++) {
+        count = (count << 8) | (buffer.get(offset + i) & 0xFF);
+      }
+      return count;
+    }
+
+    private long key(long pos) {
+      return keys[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & SEGMENT_MASK));
+    }
+
+    /**
+     * Hashes are uniformly distributed, so interpolating finds them in very few steps.
+     * We switch to binary search should that not be the case.
+     */
+    private long find(long hash) {
+      long low = 0;
+      long high = entries - 1;
+      int steps = 0;
+      while (low <= high) {
+        long pos;
+        if (steps++ < MAX_INTERPOLATION_STEPS) {
+          long lowKey = key(low);
+          long highKey = key(high);
+          if (hash < lowKey || hash > highKey) {
+            return -1;
+          }
+          if (lowKey == highKey) {
+            pos = low;
+          } else {
+            double fraction = ((double) hash - lowKey) / ((double) highKey - lowKey);
+            pos = low + (long) (fraction * (high - low));
+            pos = Math.max(low, Math.min(high, pos));
+          }
+        } else {
+          pos = (low + high) >>> 1;
+        }
+        long key = key(pos);
+        if (key < hash) {
+          low = pos + 1;
+        } else if (key > hash) {
+          high = pos - 1;
+        } else {
+          return pos;
+        }
+      }
+      return -1;
+    }
+  }
+
+}
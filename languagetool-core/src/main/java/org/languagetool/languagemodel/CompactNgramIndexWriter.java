@@ -0,0 +1,101 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.languagemodel;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Writes the ngram counts of one ngram size to a file for {@link CompactLanguageModel}.
+ * All ngrams are kept in memory until {@link #write(File)} is called, using about
+ * 16 bytes per distinct ngram.
+ * @since 6.4
+ */
+public class CompactNgramIndexWriter {
+
+  private final Long2LongOpenHashMap hashToCount = new Long2LongOpenHashMap();
+  private final int ngramSize;
+  private long totalTokenCount;
+
+  public CompactNgramIndexWriter(int ngramSize) {
+    if (ngramSize < 1 || ngramSize > 4) {
+      throw new IllegalArgumentException("ngramSize must be 1 to 4: " + ngramSize);
+    }
+    this.ngramSize = ngramSize;
+  }
+
+  /**
+   * The file name for the ngram size, to be used in the directory given to {@link CompactLanguageModel}.
+   */
+  public static String getFileName(int ngramSize) {
+    return ngramSize + CompactLanguageModel.FILE_SUFFIX;
+  }
+
+  /**
+   * @param ngram the tokens of the ngram, joined by a space
+   * @param count added to the count of the ngram if it has been added before
+   */
+  public void add(String ngram, long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("count must be >= 0: " + count + " for '" + ngram + "'");
+    }
+    hashToCount.addTo(CompactLanguageModel.hash(ngram), count);
+  }
+
+  /**
+   * Only needed for 1grams.
+   */
+  public void setTotalTokenCount(long totalTokenCount) {
+    this.totalTokenCount = totalTokenCount;
+  }
+
+  public int size() {
+    return hashToCount.size();
+  }
+
+  public void write(File file) throws IOException {
+    long[] hashes = hashToCount.keySet().toLongArray();
+    Arrays.sort(hashes);
+    long maxCount = 0;
+    for (long count : hashToCount.values()) {
+      maxCount = Math.max(maxCount, count);
+    }
+    int countBytes = Math.max(1, (64 - Long.numberOfLeadingZeros(maxCount) + 7) / 8);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024))) {
+      out.writeInt(CompactLanguageModel.MAGIC);
+      out.writeInt(CompactLanguageModel.VERSION);
+      out.writeInt(ngramSize);
+      out.writeInt(countBytes);
+      out.writeLong(hashes.length);
+      out.writeLong(totalTokenCount);
+      for (long hash : hashes) {
+        out.writeLong(hash);
+      }
+      for (long hash : hashes) {
+        long count = hashToCount.get(hash);
+        for (int i = countBytes - 1; i >= 0; i--) {
+          out.write((int) (count >>> (i * 8)));
+        }
+      }
+    }
+  }
+
+}
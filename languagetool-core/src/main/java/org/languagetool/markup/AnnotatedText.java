@@ -41,13 +41,22 @@ public class AnnotatedText {
   }
 
   private final List<TextPart> parts;
-  private final Map<Integer, MappingValue> mapping;  // plain text position to original text (with markup) position
+  // plain text positions (sorted, without duplicates) and the original text (with markup) positions they map to:
+  private final int[] plainTextPositions;
+  private final int[] totalPositions;
+  private final int[] fakeMarkupLengths;
   private final Map<MetaDataKey, String> metaData;
   private final Map<String, String> customMetaData;
 
-  AnnotatedText(List<TextPart> parts, Map<Integer, MappingValue> mapping, Map<MetaDataKey, String> metaData, Map<String, String> customMetaData) {
+  AnnotatedText(List<TextPart> parts, int[] plainTextPositions, int[] totalPositions, int[] fakeMarkupLengths,
+                Map<MetaDataKey, String> metaData, Map<String, String> customMetaData) {
+    if (plainTextPositions.length != totalPositions.length || plainTextPositions.length != fakeMarkupLengths.length) {
+      throw new IllegalArgumentException("Mapping arrays must have the same length");
+    }
     this.parts = Objects.requireNonNull(parts);
-    this.mapping = Objects.requireNonNull(mapping);
+    this.plainTextPositions = plainTextPositions;
+    this.totalPositions = totalPositions;
+    this.fakeMarkupLengths = fakeMarkupLengths;
     this.metaData = Objects.requireNonNull(metaData);
     this.customMetaData = Objects.requireNonNull(customMetaData);
   }
@@ -110,34 +119,25 @@ public class AnnotatedText {
     if (plainTextPosition < 0) {
       throw new IllegalArgumentException("plainTextPosition must be >= 0: " + plainTextPosition);
     }
-    if (mapping.isEmpty()) {
+    if (plainTextPositions.length == 0) {
       return 0;
     }
-    int minDiff = Integer.MAX_VALUE;
-    MappingValue bestMatch = null;
-    // algorithm: find the closest lower position
-    for (Map.Entry<Integer, MappingValue> entry : mapping.entrySet()) {
-      int maybeClosePosition = entry.getKey();
-      if (plainTextPosition < maybeClosePosition) {
-        int diff = maybeClosePosition - plainTextPosition;
-        if (diff > 0 && diff < minDiff) {
-          bestMatch = entry.getValue();
-          minDiff = diff;
-        }
-      }
-    }
-    if (bestMatch == null) {
-      String msg = "mappings: " + (mapping.size() < 5 ? mapping : mapping.size());
+    // algorithm: find the closest higher position
+    int bestMatch = Arrays.binarySearch(plainTextPositions, plainTextPosition);
+    bestMatch = bestMatch >= 0 ? bestMatch + 1 : -bestMatch - 1;
+    if (bestMatch == plainTextPositions.length) {
+      String msg = "mappings: " + (plainTextPositions.length < 5 ? Arrays.toString(plainTextPositions) : plainTextPositions.length);
       throw new RuntimeException("Could not map " + plainTextPosition + " to original position. isToPos: " + isToPos + ", " + msg);
     }
+    int minDiff = plainTextPositions[bestMatch] - plainTextPosition;
     // we remove markup total length if usage of fake markup and need from position
-    if (!isToPos && bestMatch.getFakeMarkupLength() > 0) {
-      minDiff = bestMatch.getFakeMarkupLength();
+    if (!isToPos && fakeMarkupLengths[bestMatch] > 0) {
+      minDiff = fakeMarkupLengths[bestMatch];
     }
     // We assume that when we have found the closest match there's a one-to-one mapping
     // in this region, thus we can subtract 'minDiff' to get the exact position.
     // If the bestMatch is a fakeMarkup, subtract it:
-    return bestMatch.getTotalPosition() - minDiff;
+    return totalPositions[bestMatch] - minDiff;
   }
   
   /**
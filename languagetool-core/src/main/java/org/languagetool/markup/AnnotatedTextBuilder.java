@@ -18,6 +18,8 @@
  */
 package org.languagetool.markup;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -129,27 +131,39 @@ public class AnnotatedTextBuilder {
   public AnnotatedText build() {
     int plainTextPosition = 0;
     int totalPosition = 0;
-    Map<Integer, MappingValue> mapping = new HashMap<>();
+    // plain text positions only grow, so the mapping is sorted by them:
+    IntArrayList plainTextPositions = new IntArrayList();
+    IntArrayList totalPositions = new IntArrayList();
+    IntArrayList fakeMarkupLengths = new IntArrayList();
     for (int i = 0; i < parts.size(); i++) {
       TextPart part = parts.get(i);
       if (part.getType() == TextPart.Type.TEXT) {
         plainTextPosition += part.getPart().length();
         totalPosition += part.getPart().length();
-        MappingValue mappingValue = new MappingValue(totalPosition);
-        mapping.put(plainTextPosition, mappingValue);
+        int last = plainTextPositions.size() - 1;
+        if (last >= 0 && plainTextPositions.getInt(last) == plainTextPosition) {
+          totalPositions.set(last, totalPosition);
+          fakeMarkupLengths.set(last, 0);
+        } else {
+          plainTextPositions.add(plainTextPosition);
+          totalPositions.add(totalPosition);
+          fakeMarkupLengths.add(0);
+        }
       } else if (part.getType() == TextPart.Type.MARKUP) {
         totalPosition += part.getPart().length();
         if (hasFakeContent(i, parts)) {
           plainTextPosition += parts.get(i + 1).getPart().length();
           i++;
-          if (mapping.get(plainTextPosition) == null) {
-            MappingValue mappingValue = new MappingValue(totalPosition, part.getPart().length());
-            mapping.put(plainTextPosition, mappingValue);
+          if (plainTextPositions.isEmpty() || plainTextPositions.getInt(plainTextPositions.size() - 1) != plainTextPosition) {
+            plainTextPositions.add(plainTextPosition);
+            totalPositions.add(totalPosition);
+            fakeMarkupLengths.add(part.getPart().length());
           }
         }
       }
     }
-    return new AnnotatedText(parts, mapping, metaData, customMetaData);
+    return new AnnotatedText(parts, plainTextPositions.toIntArray(), totalPositions.toIntArray(),
+      fakeMarkupLengths.toIntArray(), metaData, customMetaData);
   }
 
   private boolean hasFakeContent(int i, List<TextPart> parts) {
@@ -0,0 +1,214 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.languagetool.rules.ml.MLServerGrpc.MLServerFutureStub;
+import org.languagetool.rules.ml.MLServerProto.MatchRequest;
+import org.languagetool.rules.ml.MLServerProto.MatchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines the {@link MatchRequest}s of concurrent checks into a single call to the ML server:
+ * requests are collected until they contain {@code maxSentences} sentences or the first of them
+ * has waited for {@code maxDelayMillis}, then they are sent as one request and the response
+ * is split up again. Each caller still waits for its result with its own timeout.
+ * @since 6.4
+ */
+class GRPCRequestCoalescer {
+
+  private static final Logger logger = LoggerFactory.getLogger(GRPCRequestCoalescer.class);
+
+  private final MLServerFutureStub stub;
+  private final long maxDelayMillis;
+  private final int maxSentences;
+  private final ScheduledExecutorService scheduler;
+
+  private List<PendingRequest> pending = new ArrayList<>();
+  private int pendingSentences;
+  private ScheduledFuture<?> scheduledFlush;
+  private boolean shutDown;
+
+  GRPCRequestCoalescer(MLServerFutureStub stub, long maxDelayMillis, int maxSentences, String name) {
+    if (maxDelayMillis <= 0 || maxSentences <= 0) {
+      throw new IllegalArgumentException("maxDelayMillis and maxSentences must be > 0: " + maxDelayMillis + ", " + maxSentences);
+    }
+    this.stub = stub;
+    this.maxDelayMillis = maxDelayMillis;
+    this.maxSentences = maxSentences;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+      .setNameFormat("grpc-coalescer-" + name + "-%d").setDaemon(true).build());
+  }
+
+  /**
+   * @param timeoutMilliseconds deadline for the remote call, &lt;=0 -&gt; unlimited;
+   *                            the combined request uses the longest deadline of its parts
+   * @return future with the part of the combined response that belongs to {@code request}
+   */
+  ListenableFuture<MatchResponse> match(MatchRequest request, long timeoutMilliseconds) {
+    PendingRequest req = new PendingRequest(request, timeoutMilliseconds);
+    List<PendingRequest> batch = null;
+    synchronized (this) {
+      if (shutDown) {
+        req.result.setException(new CancellationException("Request coalescer has been shut down"));
+        return req.result;
+      }
+      pending.add(req);
+      pendingSentences += request.getSentencesCount();
+      if (pendingSentences >= maxSentences) {
+        batch = takePending();
+      } else if (scheduledFlush == null) {
+        scheduledFlush = scheduler.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+    if (batch != null) {
+      send(batch);
+    }
+    return req.result;
+  }
+
+  private void flush() {
+    List<PendingRequest> batch;
+    synchronized (this) {
+      batch = takePending();
+    }
+    if (!batch.isEmpty()) {
+      send(batch);
+    }
+  }
+
+  private List<PendingRequest> takePending() {
+    List<PendingRequest> batch = pending;
+    pending = new ArrayList<>();
+    pendingSentences = 0;
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    return batch;
+  }
+
+  private void send(List<PendingRequest> batch) {
+    MatchRequest.Builder combined = MatchRequest.newBuilder().setInputLogging(true);
+    long now = System.nanoTime();
+    long timeoutNanos = 0;  // the longest remaining time of the callers
+    boolean unlimited = false;
+    for (PendingRequest req : batch) {
+      combined.addAllSentences(req.request.getSentencesList());
+      // session IDs are given per sentence, but they're optional - keep them aligned with the sentences:
+      if (req.request.getTextSessionIDCount() == req.request.getSentencesCount()) {
+        combined.addAllTextSessionID(req.request.getTextSessionIDList());
+      } else {
+        for (int i = 0; i < req.request.getSentencesCount(); i++) {
+          combined.addTextSessionID(0);
+        }
+      }
+      // only log input if all callers allow it:
+      combined.setInputLogging(combined.getInputLogging() && req.request.getInputLogging());
+      if (req.hasDeadline) {
+        timeoutNanos = Math.max(timeoutNanos, Math.max(1, req.deadlineNanos - now));
+      } else {
+        unlimited = true;
+      }
+    }
+    boolean anySessionId = batch.stream().anyMatch(req -> req.request.getTextSessionIDCount() > 0);
+    if (!anySessionId) {
+      combined.clearTextSessionID();
+    }
+    if (batch.size() > 1) {
+      logger.debug("Sending {} requests with {} sentences as one request", batch.size(), combined.getSentencesCount());
+    }
+    ListenableFuture<MatchResponse> response;
+    try {
+      if (!unlimited) {
+        response = stub.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS).match(combined.build());
+      } else {
+        response = stub.match(combined.build());
+      }
+    } catch (RuntimeException e) {
+      batch.forEach(req -> req.result.setException(e));
+      return;
+    }
+    Futures.addCallback(response, new FutureCallback<MatchResponse>() {
+      @Override
+      public void onSuccess(MatchResponse result) {
+        if (result.getSentenceMatchesCount() != combined.getSentencesCount()) {
+          onFailure(new IllegalStateException("Got results for " + result.getSentenceMatchesCount() +
+            " sentences, expected " + combined.getSentencesCount()));
+          return;
+        }
+        int offset = 0;
+        for (PendingRequest req : batch) {
+          int count = req.request.getSentencesCount();
+          req.result.set(MatchResponse.newBuilder()
+            .addAllSentenceMatches(result.getSentenceMatchesList().subList(offset, offset + count))
+            .build());
+          offset += count;
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        batch.forEach(req -> req.result.setException(t));
+      }
+    }, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Stops the coalescer. Requests that haven't been sent yet and later requests fail with a {@link CancellationException}.
+   */
+  void shutdown() {
+    List<PendingRequest> batch;
+    synchronized (this) {
+      shutDown = true;
+      batch = takePending();
+    }
+    scheduler.shutdownNow();
+    CancellationException e = new CancellationException("Request coalescer has been shut down");
+    batch.forEach(req -> req.result.setException(e));
+  }
+
+  private static class PendingRequest {
+    private final MatchRequest request;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private final SettableFuture<MatchResponse> result = SettableFuture.create();
+
+    PendingRequest(MatchRequest request, long timeoutMilliseconds) {
+      this.request = request;
+      this.hasDeadline = timeoutMilliseconds > 0;
+      this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMilliseconds));
+    }
+  }
+
+}
@@ -140,6 +140,8 @@ public abstract class GRPCRule extends RemoteRule {
   public static class Connection {
     final ManagedChannel channel;
     final MLServerFutureStub stub;
+    @Nullable
+    final GRPCRequestCoalescer coalescer;
 
     public static ManagedChannel getManagedChannel(String host, int port, boolean useSSL, @Nullable String clientPrivateKey, @Nullable String clientCertificate, @Nullable String rootCertificate) throws SSLException {
       NettyChannelBuilder channelBuilder;
@@ -174,9 +176,21 @@ public abstract class GRPCRule extends RemoteRule {
       String ca = serviceConfiguration.getOptions().get("rootCertificate");
       this.channel = getManagedChannel(host, port, ssl, key, cert, ca);
       this.stub = MLServerGrpc.newFutureStub(channel);
+      // combine requests of concurrent checks into one remote call, waiting at most coalesceMillis for more requests:
+      long coalesceMillis = Long.parseLong(serviceConfiguration.getOptions().getOrDefault("coalesceMillis", "0"));
+      if (coalesceMillis > 0) {
+        int maxSentences = Integer.parseInt(serviceConfiguration.getOptions().getOrDefault("coalesceMaxSentences",
+          serviceConfiguration.getOptions().getOrDefault("batchSize", String.valueOf(DEFAULT_BATCH_SIZE))));
+        this.coalescer = new GRPCRequestCoalescer(stub, coalesceMillis, maxSentences, serviceConfiguration.getRuleId());
+      } else {
+        this.coalescer = null;
+      }
     }
 
     private void shutdown() {
+      if (coalescer != null) {
+        coalescer.shutdown();
+      }
       if (channel != null) {
         channel.shutdownNow();
       }
@@ -320,6 +334,7 @@ public abstract class GRPCRule extends RemoteRule {
         return new RemoteRuleResult(false, true, Collections.emptyList(), reqArgs.sentences);
       }
 
+      long startNanos = System.nanoTime();
       List<AnalyzedSentence> sentences;
       List<ListenableFuture<MatchResponse>> futures = new ArrayList<>();
       List<MatchResponse> responses = new ArrayList<>();
@@ -343,7 +358,9 @@ public abstract class GRPCRule extends RemoteRule {
           sentences = reqData.sentences;
 
           for (MLServerProto.MatchRequest req : reqData.requests) {
-            if (timeoutMilliseconds > 0) {
+            if (conn.coalescer != null) {
+              futures.add(conn.coalescer.match(req, timeoutMilliseconds));
+            } else if (timeoutMilliseconds > 0) {
               logger.debug("Deadline for rule {}: {}ms", getId(), timeoutMilliseconds);
               futures.add(conn.stub
                 .withDeadlineAfter(timeoutMilliseconds, TimeUnit.MILLISECONDS)
@@ -355,7 +372,13 @@ public abstract class GRPCRule extends RemoteRule {
         }
         // TODO: handle partial failures
         for (ListenableFuture<MatchResponse> res : futures) {
-          responses.add(res.get());
+          if (conn.coalescer != null && !sendAnalyzedData && timeoutMilliseconds > 0) {
+            // a combined request has the deadline of its slowest part, so enforce our own timeout here
+            long remainingNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMilliseconds) - System.nanoTime();
+            responses.add(res.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS));
+          } else {
+            responses.add(res.get());
+          }
         }
       } catch (StatusRuntimeException e) {
         if (e.getStatus().getCode() == Status.DEADLINE_EXCEEDED.getCode()) {
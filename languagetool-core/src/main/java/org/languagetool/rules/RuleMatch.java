@@ -505,6 +505,15 @@ public class RuleMatch implements Comparable<RuleMatch> {
     suggestionsComputed = true;
   }
 
+  /**
+   * @return {@code false} if the suggestions have been set with {@link #setLazySuggestedReplacements(Supplier)}
+   * and {@link #computeLazySuggestedReplacements()} hasn't been called yet
+   * @since 6.4
+   */
+  public boolean isSuggestionsComputed() {
+    return suggestionsComputed;
+  }
+
   /**
    * Discard lazy suggested replacements, but keep other suggestions
    * Useful to enforce time limits on result computation
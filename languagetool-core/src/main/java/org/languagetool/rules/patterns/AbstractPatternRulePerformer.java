@@ -68,20 +68,36 @@ public abstract class AbstractPatternRulePerformer {
 
     int[] tokenPositions = new int[patternTokenMatchers.size()];
     int limit = rule.isSentStart() ? 1 : Math.max(0, tokens.length - patternSize + 1) + minOccurCorrection;
+    // only try positions where the literal tokens at the start of the pattern occur, if there are any:
+    boolean checkPrefix = rule.literalPrefix.size() > 1 || anchorIndices == null && !rule.literalPrefix.isEmpty();
+    String[] lowerCaseTokens = checkPrefix ? lowerCaseTokens(sentence, tokens) : null;
     if (anchorIndices != null) {
       for (Integer anchorIndex : anchorIndices) {
         int i = anchorIndex - anchor.tokenIndex;
-        if (i >= 0 && i < limit) {
+        if (i >= 0 && i < limit && (!checkPrefix || rule.matchesLiteralPrefix(lowerCaseTokens, i))) {
           matchFrom(i, tokens, consumer, tokenPositions);
         }
       }
     } else {
       for (int i = 0; i < limit; i++) {
-        matchFrom(i, tokens, consumer, tokenPositions);
+        if (!checkPrefix || rule.matchesLiteralPrefix(lowerCaseTokens, i)) {
+          matchFrom(i, tokens, consumer, tokenPositions);
+        }
       }
     }
   }
 
+  private String[] lowerCaseTokens(AnalyzedSentence sentence, AnalyzedTokenReadings[] tokens) {
+    if (!isInterpretPosTagsPreDisambiguation()) {
+      return sentence.getLowerCaseTokensWithoutWhitespace();
+    }
+    String[] result = new String[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      result[i] = tokens[i].getToken().toLowerCase();
+    }
+    return result;
+  }
+
   private void matchFrom(int startIndex, AnalyzedTokenReadings[] tokens, MatchConsumer consumer, int[] tokenPositions) throws IOException {
     PatternTokenMatcher pTokenMatcher = null;
     int skipShiftTotal = 0;
@@ -24,6 +24,7 @@ import org.languagetool.AnalyzedSentence;
 import org.languagetool.Language;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * A base class for {@link PatternToken}-based rules.
@@ -39,11 +40,16 @@ public abstract class AbstractTokenBasedRule extends AbstractPatternRule {
   @Nullable
   final TokenHint anchorHint;
 
+  // Possible lowercase texts of the leading pattern tokens that must match consecutive sentence tokens
+  // (e.g. "in", "the", "past"), empty if the first pattern token isn't such a literal
+  final List<Set<String>> literalPrefix;
+
   protected AbstractTokenBasedRule(String id, String description, Language language, List<PatternToken> patternTokens, boolean getUnified) {
     super(id, description, language, patternTokens, getUnified);
 
     Set<TokenHint> tokenHints = new HashSet<>();
     TokenHint anchorHint = null;
+    List<Set<String>> literalPrefix = new ArrayList<>();
 
     boolean fixedOffset = true;
     for (int i = 0; i < patternTokens.size(); i++) {
@@ -51,6 +57,9 @@ public abstract class AbstractTokenBasedRule extends AbstractPatternRule {
 
       boolean inflected = false;
       Set<String> hints = token.calcFormHints();
+      if (fixedOffset && literalPrefix.size() == i && hints != null && token.getMinOccurrence() == 1) {
+        literalPrefix.add(hints.stream().map(String::toLowerCase).collect(Collectors.toSet()));
+      }
       if (hints == null) {
         inflected = true;
         hints = token.calcLemmaHints();
@@ -74,6 +83,23 @@ public abstract class AbstractTokenBasedRule extends AbstractPatternRule {
         .thenComparing(th -> -Arrays.stream(th.lowerCaseValues).mapToInt(String::length).min().orElse(0))
       ).toArray(TokenHint[]::new);
     this.anchorHint = anchorHint;
+    this.literalPrefix = Collections.unmodifiableList(literalPrefix);
+  }
+
+  /**
+   * A fast check whether the {@link #literalPrefix} occurs at the given position. Used for performance optimization.
+   * @param lowerCaseTokens the lowercase non-whitespace tokens of a sentence
+   */
+  boolean matchesLiteralPrefix(String[] lowerCaseTokens, int startIndex) {
+    if (startIndex + literalPrefix.size() > lowerCaseTokens.length) {
+      return false;
+    }
+    for (int i = 0; i < literalPrefix.size(); i++) {
+      if (!literalPrefix.get(i).contains(lowerCaseTokens[startIndex + i])) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
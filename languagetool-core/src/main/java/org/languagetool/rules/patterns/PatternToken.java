@@ -27,6 +27,8 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.chunking.ChunkTag;
 import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tagging.PosTagMatcher;
+import org.languagetool.tagging.Tagset;
 import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
@@ -358,7 +360,7 @@ public class PatternToken implements Cloneable {
     if (tokenPos == null) {
       return false;
     }
-    return pos.posPattern != null ? pos.posPattern.matches(tokenPos) : pos.posTag.equals(tokenPos);
+    return pos.posMatcher != null ? pos.posMatcher.matches(token) : pos.posTag.equals(tokenPos);
   }
 
   private String getTestToken(AnalyzedToken token) {
@@ -796,16 +798,18 @@ public class PatternToken implements Cloneable {
     private final String posTag;
     private final boolean negation;
     private final StringMatcher posPattern;
+    private final PosTagMatcher posMatcher;
     private final boolean posUnknown;
 
     public PosToken(String posTag, boolean regExp, boolean negation) {
-      this(posTag, negation, regExp ? StringMatcher.regexp(posTag) : null);
+      this(posTag, negation, regExp ? StringMatcher.regexp(posTag) : null, null);
     }
 
-    PosToken(String posTag, boolean negation, StringMatcher matcher) {
+    PosToken(String posTag, boolean negation, StringMatcher matcher, @Nullable Tagset tagset) {
       this.posTag = posTag;
       this.negation = negation;
       posPattern = matcher;
+      posMatcher = matcher != null ? new PosTagMatcher(matcher, tagset) : null;
       posUnknown = posPattern != null ? posPattern.matches(UNKNOWN_TAG) : UNKNOWN_TAG.equals(posTag);
     }
 
@@ -18,7 +18,9 @@
  */
 package org.languagetool.rules.patterns;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.rules.Rule;
 
@@ -78,7 +80,7 @@ public abstract class RuleSet {
 
   /**
    * @return a RuleSet whose {@link #rulesForSentence} excludes rules requiring token texts or lemmas
-   * that don't occur in the given sentence
+   * that don't occur in the given sentence. All the hints of a rule are considered, not just the first one.
    */
   public static RuleSet textLemmaHinted(List<? extends Rule> rules) {
     return hinted(rules, true);
@@ -92,32 +94,47 @@ public abstract class RuleSet {
     return hinted(rules, false);
   }
 
+  /**
+   * Creates a RuleSet with an inverted index from token texts (and lemmas, if {@code withLemmaHints})
+   * to the hints of all the rules requiring them. For a sentence, each occurring token/lemma marks
+   * the hints it satisfies, and only rules with all their hints satisfied are returned
+   * (for rules with more than {@link Long#SIZE} hints, only the first ones are considered).
+   * Rules starting with several literal tokens are additionally only returned if that
+   * token sequence occurs in the sentence, see {@link TokenSequenceIndex}.
+   */
   private static RuleSet hinted(List<? extends Rule> rules, boolean withLemmaHints) {
     List<Rule> allRules = Collections.unmodifiableList(rules);
-    Map<String, BitSet> byToken = new HashMap<>();
-    Map<String, BitSet> byLemma = new HashMap<>();
+    Map<String, IntArrayList> tokenPostings = new HashMap<>();
+    Map<String, IntArrayList> lemmaPostings = new HashMap<>();
+    long[] requiredHints = new long[allRules.size()];
     BitSet unclassified = new BitSet();
+    TokenSequenceIndex sequenceIndex = new TokenSequenceIndex();
     for (int i = 0; i < allRules.size(); i++) {
       Rule rule = allRules.get(i);
-      boolean classified = false;
+      AbstractTokenBasedRule.TokenHint[] tokenHints =
+        rule instanceof AbstractTokenBasedRule ? ((AbstractTokenBasedRule) rule).tokenHints : null;
       if (rule instanceof AbstractTokenBasedRule) {
-        AbstractTokenBasedRule.TokenHint[] tokenHints = ((AbstractTokenBasedRule) rule).tokenHints;
-        AbstractTokenBasedRule.TokenHint firstHint =
-          tokenHints == null ? null :
-          withLemmaHints ? tokenHints[0] :
-          Arrays.stream(tokenHints).filter(th -> !th.inflected).findFirst().orElse(null);
-        if (firstHint != null) {
-          classified = true;
-          Map<String, BitSet> map = firstHint.inflected ? byLemma : byToken;
-          for (String hint : firstHint.lowerCaseValues) {
-            map.computeIfAbsent(hint, __ -> new BitSet()).set(i);
+        sequenceIndex.add(i, ((AbstractTokenBasedRule) rule).literalPrefix);
+      }
+      int hintIndex = 0;
+      if (tokenHints != null) {
+        for (AbstractTokenBasedRule.TokenHint hint : tokenHints) {
+          if (hintIndex == Long.SIZE) break;
+          if (hint.inflected && !withLemmaHints) continue;
+          Map<String, IntArrayList> postings = hint.inflected ? lemmaPostings : tokenPostings;
+          for (String value : hint.lowerCaseValues) {
+            postings.computeIfAbsent(value, __ -> new IntArrayList()).add(i * Long.SIZE + hintIndex);
           }
+          requiredHints[i] |= 1L << hintIndex;
+          hintIndex++;
         }
       }
-      if (!classified) {
+      if (hintIndex == 0) {
         unclassified.set(i);
       }
     }
+    Map<String, int[]> byToken = toArrays(tokenPostings);
+    Map<String, int[]> byLemma = toArrays(lemmaPostings);
     return new RuleSet() {
       @Override
       public List<Rule> allRules() {
@@ -128,25 +145,42 @@ public abstract class RuleSet {
       public List<Rule> rulesForSentence(AnalyzedSentence sentence) {
         BitSet included = new BitSet();
         included.or(unclassified);
+        long[] satisfiedHints = new long[requiredHints.length];
         if (!byLemma.isEmpty()) {
           for (String lemma : sentence.getLemmaSet()) {
-            BitSet set = byLemma.get(lemma);
-            if (set != null) {
-              included.or(set);
-            }
+            markSatisfied(byLemma.get(lemma), satisfiedHints, included);
           }
         }
         for (String token : sentence.getTokenSet()) {
-          BitSet set = byToken.get(token);
-          if (set != null) {
-            included.or(set);
-          }
+          markSatisfied(byToken.get(token), satisfiedHints, included);
+        }
+        if (!sequenceIndex.isEmpty()) {
+          included.andNot(sequenceIndex.findMissing(sentence.getLowerCaseTokensWithoutWhitespace()));
         }
         return filterList(included, allRules);
       }
+
+      private void markSatisfied(@Nullable int[] postings, long[] satisfiedHints, BitSet included) {
+        if (postings == null) return;
+        for (int posting : postings) {
+          int ruleIndex = posting / Long.SIZE;
+          long satisfied = satisfiedHints[ruleIndex] |= 1L << (posting % Long.SIZE);
+          if (satisfied == requiredHints[ruleIndex]) {
+            included.set(ruleIndex);
+          }
+        }
+      }
     };
   }
 
+  private static Map<String, int[]> toArrays(Map<String, IntArrayList> postings) {
+    Map<String, int[]> result = new HashMap<>(postings.size() * 4 / 3 + 1);
+    for (Map.Entry<String, IntArrayList> entry : postings.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().toIntArray());
+    }
+    return result;
+  }
+
   @ApiStatus.Internal
   public static <T> List<T> filterList(BitSet includedIndices, List<T> list) {
     List<T> result = new ArrayList<>();
@@ -0,0 +1,97 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.*;
+
+/**
+ * A trie over the {@link AbstractTokenBasedRule#literalPrefix literal prefixes} of many rules.
+ * One pass over the tokens of a sentence finds all rules whose prefix occurs in it, instead of
+ * asking every rule separately.
+ * @since 6.4
+ */
+final class TokenSequenceIndex {
+
+  // prefixes with many alternatives per token are only indexed up to this number of token sequences:
+  private static final int MAX_SEQUENCES_PER_RULE = 64;
+
+  private final Node root = new Node();
+  private final BitSet indexedRules = new BitSet();
+
+  /**
+   * Index the given rule, if its literal prefix is long enough to be more selective than its token hints.
+   */
+  void add(int ruleIndex, List<Set<String>> literalPrefix) {
+    int length = 0;
+    int sequences = 1;
+    while (length < literalPrefix.size() && sequences * literalPrefix.get(length).size() <= MAX_SEQUENCES_PER_RULE) {
+      sequences *= literalPrefix.get(length).size();
+      length++;
+    }
+    if (length < 2) {
+      return;
+    }
+    List<Node> nodes = Collections.singletonList(root);
+    for (Set<String> alternatives : literalPrefix.subList(0, length)) {
+      List<Node> next = new ArrayList<>();
+      for (Node node : nodes) {
+        for (String alternative : alternatives) {
+          next.add(node.children.computeIfAbsent(alternative, __ -> new Node()));
+        }
+      }
+      nodes = next;
+    }
+    for (Node node : nodes) {
+      node.rules.add(ruleIndex);
+    }
+    indexedRules.set(ruleIndex);
+  }
+
+  boolean isEmpty() {
+    return indexedRules.isEmpty();
+  }
+
+  /**
+   * @param lowerCaseTokens the lowercase non-whitespace tokens of a sentence
+   * @return the indexed rules whose literal prefix does <em>not</em> occur in the tokens
+   */
+  BitSet findMissing(String[] lowerCaseTokens) {
+    BitSet missing = (BitSet) indexedRules.clone();
+    for (int start = 0; start < lowerCaseTokens.length; start++) {
+      Node node = root;
+      for (int i = start; i < lowerCaseTokens.length; i++) {
+        node = node.children.get(lowerCaseTokens[i]);
+        if (node == null) {
+          break;
+        }
+        for (int j = 0; j < node.rules.size(); j++) {
+          missing.clear(node.rules.getInt(j));
+        }
+      }
+    }
+    return missing;
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private final IntArrayList rules = new IntArrayList(0);
+  }
+}
@@ -27,6 +27,7 @@ import org.languagetool.chunking.ChunkTag;
 import org.languagetool.rules.CorrectExample;
 import org.languagetool.rules.ErrorTriggeringExample;
 import org.languagetool.rules.IncorrectExample;
+import org.languagetool.tagging.Tagset;
 import org.languagetool.tagging.disambiguation.rules.DisambiguationPatternRule;
 import org.languagetool.tools.StringTools;
 import org.xml.sax.Attributes;
@@ -668,7 +669,7 @@ public class XMLRuleHandler extends DefaultHandler {
   private PatternToken.PosToken obtainPosToken(String posToken, boolean regExp, boolean negated) {
     return internedPos.computeIfAbsent(Triple.of(posToken, regExp, negated), t -> {
       StringMatcher matcher = t.getMiddle() ? internMatcher(t.getLeft(), true, true) : null;
-      return new PatternToken.PosToken(t.getLeft(), t.getRight(), matcher);
+      return new PatternToken.PosToken(t.getLeft(), t.getRight(), matcher, language != null ? Tagset.forLanguage(language) : null);
     });
   }
 
@@ -0,0 +1,151 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.spelling;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.prometheus.client.Counter;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.Language;
+import org.languagetool.UserConfig;
+import org.languagetool.rules.SuggestedReplacement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the ranked suggestions of spelling rules per language and misspelled word,
+ * as the same misspellings occur again and again in the server use case.
+ * Suggestions that depend on a user's dictionary are never cached, see {@link #isApplicable(UserConfig)}.
+ * @since 6.4
+ */
+@ApiStatus.Internal
+public final class SuggestionsCache {
+
+  // rough upper limit for the memory used by the cache, in bytes:
+  private static final long DEFAULT_MAX_BYTES = 50L * 1024 * 1024;
+  private static final int ENTRY_OVERHEAD = 64;
+  private static final int SUGGESTION_OVERHEAD = 56;
+
+  private static volatile Cache<String, List<SuggestedReplacement>> cache = build(DEFAULT_MAX_BYTES);
+  private static volatile long maxBytes = DEFAULT_MAX_BYTES;
+
+  private static final Counter hits = Counter
+    .build("languagetool_spelling_suggestions_cache_hits_total", "Spelling suggestions taken from the cache")
+    .labelNames("language")
+    .register();
+
+  private static final Counter misses = Counter
+    .build("languagetool_spelling_suggestions_cache_misses_total", "Spelling suggestions not found in the cache")
+    .labelNames("language")
+    .register();
+
+  private SuggestionsCache() {
+  }
+
+  private static Cache<String, List<SuggestedReplacement>> build(long maxBytes) {
+    return CacheBuilder.newBuilder()
+      .maximumWeight(maxBytes)
+      .weigher((String key, List<SuggestedReplacement> value) -> weigh(key, value))
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+  }
+
+  /**
+   * Set the approximate maximum memory used by the cached suggestions of all rules, 0 disables caching.
+   * Drops all cached suggestions.
+   */
+  public static void setMaxBytes(long maxBytes) {
+    SuggestionsCache.maxBytes = maxBytes;
+    cache = build(Math.max(0, maxBytes));
+  }
+
+  public static long getMaxBytes() {
+    return maxBytes;
+  }
+
+  @FunctionalInterface
+  public interface SuggestionsLoader {
+    List<SuggestedReplacement> load() throws IOException;
+  }
+
+  /**
+   * Whether suggestions can be cached for the given user. This is not the case if the
+   * user has a personal dictionary, as its words are suggested and also affect the filtering.
+   */
+  public static boolean isApplicable(@Nullable UserConfig userConfig) {
+    return userConfig == null || userConfig.getAcceptedWords().isEmpty();
+  }
+
+  /**
+   * Get the suggestions for the given word from the cache or, if they're not cached yet,
+   * calculate them with {@code loader} and cache them.
+   * @param ruleId ID of the spelling rule, as rules of the same language may suggest differently
+   * @param variant anything else the suggestions depend on, e.g. the dictionary or an experiment setting, or {@code ""}
+   * @return a copy of the suggestions that the caller may modify
+   */
+  public static List<SuggestedReplacement> get(String ruleId, Language language, String variant, String word,
+                                               SuggestionsLoader loader) throws IOException {
+    if (maxBytes <= 0) {
+      return loader.load();
+    }
+    String langCode = language.getShortCodeWithCountryAndVariant();
+    String key = ruleId + '\t' + langCode + '\t' + variant + '\t' + word;
+    List<SuggestedReplacement> cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hits.labels(langCode).inc();
+      return copyOf(cached);
+    }
+    misses.labels(langCode).inc();
+    List<SuggestedReplacement> suggestions = loader.load();
+    cache.put(key, Collections.unmodifiableList(copyOf(suggestions)));
+    return suggestions;
+  }
+
+  /**
+   * @return the approximate number of entries in the cache
+   */
+  public static long size() {
+    return cache.size();
+  }
+
+  public static void clear() {
+    cache.invalidateAll();
+  }
+
+  private static List<SuggestedReplacement> copyOf(List<SuggestedReplacement> suggestions) {
+    List<SuggestedReplacement> result = new ArrayList<>(suggestions.size());
+    for (SuggestedReplacement suggestion : suggestions) {
+      result.add(new SuggestedReplacement(suggestion));
+    }
+    return result;
+  }
+
+  private static int weigh(String key, List<SuggestedReplacement> suggestions) {
+    int weight = ENTRY_OVERHEAD + 2 * key.length();
+    for (SuggestedReplacement suggestion : suggestions) {
+      weight += SUGGESTION_OVERHEAD + 2 * suggestion.getReplacement().length();
+    }
+    return weight;
+  }
+}
@@ -32,6 +32,7 @@ import org.languagetool.rules.SuggestedReplacement;
 import org.languagetool.rules.spelling.ForeignLanguageChecker;
 import org.languagetool.rules.spelling.RuleWithLanguage;
 import org.languagetool.rules.spelling.SpellingCheckRule;
+import org.languagetool.rules.spelling.SuggestionsCache;
 import org.languagetool.tools.Tools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,7 @@ public class HunspellRule extends SpellingCheckRule {
 
   private volatile boolean needsInit = true;
   protected volatile HunspellDictionary hunspell = null;
+  private volatile String dictionaryId = "";  // identifies the dictionary in the SuggestionsCache
 
   private static final Logger logger = LoggerFactory.getLogger(HunspellRule.class);
   private static final ConcurrentLinkedQueue<String> activeChecks = new ConcurrentLinkedQueue<>();
@@ -250,7 +252,9 @@ public class HunspellRule extends SpellingCheckRule {
             System.out.println(sdf.format(new Date()) + " - speller: " + cleanWord2);
           }
           if (userConfig == null || userConfig.getMaxSpellingSuggestions() == 0 || ruleMatches.size() <= userConfig.getMaxSpellingSuggestions()) {
-            List<SuggestedReplacement> sugg = calcSuggestions(word, cleanWord2);
+            List<SuggestedReplacement> sugg = SuggestionsCache.isApplicable(userConfig)
+              ? SuggestionsCache.get(getId(), language, dictionaryId, word, () -> calcSuggestions(word, cleanWord2))
+              : calcSuggestions(word, cleanWord2);
             if (isFirstItemHighConfidenceSuggestion(word, sugg)) {
               sugg.get(0).setConfidence(HIGH_CONFIDENCE);
             }
@@ -517,12 +521,14 @@ public class HunspellRule extends SpellingCheckRule {
         } else {
           affPath = Paths.get(path + ".aff");
           hunspell = Hunspell.getDictionary(Paths.get(path + ".dic"), affPath);
+          dictionaryId = shortDicPath;
           addIgnoreWords();
         }
       } else if (new File(shortDicPath + ".dic").exists()) {
         // for dynamic languages
         affPath = Paths.get(shortDicPath + ".aff");
         hunspell = Hunspell.getDictionary(Paths.get(shortDicPath + ".dic"), affPath);
+        dictionaryId = shortDicPath;
       }
       if (affPath != null) {
         try (Scanner sc = new Scanner(affPath)) {
@@ -24,8 +24,6 @@ import morfologik.fsa.builders.CFSA2Serializer;
 import morfologik.fsa.builders.FSABuilder;
 import morfologik.stemming.Dictionary;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.languagetool.Language;
@@ -34,6 +32,7 @@ import org.languagetool.rules.spelling.SpellingCheckRule;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -82,9 +81,7 @@ public class MorfologikMultiSpeller {
         return lines;
       }
     });
-  private static final Map<String, Dictionary> dicPathToDict = new HashMap<>();
-  private static final Map<UserDictCacheKey, Cache<String, Dictionary>> userDictCaches = new HashMap<>();
-  private static final Map<UserDictCacheKey, Map<String, Integer>> userDictSizes = new HashMap<>();
+  private static final Map<String, Dictionary> dicPathToDict = new ConcurrentHashMap<>();
   private final List<MorfologikSpeller> spellers;
   private final List<MorfologikSpeller> defaultDictSpellers;
   private final List<MorfologikSpeller> userDictSpellers;
@@ -92,7 +89,6 @@ public class MorfologikMultiSpeller {
   private final Long premiumUid;
   private final Long userDictCacheSize;
   private final String userDictName;
-  private final UserDictCacheKey userDictCacheKey;
   private final Language language;
 
   public MorfologikMultiSpeller(String binaryDictPath, List<String> plainTextPaths, String languageVariantPlainTextPath,
@@ -149,11 +145,6 @@ public class MorfologikMultiSpeller {
       userDictName = userConfig.getUserDictName();
       userDictCacheSize = userConfig.getUserDictCacheSize();
     }
-    if (premiumUid != null && userDictCacheSize != null) {
-      userDictCacheKey = new UserDictCacheKey(premiumUid, binaryDictPath);
-    } else {
-      userDictCacheKey = null;
-    }
     MorfologikSpeller speller = getBinaryDict(binaryDictPath, maxEditDistance);
     List<MorfologikSpeller> spellers = new ArrayList<>();
     MorfologikSpeller userDictSpeller = getUserDictSpellerOrNull(userConfig, binaryDictPath, maxEditDistance);
@@ -195,28 +186,7 @@ public class MorfologikMultiSpeller {
    * for tests only
    */
   public static void clearUserDictCache() {
-    userDictCaches.clear();
-    userDictSizes.clear();
-  }
-
-  private Cache<String, Dictionary> getUserDictCache() {
-    if (premiumUid == null || userDictCacheSize == null || userDictName == null) {
-      throw new IllegalStateException("No user / dict caching / dict name configured: "
-        + "user = " + premiumUid + ", cache size = " + userDictCacheSize + ", dict name = " + userDictName);
-    }
-    if (userDictCaches.containsKey(userDictCacheKey)) {
-      return userDictCaches.get(userDictCacheKey);
-    } else {
-      Cache<String, Dictionary> cache = CacheBuilder.newBuilder()
-        .concurrencyLevel(1) // makes eviction behavior easier to understand, makes choosing maximumWeight
-        // easier
-        .expireAfterWrite(10, TimeUnit.MINUTES)
-        .maximumWeight(userDictCacheSize)
-        .weigher((Weigher<String, Dictionary>) (k, v) -> userDictSizes.get(userDictCacheKey).get(k))
-        .build();
-      userDictCaches.put(userDictCacheKey, cache);
-      return cache;
-    }
+    UserDictionaryCache.invalidateAll();
   }
 
   private MorfologikSpeller getUserDictSpellerOrNull(UserConfig userConfig, String dictPath, int maxEditDistance)
@@ -227,17 +197,27 @@ public class MorfologikMultiSpeller {
     if (userConfig.getAcceptedWords().isEmpty()) {
       return null;
     }
-    Supplier<List<byte[]>> byteLinesSupplier = () -> {
-      List<byte[]> byteLines = new ArrayList<>();
-      for (String line : userConfig.getAcceptedWords()) {
-        byteLines.add(line.getBytes(UTF_8));
-      }
-      return byteLines;
-    };
-    Dictionary dictionary = getDictionary(byteLinesSupplier, dictPath,
-      dictPath.replace(DICTIONARY_FILENAME_EXTENSION, ".info"),
-      true, userConfig.getAcceptedWords().size());
-    return new MorfologikSpeller(dictionary, maxEditDistance);
+    List<String> words = userConfig.getAcceptedWords();
+    String infoPath = dictPath.replace(DICTIONARY_FILENAME_EXTENSION, ".info");
+    Dictionary dictionary;
+    // compiling the dictionary takes time, so it's shared by all checks of the user until the words change -
+    // but only for selected users with huge and relatively static dictionaries, up to their number of words:
+    if (userDictCacheSize != null && words.size() <= userDictCacheSize) {
+      dictionary = UserDictionaryCache.get(premiumUid, userDictName != null ? userDictName : "default",
+        dictPath, words, () -> compileUserDict(words, infoPath));
+    } else {
+      dictionary = compileUserDict(words, infoPath).getDictionary();
+    }
+    return new MorfologikSpeller(dictionary, maxEditDistance, false);
+  }
+
+  private static UserDictionaryCache.Entry compileUserDict(List<String> words, String infoPath) throws IOException {
+    List<byte[]> byteLines = new ArrayList<>();
+    for (String line : words) {
+      byteLines.add(line.getBytes(UTF_8));
+    }
+    ByteArrayOutputStream fsa = compile(byteLines);
+    return new UserDictionaryCache.Entry(readDictionary(fsa, infoPath), fsa.size());
   }
 
   private MorfologikSpeller getBinaryDict(String binaryDictPath, int maxEditDistance) {
@@ -267,65 +247,49 @@ public class MorfologikMultiSpeller {
       return lines;
     };
     Dictionary dictionary = getDictionary(lineSupplier, plainTextReaderPaths.toString(),
-      dictPath.replace(DICTIONARY_FILENAME_EXTENSION, ".info"), false, 0);
+      dictPath.replace(DICTIONARY_FILENAME_EXTENSION, ".info"));
     if (dictionary == null) {
       return null;
     }
     return new MorfologikSpeller(dictionary, maxEditDistance);
   }
 
-  private Dictionary getDictionary(Supplier<List<byte[]>> lines, String dictPath, String infoPath, boolean isUserDict,
-                                   int userDictSize)
+  private static Dictionary getDictionary(Supplier<List<byte[]>> lines, String dictPath, String infoPath)
     throws IOException {
     // avoid reading data for dictionaries when we can just use the cached one
     // by passing in lines lazily
     String cacheKey = dictPath + "|" + infoPath;
     Dictionary dictFromCache = dicPathToDict.get(cacheKey);
-    if (!isUserDict && dictFromCache != null) {
+    if (dictFromCache != null) {
       return dictFromCache;
+    }
+    // Creating the dictionary at runtime can easily take 50ms for spelling.txt files
+    // that are ~50KB. We don't want that overhead for every check of a short sentence,
+    // so we cache the result. User dictionaries are cached in UserDictionaryCache.
+    List<byte[]> linesCopy = lines.get();
+    if (linesCopy == null || linesCopy.isEmpty()) {
+      return null;
+    }
+    Dictionary dict = readDictionary(compile(linesCopy), infoPath);
+    dicPathToDict.put(cacheKey, dict);
+    return dict;
+  }
+
+  private static ByteArrayOutputStream compile(List<byte[]> lines) throws IOException {
+    lines.sort(FSABuilder.LEXICAL_ORDERING);
+    FSA fsa = FSABuilder.build(lines);
+    return new CFSA2Serializer().serialize(fsa, new ByteArrayOutputStream());
+  }
+
+  private static Dictionary readDictionary(ByteArrayOutputStream fsa, String infoPath) throws IOException {
+    ByteArrayInputStream fsaInStream = new ByteArrayInputStream(fsa.toByteArray());
+    InputStream metadata;
+    if (new File(infoPath).exists()) {
+      metadata = new FileInputStream(infoPath);
     } else {
-      if (isUserDict && userDictCacheSize != null) {
-        // for cache weigher, save dictionary sizes
-        userDictSizes.putIfAbsent(userDictCacheKey, new HashMap<>());
-        userDictSizes.get(userDictCacheKey).put(userDictName, userDictSize);
-        Cache<String, Dictionary> userDictCache = getUserDictCache();
-        Dictionary userDict = userDictCache.getIfPresent(userDictName);
-        if (userDict != null) {
-          return userDict;
-        }
-      }
-      // Creating the dictionary at runtime can easily take 50ms for spelling.txt
-      // files
-      // that are ~50KB. We don't want that overhead for every check of a short
-      // sentence,
-      // so we cache the result
-      // Two caches exist: One for the standard dictionaries, which are static and in
-      // dicPathToDict
-      // Another one for user dictionaries, this is only enabled for selected users
-      // with huge and relatively static dictionaries
-      //
-      List<byte[]> linesCopy = lines.get();
-      if (linesCopy.isEmpty()) {
-        return null;
-      }
-      linesCopy.sort(FSABuilder.LEXICAL_ORDERING);
-      FSA fsa = FSABuilder.build(linesCopy);
-      ByteArrayOutputStream fsaOutStream = new CFSA2Serializer().serialize(fsa, new ByteArrayOutputStream());
-      ByteArrayInputStream fsaInStream = new ByteArrayInputStream(fsaOutStream.toByteArray());
-      InputStream metadata;
-      if (new File(infoPath).exists()) {
-        metadata = new FileInputStream(infoPath);
-      } else {
-        metadata = getDataBroker().getFromResourceDirAsStream(infoPath);
-      }
-      Dictionary dict = Dictionary.read(fsaInStream, metadata);
-      if (!isUserDict) {
-        dicPathToDict.put(cacheKey, dict);
-      } else if (userDictCacheSize != null) {
-        getUserDictCache().put(userDictName, dict);
-      }
-      return dict;
+      metadata = getDataBroker().getFromResourceDirAsStream(infoPath);
     }
+    return Dictionary.read(fsaInStream, metadata);
   }
 
   /**
@@ -410,40 +374,6 @@ public class MorfologikMultiSpeller {
     return convertsCase;
   }
 
-  private static class UserDictCacheKey {
-
-    private final long userId;
-    private final String binaryDictPath;
-
-    UserDictCacheKey(long userId, String binaryDictPath) {
-      this.userId = userId;
-      this.binaryDictPath = binaryDictPath;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-      UserDictCacheKey that = (UserDictCacheKey) o;
-      return new EqualsBuilder()
-        .append(userId, that.userId)
-        .append(binaryDictPath, that.binaryDictPath)
-        .isEquals();
-    }
-
-    @Override
-    public int hashCode() {
-      return new HashCodeBuilder(43, 57)
-        .append(userId)
-        .append(binaryDictPath)
-        .toHashCode();
-    }
-  }
-
   static class BufferedReaderWithSource {
     private final BufferedReader reader;
     private final String readerPath;
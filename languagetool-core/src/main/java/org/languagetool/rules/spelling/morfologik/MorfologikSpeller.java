@@ -22,6 +22,7 @@ import com.google.common.cache.*;
 import morfologik.speller.Speller;
 import morfologik.stemming.Dictionary;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.languagetool.JLanguageTool;
 import org.languagetool.broker.ResourceDataBroker;
 import org.languagetool.rules.patterns.StringMatcher;
@@ -32,12 +33,18 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Morfologik-based spell checker.
+ * Morfologik-based spell checker. Thread-safe: the (thread-safe) {@link Dictionary} is shared,
+ * but each thread uses its own {@link Speller}, so concurrent calls don't block each other.
+ * Spellers for short-lived dictionaries (like a user's own words) don't keep a {@link Speller}
+ * per thread, but only a few for reuse.
  */
 public class MorfologikSpeller {
   
@@ -59,8 +66,13 @@ public class MorfologikSpeller {
         }
       });
 
+  private static final int MAX_IDLE_SPELLERS = 4;
+
   private final Dictionary dictionary;
-  private final Speller speller;
+  // Speller keeps mutable state (e.g. its edit distance matrix) and is not thread-safe, so
+  // there's one per thread for shared dictionaries and a bounded pool for the others:
+  private final @Nullable ThreadLocal<Speller> threadSpellers;
+  private final @Nullable BlockingQueue<Speller> idleSpellers;
   private final int maxEditDistance;
 
   /**
@@ -81,12 +93,23 @@ public class MorfologikSpeller {
 
   /** @since 2.9 */
   MorfologikSpeller(Dictionary dictionary, int maxEditDistance) {
+    this(dictionary, maxEditDistance, true);
+  }
+
+  /**
+   * @param shared whether the dictionary is used by many threads for a long time, like the dictionaries
+   *               of a language. If not (e.g. for a user's own words), the speller doesn't keep a {@link Speller}
+   *               per thread, which would keep the dictionary in memory as long as the threads live.
+   * @since 6.4
+   */
+  MorfologikSpeller(Dictionary dictionary, int maxEditDistance, boolean shared) {
     if (maxEditDistance <= 0) {
       throw new RuntimeException("maxEditDistance must be > 0: " + maxEditDistance);
     }
     this.dictionary = dictionary;
     this.maxEditDistance = maxEditDistance;
-    speller = new Speller(dictionary, maxEditDistance);
+    threadSpellers = shared ? ThreadLocal.withInitial(() -> new Speller(dictionary, maxEditDistance)) : null;
+    idleSpellers = shared ? null : new ArrayBlockingQueue<>(MAX_IDLE_SPELLERS);
   }
 
   /**
@@ -101,25 +124,39 @@ public class MorfologikSpeller {
     if (word.isEmpty() || SpellingCheckRule.LANGUAGETOOL.equals(word) || SpellingCheckRule.LANGUAGETOOLER.equals(word)) {
       return false;
     }
-    synchronized (this) {
-      return speller.isMisspelled(word);
-    }
+    return withSpeller(speller -> speller.isMisspelled(word));
   }
 
-  public synchronized List<String> findReplacements(String word) {
-    return speller.findReplacements(word);
+  public List<String> findReplacements(String word) {
+    return withSpeller(speller -> speller.findReplacements(word));
   }
   
-  public synchronized List<String> findSimilarWords(String word) {
-    return speller.findSimilarWords(word);
+  public List<String> findSimilarWords(String word) {
+    return withSpeller(speller -> speller.findSimilarWords(word));
   }
 
   /**
+   * @return a speller for the current thread, which must not be passed to other threads
    * @deprecated use (or introduce) other methods to this class which would take care of the necessary synchronization
    */
   @Deprecated
   public Speller getSpeller() {
-    return speller;
+    return threadSpellers != null ? threadSpellers.get() : new Speller(dictionary, maxEditDistance);
+  }
+
+  private <T> T withSpeller(Function<Speller, T> function) {
+    if (threadSpellers != null) {
+      return function.apply(threadSpellers.get());
+    }
+    Speller speller = idleSpellers.poll();
+    if (speller == null) {
+      speller = new Speller(dictionary, maxEditDistance);
+    }
+    try {
+      return function.apply(speller);
+    } finally {
+      idleSpellers.offer(speller);  // dropped if there are enough idle spellers
+    }
   }
 
   public List<WeightedSuggestion> getSuggestions(String word) {
@@ -206,7 +243,7 @@ public class MorfologikSpeller {
    * @since 2.5
    */
   public boolean convertsCase() {
-    return speller.convertsCase();
+    return dictionary.metadata.isConvertingCase();
   }
 
   @Override
@@ -214,11 +251,13 @@ public class MorfologikSpeller {
     return "dist=" + maxEditDistance;
   }
 
-  public synchronized int getFrequency(String word) {
-    int freq = speller.getFrequency(word);
-    if (freq == 0 && !word.equals(word.toLowerCase())) {
-      freq = speller.getFrequency(word.toLowerCase());
-    }
-    return freq;
+  public int getFrequency(String word) {
+    return withSpeller(speller -> {
+      int freq = speller.getFrequency(word);
+      if (freq == 0 && !word.equals(word.toLowerCase())) {
+        freq = speller.getFrequency(word.toLowerCase());
+      }
+      return freq;
+    });
   }
 }
@@ -32,6 +32,7 @@ import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.SuggestedReplacement;
 import org.languagetool.rules.spelling.ForeignLanguageChecker;
 import org.languagetool.rules.spelling.SpellingCheckRule;
+import org.languagetool.rules.spelling.SuggestionsCache;
 import org.languagetool.rules.spelling.suggestions.SuggestionsChanges;
 import org.languagetool.rules.translation.TranslationEntry;
 import org.languagetool.rules.translation.Translator;
@@ -541,7 +542,9 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
     return () -> {
       List<SuggestedReplacement> joined;
       try {
-        List<SuggestedReplacement> fromSpeller = calcSpellerSuggestions(word, fullResults);
+        List<SuggestedReplacement> fromSpeller = SuggestionsCache.isApplicable(userConfig)
+          ? SuggestionsCache.get(getId(), language, fullResults ? "fullResults" : "", word, () -> calcSpellerSuggestions(word, fullResults))
+          : calcSpellerSuggestions(word, fullResults);
         joined = joinBeforeAfterSuggestions(fromSpeller, beforeSuggestionStr, afterSuggestionStr);
       } catch (IOException e) {
         throw new RuntimeException(e);
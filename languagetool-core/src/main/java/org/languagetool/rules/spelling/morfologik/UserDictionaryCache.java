@@ -0,0 +1,166 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.spelling.morfologik;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import morfologik.stemming.Dictionary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The compiled dictionaries of users' own words, shared by all spellers. Dictionaries are
+ * stored by user, dictionary name, language (i.e. the binary dictionary whose metadata they use)
+ * and a version that is a SHA-256 hash of the words, so a changed word list never gets an outdated
+ * dictionary. Old versions are removed with {@link #invalidate(long)} when a user's words change,
+ * or when the total size of all dictionaries exceeds the limit, least recently used first.
+ * Only users with a {@link org.languagetool.UserConfig#getUserDictCacheSize() dictionary cache size}
+ * get their dictionaries cached, as long as these don't have more words than that.
+ * @since 6.4
+ */
+public final class UserDictionaryCache {
+
+  private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+  private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+  private static volatile Cache<Key, Entry> cache = build(DEFAULT_MAX_BYTES);
+
+  private UserDictionaryCache() {
+  }
+
+  private static Cache<Key, Entry> build(long maxBytes) {
+    return CacheBuilder.newBuilder()
+      .maximumWeight(maxBytes)
+      .weigher((Key k, Entry v) -> v.bytes)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Set the maximum memory used by the compiled dictionaries of all users. Drops all cached dictionaries.
+   */
+  public static void setMaxBytes(long maxBytes) {
+    cache = build(maxBytes);
+  }
+
+  /**
+   * Remove all dictionaries of the user, e.g. after words have been added or removed.
+   */
+  public static void invalidate(long userId) {
+    cache.asMap().keySet().removeIf(key -> key.userId == userId);
+  }
+
+  public static void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public static long size() {
+    return cache.size();
+  }
+
+  public static double hitRate() {
+    return cache.stats().hitRate();
+  }
+
+  /**
+   * Estimated memory used by all cached dictionaries, in bytes.
+   */
+  public static long bytes() {
+    return cache.asMap().values().stream().mapToLong(e -> e.bytes).sum();
+  }
+
+  /**
+   * @param words the user's words, used to tell versions of the dictionary apart
+   * @param builder compiles the dictionary if it's not cached yet, with its size in bytes
+   */
+  static Dictionary get(long userId, String dictName, String binaryDictPath, List<String> words,
+                        Callable<Entry> builder) throws IOException {
+    Key key = new Key(userId, dictName, binaryDictPath, version(words));
+    try {
+      return cache.get(key, builder).getDictionary();
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException("Could not build dictionary " + dictName + " of user " + userId, e.getCause());
+    }
+  }
+
+  static HashCode version(List<String> words) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String word : words) {
+      // the length keeps e.g. ["ab", "c"] and ["a", "bc"] apart:
+      hasher.putInt(word.length());
+      hasher.putString(word, StandardCharsets.UTF_8);
+    }
+    return hasher.hash();
+  }
+
+  static class Entry {
+    private final Dictionary dictionary;
+    private final int bytes;
+
+    Entry(Dictionary dictionary, int fsaBytes) {
+      this.dictionary = dictionary;
+      this.bytes = fsaBytes + ENTRY_OVERHEAD_BYTES;
+    }
+
+    Dictionary getDictionary() {
+      return dictionary;
+    }
+  }
+
+  private static class Key {
+    private final long userId;
+    private final String dictName;
+    private final String binaryDictPath;
+    private final HashCode version;
+
+    Key(long userId, String dictName, String binaryDictPath, HashCode version) {
+      this.userId = userId;
+      this.dictName = Objects.requireNonNull(dictName);
+      this.binaryDictPath = Objects.requireNonNull(binaryDictPath);
+      this.version = Objects.requireNonNull(version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key other = (Key) o;
+      return userId == other.userId && version.equals(other.version) &&
+        dictName.equals(other.dictName) && binaryDictPath.equals(other.binaryDictPath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, dictName, binaryDictPath, version);
+    }
+  }
+
+}
@@ -48,6 +48,7 @@ public abstract class BaseTagger implements Tagger {
   private final boolean tagLowercaseWithUppercase;
   private final String dictionaryPath;
   private final Dictionary dictionary;
+  private final WordTagCache wordCache;
 
   /**
    * Get the filenames for manual additions, e.g., {@code /en/added.txt}.
@@ -87,6 +88,7 @@ public abstract class BaseTagger implements Tagger {
     this.tagLowercaseWithUppercase = tagLowercaseWithUppercase;
     this.dictionary = MorfologikSpeller.getDictionaryWithCaching(filename);
     this.wordTagger = initWordTagger(internTags);
+    this.wordCache = new WordTagCache(getClass().getName() + ":" + filename);
   }
 
   /**
@@ -105,6 +107,15 @@ public abstract class BaseTagger implements Tagger {
     return false;
   }
 
+  /**
+   * The cache for the readings of words of this tagger, for subclasses whose tagging of
+   * a word is expensive. The subclass decides which words are cached, and in which context.
+   * @since 6.4
+   */
+  protected WordTagCache getWordCache() {
+    return wordCache;
+  }
+
   protected WordTagger getWordTagger() {
     return wordTagger;
   }
@@ -0,0 +1,141 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.rules.patterns.StringMatcher;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * Matches POS tags against a regular expression. Each tag is only matched against the
+ * expression once, the result is then found in a bitset indexed by the tag's id in a
+ * {@link Tagset}, so most matches are a bit lookup. A matcher that's created for a language
+ * uses the language's tagset, other matchers use the tagset of each token they match, i.e. the
+ * one of the language it was tagged with, and keep a bitset per tagset. Thread-safe.
+ * @since 6.4
+ */
+public final class PosTagMatcher {
+
+  private static final Cache<String, PosTagMatcher> regexCache = CacheBuilder.newBuilder().maximumSize(10_000).build();
+
+  // two bits per tag id: 00 = not matched yet, 01 = doesn't match, 11 = matches
+  private static final long KNOWN = 1;
+  private static final long MATCHES = 3;
+
+  private static final AtomicLongArray NO_STATES = new AtomicLongArray(0);
+
+  private final Predicate<String> matcher;
+  @Nullable
+  private final Tagset tagset;
+  // the bitset of the matcher's tagset at index 0, or the bitsets indexed by the tagset's number if it has none
+  private volatile AtomicLongArray[] states = {NO_STATES};
+
+  /**
+   * @param tagset the tagset of the language the matcher is created for, or {@code null} to use the tagset of each matched token
+   */
+  public PosTagMatcher(StringMatcher matcher, @Nullable Tagset tagset) {
+    this(matcher::matches, tagset);
+  }
+
+  PosTagMatcher(Predicate<String> matcher, @Nullable Tagset tagset) {
+    this.matcher = Objects.requireNonNull(matcher);
+    this.tagset = tagset;
+  }
+
+  /**
+   * @return a matcher for the given case-sensitive regular expression, shared with other callers of this method.
+   * It uses the tagset of each token it matches.
+   */
+  public static PosTagMatcher regexp(String posTagRegex) {
+    try {
+      return regexCache.get(posTagRegex, () -> new PosTagMatcher(StringMatcher.regexp(posTagRegex), null));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * @return whether the token has a POS tag that matches
+   */
+  public boolean matches(AnalyzedToken token) {
+    String posTag = token.getPOSTag();
+    if (posTag == null) {
+      return false;
+    }
+    Tagset tagset = this.tagset != null ? this.tagset : token.getTagset();
+    int id = token.getPOSTagId(tagset);
+    if (id < 0) {
+      return matcher.test(posTag);
+    }
+    int index = id >>> 5;
+    int shift = (id & 31) << 1;
+    int slot = this.tagset != null ? 0 : tagset.getNumber();
+    AtomicLongArray[] allStates = this.states;
+    AtomicLongArray states = slot < allStates.length && allStates[slot] != null ? allStates[slot] : NO_STATES;
+    if (index < states.length()) {
+      long state = (states.get(index) >>> shift) & MATCHES;
+      if (state != 0) {
+        return state == MATCHES;
+      }
+    }
+    boolean matches = matcher.test(posTag);
+    if (index >= states.length()) {
+      states = grow(slot, index + 1);
+    }
+    long bits = (matches ? MATCHES : KNOWN) << shift;
+    states.getAndAccumulate(index, bits, (a, b) -> a | b);
+    return matches;
+  }
+
+  /**
+   * @return whether the POS tag matches
+   */
+  public boolean matches(String posTag) {
+    return matcher.test(posTag);
+  }
+
+  // results stored in the old array by other threads while copying might get lost, they're just matched again
+  private synchronized AtomicLongArray grow(int slot, int minLength) {
+    AtomicLongArray[] allStates = Arrays.copyOf(states, Math.max(states.length, slot + 1));
+    AtomicLongArray old = allStates[slot] != null ? allStates[slot] : NO_STATES;
+    if (old.length() >= minLength) {
+      return old;
+    }
+    AtomicLongArray grown = new AtomicLongArray(Math.max(minLength, old.length() * 2));
+    for (int i = 0; i < old.length(); i++) {
+      grown.set(i, old.get(i));
+    }
+    allStates[slot] = grown;
+    states = allStates;
+    return grown;
+  }
+
+}
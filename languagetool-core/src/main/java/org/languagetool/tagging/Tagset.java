@@ -0,0 +1,114 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.Language;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns small integer ids to POS tags, so that the result of matching a POS tag against a
+ * regular expression can be remembered in a bitset (see {@link PosTagMatcher}). There's one
+ * tagset per language, as a language's tags are finite, so its ids and the bitsets stay dense.
+ * Tokens get the id of their tag in their language's tagset when they're tagged, matchers that
+ * aren't created for a language then use the tagset of the token they match.
+ * @since 6.4
+ */
+public final class Tagset {
+
+  /** Tags seen after this many different tags don't get an id, protecting against unexpected tags (e.g. created by filters). */
+  static final int MAX_SIZE = 1 << 16;
+  /** Tagset numbers must fit into the 8 bits {@link org.languagetool.AnalyzedToken} keeps for them. */
+  private static final int MAX_TAGSETS = 255;
+
+  private static final Map<String, Tagset> byLanguage = new ConcurrentHashMap<>();
+  private static final AtomicReferenceArray<Tagset> byNumber = new AtomicReferenceArray<>(MAX_TAGSETS);
+  private static final AtomicInteger nextNumber = new AtomicInteger();
+  private static final Tagset DEFAULT = new Tagset(nextNumber.getAndIncrement());
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger();
+  private final int number;
+
+  private Tagset(int number) {
+    this.number = number;
+    byNumber.set(number, this);
+  }
+
+  /**
+   * @return the tagset of tokens that haven't been tagged with a language's tagset
+   */
+  public static Tagset getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * @return the tagset of the language (variants share the tagset of their language),
+   * or the default tagset if {@code language} is {@code null}
+   */
+  public static Tagset forLanguage(@Nullable Language language) {
+    if (language == null) {
+      return DEFAULT;
+    }
+    return byLanguage.computeIfAbsent(language.getShortCode(), k -> {
+      int number = nextNumber.getAndIncrement();
+      return number < MAX_TAGSETS ? new Tagset(number) : DEFAULT;
+    });
+  }
+
+  /**
+   * @return the tagset with the given {@link #getNumber() number}
+   */
+  public static Tagset getByNumber(int number) {
+    return byNumber.get(number);
+  }
+
+  /**
+   * @return a number that identifies this tagset, between 0 and 254
+   */
+  public int getNumber() {
+    return number;
+  }
+
+  /**
+   * @return the id of the POS tag, or {@code -1} if the maximum number of ids has been assigned already
+   */
+  public int getId(String posTag) {
+    Integer id = ids.get(posTag);
+    if (id != null) {
+      return id;
+    }
+    if (ids.size() >= MAX_SIZE) {
+      return -1;
+    }
+    return ids.computeIfAbsent(posTag, k -> nextId.getAndIncrement());
+  }
+
+  /**
+   * @return the number of POS tags that have an id
+   */
+  public int size() {
+    return ids.size();
+  }
+
+}
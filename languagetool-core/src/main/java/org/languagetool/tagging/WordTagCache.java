@@ -0,0 +1,161 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.AnalyzedToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Caches the readings of single words for taggers whose analysis of a word is expensive, e.g.
+ * because unknown words get split into compound parts. There's one bounded cache for all taggers,
+ * with entries keyed by the name of the tagger, the word (case-sensitive) and flags that describe the
+ * word's context (like {@link #SENTENCE_START}). As {@link AnalyzedToken}s are mutable, the cache stores
+ * copies of the readings and returns new copies for each lookup.
+ * @since 6.4
+ */
+public final class WordTagCache {
+
+  /** Flag for words at the start of a sentence. */
+  public static final int SENTENCE_START = 1;
+
+  private static final long DEFAULT_MAX_SIZE = 50_000;
+
+  private static volatile Cache<Key, AnalyzedToken[]> cache = build(DEFAULT_MAX_SIZE);
+  private static volatile long maxSize = DEFAULT_MAX_SIZE;
+
+  private final String name;
+
+  /**
+   * @param name identifies the tagger, taggers with the same name share their cache entries
+   */
+  public WordTagCache(String name) {
+    this.name = name.intern();
+  }
+
+  private static Cache<Key, AnalyzedToken[]> build(long maxSize) {
+    return CacheBuilder.newBuilder()
+      .maximumSize(maxSize)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Set the maximum number of words cached for all taggers, 0 disables caching. Drops all cached readings.
+   */
+  public static void setMaxSize(long maxSize) {
+    WordTagCache.maxSize = maxSize;
+    cache = build(maxSize);
+  }
+
+  public static long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * The cache shared by all taggers, e.g. to expose its statistics (hit rate etc.).
+   */
+  public static Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  /**
+   * Get copies of the cached readings of {@code word}, or {@code null} if the word is not cached.
+   * @param flags the context of the word, e.g. {@link #SENTENCE_START}, or 0
+   */
+  @Nullable
+  public List<AnalyzedToken> getIfPresent(String word, int flags) {
+    if (maxSize <= 0) {
+      return null;
+    }
+    AnalyzedToken[] readings = cache.getIfPresent(new Key(name, word, flags));
+    return readings == null ? null : copy(readings);
+  }
+
+  /**
+   * Cache copies of the readings of {@code word}.
+   * @param flags the context of the word, e.g. {@link #SENTENCE_START}, or 0
+   */
+  public void put(String word, int flags, List<AnalyzedToken> readings) {
+    if (maxSize <= 0) {
+      return;
+    }
+    AnalyzedToken[] copies = new AnalyzedToken[readings.size()];
+    for (int i = 0; i < copies.length; i++) {
+      copies[i] = copy(readings.get(i));
+    }
+    cache.put(new Key(name, word, flags), copies);
+  }
+
+  /**
+   * Get copies of the cached readings of {@code word}, tagging and caching it with {@code tagger} if it's not cached yet.
+   * @param flags the context of the word, e.g. {@link #SENTENCE_START}, or 0
+   */
+  public List<AnalyzedToken> get(String word, int flags, Function<String, List<AnalyzedToken>> tagger) {
+    List<AnalyzedToken> readings = getIfPresent(word, flags);
+    if (readings == null) {
+      readings = tagger.apply(word);
+      put(word, flags, readings);
+    }
+    return readings;
+  }
+
+  private static List<AnalyzedToken> copy(AnalyzedToken[] readings) {
+    List<AnalyzedToken> result = new ArrayList<>(readings.length);
+    for (AnalyzedToken reading : readings) {
+      result.add(copy(reading));
+    }
+    return result;
+  }
+
+  private static AnalyzedToken copy(AnalyzedToken reading) {
+    return new AnalyzedToken(reading.getToken(), reading.getPOSTag(), reading.getLemma());
+  }
+
+  private static class Key {
+    private final String name;
+    private final String word;
+    private final int flags;
+
+    Key(String name, String word, int flags) {
+      this.name = name;
+      this.word = word;
+      this.flags = flags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key other = (Key) o;
+      return flags == other.flags && name.equals(other.name) && word.equals(other.word);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * name.hashCode() + word.hashCode()) + flags;
+    }
+  }
+
+}
@@ -19,7 +19,11 @@
 
 package org.languagetool.tagging.disambiguation;
 
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.WordUtils;
@@ -36,6 +40,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 /**
@@ -51,12 +56,14 @@ public class MultiWordChunker extends AbstractDisambiguator {
   private final boolean allowTitlecase;
 
   private volatile boolean initialized;
-  private Map<String, Integer> mStartSpace;
-  private Map<String, Integer> mStartNoSpace;
-  private Map<String, AnalyzedToken> mFull;
+  private Trie trie;
 
   private final static int MAX_TOKENS_IN_MULTIWORD = 20;
 
+  // chunkers that are built from the same file with the same settings share their trie, it's
+  // removed when no chunker uses it anymore:
+  private final static Cache<String, Trie> tries = CacheBuilder.newBuilder().weakValues().build();
+
   private final static String DEFAULT_SEPARATOR = "\t";
   private String separator;
   private String defaultTag = null;
@@ -108,24 +115,25 @@ public class MultiWordChunker extends AbstractDisambiguator {
     synchronized (this) {
       if (initialized) return;
 
-      Object2IntOpenHashMap<String> mStartSpace = new Object2IntOpenHashMap<>();
-      Object2IntOpenHashMap<String> mStartNoSpace = new Object2IntOpenHashMap<>();
-      Object2ObjectOpenHashMap<String, AnalyzedToken> mFull = new Object2ObjectOpenHashMap<>();
-
-      fillMaps(mStartSpace, mStartNoSpace, mFull);
-
-      mStartSpace.trim();
-      mStartNoSpace.trim();
-      mFull.trim();
-
-      this.mStartSpace = mStartSpace;
-      this.mStartNoSpace = mStartNoSpace;
-      this.mFull = mFull;
+      String key = getClass().getName() + "|" + filename + "|" + allowFirstCapitalized + "|" + allowAllUppercase
+        + "|" + allowTitlecase + "|" + defaultTag;
+      try {
+        trie = tries.get(key, () -> {
+          Map<String, AnalyzedToken> mFull = new Object2ObjectOpenHashMap<>();
+          fillMap(mFull);
+          return new Trie(mFull);
+        });
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException(e.getCause());
+      }
       initialized = true;
     }
   }
 
-  private void fillMaps(Map<String, Integer> mStartSpace, Map<String, Integer> mStartNoSpace, Map<String, AnalyzedToken> mFull) {
+  private void fillMap(Map<String, AnalyzedToken> mFull) {
     Map<String, String> interner = new HashMap<>();
     try (InputStream stream = JLanguageTool.getDataBroker().getFromResourceDirAsStream(filename)) {
       List<String> posTokens = loadWords(stream);
@@ -145,33 +153,6 @@ public class MultiWordChunker extends AbstractDisambiguator {
         tokens.add(originalToken);
         tokens.addAll(getTokenLettercaseVariants(originalToken, mFull));
         for (String token : tokens) {
-          boolean containsSpace = token.indexOf(' ') > 0;
-          String firstToken;
-          String[] firstTokens;
-          if (!containsSpace) {
-            firstTokens = new String[tokenAndTag[0].length()];
-            firstToken = token.substring(0, 1);
-            for (int i = 1; i < token.length(); i++) {
-              firstTokens[i] = token.substring(i - 1, i);
-            }
-            if (mStartNoSpace.containsKey(firstToken)) {
-              if (mStartNoSpace.get(firstToken) < firstTokens.length) {
-                mStartNoSpace.put(firstToken, firstTokens.length);
-              }
-            } else {
-              mStartNoSpace.put(firstToken, firstTokens.length);
-            }
-          } else {
-            firstTokens = token.split(" ");
-            firstToken = firstTokens[0];
-            if (mStartSpace.containsKey(firstToken)) {
-              if (mStartSpace.get(firstToken) < firstTokens.length) {
-                mStartSpace.put(firstToken, firstTokens.length);
-              }
-            } else {
-              mStartSpace.put(firstToken, firstTokens.length);
-            }
-          }
           mFull.put(token, new AnalyzedToken(token, tag, originalToken));
         }
       }
@@ -235,74 +216,64 @@ public class MultiWordChunker extends AbstractDisambiguator {
       if (tok.length() < 1) {
         continue;
       }
-      // If the next token is not whitespace, concatenate it
-      int k = i + 1;
-      while (k < anTokens.length && !anTokens[k].isWhitespace()) {
-        tok = tok + output[k].getToken();
-        k++;
-      }
 
       if (checkCanceled != null && checkCanceled.checkCancelled()) {
         break;
       }
-      if (mStartSpace.containsKey(tok)) {
-        int finalLen = 0;
-        StringBuilder keyBuilder = new StringBuilder();
-        int len = mStartSpace.get(tok);
+      if (startsMultiwordWithSpace(anTokens, i)) {
+        // follow the trie token by token, with a single space for whitespace:
+        int node = Trie.ROOT;
         int j = i;
-        int lenCounter = 0;
-        while (j < anTokens.length  && j - i < MAX_TOKENS_IN_MULTIWORD) {
+        while (j < anTokens.length && j - i < MAX_TOKENS_IN_MULTIWORD) {
           if (!anTokens[j].isWhitespace()) {
-            keyBuilder.append(anTokens[j].getToken());
-            String keyStr = keyBuilder.toString();
-            if (mFull.containsKey(keyStr) && !mFull.get(keyStr).getPOSTag().equals(tagForNotAddingTags)) {
-              if (finalLen == 0) { // the key has only one token
-                output[i] = setAndAnnotate(output[i], new AnalyzedToken(anTokens[j].getToken(), mFull.get(keyStr).getPOSTag(), mFull.get(keyStr).getLemma()));
-              } else {
-                output[i] = prepareNewReading(keyStr, output[i].getToken(), output[i], false);
-                output[finalLen] = prepareNewReading(keyStr, anTokens[finalLen].getToken(), output[finalLen], true);
-              }
+            node = trie.walk(node, anTokens[j].getToken());
+            if (node == Trie.NONE) {
+              break;
             }
-            if (mFull.containsKey(keyStr) && addIgnoreSpelling) {
-              if (finalLen == 0) {
-                output[i].ignoreSpelling();
+            AnalyzedToken multiword = trie.get(node);
+            if (multiword != null && !multiword.getPOSTag().equals(tagForNotAddingTags)) {
+              if (j == i) { // the key has only one token
+                output[i] = setAndAnnotate(output[i], new AnalyzedToken(anTokens[j].getToken(), multiword.getPOSTag(), multiword.getLemma()));
               } else {
-                for (int m = i; m <= finalLen; m++) {
-                  output[m].ignoreSpelling();
-                }
+                output[i] = prepareNewReading(multiword, output[i].getToken(), output[i], false);
+                output[j] = prepareNewReading(multiword, anTokens[j].getToken(), output[j], true);
               }
             }
-          } else {
-            if (j > 1 && !anTokens[j - 1].isWhitespace()) { // avoid multiple whitespaces
-              keyBuilder.append(' ');
-              lenCounter++;
+            if (multiword != null && addIgnoreSpelling) {
+              for (int m = i; m <= j; m++) {
+                output[m].ignoreSpelling();
+              }
             }
-            if (lenCounter == len) {
+          } else if (j > 1 && !anTokens[j - 1].isWhitespace()) { // avoid multiple whitespaces
+            node = trie.child(node, ' ');
+            if (node == Trie.NONE) {
               break;
             }
           }
           j++;
-          finalLen = j;
         }
       }
-      if (mStartNoSpace.containsKey(tok.substring(0, 1))) {
+      if (trie.startsMultiwordWithoutSpace(tok.charAt(0))) {
+        int node = Trie.ROOT;
         int j = i;
-        StringBuilder keyBuilder = new StringBuilder();
         while (j < anTokens.length && !anTokens[j].isWhitespace() && j - i < MAX_TOKENS_IN_MULTIWORD) {
-          keyBuilder.append(anTokens[j].getToken());
-          String keyStr = keyBuilder.toString();
-          if (mFull.containsKey(keyStr) && !mFull.get(keyStr).getPOSTag().equals(tagForNotAddingTags)) {
+          node = trie.walk(node, anTokens[j].getToken());
+          if (node == Trie.NONE) {
+            break;
+          }
+          AnalyzedToken multiword = trie.get(node);
+          if (multiword != null && !multiword.getPOSTag().equals(tagForNotAddingTags)) {
             if (i == j) {
-              String postag = mFull.get(keyStr).getPOSTag();
+              String postag = multiword.getPOSTag();
               if (!isLowPriorityTag(postag) || !output[i].hasReading()) {
-                output[i] = setAndAnnotate(output[i], new AnalyzedToken(anTokens[j].getToken(), postag, mFull.get(keyStr).getLemma()));
+                output[i] = setAndAnnotate(output[i], new AnalyzedToken(anTokens[j].getToken(), postag, multiword.getLemma()));
               }
             } else {
-              output[i] = prepareNewReading(keyStr, anTokens[i].getToken(), output[i], false);
-              output[j] = prepareNewReading(keyStr, anTokens[j].getToken(), output[j], true);
+              output[i] = prepareNewReading(multiword, anTokens[i].getToken(), output[i], false);
+              output[j] = prepareNewReading(multiword, anTokens[j].getToken(), output[j], true);
             }
           }
-          if (mFull.containsKey(keyStr) && addIgnoreSpelling) {
+          if (multiword != null && addIgnoreSpelling) {
             for (int m = i; m <= j; m++) {
               output[m].ignoreSpelling();
             }
@@ -317,16 +288,37 @@ public class MultiWordChunker extends AbstractDisambiguator {
     return new AnalyzedSentence(output);
   }
 
-  private AnalyzedTokenReadings prepareNewReading(String tokens, String tok, AnalyzedTokenReadings token,
+  /*
+   * Whether the tokens from the given position up to the next whitespace are the first word of a multiword
+   * that contains spaces.
+   */
+  private boolean startsMultiwordWithSpace(AnalyzedTokenReadings[] tokens, int start) {
+    int node = Trie.ROOT;
+    int i = start;
+    do {
+      String token = tokens[i].getToken();
+      if (token.indexOf(' ') >= 0) {
+        return false;
+      }
+      node = trie.walk(node, token);
+      if (node == Trie.NONE) {
+        return false;
+      }
+      i++;
+    } while (i < tokens.length && !tokens[i].isWhitespace());
+    return trie.child(node, ' ') != Trie.NONE;
+  }
+
+  private AnalyzedTokenReadings prepareNewReading(AnalyzedToken multiword, String tok, AnalyzedTokenReadings token,
       boolean isLast) {
     StringBuilder sb = new StringBuilder();
     sb.append('<');
     if (isLast) {
       sb.append('/');
     }
-    sb.append(mFull.get(tokens).getPOSTag());
+    sb.append(multiword.getPOSTag());
     sb.append('>');
-    AnalyzedToken tokenStart = new AnalyzedToken(tok, sb.toString(), mFull.get(tokens).getLemma());
+    AnalyzedToken tokenStart = new AnalyzedToken(tok, sb.toString(), multiword.getLemma());
     return setAndAnnotate(token, tokenStart);
   }
 
@@ -463,4 +455,69 @@ public class MultiWordChunker extends AbstractDisambiguator {
     return tag.equals("NPCN000");
   }
 
+  /**
+   * The multiwords as a trie of their characters. The tokens of a sentence can be matched against it one after
+   * the other, so all multiwords that start at a token are found in one pass, without building strings.
+   */
+  private static final class Trie {
+
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private final Long2IntOpenHashMap children = new Long2IntOpenHashMap();  // (node, char) -> child node
+    private final Int2ObjectOpenHashMap<AnalyzedToken> multiwords = new Int2ObjectOpenHashMap<>();
+    private final BitSet firstCharsWithoutSpace = new BitSet();  // first chars of multiwords without space
+    private int size = 1;
+
+    Trie(Map<String, AnalyzedToken> mFull) {
+      children.defaultReturnValue(NONE);
+      for (Map.Entry<String, AnalyzedToken> entry : mFull.entrySet()) {
+        String multiword = entry.getKey();
+        int node = ROOT;
+        for (int i = 0; i < multiword.length(); i++) {
+          long key = key(node, multiword.charAt(i));
+          int child = children.get(key);
+          if (child == NONE) {
+            child = size++;
+            children.put(key, child);
+          }
+          node = child;
+        }
+        multiwords.put(node, entry.getValue());
+        if (!multiword.isEmpty() && multiword.indexOf(' ') <= 0) {
+          firstCharsWithoutSpace.set(multiword.charAt(0));
+        }
+      }
+      children.trim();
+      multiwords.trim();
+    }
+
+    private static long key(int node, char c) {
+      return ((long) node << 16) | c;
+    }
+
+    int child(int node, char c) {
+      return children.get(key(node, c));
+    }
+
+    /**
+     * Follow the characters of {@code s}, starting at {@code node}, or return {@link #NONE} if no multiword continues that way.
+     */
+    int walk(int node, String s) {
+      for (int i = 0; i < s.length() && node != NONE; i++) {
+        node = child(node, s.charAt(i));
+      }
+      return node;
+    }
+
+    @Nullable
+    AnalyzedToken get(int node) {
+      return multiwords.get(node);
+    }
+
+    boolean startsMultiwordWithoutSpace(char c) {
+      return firstCharsWithoutSpace.get(c);
+    }
+  }
+
 }
@@ -21,12 +21,14 @@ package org.languagetool.tagging.disambiguation.rules;
 import org.jetbrains.annotations.Nullable;
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.Language;
 import org.languagetool.rules.patterns.AbstractTokenBasedRule;
 import org.languagetool.rules.patterns.Match;
 import org.languagetool.rules.patterns.PatternToken;
 
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -102,6 +104,17 @@ public class DisambiguationPatternRule extends AbstractTokenBasedRule {
     return canBeIgnoredFor(sentence) ? sentence : new DisambiguationPatternRuleReplacer(this).replace(sentence);
   }
 
+  /**
+   * Like {@link #replace(AnalyzedSentence)}, but only returns the new tokens, so they can be applied to a
+   * sentence created by {@link AnalyzedSentence#mutableCopy()}.
+   * @param changedPositions gets the positions of the tokens whose readings have been changed
+   * @return the disambiguated tokens (including whitespace), or {@code null} if nothing has changed
+   */
+  @Nullable
+  final AnalyzedTokenReadings[] apply(AnalyzedSentence sentence, BitSet changedPositions) throws IOException {
+    return canBeIgnoredFor(sentence) ? null : new DisambiguationPatternRuleReplacer(this).apply(sentence, changedPositions);
+  }
+
   public void setExamples(List<DisambiguatedExample> examples) {
     this.examples = Objects.requireNonNull(examples);
   }
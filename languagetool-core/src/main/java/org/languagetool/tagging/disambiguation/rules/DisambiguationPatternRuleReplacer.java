@@ -19,6 +19,7 @@
  */
 package org.languagetool.tagging.disambiguation.rules;
 
+import org.jetbrains.annotations.Nullable;
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
@@ -29,6 +30,7 @@ import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -47,8 +49,17 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
   }
 
   AnalyzedSentence replace(AnalyzedSentence sentence) throws IOException {
+    AnalyzedTokenReadings[] whTokens = apply(sentence, new BitSet());
+    return whTokens != null ? new AnalyzedSentence(whTokens, sentence.getTokens()) : sentence;
+  }
+
+  /**
+   * @param changedPositions gets the positions of the tokens whose readings have been changed
+   * @return the tokens (including whitespace) after applying the rule, or {@code null} if nothing has changed
+   */
+  @Nullable
+  AnalyzedTokenReadings[] apply(AnalyzedSentence sentence, BitSet changedPositions) throws IOException {
     AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
-    AnalyzedTokenReadings[] preDisambigTokens = sentence.getTokens();
     AnalyzedTokenReadings[][] whTokens = {sentence.getTokens()};
     boolean[] changed = {false};
 
@@ -67,14 +78,11 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
       }
       int matchingTokens = (int)Arrays.stream(tokenPositions).filter(i -> i != 0).count();
       if (keepDespiteFilter(tokens, tokenPositions, firstMatchToken, lastMatchToken) && keepByDisambig(sentence, ruleMatchFromPos, ruleMatchToPos)) {
-        whTokens[0] = executeAction(sentence, whTokens[0], unifiedTokens, firstMatchToken, lastMarkerMatchToken, matchingTokens, tokenPositions);
+        whTokens[0] = executeAction(sentence, whTokens[0], unifiedTokens, firstMatchToken, lastMarkerMatchToken, matchingTokens, tokenPositions, changedPositions);
         changed[0] = true;
       }
     });
-    if (changed[0]) {
-      return new AnalyzedSentence(whTokens[0], preDisambigTokens);
-    }
-    return sentence;
+    return changed[0] ? whTokens[0] : null;
   }
 
   private boolean keepByDisambig(AnalyzedSentence sentence, int ruleMatchFromPos, int ruleMatchToPos) throws IOException {
@@ -111,7 +119,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
                                                 AnalyzedTokenReadings[] whiteTokens,
                                                 AnalyzedTokenReadings[] unifiedTokens,
                                                 int firstMatchToken, int lastMatchToken,
-                                                int matchingTokens, int[] tokenPositions) {
+                                                int matchingTokens, int[] tokenPositions, BitSet changedPositions) {
     AnalyzedTokenReadings[] whTokens = whiteTokens.clone();
     DisambiguationPatternRule rule = (DisambiguationPatternRule) this.rule;
 
@@ -169,6 +177,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
         for (int i = 0; i < unifiedTokens.length; i++) {
           int position = sentence.getOriginalPosition(firstMatchToken + correctedStPos + i);
           whTokens[position] = new AnalyzedTokenReadings(whTokens[position], unifiedTokens[i].getReadings(), rule.getFullId());
+          changedPositions.set(position);
         }
       }
       break;
@@ -179,6 +188,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
           for (int i = 0; i < newTokenReadings.length; i++) {
             int position = sentence.getOriginalPosition(firstMatchToken + correctedStPos + i);
             whTokens[position].removeReading(newTokenReadings[i], rule.getFullId());
+            changedPositions.set(position);
           }
         }
       } else if (!StringTools.isEmpty(disambiguatedPOS)) { // negative filtering
@@ -189,6 +199,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
           if (analyzedToken.getPOSTag() != null && p.matcher(analyzedToken.getPOSTag()).matches()) {
             int position = sentence.getOriginalPosition(firstMatchToken + correctedStPos);
             whTokens[position].removeReading(analyzedToken, rule.getFullId());
+            changedPositions.set(position);
           }
         }
       }
@@ -213,6 +224,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
           AnalyzedToken newTok = new AnalyzedToken(token,
               newTokenReadings[i].getPOSTag(), lemma);
           whTokens[position].addReading(newTok, rule.getFullId());
+          changedPositions.set(position);
         }
       }
       break;
@@ -254,6 +266,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
 
         MatchState matchState = tmpMatchToken.createState(rule.getLanguage().getSynthesizer(), whTokens[position]);
         whTokens[position] = new AnalyzedTokenReadings(whTokens[position], matchState.filterReadings().getReadings(), rule.getFullId());
+        changedPositions.set(position);
       }
       break;
     case IMMUNIZE:
@@ -286,7 +299,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
         if (newPOSmatches) {
           MatchState matchState = tmpMatchToken.createState(rule.getLanguage().getSynthesizer(), whTokens[fromPos]);
           whTokens[fromPos] = new AnalyzedTokenReadings(whTokens[fromPos], matchState.filterReadings().getReadings(), rule.getFullId());
-          
+          changedPositions.set(fromPos);
         }
         break;
       }
@@ -314,6 +327,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
                   analyzedToken,
                   whTokens[fromPos].getStartPos());
               whTokens[position] = new AnalyzedTokenReadings(whTokens[position], toReplace.getReadings(), rule.getFullId());
+              changedPositions.set(position);
             }
           }
         } else if (matchElement == null) {
@@ -332,10 +346,12 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
           AnalyzedTokenReadings toReplace = new AnalyzedTokenReadings(
               analyzedToken, whTokens[fromPos].getStartPos());
           whTokens[fromPos] = new AnalyzedTokenReadings(whTokens[fromPos], toReplace.getReadings(), rule.getFullId());
+          changedPositions.set(fromPos);
         } else {
           // using the match element
           MatchState matchElementState = matchElement.createState(rule.getLanguage().getSynthesizer(), whTokens[fromPos]);
           whTokens[fromPos] = new AnalyzedTokenReadings(whTokens[fromPos], matchElementState.filterReadings().getReadings(), rule.getFullId());
+          changedPositions.set(fromPos);
           matchElementState.filterReadings();
         }
       }
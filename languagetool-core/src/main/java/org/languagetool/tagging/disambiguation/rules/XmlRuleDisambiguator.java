@@ -21,6 +21,7 @@ package org.languagetool.tagging.disambiguation.rules;
 
 import org.jetbrains.annotations.Nullable;
 import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.Rule;
@@ -31,6 +32,7 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -79,13 +81,20 @@ public class XmlRuleDisambiguator extends AbstractDisambiguator {
   @Override
   public AnalyzedSentence disambiguate(AnalyzedSentence sentence,
       @Nullable JLanguageTool.CheckCancelledCallback checkCanceled) throws IOException {
+    // apply all changes to one mutable copy instead of creating a new sentence for each rule that matches:
+    AnalyzedSentence working = null;
+    BitSet changedPositions = new BitSet();
     for (Rule rule : disambiguationRules.rulesForSentence(sentence)) {
       if (checkCanceled != null && checkCanceled.checkCancelled()) {
         break;
       }
-      sentence = ((DisambiguationPatternRule) rule).replace(sentence);
+      AnalyzedTokenReadings[] tokens = ((DisambiguationPatternRule) rule).apply(working != null ? working : sentence, changedPositions);
+      if (tokens != null) {
+        working = (working != null ? working : sentence.mutableCopy()).replaceTokens(tokens, changedPositions);
+        changedPositions.clear();
+      }
     }
-    return sentence;
+    return working != null ? working.freeze() : sentence;
   }
 
   /**
@@ -27,6 +27,7 @@ import org.languagetool.rules.*;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -52,6 +53,7 @@ public class RuleMatchesAsJsonSerializer {
   private final int compactMode;
   private final Language lang;
   private Map<String, Float> ruleIdToConfidence;
+  private long textOffset;
 
   public RuleMatchesAsJsonSerializer() {
     this(0, null);
@@ -104,32 +106,45 @@ public class RuleMatchesAsJsonSerializer {
    */
   public String ruleMatchesToJson2(List<CheckResults> res, List<RuleMatch> hiddenMatches, AnnotatedText text, int contextSize,
                                    DetectedLanguage detectedLang, String incompleteResultsReason, boolean showPremiumHint, JLanguageTool.Mode mode) {
-    ContextTools contextTools = new ContextTools();
-    contextTools.setEscapeHtml(false);
-    contextTools.setContextSize(contextSize);
-    contextTools.setErrorMarker(START_MARKER, "");
     StringWriter sw = new StringWriter();
     try {
-      try (JsonGenerator g = factory.createGenerator(sw)) {
-        g.writeStartObject();
-        writeSoftwareSection(g, showPremiumHint);
-        writeWarningsSection(g, incompleteResultsReason);
-        writeLanguageSection(g, detectedLang);
-        writeMatchesSection("matches", g, res, text, contextTools);
-        if (hiddenMatches != null && hiddenMatches.size() > 0) {
-          writeMatchesSection("hiddenMatches", g, Collections.singletonList(new CheckResults(hiddenMatches, Collections.emptyList())), text, contextTools);
-        }
-        writeIgnoreRanges(g, res);
-        writeSentenceRanges(g, res);
-        writeExtendedSentenceRanges(g, res);
-        g.writeEndObject();
-      }
+      ruleMatchesToJson2(res, hiddenMatches, text, contextSize, detectedLang, incompleteResultsReason, showPremiumHint, mode, sw);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
     return sw.toString();
   }
 
+  /**
+   * Like {@link #ruleMatchesToJson2(List, List, AnnotatedText, int, DetectedLanguage, String, boolean, JLanguageTool.Mode)},
+   * but writes the JSON to {@code writer} while it's generated instead of building a string, so large results
+   * can be streamed. The writer is flushed at the end, but not closed.
+   * @since 6.4
+   */
+  public void ruleMatchesToJson2(List<CheckResults> res, List<RuleMatch> hiddenMatches, AnnotatedText text, int contextSize,
+                                 DetectedLanguage detectedLang, String incompleteResultsReason, boolean showPremiumHint, JLanguageTool.Mode mode,
+                                 Writer writer) throws IOException {
+    ContextTools contextTools = new ContextTools();
+    contextTools.setEscapeHtml(false);
+    contextTools.setContextSize(contextSize);
+    contextTools.setErrorMarker(START_MARKER, "");
+    try (JsonGenerator g = factory.createGenerator(writer)) {
+      g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      g.writeStartObject();
+      writeSoftwareSection(g, showPremiumHint);
+      writeWarningsSection(g, incompleteResultsReason);
+      writeLanguageSection(g, detectedLang);
+      writeMatchesSection("matches", g, res, text, contextTools);
+      if (hiddenMatches != null && hiddenMatches.size() > 0) {
+        writeMatchesSection("hiddenMatches", g, Collections.singletonList(new CheckResults(hiddenMatches, Collections.emptyList())), text, contextTools);
+      }
+      writeIgnoreRanges(g, res);
+      writeSentenceRanges(g, res);
+      writeExtendedSentenceRanges(g, res);
+      g.writeEndObject();
+    }
+  }
+
   private void writeSoftwareSection(JsonGenerator g, boolean showPremiumHint) throws IOException {
     if (compactMode == 1) {
       return;
@@ -190,7 +205,7 @@ public class RuleMatchesAsJsonSerializer {
           g.writeStringField("shortMessage", cleanSuggestion(match.getShortMessage()));
         }
         writeReplacements(g, match);
-        g.writeNumberField("offset", match.getFromPos());
+        g.writeNumberField("offset", textOffset + match.getFromPos());
         g.writeNumberField("length", match.getToPos()-match.getFromPos());
         writeContext(g, match, text, contextTools);
         g.writeObjectFieldStart("type");
@@ -376,4 +391,13 @@ public class RuleMatchesAsJsonSerializer {
   public void setRuleIdToConfidenceMap(Map<String, Float> ruleIdToConfidence) {
     this.ruleIdToConfidence = ruleIdToConfidence;
   }
+
+  /**
+   * Set the position of the checked text in a larger text: it gets added to the
+   * offsets of the matches, but not to the offsets inside their context.
+   * @since 6.4
+   */
+  public void setTextOffset(long textOffset) {
+    this.textOffset = textOffset;
+  }
 }
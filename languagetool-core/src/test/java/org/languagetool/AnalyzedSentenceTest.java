@@ -21,8 +21,10 @@ package org.languagetool;
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
 
 public class AnalyzedSentenceTest {
 
@@ -53,4 +55,62 @@ public class AnalyzedSentenceTest {
     assertNotEquals(sentence, copySentence);
   }
 
+  @Test
+  public void testMutableCopy() {
+    AnalyzedTokenReadings[] words = {
+      new AnalyzedTokenReadings(new AnalyzedToken("", "SENT_START", null)),
+      new AnalyzedTokenReadings(new AnalyzedToken("A", "DET", "a")),
+      new AnalyzedTokenReadings(new AnalyzedToken(" ", null, null)),
+      new AnalyzedTokenReadings(new AnalyzedToken("word", "NN", "word")),
+      new AnalyzedTokenReadings(new AnalyzedToken(" ", null, null)),
+      new AnalyzedTokenReadings(new AnalyzedToken("word", "NN", "word"))
+    };
+    AnalyzedSentence sentence = new AnalyzedSentence(words);
+    AnalyzedSentence mutable = sentence.mutableCopy();
+
+    AnalyzedTokenReadings[] newWords = mutable.getTokens().clone();
+    newWords[3] = new AnalyzedTokenReadings(newWords[3], Arrays.asList(new AnalyzedToken("word", "VB", "wording")), "RULE1");
+    AnalyzedTokenReadings[] expectedPreDisambig = mutable.getTokens().clone();
+    assertSame(mutable, mutable.replaceTokens(newWords, new BitSet()));
+    assertSentence(new AnalyzedSentence(newWords.clone(), expectedPreDisambig), mutable);
+    assertEquals(Arrays.asList(2, 3), mutable.getTokenOffsets("word"));
+    assertArrayEquals(new String[]{"", "a", "word", "word"}, mutable.getLowerCaseTokensWithoutWhitespace());
+    assertEquals(Arrays.asList(3), mutable.getLemmaOffsets("word"));
+    assertEquals(Arrays.asList(2), mutable.getLemmaOffsets("wording"));
+
+    // readings changed in place:
+    newWords = mutable.getTokens().clone();
+    expectedPreDisambig = mutable.getTokens().clone();
+    newWords[1].addReading(new AnalyzedToken("A", "NN", "A"), "RULE2");
+    BitSet changed = new BitSet();
+    changed.set(1);
+    mutable.replaceTokens(newWords, changed);
+    assertSentence(new AnalyzedSentence(newWords.clone(), expectedPreDisambig), mutable);
+
+    // the original isn't changed:
+    assertEquals(Arrays.asList(2, 3), sentence.getLemmaOffsets("word"));
+
+    AnalyzedSentence frozen = mutable.freeze();
+    assertSentence(new AnalyzedSentence(newWords.clone(), expectedPreDisambig), frozen);
+    try {
+      mutable.replaceTokens(newWords, changed);
+      fail();
+    } catch (IllegalStateException expected) {}
+  }
+
+  private void assertSentence(AnalyzedSentence expected, AnalyzedSentence actual) {
+    assertEquals(expected, actual);
+    assertArrayEquals(expected.getPreDisambigTokens(), actual.getPreDisambigTokens());
+    assertArrayEquals(expected.getPreDisambigTokensWithoutWhitespace(), actual.getPreDisambigTokensWithoutWhitespace());
+    assertEquals(expected.getTokenSet(), actual.getTokenSet());
+    assertArrayEquals(expected.getLowerCaseTokensWithoutWhitespace(), actual.getLowerCaseTokensWithoutWhitespace());
+    assertEquals(expected.getLemmaSet(), actual.getLemmaSet());
+    for (String lemma : expected.getLemmaSet()) {
+      assertEquals(expected.getLemmaOffsets(lemma), actual.getLemmaOffsets(lemma));
+    }
+    for (String token : expected.getTokenSet()) {
+      assertEquals(expected.getTokenOffsets(token), actual.getTokenOffsets(token));
+    }
+  }
+
 }
@@ -19,6 +19,7 @@
 package org.languagetool;
 
 import org.junit.Test;
+import org.languagetool.language.Demo;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.patterns.PatternRule;
@@ -27,6 +28,7 @@ import org.languagetool.rules.patterns.PatternToken;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -52,4 +54,44 @@ public class JLanguageToolTest {
     assertThat(matches2.size(), is(1));
   }
 
+  @Test
+  public void testRestoreRuleSelection() throws IOException {
+    ResultCache cache = new ResultCache(1000);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    lt.saveRuleSelection();
+    List<RuleMatch> matches = lt.check("A small toast.");
+    assertThat(matches.isEmpty(), is(false));
+    String ruleId = matches.get(0).getRule().getId();
+    lt.disableRule(ruleId);
+    assertThat(lt.check("A small toast.").stream().noneMatch(m -> m.getRule().getId().equals(ruleId)), is(true));
+    lt.restoreRuleSelection();
+    assertThat(lt.getDisabledRules().isEmpty(), is(true));
+    assertThat(lt.check("A small toast.").toString(), is(matches.toString()));
+    // both results are cached under their own rule selection:
+    assertThat(cache.getMatchesCache().size(), is(2L));
+  }
+
+  @Test
+  public void testApplyRuleSelection() throws IOException {
+    JLanguageTool lt = new JLanguageTool(new Demo());
+    lt.saveRuleSelection();
+    AtomicInteger selectorCalls = new AtomicInteger();
+    Runnable selector = () -> {
+      selectorCalls.incrementAndGet();
+      lt.disableRule("DEMO_RULE");
+    };
+    for (int i = 0; i < 3; i++) {
+      lt.applyRuleSelection("noDemoRule", selector);
+      assertThat(lt.getDisabledRules(), is(Collections.singleton("DEMO_RULE")));
+      lt.restoreRuleSelection();
+      assertThat(lt.getDisabledRules().isEmpty(), is(true));
+    }
+    assertThat(selectorCalls.get(), is(1));
+    // the result depends on the selection the selector starts from:
+    lt.disableRule("OTHER_RULE");
+    lt.applyRuleSelection("noDemoRule", selector);
+    assertThat(lt.getDisabledRules(), is(new HashSet<>(Arrays.asList("DEMO_RULE", "OTHER_RULE"))));
+    assertThat(selectorCalls.get(), is(2));
+  }
+
 }
@@ -52,6 +52,100 @@ public class MultiThreadedJLanguageToolTest {
     assertEquals(ruleMatchIds1, ruleMatchIds2);
   }
   
+  @Test
+  public void testCheckWithCache() throws IOException {
+    ResultCache cache = new ResultCache(1000);
+    MultiThreadedJLanguageTool lt1 = new MultiThreadedJLanguageTool(new Demo(), null, 2, cache, null, null);
+    lt1.setCleanOverlappingMatches(false);
+    List<String> ruleMatchIds1 = getRuleMatchIds(lt1);
+    assertThat(cache.getMatchesCache().size(), is(4L));
+    long hits = cache.hitCount();
+    // second run is served from the cache:
+    List<String> ruleMatchIds2 = getRuleMatchIds(lt1);
+    assertThat(ruleMatchIds2, is(ruleMatchIds1));
+    assertThat(cache.hitCount() > hits, is(true));
+    lt1.shutdown();
+
+    JLanguageTool lt2 = new JLanguageTool(new Demo());
+    lt2.setCleanOverlappingMatches(false);
+    assertEquals(getRuleMatchIds(lt2), ruleMatchIds1);
+  }
+
+  @Test
+  public void testCheckWithCacheAdjustsPositions() throws IOException {
+    ResultCache cache = new ResultCache(1000);
+    MultiThreadedJLanguageTool lt = new MultiThreadedJLanguageTool(new Demo(), null, 2, cache, null, null);
+    lt.check("A small toast.");
+    // the cached sentence is now the second one, so its match must be moved:
+    List<RuleMatch> matches = lt.check("No error here. A small toast.");
+    JLanguageTool lt2 = new JLanguageTool(new Demo());
+    List<RuleMatch> expected = lt2.check("No error here. A small toast.");
+    assertThat(matches.size(), is(expected.size()));
+    for (int i = 0; i < matches.size(); i++) {
+      assertThat(matches.get(i).getFromPos(), is(expected.get(i).getFromPos()));
+      assertThat(matches.get(i).getToPos(), is(expected.get(i).getToPos()));
+    }
+    lt.shutdown();
+  }
+
+  @Test
+  public void testCancelledCheckIsNotCached() throws IOException {
+    ResultCache cache = new ResultCache(1000);
+    MultiThreadedJLanguageTool lt = new MultiThreadedJLanguageTool(new Demo(), null, 2, cache, null, null);
+    lt.setCheckCancelledCallback(() -> true);
+    lt.check("This is is a test. A small toast.");
+    assertThat(cache.getMatchesCache().size(), is(0L));
+    lt.setCheckCancelledCallback(() -> false);
+    assertThat(lt.check("This is is a test. A small toast.").isEmpty(), is(false));
+    assertThat(cache.getMatchesCache().size(), is(2L));
+    lt.shutdown();
+  }
+
+  @Test
+  public void testSentenceTilesScheduling() throws IOException {
+    JLanguageTool lt1 = new JLanguageTool(new Demo());
+    lt1.setCleanOverlappingMatches(false);
+    MultiThreadedJLanguageTool lt2 = new MultiThreadedJLanguageTool(new Demo(), 3);
+    lt2.setCleanOverlappingMatches(false);
+    lt2.setScheduling(MultiThreadedJLanguageTool.Scheduling.SENTENCE_TILES);
+    String input = "A small toast. No error here. Foo go bar. First goes last there, please!\n\nThis is is a test.  Foo go bar.";
+    List<RuleMatch> expected = lt1.check(input);
+    List<RuleMatch> matches = lt2.check(input);
+    assertThat(matches.toString(), is(expected.toString()));
+    // same again, now with a cache:
+    MultiThreadedJLanguageTool lt3 = new MultiThreadedJLanguageTool(new Demo(), null, 3, new ResultCache(100), null, null);
+    lt3.setCleanOverlappingMatches(false);
+    lt3.setScheduling(MultiThreadedJLanguageTool.Scheduling.SENTENCE_TILES);
+    assertThat(lt3.check(input).toString(), is(expected.toString()));
+    assertThat(lt3.check(input).toString(), is(expected.toString()));
+    lt2.shutdown();
+    lt3.shutdown();
+  }
+
+  @Test
+  public void testSchedulersGiveSameMatches() throws IOException {
+    String input = "A small toast. No error here. Foo go bar. First goes last there, please!\n\n" +
+      "This is is a test.  Foo go bar. a small toast.\n\nthis is is  a test.";
+    MultiThreadedJLanguageTool byRules = new MultiThreadedJLanguageTool(new Demo(), 3);
+    byRules.setCleanOverlappingMatches(false);
+    byRules.setScheduling(MultiThreadedJLanguageTool.Scheduling.RULES);
+    MultiThreadedJLanguageTool byTiles = new MultiThreadedJLanguageTool(new Demo(), 3);
+    byTiles.setCleanOverlappingMatches(false);
+    byTiles.setScheduling(MultiThreadedJLanguageTool.Scheduling.SENTENCE_TILES);
+    MultiThreadedJLanguageTool byRulesCached = new MultiThreadedJLanguageTool(new Demo(), null, 3, new ResultCache(100), null, null);
+    byRulesCached.setCleanOverlappingMatches(false);
+    List<RuleMatch> expected = byRules.check(input);
+    assertThat(expected.size() > 3, is(true));
+    for (int i = 0; i < 5; i++) {
+      assertThat(byTiles.check(input).toString(), is(expected.toString()));
+      assertThat(byRules.check(input).toString(), is(expected.toString()));
+      assertThat(byRulesCached.check(input).toString(), is(expected.toString()));
+    }
+    byRules.shutdown();
+    byTiles.shutdown();
+    byRulesCached.shutdown();
+  }
+
   @Test
   public void testShutdownException() throws IOException {
     MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
@@ -0,0 +1,79 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class OffHeapStoreTest {
+
+  private static final long NEVER = TimeUnit.DAYS.toNanos(1);
+
+  @Test
+  public void testPutAndRemove() {
+    OffHeapStore<String> store = new OffHeapStore<>(10 * OffHeapStore.BLOCK_SIZE, NEVER);
+    byte[] value = bytes(OffHeapStore.BLOCK_SIZE * 3 + 17);
+    store.put("a", value);
+    store.put("b", bytes(1));
+    assertEquals(2, store.size());
+    assertEquals(value.length + 1, store.usedBytes());
+    assertArrayEquals(value, store.remove("a"));
+    assertNull(store.remove("a"));
+    assertEquals(1, store.size());
+    assertEquals(1, store.usedBytes());
+    assertEquals(1, store.hitCount());
+    assertEquals(1, store.missCount());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    OffHeapStore<String> store = new OffHeapStore<>(4 * OffHeapStore.BLOCK_SIZE, NEVER);
+    store.put("a", bytes(OffHeapStore.BLOCK_SIZE + 1));
+    store.put("b", bytes(OffHeapStore.BLOCK_SIZE));
+    store.put("c", bytes(OffHeapStore.BLOCK_SIZE));
+    store.put("d", bytes(OffHeapStore.BLOCK_SIZE * 2));
+    assertEquals(1, store.evictionCount());
+    assertNull(store.remove("a"));
+    assertNotNull(store.remove("b"));
+    assertNotNull(store.remove("c"));
+    assertNotNull(store.remove("d"));
+    // too large for the whole store, ignored:
+    store.put("e", bytes(OffHeapStore.BLOCK_SIZE * 5));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void testExpiry() {
+    OffHeapStore<String> store = new OffHeapStore<>(4 * OffHeapStore.BLOCK_SIZE, 0);
+    store.put("a", bytes(10));
+    assertNull(store.remove("a"));
+    assertEquals(0, store.size());
+  }
+
+  private static byte[] bytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i * 31);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,134 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheMemoryTest {
+
+  @Test
+  public void testEstimateGrowsWithReadings() {
+    AnalyzedSentence oneReading = new AnalyzedSentence(new AnalyzedTokenReadings[]{
+      new AnalyzedTokenReadings(new AnalyzedToken("house", "NN", "house"), 0)
+    });
+    AnalyzedTokenReadings twoReadings = new AnalyzedTokenReadings(new AnalyzedToken("house", "NN", "house"), 0);
+    twoReadings.addReading(new AnalyzedToken("house", "VB", "house"), "test");
+    long bytes1 = MemoryEstimator.estimate(oneReading);
+    long bytes2 = MemoryEstimator.estimate(new AnalyzedSentence(new AnalyzedTokenReadings[]{twoReadings}));
+    assertTrue(bytes1 > 0);
+    assertTrue(bytes2 > bytes1);
+  }
+
+  @Test
+  public void testBytesAreTracked() throws IOException {
+    ResultCache cache = ResultCache.withMaxBytes(10 * 1024 * 1024, 5, TimeUnit.MINUTES, 0);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    lt.check("This is is a test. A small toast. No error here.");
+    assertEquals(3, cache.getMatchesCache().size());
+    long matchesBytes = cache.getMatchesCacheBytes();
+    long sentenceBytes = cache.getSentenceCacheBytes();
+    assertTrue(matchesBytes > 0);
+    assertTrue(sentenceBytes > 0);
+
+    // checking again doesn't add anything:
+    lt.check("This is is a test. A small toast. No error here.");
+    assertEquals(matchesBytes, cache.getMatchesCacheBytes());
+    assertEquals(sentenceBytes, cache.getSentenceCacheBytes());
+
+    cache.getMatchesCache().invalidateAll();
+    cache.getSentenceCache().invalidateAll();
+    assertEquals(0, cache.getMatchesCacheBytes());
+    assertEquals(0, cache.getSentenceCacheBytes());
+  }
+
+  @Test
+  public void testReplacedValueIsSubtracted() throws IOException {
+    ResultCache cache = ResultCache.withMaxBytes(10 * 1024 * 1024, 5, TimeUnit.MINUTES, 0);
+    JLanguageTool lt = new JLanguageTool(new Demo());
+    List<RuleMatch> matches = new ArrayList<>(lt.check("This is is a test."));
+    InputSentence key = new InputSentence("This is is a test.", lt.getLanguage(), null, new HashSet<>(), new HashSet<>(),
+      new HashSet<>(), new HashSet<>(), new UserConfig(), Collections.emptyList(), JLanguageTool.Mode.ALL, JLanguageTool.Level.DEFAULT);
+    cache.put(key, matches);
+    long bytes = cache.getMatchesCacheBytes();
+    assertTrue(bytes > 0);
+    // putting the same value again (as done for cache hits) doesn't count it twice:
+    cache.put(key, matches);
+    assertEquals(bytes, cache.getMatchesCacheBytes());
+    List<RuleMatch> moreMatches = new ArrayList<>(matches);
+    moreMatches.addAll(lt.check("A small toast."));
+    cache.put(key, moreMatches);
+    assertTrue(cache.getMatchesCacheBytes() > bytes);
+    cache.getMatchesCache().invalidateAll();
+    assertEquals(0, cache.getMatchesCacheBytes());
+  }
+
+  @Test
+  public void testShallowSize() {
+    assertEquals(16, MemoryEstimator.shallowSize(Object.class));
+    // header, a reference, an int and a boolean:
+    assertEquals(24, MemoryEstimator.shallowSize(Fields.class));
+    // the fields of the superclass are counted, too:
+    assertEquals(32, MemoryEstimator.shallowSize(MoreFields.class));
+  }
+
+  @SuppressWarnings("unused")
+  private static class Fields {
+    private static long notCounted;
+    private String s;
+    private int i;
+    private boolean b;
+  }
+
+  @SuppressWarnings("unused")
+  private static class MoreFields extends Fields {
+    private long l;
+  }
+
+  @Test
+  public void testNoEstimatesWithoutByteLimit() throws IOException {
+    ResultCache cache = new ResultCache(1000);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    lt.check("This is is a test. A small toast.");
+    assertEquals(2, cache.getMatchesCache().size());
+    assertEquals(0, cache.getMatchesCacheBytes());
+    assertEquals(0, cache.getSentenceCacheBytes());
+  }
+
+  @Test
+  public void testByteLimit() throws IOException {
+    ResultCache cache = ResultCache.withMaxBytes(10_000, 5, TimeUnit.MINUTES, 0);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    for (int i = 0; i < 50; i++) {
+      lt.check("This is sentence number " + i + " of a longer test text.");
+    }
+    cache.getMatchesCache().cleanUp();
+    cache.getSentenceCache().cleanUp();
+    assertTrue(cache.getMatchesCache().size() < 50);
+    assertTrue(cache.getMatchesCacheBytes() <= 4_000);
+    assertTrue(cache.getSentenceCacheBytes() <= 4_000);
+  }
+}
@@ -0,0 +1,111 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheOffHeapTest {
+
+  @Test
+  public void testEvictedMatchesAreMovedBack() throws IOException {
+    // the on-heap cache can't keep anything, so all matches are moved out of the heap:
+    ResultCache cache = new ResultCache(0, 5, TimeUnit.MINUTES, 1024 * 1024);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    String text = "This is is a test. A small toast. No error here.";
+    List<RuleMatch> expected = new JLanguageTool(new Demo()).check(text);
+    assertFalse(expected.isEmpty());
+
+    assertEquals(expected.toString(), lt.check(text).toString());
+    assertEquals(3, cache.offHeapSize());
+    assertEquals(0, cache.offHeapHitCount());
+
+    List<RuleMatch> matches = lt.check(text);
+    assertEquals(3, cache.offHeapHitCount());
+    assertEquals(expected.size(), matches.size());
+    for (int i = 0; i < matches.size(); i++) {
+      RuleMatch match = matches.get(i);
+      assertSame(expected.get(i).getRule().getClass(), match.getRule().getClass());
+      assertEquals(expected.get(i).getRule().getFullId(), match.getRule().getFullId());
+      assertEquals(expected.get(i).getFromPos(), match.getFromPos());
+      assertEquals(expected.get(i).getToPos(), match.getToPos());
+      assertEquals(expected.get(i).getMessage(), match.getMessage());
+      assertEquals(expected.get(i).getSuggestedReplacements(), match.getSuggestedReplacements());
+      assertNotNull(match.getSentence());
+    }
+  }
+
+  @Test
+  public void testRestoredMatchesUseRequestingRules() throws IOException {
+    ResultCache cache = new ResultCache(0, 5, TimeUnit.MINUTES, 1024 * 1024);
+    String text = "This is is a test.";
+    JLanguageTool lt1 = new JLanguageTool(new Demo(), cache, new UserConfig());
+    int expectedSize = lt1.check(text).size();
+    assertTrue(expectedSize > 0);
+    JLanguageTool lt2 = new JLanguageTool(new Demo(), cache, new UserConfig());
+    List<RuleMatch> matches = lt2.check(text);
+    assertTrue(cache.offHeapHitCount() > 0);
+    assertEquals(expectedSize, matches.size());
+    for (RuleMatch match : matches) {
+      Rule rule = match.getRule();
+      assertSame(lt2.getRuleByFullId(rule.getFullId()), rule);
+      assertNotSame(lt1.getRuleByFullId(rule.getFullId()), rule);
+    }
+  }
+
+  @Test
+  public void testLazySuggestionsAreNotComputedOnEviction() throws IOException {
+    ResultCache cache = new ResultCache(0, 5, TimeUnit.MINUTES, 1024 * 1024);
+    JLanguageTool lt = new JLanguageTool(new Demo());
+    AnalyzedSentence sentence = lt.getAnalyzedSentence("This is a test.");
+    RuleMatch match = new RuleMatch(lt.getAllRules().get(0), sentence, 0, 4, "message");
+    AtomicInteger computed = new AtomicInteger();
+    match.setLazySuggestedReplacements(() -> {
+      computed.incrementAndGet();
+      return Collections.emptyList();
+    });
+    InputSentence key = new InputSentence("This is a test.", lt.getLanguage(), null, Collections.emptySet(), Collections.emptySet(),
+      Collections.emptySet(), Collections.emptySet(), new UserConfig(), Collections.emptyList(), JLanguageTool.Mode.ALL, JLanguageTool.Level.DEFAULT);
+    cache.put(key, Collections.singletonList(match));
+    cache.putRemoteMatches(key, "REMOTE", Collections.singletonList(match));
+    cache.getMatchesCache().cleanUp();
+    cache.getRemoteMatchesCache().cleanUp();
+    assertEquals(0, computed.get());
+    assertEquals(0, cache.offHeapSize());
+    assertNull(cache.getIfPresent(key, sentence, lt::getRuleByFullId));
+  }
+
+  @Test
+  public void testWithoutOffHeapStore() throws IOException {
+    ResultCache cache = new ResultCache(0, 5, TimeUnit.MINUTES);
+    JLanguageTool lt = new JLanguageTool(new Demo(), cache, new UserConfig());
+    lt.check("This is is a test.");
+    assertEquals(0, cache.offHeapSize());
+  }
+}
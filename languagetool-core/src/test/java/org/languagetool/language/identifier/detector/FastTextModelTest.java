@@ -0,0 +1,200 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.language.identifier.detector;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FastTextModelTest {
+
+  private static final int LOSS_HS = 1;
+  private static final int LOSS_SOFTMAX = 3;
+  private static final int BUCKET = 10;
+  private static final float HELLO = 2.8f;
+  private static final float HALLO = -2.8f;
+  private static final float NGRAM = 0.1f;  // the vector of all character and word ngrams
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testSoftmax() throws IOException {
+    FastTextModel model = new FastTextModel(writeModel(LOSS_SOFTMAX, false));
+    // "<hello>" has 11 character 2grams and 3grams, plus the "hello </s>" word bigram:
+    assertSoftmax(model, "hello", (HELLO + 12 * NGRAM) / 14);
+    assertSoftmax(model, "hallo", (HALLO + 12 * NGRAM) / 14);
+    assertSoftmax(model, "  hello\thallo ", (HELLO + HALLO + 24 * NGRAM) / 27);
+    // unknown words only have ngrams:
+    assertSoftmax(model, "hallox", 14 * NGRAM / 15);
+    // ngrams don't split UTF-8 characters:
+    assertSoftmax(model, "ä", 4 * NGRAM / 5);
+    // labels in the input are ignored:
+    assertSoftmax(model, "hello __label__de", (HELLO + 12 * NGRAM) / 14);
+  }
+
+  @Test
+  public void testHierarchicalSoftmax() throws IOException {
+    FastTextModel model = new FastTextModel(writeModel(LOSS_HS, false));
+    float hidden = (HELLO + 12 * NGRAM) / 14;
+    Map<String, Double> result = model.predict("hello", 5);
+    assertEquals(Arrays.asList("__label__en", "__label__de"), Arrays.asList(result.keySet().toArray()));
+    double en = 1 / (1 + Math.exp(-hidden));
+    assertEquals(en, result.get("__label__en"), 0.0001);
+    assertEquals(1 - en, result.get("__label__de"), 0.0001);
+    assertEquals(1, model.predict("hello", 1).size());
+  }
+
+  @Test
+  public void testQuantizedModel() throws IOException {
+    FastTextModel model = new FastTextModel(writeModel(LOSS_SOFTMAX, true));
+    assertSoftmax(model, "hello", (HELLO + 12 * NGRAM) / 14);
+    assertSoftmax(model, "hallox", 14 * NGRAM / 15);
+  }
+
+  @Test
+  public void testDetector() throws IOException {
+    FastTextDetector detector = new FastTextDetector(writeModel(LOSS_SOFTMAX, false));
+    List<String> langCodes = Arrays.asList("en", "de");
+    Map<String, Double> result = detector.runFasttext("HALLO", langCodes);
+    assertTrue(result.get("de") > result.get("en"));
+    assertEquals(result, detector.runFasttext("hallo", langCodes));
+    assertFalse(detector.restartProcess());
+  }
+
+  /**
+   * Compares the in-process results with those of the reference fastText binary, which needs
+   * to be given with {@code -DfasttextBinary=/path/to/fasttext}, otherwise the test is skipped.
+   * This needs to pass before the in-process mode can become the default.
+   */
+  @Test
+  public void testSameResultsAsBinary() throws IOException {
+    String binary = System.getProperty("fasttextBinary");
+    Assume.assumeTrue("set -DfasttextBinary to compare with the fastText binary", binary != null);
+    List<String> texts = Arrays.asList("hello", "HALLO", "  hello\thallo ", "hallox", "ä", "hello hallo hello", "unknown words only");
+    List<String> langCodes = Arrays.asList("en", "de");
+    for (File model : Arrays.asList(writeModel(LOSS_SOFTMAX, false), writeModel(LOSS_HS, false), writeModel(LOSS_SOFTMAX, true))) {
+      FastTextDetector reference = new FastTextDetector(model, new File(binary));
+      FastTextDetector inProcess = new FastTextDetector(model);
+      for (String text : texts) {
+        Map<String, Double> expected = reference.runFasttext(text, langCodes);
+        Map<String, Double> actual = inProcess.runFasttext(text, langCodes);
+        assertEquals(model + ": " + text, expected.keySet(), actual.keySet());
+        for (String lang : expected.keySet()) {
+          // the binary prints 6 significant digits:
+          assertEquals(model + ": " + text + ": " + lang, expected.get(lang), actual.get(lang), 1e-5);
+        }
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidFile() throws IOException {
+    File file = tempFolder.newFile();
+    try (OutputStream out = new FileOutputStream(file)) {
+      out.write("not a model".getBytes(StandardCharsets.UTF_8));
+    }
+    new FastTextModel(file);
+  }
+
+  private void assertSoftmax(FastTextModel model, String text, float hidden) {
+    Map<String, Double> result = model.predict(text, 5);
+    double en = 1 / (1 + Math.exp(-2 * hidden));
+    String best = en > 0.5 ? "__label__en" : "__label__de";
+    assertEquals(best, result.keySet().iterator().next());
+    assertEquals(en, result.get("__label__en"), 0.0001);
+    assertEquals(1 - en, result.get("__label__de"), 0.0001);
+  }
+
+  /**
+   * A model with 2 dimensions in fastText's binary format: the first dimension of the input
+   * vectors decides between the labels, the ngrams all share one vector.
+   */
+  private File writeModel(int loss, boolean quantizeInput) throws IOException {
+    List<String> words = Arrays.asList("</s>", "hello", "hallo");
+    List<String> labels = Arrays.asList("__label__en", "__label__de");
+    ByteBuffer buf = ByteBuffer.allocate(10_000).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putInt(793712314).putInt(12);
+    // dim, ws, epoch, minCount, neg, wordNgrams, loss, model, bucket, minn, maxn, lrUpdateRate, t:
+    buf.putInt(2).putInt(5).putInt(5).putInt(1).putInt(5).putInt(2).putInt(loss).putInt(3)
+      .putInt(BUCKET).putInt(2).putInt(3).putInt(100).putDouble(1e-4);
+    buf.putInt(words.size() + labels.size()).putInt(words.size()).putInt(labels.size()).putLong(100).putLong(-1);
+    for (String word : words) {
+      buf.put(word.getBytes(StandardCharsets.UTF_8)).put((byte) 0).putLong(10).put((byte) 0);
+    }
+    buf.put(labels.get(0).getBytes(StandardCharsets.UTF_8)).put((byte) 0).putLong(10).put((byte) 1);
+    buf.put(labels.get(1).getBytes(StandardCharsets.UTF_8)).put((byte) 0).putLong(5).put((byte) 1);
+    float[][] input = new float[words.size() + BUCKET][];
+    input[0] = new float[]{0, 0};
+    input[1] = new float[]{HELLO, 0};
+    input[2] = new float[]{HALLO, 0};
+    for (int i = words.size(); i < input.length; i++) {
+      input[i] = new float[]{NGRAM, 0};
+    }
+    buf.put((byte) (quantizeInput ? 1 : 0));
+    if (quantizeInput) {
+      // one centroid per row, so the quantization is lossless:
+      buf.put((byte) 0).putLong(input.length).putLong(2).putInt(input.length);
+      for (int i = 0; i < input.length; i++) {
+        buf.put((byte) i);
+      }
+      buf.putInt(2).putInt(1).putInt(2).putInt(2);
+      for (int i = 0; i < 256; i++) {
+        buf.putFloat(i < input.length ? input[i][0] : 0).putFloat(i < input.length ? input[i][1] : 0);
+      }
+    } else {
+      writeMatrix(buf, input);
+    }
+    buf.put((byte) 0);
+    if (loss == LOSS_HS) {
+      writeMatrix(buf, new float[][]{{1, 0}});
+    } else {
+      writeMatrix(buf, new float[][]{{1, 0}, {-1, 0}});
+    }
+    File file = tempFolder.newFile();
+    try (OutputStream out = new FileOutputStream(file)) {
+      out.write(buf.array(), 0, buf.position());
+    }
+    return file;
+  }
+
+  private static void writeMatrix(ByteBuffer buf, float[][] rows) {
+    buf.putLong(rows.length).putLong(rows[0].length);
+    for (float[] row : rows) {
+      for (float f : row) {
+        buf.putFloat(f);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.languagemodel;
+
+import org.junit.After;
+import org.junit.Test;
+import org.languagetool.rules.ngrams.Probability;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+public class CachingLanguageModelTest {
+
+  private final long maxSize = CachingLanguageModel.getMaxSize();
+
+  @After
+  public void tearDown() {
+    CachingLanguageModel.setMaxSize(maxSize);
+  }
+
+  @Test
+  public void testCaching() {
+    CachingLanguageModel.setMaxSize(0);
+    CachingLanguageModel.setMaxSize(100);
+    CountingLanguageModel lm = new CountingLanguageModel();
+    CachingLanguageModel cachingLm1 = new CachingLanguageModel(lm, "/data/ngrams/en");
+    CachingLanguageModel cachingLm2 = new CachingLanguageModel(lm, "/data/ngrams/en");
+    assertThat(cachingLm1.getCount(Arrays.asList("of", "the")), is(6L));
+    assertThat(cachingLm1.getCount(Arrays.asList("of", "the")), is(6L));
+    assertThat(cachingLm2.getCount(Arrays.asList("of", "the")), is(6L));
+    assertThat(lm.lookups.get(), is(1));
+    assertThat(cachingLm1.getCount("of"), is(2L));
+    assertThat(cachingLm1.getCount(Arrays.asList("of")), is(2L));
+    assertThat(lm.lookups.get(), is(2));
+    assertThat(CachingLanguageModel.getCache().stats().hitRate(), is(3.0 / 5));
+
+    Probability p1 = cachingLm1.getPseudoProbability(Arrays.asList("of", "the", "house"));
+    Probability p2 = lm.getPseudoProbability(Arrays.asList("of", "the", "house"));
+    assertEquals(p2.getProb(), p1.getProb(), 0.0);
+    assertEquals(p2.getCoverage(), p1.getCoverage(), 0.0f);
+
+    // models of other data don't get these counts:
+    CachingLanguageModel otherLm = new CachingLanguageModel(new CountingLanguageModel(), "/data/ngrams/de");
+    otherLm.getCount(Arrays.asList("of", "the"));
+    assertThat(CachingLanguageModel.getCache().size(), is(4L));
+
+    // setting the same size keeps the cache, e.g. for a monitor that watches it:
+    Object monitoredCache = CachingLanguageModel.getCache();
+    CachingLanguageModel.setMaxSize(100);
+    assertSame(monitoredCache, CachingLanguageModel.getCache());
+    assertThat(CachingLanguageModel.getCache().size(), is(4L));
+  }
+
+  @Test
+  public void testDisabled() {
+    CachingLanguageModel.setMaxSize(0);
+    CountingLanguageModel lm = new CountingLanguageModel();
+    CachingLanguageModel cachingLm = new CachingLanguageModel(lm, "/data/ngrams/en");
+    cachingLm.getCount(Arrays.asList("of", "the"));
+    cachingLm.getCount(Arrays.asList("of", "the"));
+    assertThat(lm.lookups.get(), is(2));
+    assertThat(CachingLanguageModel.getCache().size(), is(0L));
+  }
+
+  @Test
+  public void testErrorsAreNotCached() {
+    CachingLanguageModel.setMaxSize(100);
+    CachingLanguageModel lm = new CachingLanguageModel(new CountingLanguageModel(), "/data/ngrams/en");
+    for (int i = 0; i < 2; i++) {
+      try {
+        lm.getCount(Arrays.asList("a", "b", "c", "d"));
+        fail();
+      } catch (IllegalArgumentException expected) {}
+    }
+  }
+
+  private static class CountingLanguageModel extends BaseLanguageModel {
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Override
+    public long getCount(String token1) {
+      return getCount(Arrays.asList(token1));
+    }
+
+    @Override
+    public long getCount(List<String> tokens) {
+      if (tokens.size() > 3) {
+        throw new IllegalArgumentException("Only up to 3grams supported");
+      }
+      lookups.incrementAndGet();
+      return String.join(" ", tokens).length();
+    }
+
+    @Override
+    public long getTotalTokenCount() {
+      return 1000;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.languagemodel;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+public class CompactLanguageModelTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testLanguageModel() throws IOException {
+    File dir = tempFolder.newFolder();
+    CompactNgramIndexWriter writer1 = new CompactNgramIndexWriter(1);
+    writer1.add("the", 50);
+    writer1.add("the", 5);
+    writer1.add("house", 3_000_000_000L);
+    writer1.setTotalTokenCount(3);
+    writer1.write(new File(dir, CompactNgramIndexWriter.getFileName(1)));
+    CompactNgramIndexWriter writer2 = new CompactNgramIndexWriter(2);
+    writer2.add("the nice", 3);
+    writer2.write(new File(dir, CompactNgramIndexWriter.getFileName(2)));
+    CompactNgramIndexWriter writer3 = new CompactNgramIndexWriter(3);
+    writer3.add("the nice building", 1);
+    writer3.write(new File(dir, CompactNgramIndexWriter.getFileName(3)));
+
+    assertTrue(CompactLanguageModel.isCompactIndex(dir));
+    try (CompactLanguageModel model = new CompactLanguageModel(dir)) {
+      assertThat(model.getCount("the"), is(55L));
+      assertThat(model.getCount("house"), is(3_000_000_000L));
+      assertThat(model.getCount(Arrays.asList("the", "nice")), is(3L));
+      assertThat(model.getCount(Arrays.asList("the", "nice", "building")), is(1L));
+      assertThat(model.getCount("not-in-here"), is(0L));
+      assertThat(model.getCount(Arrays.asList("nice", "the")), is(0L));
+      assertThat(model.getTotalTokenCount(), is(3L));
+      try {
+        model.getCount(Arrays.asList("a", "b", "c", "d"));
+        fail();
+      } catch (RuntimeException expected) {}
+    }
+  }
+
+  @Test
+  public void testManyNgrams() throws IOException {
+    File dir = tempFolder.newFolder();
+    CompactNgramIndexWriter writer = new CompactNgramIndexWriter(1);
+    for (int i = 0; i < 100_000; i++) {
+      writer.add("word" + i, i + 1);
+    }
+    writer.write(new File(dir, CompactNgramIndexWriter.getFileName(1)));
+    try (CompactLanguageModel model = new CompactLanguageModel(dir)) {
+      for (int i = 0; i < 100_000; i++) {
+        assertThat(model.getCount("word" + i), is(i + 1L));
+        assertThat(model.getCount("other" + i), is(0L));
+      }
+    }
+  }
+
+  @Test
+  public void testNoIndex() throws IOException {
+    File dir = tempFolder.newFolder();
+    assertFalse(CompactLanguageModel.isCompactIndex(dir));
+    try {
+      new CompactLanguageModel(dir);
+      fail();
+    } catch (RuntimeException expected) {}
+  }
+
+}
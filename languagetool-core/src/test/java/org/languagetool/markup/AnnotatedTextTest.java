@@ -71,4 +71,24 @@ public class AnnotatedTextTest {
     assertThat(contextTools.getContext(14, 18, text.getTextWithMarkup()), is("hello <p>more #xxxx# text!"));
   }
 
+  @Test
+  public void testManyParts() {
+    AnnotatedTextBuilder builder = new AnnotatedTextBuilder();
+    for (int i = 0; i < 500; i++) {
+      builder.addMarkup("<b>").addText("word" + i).addMarkup("</b>").addText(" ");
+      if (i % 10 == 0) {
+        builder.addMarkup("<br/>", "\n");
+      }
+    }
+    AnnotatedText text = builder.build();
+    String plainText = text.getPlainText();
+    String textWithMarkup = text.getTextWithMarkup();
+    for (int i = 0; i < plainText.length(); i++) {
+      char c = plainText.charAt(i);
+      if (c != '\n') {
+        assertThat(textWithMarkup.charAt(text.getOriginalTextPositionFor(i, false)), is(c));
+      }
+    }
+  }
+
 }
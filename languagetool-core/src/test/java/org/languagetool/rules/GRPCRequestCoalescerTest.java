@@ -0,0 +1,152 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.languagetool.rules.ml.MLServerGrpc;
+import org.languagetool.rules.ml.MLServerProto.Match;
+import org.languagetool.rules.ml.MLServerProto.MatchList;
+import org.languagetool.rules.ml.MLServerProto.MatchRequest;
+import org.languagetool.rules.ml.MLServerProto.MatchResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class GRPCRequestCoalescerTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private Server server;
+  private ManagedChannel channel;
+  private GRPCRequestCoalescer coalescer;
+
+  @Before
+  public void setUp() throws Exception {
+    String name = InProcessServerBuilder.generateName();
+    // stand-in for the ML server: one match per sentence, with the sentence as its ID
+    server = InProcessServerBuilder.forName(name).directExecutor().addService(new MLServerGrpc.MLServerImplBase() {
+      @Override
+      public void match(MatchRequest request, StreamObserver<MatchResponse> responseObserver) {
+        calls.incrementAndGet();
+        if (request.getSentencesList().contains("fail")) {
+          responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+          return;
+        }
+        MatchResponse.Builder response = MatchResponse.newBuilder();
+        for (String sentence : request.getSentencesList()) {
+          response.addSentenceMatches(MatchList.newBuilder().addMatches(Match.newBuilder().setId(sentence).setLength(1)));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+      }
+    }).build().start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+  }
+
+  @After
+  public void tearDown() {
+    if (coalescer != null) {
+      coalescer.shutdown();
+    }
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  public void testCombinesRequests() throws Exception {
+    coalescer = new GRPCRequestCoalescer(MLServerGrpc.newFutureStub(channel), 60_000, 4, "test");
+    ListenableFuture<MatchResponse> a = coalescer.match(request("a"), 1000);
+    ListenableFuture<MatchResponse> b = coalescer.match(request("b", "c"), 0);
+    assertEquals(0, calls.get());
+    ListenableFuture<MatchResponse> c = coalescer.match(request("d"), 1000);
+    assertEquals(Arrays.asList("a"), ids(a));
+    assertEquals(Arrays.asList("b", "c"), ids(b));
+    assertEquals(Arrays.asList("d"), ids(c));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void testSendsAfterDelay() throws Exception {
+    coalescer = new GRPCRequestCoalescer(MLServerGrpc.newFutureStub(channel), 10, 100, "test");
+    ListenableFuture<MatchResponse> a = coalescer.match(request("a", "b"), 1000);
+    assertEquals(Arrays.asList("a", "b"), ids(a));
+    ListenableFuture<MatchResponse> b = coalescer.match(request("c"), 1000);
+    assertEquals(Arrays.asList("c"), ids(b));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void testFailureReachesAllCallers() throws Exception {
+    coalescer = new GRPCRequestCoalescer(MLServerGrpc.newFutureStub(channel), 60_000, 2, "test");
+    ListenableFuture<MatchResponse> a = coalescer.match(request("a"), 1000);
+    ListenableFuture<MatchResponse> b = coalescer.match(request("fail"), 1000);
+    for (ListenableFuture<MatchResponse> future : Arrays.asList(a, b)) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException expected) {
+        assertTrue(expected.getMessage().contains("UNAVAILABLE"));
+      }
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void testShutdownFailsPendingRequests() throws Exception {
+    coalescer = new GRPCRequestCoalescer(MLServerGrpc.newFutureStub(channel), 60_000, 100, "test");
+    ListenableFuture<MatchResponse> a = coalescer.match(request("a"), 1000);
+    coalescer.shutdown();
+    ListenableFuture<MatchResponse> b = coalescer.match(request("b"), 1000);
+    for (ListenableFuture<MatchResponse> future : Arrays.asList(a, b)) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException expected) {
+        assertTrue(expected.getCause() instanceof CancellationException);
+      }
+    }
+    assertEquals(0, calls.get());
+  }
+
+  private static MatchRequest request(String... sentences) {
+    return MatchRequest.newBuilder().addAllSentences(Arrays.asList(sentences)).build();
+  }
+
+  private static List<String> ids(ListenableFuture<MatchResponse> response) throws Exception {
+    return response.get(5, TimeUnit.SECONDS).getSentenceMatchesList().stream()
+      .flatMap(list -> list.getMatchesList().stream())
+      .map(Match::getId)
+      .collect(Collectors.toList());
+  }
+}
@@ -26,6 +26,7 @@ import org.languagetool.FakeLanguage;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.languagetool.rules.patterns.PatternRuleBuilderHelper.*;
@@ -68,11 +69,46 @@ public class RuleSetTest {
     assertRulesForSentence(textLemmaHinted(Arrays.asList(ruleOf(unsuitable), unrelated)), unrelated);
   }
 
+  @Test
+  public void allHintsAreHonored() {
+    AnalyzedSentence sentence = new AnalyzedSentence(new AnalyzedTokenReadings[]{
+      new AnalyzedTokenReadings(new AnalyzedToken("token", "pos", "lemma")),
+      new AnalyzedTokenReadings(new AnalyzedToken("other", "pos", "otherLemma"))
+    });
+    PatternRule bothTokens = ruleOf(csToken("token"), token("Other"));
+    PatternRule secondMissing = ruleOf(csToken("token"), csToken("missing"));
+    PatternRule firstMissing = ruleOf(csToken("missing"), csToken("other"));
+    PatternRule tokenAndLemma = ruleOf(csToken("token"), new PatternTokenBuilder().token("otherlemma").matchInflectedForms().build());
+    PatternRule lemmaMissing = ruleOf(csToken("token"), new PatternTokenBuilder().token("missing").matchInflectedForms().build());
+    PatternRule unrelated = ruleOf(pos("somePos"));
+    List<PatternRule> rules = Arrays.asList(bothTokens, secondMissing, firstMissing, tokenAndLemma, lemmaMissing, unrelated);
+    assertEquals(Arrays.asList(bothTokens, tokenAndLemma, unrelated), textLemmaHinted(rules).rulesForSentence(sentence));
+    // lemma hints are ignored here, so the rules only need the token:
+    assertEquals(Arrays.asList(bothTokens, tokenAndLemma, lemmaMissing, unrelated), RuleSet.textHinted(rules).rulesForSentence(sentence));
+  }
+
+  @Test
+  public void literalPrefixMustOccurInSequence() {
+    AnalyzedSentence sentence = new AnalyzedSentence(new AnalyzedTokenReadings[]{
+      new AnalyzedTokenReadings(new AnalyzedToken("in", "pos", "in")),
+      new AnalyzedTokenReadings(new AnalyzedToken("the", "pos", "the")),
+      new AnalyzedTokenReadings(new AnalyzedToken("past", "pos", "past"))
+    });
+    PatternRule inOrder = ruleOf(token("In"), token("the"), token("past"));
+    PatternRule alternatives = ruleOf(tokenRegex("in|on"), tokenRegex("a|the"));
+    PatternRule wrongOrder = ruleOf(token("the"), token("in"));
+    PatternRule gap = ruleOf(token("in"), token("past"));
+    PatternRule withPos = ruleOf(token("the"), pos("pos"));
+    List<PatternRule> rules = Arrays.asList(inOrder, alternatives, wrongOrder, gap, withPos);
+    assertEquals(Arrays.asList(inOrder, alternatives, withPos), RuleSet.textHinted(rules).rulesForSentence(sentence));
+    assertEquals(Arrays.asList(inOrder, alternatives, withPos), textLemmaHinted(rules).rulesForSentence(sentence));
+  }
+
   private static void assertRulesForSentence(RuleSet ruleSet, PatternRule... expected) {
     assertEquals(Arrays.asList(expected), ruleSet.rulesForSentence(sampleSentence));
   }
 
-  private static PatternRule ruleOf(PatternToken token) {
-    return new PatternRule("", new FakeLanguage(), Collections.singletonList(token), "", "", "");
+  private static PatternRule ruleOf(PatternToken... tokens) {
+    return new PatternRule("", new FakeLanguage(), Arrays.asList(tokens), "", "", "");
   }
 }
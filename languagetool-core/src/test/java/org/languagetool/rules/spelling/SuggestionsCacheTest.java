@@ -0,0 +1,87 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.spelling;
+
+import org.junit.Test;
+import org.languagetool.FakeLanguage;
+import org.languagetool.Language;
+import org.languagetool.UserConfig;
+import org.languagetool.rules.SuggestedReplacement;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SuggestionsCacheTest {
+
+  @Test
+  public void testGet() throws IOException {
+    Language lang = new FakeLanguage();
+    AtomicInteger calls = new AtomicInteger();
+    SuggestionsCache.SuggestionsLoader loader = () -> {
+      calls.incrementAndGet();
+      return SuggestedReplacement.convert(Arrays.asList("the", "tea"));
+    };
+    List<SuggestedReplacement> first = SuggestionsCache.get("TEST_SPELLER_RULE", lang, "", "teh", loader);
+    assertEquals(1, calls.get());
+    first.get(0).setConfidence(0.9f);
+
+    List<SuggestedReplacement> second = SuggestionsCache.get("TEST_SPELLER_RULE", lang, "", "teh", loader);
+    assertEquals(1, calls.get());
+    assertEquals("the", second.get(0).getReplacement());
+    assertEquals("tea", second.get(1).getReplacement());
+    assertNull("changes by the caller must not affect the cache", second.get(0).getConfidence());
+
+    SuggestionsCache.get("OTHER_SPELLER_RULE", lang, "", "teh", loader);
+    SuggestionsCache.get("TEST_SPELLER_RULE", lang, "fullResults", "teh", loader);
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  public void testDisabled() throws IOException {
+    long maxBytes = SuggestionsCache.getMaxBytes();
+    try {
+      SuggestionsCache.setMaxBytes(0);
+      AtomicInteger calls = new AtomicInteger();
+      SuggestionsCache.SuggestionsLoader loader = () -> {
+        calls.incrementAndGet();
+        return SuggestedReplacement.convert(Arrays.asList("the"));
+      };
+      SuggestionsCache.get("TEST_SPELLER_RULE", new FakeLanguage(), "", "teh", loader);
+      SuggestionsCache.get("TEST_SPELLER_RULE", new FakeLanguage(), "", "teh", loader);
+      assertEquals(2, calls.get());
+      assertEquals(0, SuggestionsCache.size());
+    } finally {
+      SuggestionsCache.setMaxBytes(maxBytes);
+    }
+  }
+
+  @Test
+  public void testIsApplicable() {
+    assertTrue(SuggestionsCache.isApplicable(null));
+    assertTrue(SuggestionsCache.isApplicable(new UserConfig()));
+    assertTrue(SuggestionsCache.isApplicable(new UserConfig(Collections.emptyList())));
+    assertFalse(SuggestionsCache.isApplicable(new UserConfig(Collections.singletonList("tehran"))));
+  }
+
+}
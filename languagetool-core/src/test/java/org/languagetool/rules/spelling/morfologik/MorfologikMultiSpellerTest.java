@@ -19,8 +19,12 @@
 package org.languagetool.rules.spelling.morfologik;
 
 import org.junit.Test;
+import org.languagetool.UserConfig;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 
 import static java.util.Collections.*;
 import static org.hamcrest.core.Is.is;
@@ -62,6 +66,53 @@ public class MorfologikMultiSpellerTest {
     assertThat(speller.getSuggestions("Häusers").toString(), is("[Häuser]"));
   }
 
+  @Test
+  public void testUserDictionaryCache() throws IOException {
+    UserDictionaryCache.invalidateAll();
+    MorfologikMultiSpeller speller1 = getSpeller(Arrays.asList("myword", "otherword"));
+    assertFalse(speller1.isMisspelled("myword"));
+    assertTrue(speller1.isMisspelled("newword"));
+    assertThat(UserDictionaryCache.size(), is(1L));
+    getSpeller(Arrays.asList("myword", "otherword"));
+    assertThat(UserDictionaryCache.size(), is(1L));
+    // words changed, e.g. on another server - a new dictionary is needed:
+    MorfologikMultiSpeller speller2 = getSpeller(Arrays.asList("myword", "otherword", "newword"));
+    assertFalse(speller2.isMisspelled("newword"));
+    assertThat(UserDictionaryCache.size(), is(2L));
+    UserDictionaryCache.invalidate(42);
+    assertThat(UserDictionaryCache.size(), is(0L));
+    UserDictionaryCache.setMaxBytes(1);
+    try {
+      assertFalse(getSpeller(Arrays.asList("myword")).isMisspelled("myword"));
+      assertThat(UserDictionaryCache.size(), is(0L));
+    } finally {
+      UserDictionaryCache.setMaxBytes(64L * 1024 * 1024);
+    }
+  }
+
+  @Test
+  public void testUserDictionaryCacheSize() throws IOException {
+    UserDictionaryCache.invalidateAll();
+    // users without a cache size don't get their dictionary cached:
+    assertFalse(getSpeller(Arrays.asList("myword"), null).isMisspelled("myword"));
+    assertThat(UserDictionaryCache.size(), is(0L));
+    // neither do users with more words than their cache size:
+    assertFalse(getSpeller(Arrays.asList("myword", "otherword"), 1L).isMisspelled("otherword"));
+    assertThat(UserDictionaryCache.size(), is(0L));
+    assertFalse(getSpeller(Arrays.asList("myword"), 1L).isMisspelled("myword"));
+    assertThat(UserDictionaryCache.size(), is(1L));
+  }
+
+  @Test
+  public void testUserDictionaryVersion() {
+    assertEquals(UserDictionaryCache.version(Arrays.asList("myword", "otherword")),
+                 UserDictionaryCache.version(Arrays.asList("myword", "otherword")));
+    // "Aa" and "BB" have the same String.hashCode():
+    assertNotEquals(UserDictionaryCache.version(singletonList("Aa")), UserDictionaryCache.version(singletonList("BB")));
+    assertNotEquals(UserDictionaryCache.version(Arrays.asList("ab", "c")), UserDictionaryCache.version(Arrays.asList("a", "bc")));
+    assertNotEquals(UserDictionaryCache.version(emptyList()), UserDictionaryCache.version(singletonList("")));
+  }
+
   @Test(expected = RuntimeException.class)
   public void testInvalidFileName() throws IOException {
     new MorfologikMultiSpeller("/xx/spelling/test.dict.README", singletonList("/xx/spelling/test2.txt"), null, 1);
@@ -76,4 +127,13 @@ public class MorfologikMultiSpellerTest {
     return new MorfologikMultiSpeller("/xx/spelling/test.dict", singletonList("/xx/spelling/test2.txt"), null, 1);
   }
 
+  private MorfologikMultiSpeller getSpeller(List<String> userWords) throws IOException {
+    return getSpeller(userWords, 1000L);
+  }
+
+  private MorfologikMultiSpeller getSpeller(List<String> userWords, Long userDictCacheSize) throws IOException {
+    UserConfig userConfig = new UserConfig(userWords, new HashMap<>(), 0, 42L, "default", userDictCacheSize, null);
+    return new MorfologikMultiSpeller("/xx/spelling/test.dict", singletonList("/xx/spelling/test2.txt"), null, userConfig, 1, null);
+  }
+
 }
@@ -21,6 +21,9 @@ package org.languagetool.rules.spelling.morfologik;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -59,4 +62,32 @@ public class MorfologikSpellerTest {
 
     assertThat(spellerDist2.getSuggestions("wordoxix").toString(), is("[]"));
   }
+
+  @Test
+  public void testConcurrentUse() throws Exception {
+    testConcurrentUse(new MorfologikSpeller("/xx/spelling/test.dict", 2));
+    testConcurrentUse(new MorfologikSpeller(MorfologikSpeller.getDictionaryWithCaching("/xx/spelling/test.dict"), 2, false));
+  }
+
+  private void testConcurrentUse(MorfologikSpeller speller) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 100; j++) {
+            assertThat(speller.findReplacements("wordonix").toString(), is("[wordone]"));
+            assertThat(speller.getSuggestions("Wordonex").toString(), is("[Wordone/51]"));
+            assertTrue(speller.isMisspelled("nosuchword"));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -0,0 +1,106 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.junit.Test;
+import org.languagetool.*;
+import org.languagetool.rules.patterns.StringMatcher;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PosTagMatcherTest {
+
+  @Test
+  public void testMatches() {
+    AtomicInteger regexMatches = new AtomicInteger();
+    StringMatcher regex = StringMatcher.regexp("SUB:NOM:.*");
+    PosTagMatcher matcher = new PosTagMatcher(s -> {
+      regexMatches.incrementAndGet();
+      return regex.matches(s);
+    }, Tagset.getDefault());
+    for (int i = 0; i < 3; i++) {
+      assertTrue(matcher.matches(new AnalyzedToken("Haus", "SUB:NOM:SIN:NEU", "Haus")));
+      assertFalse(matcher.matches(new AnalyzedToken("Hauses", "SUB:GEN:SIN:NEU", "Haus")));
+      assertFalse(matcher.matches(new AnalyzedToken("Haus", null, null)));
+    }
+    assertEquals(2, regexMatches.get());
+    assertTrue(matcher.matches("SUB:NOM:PLU:NEU"));
+  }
+
+  @Test
+  public void testManyTags() {
+    PosTagMatcher matcher = PosTagMatcher.regexp("TAG[0-9]*5");
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i % 10 == 5, matcher.matches(new AnalyzedToken("x", "TAG" + i, null)));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i % 10 == 5, matcher.matches(new AnalyzedToken("x", "TAG" + i, null)));
+    }
+    assertSame(matcher, PosTagMatcher.regexp("TAG[0-9]*5"));
+    assertEquals(Tagset.getDefault().getId("TAG5"), new AnalyzedToken("y", "TAG5", null).getPOSTagId(Tagset.getDefault()));
+    assertEquals(-1, new AnalyzedToken("y", null, null).getPOSTagId(Tagset.getDefault()));
+  }
+
+  @Test
+  public void testTagsetPerLanguage() {
+    Tagset demo = Tagset.forLanguage(TestTools.getDemoLanguage());
+    assertSame(demo, Tagset.forLanguage(TestTools.getDemoLanguage()));
+    assertNotSame(Tagset.getDefault(), demo);
+    assertSame(Tagset.getDefault(), Tagset.forLanguage(null));
+    for (int i = 0; i < 100; i++) {
+      Tagset.getDefault().getId("OTHER_TAG" + i);
+    }
+    AnalyzedToken token = new AnalyzedToken("x", "DEMO_TAG", null);
+    int id = token.getPOSTagId(demo);
+    assertTrue(id >= 0 && id < demo.size());
+    assertEquals(id, demo.getId("DEMO_TAG"));
+    assertEquals(Tagset.getDefault().getId("DEMO_TAG"), token.getPOSTagId(Tagset.getDefault()));
+    assertEquals(id, token.getPOSTagId(demo));
+    PosTagMatcher matcher = new PosTagMatcher(StringMatcher.regexp("DEMO_.*"), demo);
+    assertTrue(matcher.matches(token));
+    assertFalse(matcher.matches(new AnalyzedToken("y", "OTHER_TAG1", null)));
+  }
+
+  @Test
+  public void testRegexpUsesTagsetOfToken() throws IOException {
+    Language language = TestTools.getDemoLanguage();
+    Tagset demo = Tagset.forLanguage(language);
+    AnalyzedSentence sentence = new JLanguageTool(language).getRawAnalyzedSentence("This is a test.");
+    for (AnalyzedTokenReadings readings : sentence.getTokens()) {
+      for (AnalyzedToken reading : readings) {
+        assertSame(demo, reading.getTagset());
+      }
+    }
+    AnalyzedToken token = new AnalyzedToken("x", "DEMO_ONLY_TAG", null);
+    assertSame(Tagset.getDefault(), token.getTagset());
+    int id = token.getPOSTagId(demo);
+    assertSame(demo, token.getTagset());
+    int defaultSize = Tagset.getDefault().size();
+    assertTrue(PosTagMatcher.regexp("DEMO_ONLY_.*").matches(token));
+    assertEquals(defaultSize, Tagset.getDefault().size());
+    assertEquals(id, token.getPOSTagId(demo));
+    // the default tagset doesn't replace the token's tagset:
+    token.getPOSTagId(Tagset.getDefault());
+    assertSame(demo, token.getTagset());
+  }
+
+}
@@ -0,0 +1,78 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.junit.After;
+import org.junit.Test;
+import org.languagetool.AnalyzedToken;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class WordTagCacheTest {
+
+  private final AtomicInteger taggedWords = new AtomicInteger();
+  private final long maxSize = WordTagCache.getMaxSize();
+
+  @After
+  public void tearDown() {
+    WordTagCache.setMaxSize(maxSize);
+  }
+
+  @Test
+  public void testCache() {
+    WordTagCache cache = new WordTagCache("test");
+    List<AnalyzedToken> readings = cache.get("Haus", 0, this::tag);
+    assertEquals("[Haus/SUB, Haus/VER]", readings.toString());
+    List<AnalyzedToken> cachedReadings = cache.get("Haus", 0, this::tag);
+    assertEquals(readings, cachedReadings);
+    assertEquals(1, taggedWords.get());
+    // readings are mutable, so the cache returns copies:
+    cachedReadings.get(0).setWhitespaceBefore(true);
+    assertNotSame(cachedReadings.get(0), cache.get("Haus", 0, this::tag).get(0));
+    assertFalse(cache.get("Haus", 0, this::tag).get(0).isWhitespaceBefore());
+    // the flags and the tagger name are part of the key:
+    cache.get("Haus", WordTagCache.SENTENCE_START, this::tag);
+    new WordTagCache("other").get("Haus", 0, this::tag);
+    cache.get("haus", 0, this::tag);
+    assertEquals(4, taggedWords.get());
+    assertNull(cache.getIfPresent("Baum", 0));
+    cache.put("Baum", 0, tag("Baum"));
+    assertEquals("[Baum/SUB, Baum/VER]", cache.getIfPresent("Baum", 0).toString());
+  }
+
+  @Test
+  public void testDisabledCache() {
+    WordTagCache.setMaxSize(0);
+    WordTagCache cache = new WordTagCache("test");
+    cache.get("Haus", 0, this::tag);
+    cache.get("Haus", 0, this::tag);
+    assertEquals(2, taggedWords.get());
+    assertNull(cache.getIfPresent("Haus", 0));
+  }
+
+  private List<AnalyzedToken> tag(String word) {
+    taggedWords.incrementAndGet();
+    return Arrays.asList(new AnalyzedToken(word, "SUB", word), new AnalyzedToken(word, "VER", word));
+  }
+
+}
@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -54,6 +55,23 @@ public class MultiWordChunkerTest {
     assertTrue(tokens[5].getReadings().toString().contains("FakePosTag"));
   }
 
+  @Test
+  public void testDisambiguateWithWhitespaceAndPunctuation() throws IOException {
+    MultiWordChunker multiWordChunker = new MultiWordChunker("/yy/multiwords-punctuation.txt", true, true, true);
+
+    AnalyzedTokenReadings[] tokens = multiWordChunker.disambiguate(lt.getAnalyzedSentence("Ah  for shame")).getTokens();
+    assertTrue(tokens[1].getReadings().toString().contains("<adv>"));
+    assertTrue(tokens[6].getReadings().toString().contains("</adv>"));
+
+    tokens = multiWordChunker.disambiguate(lt.getAnalyzedSentence("ah for")).getTokens();
+    assertFalse(tokens[1].getReadings().toString().contains("adv"));
+
+    tokens = multiWordChunker.disambiguate(lt.getAnalyzedSentence("see e.g. this")).getTokens();
+    assertEquals("e", tokens[3].getToken());
+    assertTrue(tokens[3].getReadings().toString().contains("<abbr>"));
+    assertTrue(tokens[6].getReadings().toString().contains("</abbr>"));
+  }
+
   @Test
   public void testDisambiguate2() throws IOException {
     MultiWordChunker2 multiWordChunker = new MultiWordChunker2("/yy/multiwords.txt", true);
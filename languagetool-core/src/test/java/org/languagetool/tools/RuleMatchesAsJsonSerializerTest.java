@@ -20,12 +20,16 @@ package org.languagetool.tools;
 
 import org.junit.Test;
 import org.languagetool.*;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
 import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -85,6 +89,17 @@ public class RuleMatchesAsJsonSerializerTest {
     assertContains("\"tags\":[\"picky\"]", json);
   }
 
+  @Test
+  public void testJsonToWriter() throws IOException {
+    DetectedLanguage lang = new DetectedLanguage(Languages.getLanguageForShortCode("xx-XX"), Languages.getLanguageForShortCode("xx-XX")) ;
+    AnnotatedText text = new AnnotatedTextBuilder().addText("This is an text.").build();
+    List<CheckResults> res = Arrays.asList(new CheckResults(matches, Collections.emptyList()), new CheckResults(matches2, Collections.emptyList()));
+    String json = serializer.ruleMatchesToJson2(res, null, text, 5, lang, null, false, null);
+    StringWriter writer = new StringWriter();
+    serializer.ruleMatchesToJson2(res, null, text, 5, lang, null, false, null, writer);
+    assertEquals(json, writer.toString());
+  }
+
   private void assertContains(String expectedSubstring, String json) {
     assertTrue("Did not find expected string '" + expectedSubstring + "' in JSON:\n" + json, json.contains(expectedSubstring));
   }
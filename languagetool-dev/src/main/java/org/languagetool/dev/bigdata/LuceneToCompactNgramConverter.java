@@ -0,0 +1,117 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.dev.bigdata;
+
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.languagetool.languagemodel.CompactLanguageModel;
+import org.languagetool.languagemodel.CompactNgramIndexWriter;
+import org.languagetool.languagemodel.LuceneLanguageModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts the Lucene ngram indexes (as used by {@link LuceneLanguageModel}) to the
+ * files used by {@link CompactLanguageModel}. If the input has several {@code index-*}
+ * sub directories, their counts are summed up, as {@link LuceneLanguageModel} does.
+ * Needs about 16 bytes of heap per distinct ngram of the largest index, so use e.g. {@code -Xmx}.
+ * @since 6.4
+ */
+public class LuceneToCompactNgramConverter {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + LuceneToCompactNgramConverter.class.getSimpleName() + " <luceneTopIndexDir> <outputDir>");
+      System.out.println("  <luceneTopIndexDir> is a directory with '1grams' ... '4grams' sub directories, e.g. /data/ngrams/en");
+      System.exit(1);
+    }
+    convert(new File(args[0]), new File(args[1]));
+  }
+
+  static void convert(File topIndexDir, File outputDir) throws IOException {
+    LuceneLanguageModel.validateDirectory(topIndexDir);
+    if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+      throw new IOException("Could not create " + outputDir);
+    }
+    File[] indexDirs = topIndexDir.listFiles((file, name) -> name.matches("index-\\d+"));
+    List<File> topDirs = indexDirs != null && indexDirs.length > 0 ? Arrays.asList(indexDirs) : Arrays.asList(topIndexDir);
+    for (int ngramSize = 1; ngramSize <= 4; ngramSize++) {
+      List<File> dirs = new ArrayList<>();
+      for (File dir : topDirs) {
+        File ngramDir = new File(dir, ngramSize + "grams");
+        if (ngramDir.isDirectory()) {
+          dirs.add(ngramDir);
+        }
+      }
+      if (dirs.isEmpty()) {
+        continue;
+      }
+      CompactNgramIndexWriter writer = new CompactNgramIndexWriter(ngramSize);
+      for (File dir : dirs) {
+        System.out.println("Reading " + dir);
+        addCounts(dir, writer);
+      }
+      if (ngramSize == 1) {
+        try (LuceneLanguageModel lm = new LuceneLanguageModel(topIndexDir)) {
+          writer.setTotalTokenCount(lm.getTotalTokenCount());
+        }
+      }
+      File outputFile = new File(outputDir, CompactNgramIndexWriter.getFileName(ngramSize));
+      writer.write(outputFile);
+      System.out.println("Wrote " + writer.size() + " " + ngramSize + "grams to " + outputFile + " (" + outputFile.length() / 1024 / 1024 + "MB)");
+    }
+  }
+
+  private static void addCounts(File indexDir, CompactNgramIndexWriter writer) throws IOException {
+    // the ngrams are indexed but not stored, so we need to iterate the terms:
+    try (FSDirectory directory = FSDirectory.open(indexDir.getCanonicalFile().toPath());
+         DirectoryReader reader = DirectoryReader.open(directory)) {
+      Terms terms = MultiFields.getTerms(reader, "ngram");
+      if (terms == null) {
+        return;
+      }
+      Bits liveDocs = MultiFields.getLiveDocs(reader);
+      TermsEnum termsEnum = terms.iterator();
+      PostingsEnum postings = null;
+      BytesRef term;
+      long i = 0;
+      while ((term = termsEnum.next()) != null) {
+        String ngram = term.utf8ToString();
+        postings = termsEnum.postings(postings, PostingsEnum.NONE);
+        int doc;
+        while ((doc = postings.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+          if (liveDocs == null || liveDocs.get(doc)) {
+            writer.add(ngram, Long.parseLong(reader.document(doc).get("count")));
+          }
+        }
+        if (++i % 10_000_000 == 0) {
+          System.out.println(i + " ngrams...");
+        }
+      }
+    }
+  }
+
+}
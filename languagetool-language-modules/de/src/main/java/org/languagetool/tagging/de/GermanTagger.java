@@ -31,6 +31,7 @@ import org.languagetool.tagging.BaseTagger;
 import org.languagetool.tagging.CombiningTagger;
 import org.languagetool.tagging.ManualTagger;
 import org.languagetool.tagging.TaggedWord;
+import org.languagetool.tagging.WordTagCache;
 import org.languagetool.tokenizers.de.GermanCompoundTokenizer;
 import org.languagetool.tools.StringTools;
 
@@ -62,6 +63,11 @@ public class GermanTagger extends BaseTagger {
   private static final Pattern innenPattern2 = compile("innen[a-zöäüß-]+");
   private static final Pattern DDD_ER_PATTERN = compile("\\d{4}+er");
 
+  // word cache flags for the context the readings of unknown words depend on, in addition to WordTagCache.SENTENCE_START:
+  private static final int IMPERATIVE_CONTEXT = 2;    // the word might be an alternative imperative form ("Geh bitte!")
+  private static final int IMPERATIVE_LOWERCASE = 4;  // ... whose lowercase variant is to be looked up
+  private static final int BEFORE_UPPERCASE = 8;      // the word is followed by an uppercase word or "als"
+
   static {
     for (String nomAkkGenDat : asList("NOM", "AKK", "GEN", "DAT")) {
       for (String pluSin : asList("PLU", "SIN")) {
@@ -304,6 +310,16 @@ public class GermanTagger extends BaseTagger {
         }
       }
 
+      int contextFlags = 0;
+      boolean useCache = false;
+      List<AnalyzedToken> cachedReadings = null;
+      if (taggerTokens.isEmpty()) {
+        contextFlags = getContextFlags(word, sentenceTokens, pos);
+        useCache = !StringUtils.isAllBlank(word) && !isDomainPart(sentenceTokens, idxPos);
+        if (useCache) {
+          cachedReadings = getWordCache().getIfPresent(word, contextFlags);
+        }
+      }
       if (taggerTokens.size() > 0) { //Word known, just add analyzed token to readings
         readings.addAll(getAnalyzedTokens(taggerTokens, word));
         /*
@@ -340,6 +356,8 @@ public class GermanTagger extends BaseTagger {
               }
             }
         }
+      } else if (cachedReadings != null) {
+        readings.addAll(cachedReadings);
       } else { // Word not known, try to decompose it and use the last part for POS tagging:
         PrefixInfixVerb verbInfo = expansionInfos.get().verbInfos.get(word);
         NominalizedVerb nomVerbInfo = expansionInfos.get().nominalizedVerbInfos.get(word);
@@ -423,8 +441,8 @@ public class GermanTagger extends BaseTagger {
           List<String> compoundParts = GermanCompoundTokenizer.getStrictInstance().tokenize(word);
           if (compoundParts.size() <= 1) {//Could not find simple compound parts
             // Recognize alternative imperative forms (e.g., "Geh bitte!" in addition to "Gehe bitte!")
-            List<AnalyzedToken> imperativeFormList = getImperativeForm(word, sentenceTokens, pos);
-            List<AnalyzedToken> substantivatedFormsList = getSubstantivatedForms(word, sentenceTokens);
+            List<AnalyzedToken> imperativeFormList = getImperativeForm(word, contextFlags);
+            List<AnalyzedToken> substantivatedFormsList = getSubstantivatedForms(word, contextFlags);
             if (imperativeFormList.size() > 0) {
               readings.addAll(imperativeFormList);
             } else if (substantivatedFormsList.size() > 0) {
@@ -639,7 +657,7 @@ public class GermanTagger extends BaseTagger {
                 readings.add(getNoInfoToken(word));
               }
             }
-          } else if (!(idxPos+2 < sentenceTokens.size() && sentenceTokens.get(idxPos+1).equals(".") && sentenceTokens.get(idxPos+2).matches("com|net|org|de|at|ch|fr|uk|gov"))) {  // TODO: find better way to ignore domains
+          } else if (!isDomainPart(sentenceTokens, idxPos)) {
             // last part governs a word's POS:
             String lastPart = compoundParts.get(compoundParts.size() - 1);
             if (StringTools.startsWithUppercase(word) && !StringUtils.containsAny(lastPart, "freie", "freier", "freien", "freies", "freiem")) {
@@ -674,6 +692,9 @@ public class GermanTagger extends BaseTagger {
         if (readings.isEmpty()) {
           readings.add(getNoInfoToken(word));
         }
+        if (useCache) {
+          getWordCache().put(word, contextFlags, readings);
+        }
       }
       tokenReadings.add(new AnalyzedTokenReadings(readings.toArray(new AnalyzedToken[0]), pos));
       pos += word.length();
@@ -683,6 +704,49 @@ public class GermanTagger extends BaseTagger {
     return tokenReadings;
   }
 
+  /*
+   * The context the readings of an unknown word depend on, so that the readings can be cached for
+   * the word in this context. Only looks at the words around, no dictionary lookups.
+   */
+  private int getContextFlags(String word, List<String> sentenceTokens, int pos) {
+    int idx = sentenceTokens.indexOf(word);
+    int flags = idx == 0 ? WordTagCache.SENTENCE_START : 0;
+    String previousWord = "";
+    int prevIdx = idx;
+    while (--prevIdx > -1) {
+      previousWord = sentenceTokens.get(prevIdx);
+      if (!StringUtils.isWhitespace(previousWord)) {
+        break;
+      }
+    }
+    if ((pos == 0 && sentenceTokens.size() > 1)
+        || StringUtils.equalsAnyIgnoreCase(previousWord, "ich", "er", "es", "sie", "bitte", "aber", "nun", "jetzt", "„")) {
+      flags |= IMPERATIVE_CONTEXT;
+      if (pos == 0 || "„".equals(previousWord)) {
+        flags |= IMPERATIVE_LOWERCASE;
+      }
+    }
+    if (word.endsWith("er")) {
+      int nextIdx = idx;
+      while (++nextIdx < sentenceTokens.size()) {
+        String nextWord = sentenceTokens.get(nextIdx);
+        if (StringUtils.isWhitespace(nextWord)) {
+          continue;
+        }
+        if (nextWord.length() > 0 && (Character.isUpperCase(nextWord.charAt(0)) || "als".equals(nextWord))) {
+          flags |= BEFORE_UPPERCASE;
+        }
+        break;
+      }
+    }
+    return flags;
+  }
+
+  private boolean isDomainPart(List<String> sentenceTokens, int idxPos) {
+    // TODO: find better way to ignore domains
+    return idxPos+2 < sentenceTokens.size() && sentenceTokens.get(idxPos+1).equals(".") && sentenceTokens.get(idxPos+2).matches("com|net|org|de|at|ch|fr|uk|gov");
+  }
+
   @Nullable
   String prefixedVerbLastPart(String word) {
     // "aufstöhnen" (auf+stöhnen) etc.
@@ -713,20 +777,11 @@ public class GermanTagger extends BaseTagger {
    * [b2] words preceded by aber/nun/jetzt (e.g., "Bitte geh!", "Jetzt sag schon!" etc.)
    * @param word to be checked
    */
-  private List<AnalyzedToken> getImperativeForm(String word, List<String> sentenceTokens, int pos) {
-    int idx = sentenceTokens.indexOf(word);
-    String previousWord = "";
-    while (--idx > -1) {
-      previousWord = sentenceTokens.get(idx);
-      if (!StringUtils.isWhitespace(previousWord)) {
-        break;
-      }
-    }
-    if (!(pos == 0 && sentenceTokens.size() > 1)
-        && !StringUtils.equalsAnyIgnoreCase(previousWord, "ich", "er", "es", "sie", "bitte", "aber", "nun", "jetzt", "„")) {
+  private List<AnalyzedToken> getImperativeForm(String word, int contextFlags) {
+    if ((contextFlags & IMPERATIVE_CONTEXT) == 0) {
       return Collections.emptyList();
     }
-    String w = pos == 0 || "„".equals(previousWord) ? word.toLowerCase() : word;
+    String w = (contextFlags & IMPERATIVE_LOWERCASE) != 0 ? word.toLowerCase() : word;
     List<TaggedWord> taggedWithE = getWordTagger().tag(w.concat("e"));
     for (TaggedWord tagged : taggedWithE) {
       if (tagged.getPosTag().startsWith("VER:IMP:SIN")) {
@@ -745,7 +800,7 @@ public class GermanTagger extends BaseTagger {
    * (e.g., "Verletzter" in "Ein Verletzter kam ins Krankenhaus" needs to be tagged as "SUB:NOM:SIN:MAS")
    * @param word to be checked
    */
-  private List<AnalyzedToken> getSubstantivatedForms(String word, List<String> sentenceTokens) {
+  private List<AnalyzedToken> getSubstantivatedForms(String word, int contextFlags) {
     if (word.endsWith("er")) {
       if (DDD_ER_PATTERN.matcher(word).matches()) {
         // e.g. "Den 2019er Wert hatten sie geschätzt"
@@ -760,17 +815,9 @@ public class GermanTagger extends BaseTagger {
       if (lowerCaseTags.stream().anyMatch(t -> t.getPosTag().startsWith("ADV"))) {
         return Collections.emptyList();
       }
-      int idx = sentenceTokens.indexOf(word);
       // is followed by an uppercase word? If 'yes', the word is probably not substantivated
-      while (++idx < sentenceTokens.size()) {
-        String nextWord = sentenceTokens.get(idx);
-        if (StringUtils.isWhitespace(nextWord)) {
-          continue;
-        }
-        if (nextWord.length() > 0 && (Character.isUpperCase(nextWord.charAt(0)) || "als".equals(nextWord))) {
-          return Collections.emptyList();
-        }
-        break;
+      if ((contextFlags & BEFORE_UPPERCASE) != 0) {
+        return Collections.emptyList();
       }
       String femaleForm = word.substring(0, word.length()-1);
       List<TaggedWord> taggedFemaleForm = getWordTagger().tag(femaleForm);
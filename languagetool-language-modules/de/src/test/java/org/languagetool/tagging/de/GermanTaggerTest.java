@@ -82,6 +82,23 @@ public class GermanTaggerTest {
     assertFalse(aToken.get(0).isTagged());
   }
 
+  @Test
+  public void testWordCache() throws IOException {
+    List<String> tokens = Arrays.asList("Zahnarztverbandsvorsitz", " ", "tagt");
+    AnalyzedTokenReadings readings = tagger.tag(tokens).get(0);
+    AnalyzedTokenReadings cachedReadings = tagger.tag(tokens).get(0);
+    assertTrue(readings.hasPartialPosTag("SUB:NOM:SIN:MAS"));
+    assertEquals(toSortedString(readings), toSortedString(cachedReadings));
+    assertNotSame(readings.getAnalyzedToken(0), cachedReadings.getAnalyzedToken(0));
+    // words whose readings depend on the context are not taken from the cache:
+    assertFalse(tagger.tag(Arrays.asList("Zahnarztverbandsvorsitz", ".", "de")).get(0).isTagged());
+    // the context is part of the cache key:
+    for (int i = 0; i < 2; i++) {
+      assertTrue(tagger.tag(Arrays.asList("Ein", " ", "Verletzter", " ", "kam")).get(2).hasPartialPosTag("SUB:NOM:SIN:MAS:ADJ"));
+      assertFalse(tagger.tag(Arrays.asList("Ein", " ", "Verletzter", " ", "Mann")).get(2).hasPartialPosTag("SUB:NOM:SIN:MAS:ADJ"));
+    }
+  }
+
   @Test
   public void testIgnoreImperative() throws IOException {
     List<AnalyzedTokenReadings> aToken = tagger.tag(Arrays.asList("zehnfach"));
@@ -36,6 +36,7 @@ import org.languagetool.rules.CorrectExample;
 import org.languagetool.rules.IncorrectExample;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.TextLevelRule;
+import org.languagetool.rules.spelling.morfologik.UserDictionaryCache;
 import org.languagetool.tools.TelemetryProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -146,7 +147,7 @@ class ApiV2 {
     if (parameters.containsKey("text") && parameters.containsKey("data")) {
       throw new BadRequestException("Set only 'text' or 'data' parameter, not both");
     } else if (parameters.containsKey("text")) {
-      aText = new AnnotatedTextBuilder().addText(parameters.get("text")).build();
+      aText = new AnnotatedTextBuilder().addText(textChecker.getPlainText(parameters)).build();
     } else if (parameters.containsKey("data")) {
       ObjectMapper mapper = new ObjectMapper();
       JsonNode data;
@@ -220,9 +221,11 @@ class ApiV2 {
     if ("batch".equals(parameters.get("mode"))) {
       List<String> words = Arrays.asList(parameters.get("words").split("\\s+"));
       db.addWordBatch(words, limits.getPremiumUid(), parameters.get("dict"));
+      invalidateWords(limits);
       writeResponse("added", true, httpExchange);
     } else {
       boolean added = db.addWord(parameters.get("word"), limits.getPremiumUid(), parameters.get("dict"));
+      invalidateWords(limits);
       writeResponse("added", added, httpExchange);
     }
   }
@@ -235,13 +238,22 @@ class ApiV2 {
     if("batch".equals(parameters.get("mode"))) { //Experimental
       List<String> words = Arrays.asList(parameters.get("words").split("\\s+"));
       deleted = db.deleteWordBatch(words, limits.getPremiumUid(),parameters.get("dict"));
+      invalidateWords(limits);
       writeResponse("deleted", deleted, httpExchange);
     } else {
       deleted = db.deleteWord(parameters.get("word"), limits.getPremiumUid(), parameters.get("dict"));
+      invalidateWords(limits);
       writeResponse("deleted", deleted, httpExchange);
     }
   }
 
+  private void invalidateWords(UserLimits limits) {
+    textChecker.getDatabaseLookups().invalidateWords(limits.getPremiumUid());
+    if (limits.getPremiumUid() != null) {
+      UserDictionaryCache.invalidate(limits.getPremiumUid());
+    }
+  }
+
   private void handleRuleExamplesRequest(HttpExchange httpExchange, Map<String, String> params) throws Exception {
     ensureGetMethod(httpExchange, "/rule/examples");
     if (params.get("lang") == null) {
@@ -0,0 +1,89 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.languagemodel.CachingLanguageModel;
+import org.languagetool.rules.spelling.SuggestionsCache;
+import org.languagetool.rules.spelling.morfologik.UserDictionaryCache;
+import org.languagetool.tagging.WordTagCache;
+
+/**
+ * The sizes of caches that can be configured with an option of {@link HTTPServerConfig}
+ * (see {@link HTTPServerConfig#getCacheSetting(CacheSetting)}). The options are listed in the
+ * server's help and exposed as configuration values if Prometheus monitoring is enabled.
+ * @since 6.4
+ */
+public enum CacheSetting {
+
+  USER_DICT_CACHE_SIZE_MB("userDictCacheSizeMB", 64,
+    "maximum memory in MB for the compiled dictionaries of users' own words, shared by all users that have a dictionary cache size configured"),
+  NGRAM_CACHE_SIZE("ngramCacheSize", 100_000,
+    "number of ngram counts cached in front of the ngram index given with 'languageModel', 0 disables the cache"),
+  LANGUAGE_DETECTION_CACHE_SIZE("languageDetectionCacheSize", 10_000,
+    "number of language detection results cached by text, and of text sessions whose language is remembered, 0 disables the cache, only used with 'fasttextModel' or 'ngramLangIdentData'"),
+  WORD_TAG_CACHE_SIZE("wordTagCacheSize", 50_000,
+    "number of words whose readings are cached by taggers with an expensive analysis of unknown words (e.g. German compounds), 0 disables the cache"),
+  SUGGESTIONS_CACHE_SIZE_MB("suggestionsCacheSizeMB", 50,
+    "maximum memory in MB for cached spelling suggestions, shared by all languages, 0 disables the cache");
+
+  private final String option;
+  private final long defaultValue;
+  private final String description;
+
+  CacheSetting(String option, long defaultValue, String description) {
+    this.option = option;
+    this.defaultValue = defaultValue;
+    this.description = description;
+  }
+
+  /**
+   * @return the name of the option in the server's properties file
+   */
+  public String getOption() {
+    return option;
+  }
+
+  public long getDefaultValue() {
+    return defaultValue;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Size the caches that are shared by all checks in this JVM, i.e. that are static. This is done once
+   * when the server is set up, as the caches are emptied when they're resized.
+   */
+  static void configureSharedCaches(HTTPServerConfig config) {
+    UserDictionaryCache.setMaxBytes(config.getCacheSetting(USER_DICT_CACHE_SIZE_MB) * 1024L * 1024L);
+    CachingLanguageModel.setMaxSize(config.getCacheSetting(NGRAM_CACHE_SIZE));
+    WordTagCache.setMaxSize(config.getCacheSetting(WORD_TAG_CACHE_SIZE));
+    SuggestionsCache.setMaxBytes(config.getCacheSetting(SUGGESTIONS_CACHE_SIZE_MB) * 1024L * 1024L);
+    if (!config.isLocalApiMode()) {
+      if (config.getCacheSetting(NGRAM_CACHE_SIZE) > 0) {
+        ServerMetricsCollector.getInstance().monitorCache("languagetool_ngram_cache", CachingLanguageModel.getCache());
+      }
+      if (config.getCacheSetting(WORD_TAG_CACHE_SIZE) > 0) {
+        ServerMetricsCollector.getInstance().monitorCache("languagetool_word_tag_cache", WordTagCache.getCache());
+      }
+    }
+  }
+
+}
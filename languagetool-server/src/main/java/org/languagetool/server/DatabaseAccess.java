@@ -42,7 +42,8 @@ import java.util.List;
  * @since 4.2
  */
 abstract class DatabaseAccess {
-  private static DatabaseAccess instance;
+  // volatile so that getInstance() and isReady(), which are called for every request, don't need a lock
+  private static volatile DatabaseAccess instance;
   protected SqlSessionFactory sqlSessionFactory;
 
   /**
@@ -75,18 +76,19 @@ abstract class DatabaseAccess {
     instance = null;
   }
 
-  static synchronized DatabaseAccess getInstance() {
-    if (instance == null) {
+  static DatabaseAccess getInstance() {
+    DatabaseAccess db = instance;
+    if (db == null) {
       throw new IllegalStateException("DatabaseAccess.init() has not been called yet or failed");
     }
-    return instance;
+    return db;
   }
 
   /**
    * @since 5.7
    * Test if instance is configured and can be used
    */
-  static synchronized boolean isReady() {
+  static boolean isReady() {
     return instance != null;
   }
 
@@ -143,6 +145,14 @@ abstract class DatabaseAccess {
 
   abstract Long getOrCreateClientId(String client);
 
+  /**
+   * Like {@link #getOrCreateClientId(String)}, but only returns the ID if it's cached, without accessing the database.
+   * @return the ID, -1 if the client is known to have no ID, or {@code null} if the client isn't cached (yet)
+   * @since 6.4
+   */
+  @Nullable
+  abstract Long getCachedClientId(String client);
+
 
   /**
    * get all dictionary groups belonging to a user
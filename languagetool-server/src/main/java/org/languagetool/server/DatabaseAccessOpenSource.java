@@ -303,6 +303,14 @@ class DatabaseAccessOpenSource extends DatabaseAccess {
     }
   }
 
+  @Override
+  Long getCachedClientId(String client) {
+    if (sqlSessionFactory == null || client == null) {
+      return -1L;
+    }
+    return dbLoggingCache.getIfPresent("client_" + client);
+  }
+
   @Override
   List<DictGroupEntry> getDictGroups(Long userId) {
     return Collections.emptyList();
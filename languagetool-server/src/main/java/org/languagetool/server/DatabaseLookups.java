@@ -0,0 +1,200 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.ibatis.session.RowBounds;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The database lookups made for every check, in front of {@link DatabaseAccess}, so that checks
+ * don't wait for each other or for JDBC in the common case:
+ * <ul>
+ *   <li>client IDs are only needed for logging, so if {@link DatabaseAccess} doesn't have them cached
+ *   yet, they're loaded in the background and the request is logged without one</li>
+ *   <li>if {@code dbCacheRefreshSeconds} is set, user dictionaries and user rules are cached and
+ *   refreshed in the background when they're older than that, while the old value is still used.
+ *   Only the first request of a user waits for the database. Adding or deleting words on this
+ *   server invalidates the user's dictionaries immediately.</li>
+ * </ul>
+ * @since 6.4
+ */
+class DatabaseLookups {
+
+  private static final Logger logger = LoggerFactory.getLogger(DatabaseLookups.class);
+
+  private final ThreadPoolExecutor executor;
+  private final Set<String> pendingClientIds = ConcurrentHashMap.newKeySet();
+  @Nullable
+  private final LoadingCache<UserKey, List<String>> words;
+  @Nullable
+  private final LoadingCache<UserKey, List<Rule>> rules;
+
+  DatabaseLookups(HTTPServerConfig config) {
+    int threads = Math.max(1, config.getDbMaxConnections() / 2);
+    executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000),
+      new ThreadFactoryBuilder().setNameFormat("lt-db-lookup-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    long refreshSeconds = config.getDbCacheRefreshSeconds();
+    if (refreshSeconds > 0) {
+      words = buildCache(refreshSeconds, "words", key ->
+        DatabaseAccess.getInstance().getWords(key.limits, key.groups, RowBounds.NO_ROW_OFFSET, RowBounds.NO_ROW_LIMIT));
+      rules = buildCache(refreshSeconds, "rules", key ->
+        DatabaseAccess.getInstance().getRules(key.limits, key.lang, key.groups));
+    } else {
+      words = null;
+      rules = null;
+    }
+  }
+
+  private <T> LoadingCache<UserKey, List<T>> buildCache(long refreshSeconds, String name, Function<UserKey, List<T>> loader) {
+    return CacheBuilder.newBuilder()
+      .refreshAfterWrite(refreshSeconds, TimeUnit.SECONDS)
+      .expireAfterAccess(Math.max(refreshSeconds * 10, 600), TimeUnit.SECONDS)
+      .maximumSize(10_000)
+      .build(CacheLoader.asyncReloading(new CacheLoader<UserKey, List<T>>() {
+        @Override
+        public List<T> load(UserKey key) {
+          return loader.apply(key);
+        }
+        @Override
+        public ListenableFuture<List<T>> reload(UserKey key, List<T> oldValue) {
+          try {
+            return Futures.immediateFuture(loader.apply(key));
+          } catch (RuntimeException e) {
+            // keep the old value until the next refresh, the request isn't waiting for this anyway:
+            logger.warn("Could not refresh " + name + " of user " + key.userId + ", keeping the old ones", e);
+            return Futures.immediateFuture(oldValue);
+          }
+        }
+      }, executor));
+  }
+
+  /**
+   * @return the ID of the client, or {@code null} if it's unknown or hasn't been loaded yet
+   */
+  @Nullable
+  Long getClientId(@Nullable String client) {
+    if (client == null) {
+      return null;
+    }
+    // DatabaseAccess caches the IDs, so only load them in the background if they're not cached yet:
+    Long id = DatabaseAccess.getInstance().getCachedClientId(client);
+    if (id == null && pendingClientIds.add(client)) {
+      try {
+        executor.execute(() -> {
+          try {
+            DatabaseAccess.getInstance().getOrCreateClientId(client);
+          } catch (Exception e) {
+            logger.warn("Could not load ID of client '" + client + "'", e);
+          } finally {
+            pendingClientIds.remove(client);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        pendingClientIds.remove(client);
+        logger.warn("Too many pending database lookups, not loading ID of client '{}'", client);
+      }
+    }
+    return id == null || id == -1L ? null : id;
+  }
+
+  List<String> getWords(UserLimits limits, @Nullable List<String> groups) {
+    if (words == null) {
+      return DatabaseAccess.getInstance().getWords(limits, groups, RowBounds.NO_ROW_OFFSET, RowBounds.NO_ROW_LIMIT);
+    }
+    return get(words, new UserKey(limits, groups, null));
+  }
+
+  List<Rule> getRules(UserLimits limits, Language lang, @Nullable List<String> groups) {
+    if (rules == null) {
+      return DatabaseAccess.getInstance().getRules(limits, lang, groups);
+    }
+    return get(rules, new UserKey(limits, groups, lang));
+  }
+
+  private static <T> List<T> get(LoadingCache<UserKey, List<T>> cache, UserKey key) {
+    try {
+      return cache.get(key);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Call after the user's dictionary has been modified, so the next check uses the new words.
+   */
+  void invalidateWords(@Nullable Long userId) {
+    if (words != null && userId != null) {
+      words.asMap().keySet().removeIf(key -> userId.equals(key.userId));
+    }
+  }
+
+  private static class UserKey {
+    private final UserLimits limits;  // not part of the key, needed to load the value
+    private final Long userId;
+    private final List<String> groups;
+    private final Language lang;
+
+    UserKey(UserLimits limits, @Nullable List<String> groups, @Nullable Language lang) {
+      this.limits = limits;
+      this.userId = limits.getPremiumUid();
+      this.groups = groups;
+      this.lang = lang;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      UserKey other = (UserKey) o;
+      return Objects.equals(userId, other.userId) && Objects.equals(groups, other.groups) && Objects.equals(lang, other.lang);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, groups, lang);
+    }
+  }
+
+}
@@ -0,0 +1,267 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.CheckResults;
+import org.languagetool.ExtendedSentenceRange;
+import org.languagetool.SentenceRange;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Remembers the text and the results of the last check per text session, so that a
+ * follow-up check of the same session only needs to check the paragraphs that have changed.
+ * Only the changed paragraphs plus one paragraph of context on each side are checked again,
+ * the matches outside of that window are taken from the previous check and moved by the
+ * length difference of the change. Text-level rules thus only see this window, which is
+ * an approximation that may miss or keep matches that depend on text far away from the change.
+ * @since 6.4
+ */
+class DeltaCheckSessions {
+
+  /** If the re-checked window would cover more than this share of the text, the whole text is checked. */
+  private static final float MAX_WINDOW_SHARE = 0.5f;
+
+  private final Cache<String, Session> sessions;
+
+  DeltaCheckSessions(int maxSessions, long expireAfterSeconds) {
+    sessions = CacheBuilder.newBuilder()
+      .maximumSize(maxSessions)
+      .expireAfterAccess(expireAfterSeconds, TimeUnit.SECONDS)
+      .build();
+  }
+
+  @FunctionalInterface
+  interface Checker {
+    /**
+     * @param offset the position of {@code text} in the complete text, for adjusting the positions
+     *               of matches that are reported before the check has finished
+     */
+    CheckResults check(AnnotatedText text, int offset) throws IOException;
+  }
+
+  /**
+   * @param userId the id of the authenticated user, {@code null} for anonymous requests, which can't use delta checks
+   * @return the key of the session the request belongs to, or {@code null} if it doesn't ask for or may not use a delta check
+   */
+  @Nullable
+  static String getSessionKey(Map<String, String> parameters, @Nullable Long userId) {
+    if (userId == null || !"true".equals(parameters.get("deltaCheck")) || parameters.get("textSessionId") == null) {
+      return null;
+    }
+    // the session contains the user's text, so make sure no one else can continue it:
+    return userId + "/" + parameters.get("textSessionId");
+  }
+
+  /**
+   * Returns the text to be checked: either the 'text' parameter or, if 'deltaOffset' is set, the text of the
+   * session's previous check with the 'deltaLength' characters starting at 'deltaOffset' replaced by 'text'.
+   * @param userId the id of the authenticated user, {@code null} for anonymous requests
+   */
+  String getText(Map<String, String> parameters, @Nullable Long userId) {
+    String text = parameters.get("text");
+    if (parameters.get("deltaOffset") == null) {
+      return text;
+    }
+    if (userId == null) {
+      throw new AuthException("'deltaOffset' requires authentication, please send the complete text");
+    }
+    String key = getSessionKey(parameters, userId);
+    if (key == null) {
+      throw new BadRequestException("'deltaOffset' requires 'deltaCheck=true' and a 'textSessionId'");
+    }
+    Session session = sessions.getIfPresent(key);
+    if (session == null) {
+      throw new BadRequestException("Unknown or expired text session for delta check, please send the complete text");
+    }
+    int offset = parseInt(parameters, "deltaOffset");
+    int length = parameters.get("deltaLength") != null ? parseInt(parameters, "deltaLength") : 0;
+    if (offset < 0 || length < 0 || offset + length > session.text.length()) {
+      throw new BadRequestException("'deltaOffset' and 'deltaLength' must describe a range inside the text of the previous check (length " +
+        session.text.length() + ")");
+    }
+    return session.text.substring(0, offset) + text + session.text.substring(offset + length);
+  }
+
+  private static int parseInt(Map<String, String> parameters, String name) {
+    try {
+      return Integer.parseInt(parameters.get(name));
+    } catch (NumberFormatException e) {
+      throw new BadRequestException("Invalid value for '" + name + "': " + parameters.get(name));
+    }
+  }
+
+  /**
+   * Checks the text, re-using the results of the session's previous check if it was made with the same settings.
+   * @param paragraphSeparator the string that separates paragraphs in the text
+   */
+  CheckResults check(String sessionKey, PipelineSettings settings, AnnotatedText aText, String paragraphSeparator, Checker checker) throws IOException {
+    String text = aText.getPlainText();
+    if (!text.equals(aText.getTextWithMarkup())) {
+      // text with markup has positions that are not in the plain text, we don't handle that
+      return checker.check(aText, 0);
+    }
+    Session previous = sessions.getIfPresent(sessionKey);
+    CheckResults result = null;
+    if (previous != null && previous.settings.equals(settings)) {
+      result = checkDelta(previous, aText, paragraphSeparator, checker);
+    }
+    if (result == null) {
+      result = checker.check(aText, 0);
+    }
+    if (result.getIgnoredRanges().isEmpty()) {
+      sessions.put(sessionKey, new Session(text, settings, result));
+    } else {
+      sessions.invalidate(sessionKey);
+    }
+    return result;
+  }
+
+  @Nullable
+  private static CheckResults checkDelta(Session previous, AnnotatedText aText, String sep, Checker checker) throws IOException {
+    String oldText = previous.text;
+    String text = aText.getPlainText();
+    int prefix = 0;
+    int maxPrefix = Math.min(oldText.length(), text.length());
+    while (prefix < maxPrefix && oldText.charAt(prefix) == text.charAt(prefix)) {
+      prefix++;
+    }
+    int suffix = 0;
+    int maxSuffix = maxPrefix - prefix;
+    while (suffix < maxSuffix && oldText.charAt(oldText.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) {
+      suffix++;
+    }
+    int lengthDelta = text.length() - oldText.length();
+    if (prefix == text.length() && lengthDelta == 0) {
+      return copy(previous.results);
+    }
+    int coreStart = paragraphStart(text, prefix, sep);
+    int coreEnd = paragraphEnd(text, text.length() - suffix, sep);
+    int windowStart = coreStart > 0 ? paragraphStart(text, coreStart - sep.length(), sep) : 0;
+    int windowEnd = paragraphEnd(text, coreEnd, sep);
+    if (windowEnd - windowStart > text.length() * MAX_WINDOW_SHARE) {
+      return null;
+    }
+    AnnotatedText window = new AnnotatedTextBuilder().addText(text.substring(windowStart, windowEnd)).build();
+    CheckResults windowResults = checker.check(window, windowStart);
+    if (!windowResults.getIgnoredRanges().isEmpty()) {
+      return null;
+    }
+
+    List<RuleMatch> matches = merge(previous.results.getRuleMatches(), windowResults.getRuleMatches(), RuleMatch::getToPos,
+      DeltaCheckSessions::shift, coreStart, coreEnd, windowStart, lengthDelta);
+    List<ExtendedSentenceRange> extendedRanges = merge(previous.results.getExtendedSentenceRanges(), windowResults.getExtendedSentenceRanges(),
+      ExtendedSentenceRange::getToPos, ExtendedSentenceRange::shift, coreStart, coreEnd, windowStart, lengthDelta);
+    List<SentenceRange> sentenceRanges = merge(previous.results.getSentenceRanges(), windowResults.getSentenceRanges(),
+      SentenceRange::getToPos, SentenceRange::shift, coreStart, coreEnd, windowStart, lengthDelta);
+    CheckResults result = new CheckResults(matches, Collections.emptyList(), extendedRanges);
+    result.addSentenceRanges(sentenceRanges);
+    return result;
+  }
+
+  /**
+   * Merges the previous results before and after the re-checked paragraphs with the results of the window
+   * for these paragraphs. Which part a match or range belongs to is decided by its end position, as matches
+   * and sentence ranges may start in the whitespace that precedes a paragraph.
+   */
+  private static <T> List<T> merge(List<T> previous, List<T> window, ToIntFunction<T> toPos, BiFunction<T, Integer, T> shift,
+                                   int coreStart, int coreEnd, int windowStart, int lengthDelta) {
+    List<T> result = new ArrayList<>();
+    for (T item : previous) {
+      if (toPos.applyAsInt(item) <= coreStart) {
+        result.add(shift.apply(item, 0));
+      }
+    }
+    for (T item : window) {
+      int to = toPos.applyAsInt(item) + windowStart;
+      if (to > coreStart && to <= coreEnd) {
+        result.add(shift.apply(item, windowStart));
+      }
+    }
+    for (T item : previous) {
+      if (toPos.applyAsInt(item) + lengthDelta > coreEnd) {
+        result.add(shift.apply(item, lengthDelta));
+      }
+    }
+    return result;
+  }
+
+  private static RuleMatch shift(RuleMatch match, int delta) {
+    RuleMatch shifted = new RuleMatch(match);
+    shifted.setOffsetPosition(match.getFromPos() + delta, match.getToPos() + delta);
+    return shifted;
+  }
+
+  /** Copies the results, as matches and ranges are modified after the check, e.g. when computing suggestions. */
+  private static CheckResults copy(CheckResults results) {
+    List<RuleMatch> matches = new ArrayList<>();
+    for (RuleMatch match : results.getRuleMatches()) {
+      matches.add(shift(match, 0));
+    }
+    List<ExtendedSentenceRange> extendedRanges = new ArrayList<>();
+    for (ExtendedSentenceRange range : results.getExtendedSentenceRanges()) {
+      extendedRanges.add(range.shift(0));
+    }
+    CheckResults copy = new CheckResults(matches, Collections.emptyList(), extendedRanges);
+    copy.addSentenceRanges(results.getSentenceRanges());
+    return copy;
+  }
+
+  /** Start of the paragraph that contains {@code pos}. */
+  private static int paragraphStart(String text, int pos, String sep) {
+    int idx = text.lastIndexOf(sep, pos - sep.length());
+    return idx == -1 ? 0 : idx + sep.length();
+  }
+
+  /** End of the paragraph that contains {@code pos}, including its separator. */
+  private static int paragraphEnd(String text, int pos, String sep) {
+    int idx = text.indexOf(sep, pos);
+    return idx == -1 ? text.length() : idx + sep.length();
+  }
+
+  long size() {
+    return sessions.size();
+  }
+
+  private static class Session {
+    private final String text;
+    private final PipelineSettings settings;
+    private final CheckResults results;
+
+    Session(String text, PipelineSettings settings, CheckResults results) {
+      this.text = text;
+      this.settings = settings;
+      this.results = copy(results);
+    }
+  }
+
+}
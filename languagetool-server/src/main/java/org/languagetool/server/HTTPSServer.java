@@ -72,6 +72,7 @@ public class HTTPSServer extends Server {
       ErrorRequestLimiter errorLimiter = getErrorRequestLimiterOrNull(config);
       executorService = getExecutorService(config);
       BlockingQueue<Runnable> workQueue = executorService.getQueue();
+      CacheSetting.configureSharedCaches(config);
       httpHandler = new LanguageToolHttpHandler(config, allowedIps, runInternally, limiter, errorLimiter, workQueue, this);
       server.createContext("/", httpHandler);
       server.setExecutor(executorService);
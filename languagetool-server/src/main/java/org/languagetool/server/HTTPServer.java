@@ -107,6 +107,7 @@ public class HTTPServer extends Server {
       ErrorRequestLimiter errorLimiter = getErrorRequestLimiterOrNull(config);
       executorService = getExecutorService(config);
       BlockingQueue<Runnable> workQueue = executorService.getQueue();
+      CacheSetting.configureSharedCaches(config);
       httpHandler = new LanguageToolHttpHandler(config, allowedIps, runInternally, limiter, errorLimiter, workQueue, this);
       //check if port is 0 for get random port from range
       if (port == 0) {
@@ -33,6 +33,8 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @since 2.0
@@ -76,11 +78,16 @@ public class HTTPServerConfig {
   protected File ruleIdToConfidenceFile = null;
   protected boolean pipelineCaching = false;
   protected boolean pipelinePrewarming = false;
+  protected boolean streamResponses = false;
+  protected int deltaCheckSessions = 0;
+  protected final Map<CacheSetting, Long> cacheSettings = new EnumMap<>(CacheSetting.class);
 
   protected int maxPipelinePoolSize;
   protected int pipelineExpireTime;
+  protected int ruleSelectionCacheSize = 32;
   protected File fasttextModel = null;
   protected File fasttextBinary = null;
+  protected boolean fasttextInProcess = false;
   protected int requestLimit;
   protected int requestLimitInBytes;
   protected int timeoutRequestLimit;
@@ -93,7 +100,9 @@ public class HTTPServerConfig {
   protected File rulesConfigFile = null;
   protected File remoteRulesConfigFile = null;
   protected int cacheSize = 0;
+  protected int cacheSizeMB = 0;
   protected long cacheTTLSeconds = 300;
+  protected int cacheOffHeapSizeMB = 0;
   protected float maxErrorsPerWordRate = 0;
   protected int maxSpellingSuggestions = 0;
   protected List<String> blockedReferrers = new ArrayList<>();
@@ -130,6 +139,7 @@ public class HTTPServerConfig {
   protected String dbPassword = null;
   protected long dbTimeoutSeconds = 10;
   protected int dbMaxConnections = 10;
+  protected long dbCacheRefreshSeconds = 0;
   protected int databaseTimeoutRateThreshold = 100;
   protected int databaseErrorRateThreshold = 50;
   protected int databaseDownIntervalSeconds = 10;
@@ -186,19 +196,19 @@ public class HTTPServerConfig {
   protected int styleGuideLimitTeam = 0;
   
   
-  private static final List<String> KNOWN_OPTION_KEYS = Arrays.asList("abTest", "abTestClients", "abTestRollout",
-    "beolingusFile", "blockedReferrers", "cacheSize", "cacheTTLSeconds",
-    "dbDriver", "dbPassword", "dbUrl", "dbUsername", "disabledRuleIds", "fasttextBinary", "fasttextModel", "grammalectePassword",
+  private static final List<String> KNOWN_OPTION_KEYS = Stream.concat(Stream.of("abTest", "abTestClients", "abTestRollout",
+    "beolingusFile", "blockedReferrers", "cacheSize", "cacheSizeMB", "cacheTTLSeconds", "cacheOffHeapSizeMB",
+    "dbDriver", "dbPassword", "dbUrl", "dbUsername", "disabledRuleIds", "fasttextBinary", "fasttextInProcess", "fasttextModel", "grammalectePassword",
     "grammalecteServer", "grammalecteUser", "ipFingerprintFactor", "languageModel", "maxCheckThreads", "maxTextCheckerThreads", "textCheckerQueueSize", "maxCheckTimeMillis",
     "maxCheckTimeWithApiKeyMillis", "maxErrorsPerWordRate", "maxPipelinePoolSize", "maxSpellingSuggestions", "maxTextHardLength",
     "maxTextLength", "maxTextLengthWithApiKey", "maxWorkQueueSize", "pipelineCaching",
-    "pipelineExpireTimeInSeconds", "pipelinePrewarming", "prometheusMonitoring", "prometheusPort", "remoteRulesFile",
+    "pipelineExpireTimeInSeconds", "pipelinePrewarming", "ruleSelectionCacheSize", "streamResponses", "deltaCheckSessions", "prometheusMonitoring", "prometheusPort", "remoteRulesFile",
     "requestLimit", "requestLimitInBytes", "requestLimitPeriodInSeconds", "requestLimitWhitelistUsers", "requestLimitWhitelistLimit",
     "rulesFile", "serverURL",
     "skipLoggingChecks", "skipLoggingRuleMatches", "timeoutRequestLimit", "trustXForwardForHeader",
     "keystore", "password", "maxTextLengthPremium", "maxTextLengthAnonymous", "maxTextLengthLoggedIn", "gracefulDatabaseFailure",
     "ngramLangIdentData",
-    "dbTimeoutSeconds", "dbMaxConnections", "dbErrorRateThreshold", "dbTimeoutRateThreshold", "dbDownIntervalSeconds",
+    "dbTimeoutSeconds", "dbMaxConnections", "dbCacheRefreshSeconds", "dbErrorRateThreshold", "dbTimeoutRateThreshold", "dbDownIntervalSeconds",
     "redisDatabase", "redisUseSSL", "redisTimeoutMilliseconds", "redisConnectionTimeoutMilliseconds",
     "anonymousAccessAllowed",
     "premiumAlways", "untrustedReferrers",
@@ -207,7 +217,8 @@ public class HTTPServerConfig {
     "dbLogging", "premiumOnly", "nerUrl", "minPort", "maxPort", "localApiMode", "motherTongue", "preferredLanguages",
     "dictLimitUser", "dictLimitTeam", "styleGuideLimitUser", "styleGuideLimitTeam",
     "passwortLoginAccessListPath", "redisDictTTLSeconds", "requestLimitAccessToken",
-    "ruleIdToConfidenceFile");
+    "ruleIdToConfidenceFile"), Arrays.stream(CacheSetting.values()).map(CacheSetting::getOption))
+    .collect(Collectors.toList());
 
   /**
    * Create a server configuration for the default port ({@link #DEFAULT_PORT}).
@@ -327,8 +338,14 @@ public class HTTPServerConfig {
         requestLimitWhitelistLimit = Integer.parseInt(getOptionalProperty(props, "requestLimitWhitelistLimit", "0"));
         pipelineCaching = Boolean.parseBoolean(getOptionalProperty(props, "pipelineCaching", "false").trim());
         pipelinePrewarming = Boolean.parseBoolean(getOptionalProperty(props, "pipelinePrewarming", "false").trim());
+        streamResponses = Boolean.parseBoolean(getOptionalProperty(props, "streamResponses", "false").trim());
+        deltaCheckSessions = Integer.parseInt(getOptionalProperty(props, "deltaCheckSessions", "0"));
+        for (CacheSetting setting : CacheSetting.values()) {
+          cacheSettings.put(setting, Long.parseLong(getOptionalProperty(props, setting.getOption(), String.valueOf(setting.getDefaultValue()))));
+        }
         maxPipelinePoolSize = Integer.parseInt(getOptionalProperty(props, "maxPipelinePoolSize", "5"));
         pipelineExpireTime = Integer.parseInt(getOptionalProperty(props, "pipelineExpireTimeInSeconds", "10"));
+        ruleSelectionCacheSize = Integer.parseInt(getOptionalProperty(props, "ruleSelectionCacheSize", "32"));
         requestLimitPeriodInSeconds = Integer.parseInt(getOptionalProperty(props, "requestLimitPeriodInSeconds", "0"));
         ipFingerprintFactor = Integer.parseInt(getOptionalProperty(props, "ipFingerprintFactor", "1"));
         trustXForwardForHeader = Boolean.valueOf(getOptionalProperty(props, "trustXForwardForHeader", "false").trim());
@@ -353,8 +370,11 @@ public class HTTPServerConfig {
         }
         String fasttextModel = getOptionalProperty(props, "fasttextModel", null);
         String fasttextBinary = getOptionalProperty(props, "fasttextBinary", null);
-        if (fasttextBinary != null && fasttextModel != null) {
+        fasttextInProcess = Boolean.parseBoolean(getOptionalProperty(props, "fasttextInProcess", "false").trim());
+        if (fasttextModel != null && (fasttextBinary != null || fasttextInProcess)) {
           setFasttextPaths(fasttextModel, fasttextBinary);
+        } else if (fasttextModel != null) {
+          logger.warn("'fasttextModel' is ignored, as neither 'fasttextBinary' is set nor 'fasttextInProcess' is 'true'");
         }
         maxCheckThreads = Integer.parseInt(getOptionalProperty(props, "maxCheckThreads", "10"));
         if (maxCheckThreads < 1) {
@@ -392,10 +412,24 @@ public class HTTPServerConfig {
         if (cacheSize < 0) {
           throw new IllegalArgumentException("Invalid value for cacheSize: " + cacheSize + ", use 0 to deactivate cache");
         }
-        if (props.containsKey("cacheTTLSeconds") && !props.containsKey("cacheSize")) {
-          throw new IllegalArgumentException("Use of cacheTTLSeconds without also setting cacheSize has no effect.");
+        cacheSizeMB = Integer.parseInt(getOptionalProperty(props, "cacheSizeMB", "0"));
+        if (cacheSizeMB < 0) {
+          throw new IllegalArgumentException("Invalid value for cacheSizeMB: " + cacheSizeMB + ", use 0 to deactivate cache");
+        }
+        if (cacheSize > 0 && cacheSizeMB > 0) {
+          throw new IllegalArgumentException("Use either cacheSize or cacheSizeMB, not both");
+        }
+        if (props.containsKey("cacheTTLSeconds") && !props.containsKey("cacheSize") && !props.containsKey("cacheSizeMB")) {
+          throw new IllegalArgumentException("Use of cacheTTLSeconds without also setting cacheSize or cacheSizeMB has no effect.");
         }
         cacheTTLSeconds = Integer.parseInt(getOptionalProperty(props, "cacheTTLSeconds", "300"));
+        cacheOffHeapSizeMB = Integer.parseInt(getOptionalProperty(props, "cacheOffHeapSizeMB", "0"));
+        if (cacheOffHeapSizeMB < 0) {
+          throw new IllegalArgumentException("Invalid value for cacheOffHeapSizeMB: " + cacheOffHeapSizeMB + ", use 0 to deactivate");
+        }
+        if (cacheOffHeapSizeMB > 0 && cacheSize == 0 && cacheSizeMB == 0) {
+          throw new IllegalArgumentException("Use of cacheOffHeapSizeMB without also setting cacheSize or cacheSizeMB has no effect.");
+        }
         maxErrorsPerWordRate = Float.parseFloat(getOptionalProperty(props, "maxErrorsPerWordRate", "0"));
         maxSpellingSuggestions = Integer.parseInt(getOptionalProperty(props, "maxSpellingSuggestions", "0"));
         blockedReferrers = Arrays.asList(getOptionalProperty(props, "blockedReferrers", "").split(",\\s*"));
@@ -445,6 +479,7 @@ public class HTTPServerConfig {
         dbPassword = getOptionalProperty(props, "dbPassword", null);
         dbTimeoutSeconds = Integer.parseInt(getOptionalProperty(props, "dbTimeoutSeconds", "10"));
         dbMaxConnections = Integer.parseInt(getOptionalProperty(props, "dbMaxConnections", "10"));
+        dbCacheRefreshSeconds = Long.parseLong(getOptionalProperty(props, "dbCacheRefreshSeconds", "0"));
         databaseErrorRateThreshold = Integer.parseInt(getOptionalProperty(props, "dbErrorRateThreshold", "50"));
         databaseTimeoutRateThreshold = Integer.parseInt(getOptionalProperty(props, "dbTimeoutRateThreshold", "100"));
         databaseDownIntervalSeconds = Integer.parseInt(getOptionalProperty(props, "dbDownIntervalSeconds", "10"));
@@ -553,13 +588,16 @@ public class HTTPServerConfig {
     }
   }
 
-  void setFasttextPaths(String fasttextModelPath, String fasttextBinaryPath) {
+  /**
+   * @param fasttextBinaryPath if {@code null}, the model will be used in-process if {@link #isFasttextInProcess()}
+   */
+  void setFasttextPaths(String fasttextModelPath, @Nullable String fasttextBinaryPath) {
     fasttextModel = new File(fasttextModelPath);
-    fasttextBinary = new File(fasttextBinaryPath);
+    fasttextBinary = fasttextBinaryPath != null ? new File(fasttextBinaryPath) : null;
     if (!fasttextModel.exists() || fasttextModel.isDirectory()) {
       throw new RuntimeException("Fasttext model path not valid (file doesn't exist or is a directory): " + fasttextModelPath);
     }
-    if (!fasttextBinary.exists() || fasttextBinary.isDirectory() || !fasttextBinary.canExecute()) {
+    if (fasttextBinary != null && (!fasttextBinary.exists() || fasttextBinary.isDirectory() || !fasttextBinary.canExecute())) {
       throw new RuntimeException("Fasttext binary path not valid (file doesn't exist, is a directory or not executable): " + fasttextBinaryPath);
     }
   }
@@ -800,6 +838,22 @@ public class HTTPServerConfig {
     return languageModelDir;
   }
 
+  /**
+   * Whether the fasttext model is used in-process if no fasttext binary is configured. This is
+   * experimental, as the in-process results haven't been compared to the binary's for production models yet.
+   * @since 6.4
+   */
+  public boolean isFasttextInProcess() {
+    return fasttextInProcess;
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setFasttextInProcess(boolean fasttextInProcess) {
+    this.fasttextInProcess = fasttextInProcess;
+  }
+
   /**
    * Get model path for fasttext language detection
    * @since 4.3
@@ -931,6 +985,16 @@ public class HTTPServerConfig {
     return pipelineExpireTime;
   }
 
+  /**
+   * Number of different rule selections of queries (enabled and disabled rules and categories) for
+   * which each pipeline keeps the resulting active rules, so applying them to a pooled pipeline
+   * doesn't need to go through all rules again.
+   * @since 6.4
+   */
+  public int getRuleSelectionCacheSize() {
+    return ruleSelectionCacheSize;
+  }
+
 
   /** @since 4.4 */
   public void setPipelineCaching(boolean pipelineCaching) {
@@ -942,6 +1006,54 @@ public class HTTPServerConfig {
     this.pipelinePrewarming = pipelinePrewarming;
   }
 
+  /**
+   * Whether check results are written to the client while they're serialized, using chunked
+   * transfer encoding, instead of being serialized into a string first.
+   * @since 6.4
+   */
+  public boolean isStreamResponses() {
+    return streamResponses;
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setStreamResponses(boolean streamResponses) {
+    this.streamResponses = streamResponses;
+  }
+
+  /**
+   * Maximum number of text sessions whose text and results are kept for delta checks
+   * (requests with {@code deltaCheck=true}), 0 disables delta checks. Only authenticated users can use
+   * delta checks, as the sessions contain their texts.
+   * @since 6.4
+   */
+  public int getDeltaCheckSessions() {
+    return deltaCheckSessions;
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setDeltaCheckSessions(int deltaCheckSessions) {
+    this.deltaCheckSessions = deltaCheckSessions;
+  }
+
+  /**
+   * @return the configured value of the cache setting, or its default value
+   * @since 6.4
+   */
+  public long getCacheSetting(CacheSetting setting) {
+    return cacheSettings.getOrDefault(setting, setting.getDefaultValue());
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setCacheSetting(CacheSetting setting, long value) {
+    cacheSettings.put(setting, value);
+  }
+
   /** @since 4.4 */
   public void setMaxPipelinePoolSize(int maxPipelinePoolSize) {
     this.maxPipelinePoolSize = maxPipelinePoolSize;
@@ -952,6 +1064,13 @@ public class HTTPServerConfig {
     this.pipelineExpireTime = pipelineExpireTime;
   }
 
+  /**
+   * @since 6.4
+   */
+  public void setRuleSelectionCacheSize(int ruleSelectionCacheSize) {
+    this.ruleSelectionCacheSize = ruleSelectionCacheSize;
+  }
+
   /**
    * Cache size (in number of sentences).
    * @since 3.7
@@ -968,6 +1087,21 @@ public class HTTPServerConfig {
     this.cacheSize = sentenceCacheSize;
   }
 
+  /**
+   * Cache size as estimated heap memory in MB, 0 if the cache size is given by {@link #getCacheSize()}.
+   * @since 6.4
+   */
+  int getCacheSizeMB() {
+    return cacheSizeMB;
+  }
+
+  /**
+   * @since 6.4
+   */
+  void setCacheSizeMB(int cacheSizeMB) {
+    this.cacheSizeMB = cacheSizeMB;
+  }
+
   /**
    * Cache entry TTL; refreshed on access; in seconds
    * @since 4.6
@@ -984,6 +1118,21 @@ public class HTTPServerConfig {
     this.cacheTTLSeconds = cacheTTLSeconds;
   }
 
+  /**
+   * Memory outside the Java heap (in MB) for cached matches evicted from the cache, 0 if not used.
+   * @since 6.4
+   */
+  int getCacheOffHeapSizeMB() {
+    return cacheOffHeapSizeMB;
+  }
+
+  /**
+   * @since 6.4
+   */
+  void setCacheOffHeapSizeMB(int cacheOffHeapSizeMB) {
+    this.cacheOffHeapSizeMB = cacheOffHeapSizeMB;
+  }
+
   /**
    * Maximum errors per word rate, checking will stop if the rate is higher.
    * For example, with a rate of 0.33, the checking would stop if the user's
@@ -1143,6 +1292,22 @@ public class HTTPServerConfig {
     this.dbTimeoutSeconds = dbTimeoutSeconds;
   }
 
+  /**
+   * If &gt; 0, user dictionaries and user rules are cached and reloaded in the background
+   * when they are older than this; 0 means they're read from the database for every check.
+   * @since 6.4
+   */
+  public long getDbCacheRefreshSeconds() {
+    return dbCacheRefreshSeconds;
+  }
+
+  /**
+   * @since 6.4
+   */
+  public void setDbCacheRefreshSeconds(long dbCacheRefreshSeconds) {
+    this.dbCacheRefreshSeconds = dbCacheRefreshSeconds;
+  }
+
 
   /**
    * Rate in percent of requests (0-100) of timeouts during database queries until circuit breaker opens
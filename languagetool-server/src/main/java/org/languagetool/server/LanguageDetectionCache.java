@@ -0,0 +1,194 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.jetbrains.annotations.Nullable;
+import org.languagetool.DetectedLanguage;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Avoids running language detection again for a text it has already been run on:
+ * <ul>
+ *   <li>results are cached by a fingerprint of the (already shortened) text and the language
+ *   lists that influence the detection</li>
+ *   <li>for a text session whose language has been detected with high confidence several times in a row,
+ *   the result is re-used while the text's length doesn't change much, i.e. while the user edits
+ *   the text instead of replacing it. Detection runs again after some requests to notice
+ *   slow changes of the language.</li>
+ * </ul>
+ * Only languages detected by fastText or the ngram model are cached, not results of the fallback
+ * detector (used if these fail or are not configured) and not texts where no language could be detected.
+ * Text sessions are only used for authenticated users, as their ids come from the client.
+ * @since 6.4
+ */
+class LanguageDetectionCache {
+
+  private static final float STABLE_CONFIDENCE = 0.9f;
+  private static final int STABLE_DETECTIONS = 2;
+  private static final int MAX_SESSION_REUSES = 10;
+  private static final int MIN_LENGTH_DIFF = 20;
+  private static final long SESSION_EXPIRE_MINUTES = 30;
+
+  private final Cache<Key, DetectedLanguage> results;
+  private final Cache<String, Session> sessions;
+
+  LanguageDetectionCache(int maxSize) {
+    results = CacheBuilder.newBuilder()
+      .maximumSize(maxSize)
+      .recordStats()
+      .build();
+    sessions = CacheBuilder.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterAccess(SESSION_EXPIRE_MINUTES, TimeUnit.MINUTES)
+      .build();
+  }
+
+  /**
+   * @param userId the id of the authenticated user, {@code null} for anonymous requests
+   * @return the key of the text session the request belongs to, or {@code null}
+   */
+  @Nullable
+  static String getSessionKey(Map<String, String> parameters, @Nullable Long userId) {
+    String textSessionId = parameters.get("textSessionId");
+    return textSessionId == null || userId == null ? null : userId + "/" + textSessionId;
+  }
+
+  Cache<Key, DetectedLanguage> getResultCache() {
+    return results;
+  }
+
+  /**
+   * @param cleanText the text as cleaned and shortened by the language identifier
+   * @param detector runs the detection, may return {@code null} if no language could be detected
+   */
+  @Nullable
+  DetectedLanguage detect(String cleanText, List<String> noopLangs, List<String> preferredLangs, boolean forcePreferredLanguages,
+                          @Nullable String sessionKey, Supplier<DetectedLanguage> detector) {
+    Key key = new Key(cleanText, noopLangs, preferredLangs, forcePreferredLanguages);
+    DetectedLanguage cached = results.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    Session session = sessionKey != null ? sessions.getIfPresent(sessionKey) : null;
+    if (session != null && session.canReuse(key, cleanText.length())) {
+      sessions.put(sessionKey, session.reused());
+      return session.result;
+    }
+    DetectedLanguage detected = detector.get();
+    // a temporary failure of the detector must not be remembered:
+    boolean cacheable = detected != null && (detected.getDetectionSource() == null || !detected.getDetectionSource().contains("fallback"));
+    if (cacheable) {
+      results.put(key, detected);
+    }
+    if (sessionKey != null) {
+      if (cacheable) {
+        sessions.put(sessionKey, new Session(key, detected, cleanText.length(), session));
+      } else {
+        sessions.invalidate(sessionKey);
+      }
+    }
+    return detected;
+  }
+
+  static class Key {
+    private final long hash1;
+    private final long hash2;
+    private final List<String> noopLangs;
+    private final List<String> preferredLangs;
+    private final boolean forcePreferredLanguages;
+
+    Key(String cleanText, List<String> noopLangs, List<String> preferredLangs, boolean forcePreferredLanguages) {
+      ByteBuffer hash = ByteBuffer.wrap(Hashing.murmur3_128().hashString(cleanText, UTF_8).asBytes());
+      this.hash1 = hash.getLong(0);
+      this.hash2 = hash.getLong(8);
+      this.noopLangs = noopLangs;
+      this.preferredLangs = preferredLangs;
+      this.forcePreferredLanguages = forcePreferredLanguages;
+    }
+
+    boolean hasSameLanguages(Key other) {
+      return noopLangs.equals(other.noopLangs) && preferredLangs.equals(other.preferredLangs) &&
+        forcePreferredLanguages == other.forcePreferredLanguages;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key other = (Key) o;
+      return hash1 == other.hash1 && hash2 == other.hash2 && hasSameLanguages(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(hash1, noopLangs, preferredLangs, forcePreferredLanguages);
+    }
+  }
+
+  private static class Session {
+    private final Key key;
+    private final DetectedLanguage result;
+    private final int textLength;
+    private final int stableDetections;  // number of confident detections of the same language in a row
+    private final int reuses;
+
+    Session(Key key, DetectedLanguage result, int textLength, @Nullable Session previous) {
+      this.key = key;
+      this.result = result;
+      this.textLength = textLength;
+      boolean confident = result.getDetectionConfidence() >= STABLE_CONFIDENCE;
+      if (confident && previous != null && previous.key.hasSameLanguages(key) &&
+          Objects.equals(previous.result.getDetectedLanguage(), result.getDetectedLanguage())) {
+        this.stableDetections = previous.stableDetections + 1;
+      } else {
+        this.stableDetections = confident ? 1 : 0;
+      }
+      this.reuses = 0;
+    }
+
+    private Session(Session session) {
+      this.key = session.key;
+      this.result = session.result;
+      this.textLength = session.textLength;
+      this.stableDetections = session.stableDetections;
+      this.reuses = session.reuses + 1;
+    }
+
+    boolean canReuse(Key newKey, int newTextLength) {
+      return stableDetections >= STABLE_DETECTIONS && reuses < MAX_SESSION_REUSES && key.hasSameLanguages(newKey) &&
+        Math.abs(newTextLength - textLength) <= Math.max(MIN_LENGTH_DIFF, textLength / 5);
+    }
+
+    Session reused() {
+      return new Session(this);
+    }
+  }
+
+}
@@ -98,6 +98,7 @@ class LanguageToolHttpHandler implements HttpHandler {
     int reqId = reqCounter.incrementRequestCount();
     ServerMetricsCollector.getInstance().logRequest();
     boolean incrementHandleCount = false;
+    boolean aborted = false;
     String requestId = getRequestId(httpExchange);
     MDC.MDCCloseable mdcRequestID = MDC.putCloseable("rID", requestId);
     Attributes attributes = Attributes.builder()
@@ -259,12 +260,21 @@ class LanguageToolHttpHandler implements HttpHandler {
       }
       long endTime = System.currentTimeMillis();
       logError(remoteAddress, e, errorCode, httpExchange, parameters, textLoggingAllowed, logStacktrace, endTime-startTime);
-      sendError(httpExchange, errorCode, "Error: " + response);
       globalSpan.recordException(e);
       globalSpan.setStatus(StatusCode.ERROR);
+      if (httpExchange.getResponseCode() != -1) {
+        // a streamed response has failed after its headers were sent, so there's no way to send the error status.
+        // Closing the exchange would properly end the truncated response, so it's not closed and the exception
+        // makes the HTTP server close the connection instead:
+        aborted = true;
+        throw new IOException("Aborted response after error: " + response, e);
+      }
+      sendError(httpExchange, errorCode, "Error: " + response);
     } finally {
       logger.info("Handled request in {}ms; sending code {}", System.currentTimeMillis() - startTime, httpExchange.getResponseCode());
-      httpExchange.close();
+      if (!aborted) {
+        httpExchange.close();
+      }
       mdcRequestID.close();
       globalSpan.setAttribute(SemanticAttributes.HTTP_STATUS_CODE, httpExchange.getResponseCode());
       globalSpan.end();
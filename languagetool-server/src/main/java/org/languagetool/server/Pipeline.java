@@ -35,6 +35,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -57,9 +58,42 @@ class Pipeline extends JLanguageTool {
    * Prevents any further changes after this method was called.
    */
   void setupFinished() {
+   saveRuleSelection();
    this.setup = true;
   }
 
+  /**
+   * Allow changes to a pipeline whose setup has been finished, e.g. to apply the rule selection
+   * of a query to a pooled pipeline. Use {@link #resetRuleSelection()} to revert them.
+   * @since 6.4
+   */
+  void reconfigure(Consumer<Pipeline> changes) {
+    boolean wasSetup = setup;
+    setup = false;
+    try {
+      changes.accept(this);
+    } finally {
+      setup = wasSetup;
+    }
+  }
+
+  /**
+   * Apply the rule selection of a query, like {@link #reconfigure(Consumer)}. {@code selection} is only
+   * run the first time for a {@code key}, later the rules it enabled and disabled are applied directly.
+   * @since 6.4
+   */
+  void selectRules(Object key, Consumer<Pipeline> selection) {
+    reconfigure(lt -> applyRuleSelection(key, () -> selection.accept(lt)));
+  }
+
+  /**
+   * Enable and disable rules and categories as they were when the setup was finished.
+   * @since 6.4
+   */
+  void resetRuleSelection() {
+    restoreRuleSelection();
+  }
+
   Pipeline(Language language, List<Language> altLanguages, Language motherTongue, ResultCache cache, GlobalConfig globalConfig, UserConfig userConfig, boolean inputLogging) {
     super(language, altLanguages, motherTongue, cache, globalConfig, userConfig, inputLogging);
   }
@@ -82,6 +116,12 @@ class Pipeline extends JLanguageTool {
     super.setMaxErrorsPerWordRate(maxErrorsPerWordRate);
   }
 
+  @Override
+  public void setRuleSelectionCacheSize(int size) {
+    preventModificationAfterSetup();
+    super.setRuleSelectionCacheSize(size);
+  }
+
   @Override
   public void setOutput(PrintStream printStream) {
     preventModificationAfterSetup();
@@ -79,19 +79,28 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
     if (pool == null) {
       return createPipeline(settings.lang, settings.motherTongue, settings.query, settings.globalConfig, settings.userConfig, config.getDisabledRuleIds());
     } else {
+      // pipelines are pooled without the query's rule selection, which is cheap to apply and
+      // revert, so that queries with different rule selections can share pipelines:
+      PipelineSettings poolSettings = settings.withoutRuleSelection();
+      Pipeline p;
       try {
         long time = System.currentTimeMillis();
         logger.debug("Requesting pipeline; pool has {} active objects, {} idle; pipeline settings: {}",
-          pool.getNumActive(), pool.getNumIdle(), settings);
-        Pipeline p = pool.borrowObject(settings);
+          pool.getNumActive(), pool.getNumIdle(), poolSettings);
+        p = pool.borrowObject(poolSettings);
         logger.debug("Fetching pipeline took {}ms; pool has {} active objects, {} idle; pipeline settings: {}",
-          System.currentTimeMillis() - time, pool.getNumActive(), pool.getNumIdle(), settings);
-        return p;
+          System.currentTimeMillis() - time, pool.getNumActive(), pool.getNumIdle(), poolSettings);
       } catch(NoSuchElementException ignored) {
         logger.info("Pipeline pool capacity reached: {} active objects, {} idle",
           pool.getNumActive(), pool.getNumIdle());
-        return createPipeline(settings.lang, settings.motherTongue, settings.query, settings.globalConfig, settings.userConfig, config.getDisabledRuleIds());
+        p = createPipeline(poolSettings.lang, poolSettings.motherTongue, poolSettings.query, poolSettings.globalConfig,
+          poolSettings.userConfig, config.getDisabledRuleIds());
       }
+      if (settings.query.useQuerySettings) {
+        // the pool key covers everything else selectRules() depends on:
+        p.selectRules(settings.query.getRuleSelection(), lt -> selectRules(lt, settings.query));
+      }
+      return p;
     }
   }
 
@@ -99,7 +108,7 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
   void returnPipeline(PipelineSettings settings, Pipeline pipeline) throws Exception {
     if (pool == null) return;
     try {
-      pool.returnObject(settings, pipeline);
+      pool.returnObject(settings.withoutRuleSelection(), pipeline);
     } catch(IllegalStateException e) {
       // this might happen when pool capacity is reached and we return newly created objects that were never borrowed
       logger.info("Exception while trying to return pipeline to pool;" +
@@ -125,6 +134,7 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
     return TelemetryProvider.INSTANCE.createSpan("createPipeline", attributes, () -> {
       Pipeline lt = new Pipeline(lang, params.altLanguages, motherTongue, cache, globalConfig, userConfig, params.inputLogging);
       lt.setMaxErrorsPerWordRate(config.getMaxErrorsPerWordRate());
+      lt.setRuleSelectionCacheSize(config.getRuleSelectionCacheSize());
       lt.disableRules(disabledRuleIds);
       if (config.getLanguageModelDir() != null) {
         lt.activateLanguageModelRules(config.getLanguageModelDir());
@@ -158,38 +168,14 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
       } else {
         lt.activateRemoteRules(config.getRemoteRulesConfigFile());
       }
-      if (params.useQuerySettings) {
-        Tools.selectRules(lt, new HashSet<>(params.disabledCategories), new HashSet<>(params.enabledCategories),
-          new HashSet<>(params.disabledRules), new HashSet<>(params.enabledRules), params.useEnabledOnly, params.enableTempOffRules);
-      }
       if (userConfig.filterDictionaryMatches()) {
         lt.addMatchFilter(new DictionaryMatchFilter(userConfig));
       }
       lt.addMatchFilter(new DictionarySpellMatchFilter(userConfig));
-
-      Premium premium = Premium.get();
-      if (config.isPremiumOnly()) {
-        //System.out.println("Enabling ONLY premium rules.");
-        int premiumEnabled = 0;
-        int otherDisabled = 0;
-        for (Rule rule : lt.getAllActiveRules()) {
-          if (premium.isPremiumRule(rule)) {
-            lt.enableRule(rule.getFullId());
-            premiumEnabled++;
-          } else {
-            lt.disableRule(rule.getFullId());
-            otherDisabled++;
-          }
-        }
-        //System.out.println("Enabled " + premiumEnabled + " premium rules, disabled " + otherDisabled + " non-premium rules.");
-      } else if (!params.premium && !params.enableHiddenRules) { // compute premium matches locally to use as hidden matches
-        if (!(premium instanceof PremiumOff)) {
-          for (Rule rule : lt.getAllActiveRules()) {
-            if (premium.isPremiumRule(rule)) {
-              lt.disableRule(rule.getFullId());
-            }
-          }
-        }
+      if (params.useQuerySettings) {
+        selectRules(lt, params);
+      } else {
+        selectPremiumRules(lt, params);
       }
 
       if (pool != null) {
@@ -199,6 +185,44 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
     });
   }
 
+  /**
+   * Enable and disable rules as requested by the query. Also used for pooled pipelines, where
+   * {@link #passivateObject} reverts it.
+   */
+  private void selectRules(Pipeline lt, TextChecker.QueryParams params) {
+    Tools.selectRules(lt, new HashSet<>(params.disabledCategories), new HashSet<>(params.enabledCategories),
+      new HashSet<>(params.disabledRules), new HashSet<>(params.enabledRules), params.useEnabledOnly, params.enableTempOffRules);
+    // the query might have enabled premium rules, so this needs to be done again:
+    selectPremiumRules(lt, params);
+  }
+
+  private void selectPremiumRules(Pipeline lt, TextChecker.QueryParams params) {
+    Premium premium = Premium.get();
+    if (config.isPremiumOnly()) {
+      //System.out.println("Enabling ONLY premium rules.");
+      int premiumEnabled = 0;
+      int otherDisabled = 0;
+      for (Rule rule : lt.getAllActiveRules()) {
+        if (premium.isPremiumRule(rule)) {
+          lt.enableRule(rule.getFullId());
+          premiumEnabled++;
+        } else {
+          lt.disableRule(rule.getFullId());
+          otherDisabled++;
+        }
+      }
+      //System.out.println("Enabled " + premiumEnabled + " premium rules, disabled " + otherDisabled + " non-premium rules.");
+    } else if (!params.premium && !params.enableHiddenRules) { // compute premium matches locally to use as hidden matches
+      if (!(premium instanceof PremiumOff)) {
+        for (Rule rule : lt.getAllActiveRules()) {
+          if (premium.isPremiumRule(rule)) {
+            lt.disableRule(rule.getFullId());
+          }
+        }
+      }
+    }
+  }
+
   private void configureFromRulesFile(JLanguageTool lt, Language lang) throws IOException {
     ServerTools.print("Using options configured in " + config.getRulesConfigFile());
     // If we are explicitly configuring from rules, ignore the useGUIConfig flag
@@ -233,15 +257,14 @@ class PipelinePool implements KeyedPooledObjectFactory<PipelineSettings, Pipelin
     return true;
   }
 
-  // can make equal on pipeline settings more liberal (e.g. equal language, but some rule IDs disabled)
-  // and make required changes to the pipeline before activating/passivating
-  // to improve reuse and reduce number of stored pipelines
+  // the query's rule selection is applied in getPipeline(), as the pool key doesn't contain it
   @Override
   public void activateObject(PipelineSettings pipelineSettings, PooledObject<Pipeline> pooledObject) throws Exception {
   }
 
   @Override
   public void passivateObject(PipelineSettings pipelineSettings, PooledObject<Pipeline> pooledObject) throws Exception {
+    pooledObject.getObject().resetRuleSelection();
   }
 
 }
@@ -47,6 +47,15 @@ public class PipelineSettings {
     this.globalConfig = globalConfig;
   }
 
+  /**
+   * @return the settings pooled pipelines are set up with, i.e. without the rule selection
+   * of the query, which is applied when a pipeline is borrowed from the pool
+   * @since 6.4
+   */
+  PipelineSettings withoutRuleSelection() {
+    return new PipelineSettings(lang, motherTongue, query.withoutRuleSelection(), globalConfig, userConfig);
+  }
+
   @Override
   public int hashCode() {
     return new HashCodeBuilder(17, 31)
@@ -128,7 +128,9 @@ abstract class Server {
                        "                                            affects Hunspell-based languages only)");
     System.out.println("                 'maxCheckThreads' - maximum number of threads working in parallel (optional)");
     System.out.println("                 'cacheSize' - size of internal cache in number of sentences (optional, default: 0)");
-    System.out.println("                 'cacheTTLSeconds' - how many seconds sentences are kept in cache (optional, default: 300 if 'cacheSize' is set)");
+    System.out.println("                 'cacheSizeMB' - size of internal cache as estimated heap memory in MB, an alternative to 'cacheSize' (optional, default: 0)");
+    System.out.println("                 'cacheTTLSeconds' - how many seconds sentences are kept in cache (optional, default: 300 if 'cacheSize' or 'cacheSizeMB' is set)");
+    System.out.println("                 'cacheOffHeapSizeMB' - memory outside the Java heap for cached matches that don't fit into 'cacheSize' (optional, default: 0)");
     System.out.println("                 'requestLimit' - maximum number of requests per requestLimitPeriodInSeconds (optional)");
     System.out.println("                 'requestLimitInBytes' - maximum aggregated size of requests per requestLimitPeriodInSeconds (optional)");
     System.out.println("                 'timeoutRequestLimit' - maximum number of timeout request (optional)");
@@ -139,6 +141,8 @@ abstract class Server {
     System.out.println("                                   https://fasttext.cc/docs/en/language-identification.html");
     System.out.println("                 'fasttextBinary' - compiled fasttext executable for language detection (optional), see");
     System.out.println("                                    https://fasttext.cc/docs/en/support.html");
+    System.out.println("                 'fasttextInProcess' - set to 'true' to use 'fasttextModel' in-process (i.e. without the executable) if 'fasttextBinary'");
+    System.out.println("                                       is not set, experimental (optional, default: false)");
     System.out.println("                 'maxWorkQueueSize' - reject request if request queue gets larger than this (optional)");
     System.out.println("                 'rulesFile' - a file containing rules configuration, such as .langugagetool.cfg (optional)");
     System.out.println("                 'blockedReferrers' - a comma-separated list of HTTP referrers (and 'Origin' headers) that are blocked and will not be served (optional)");
@@ -148,6 +152,12 @@ abstract class Server {
     System.out.println("                 'maxPipelinePoolSize' - cache size if 'pipelineCaching' is set");
     System.out.println("                 'pipelineExpireTimeInSeconds' - time after which pipeline cache items expire");
     System.out.println("                 'pipelinePrewarming' - set to 'true' to fill pipeline cache on start (can slow down start a lot)");
+    System.out.println("                 'ruleSelectionCacheSize' - number of different rule selections of queries (enabled/disabled rules and categories) for which each cached pipeline keeps the active rules (optional, default: 32)");
+    System.out.println("                 'streamResponses' - set to 'true' to send check results while they're serialized to JSON, using chunked transfer encoding (optional, default: false)");
+    System.out.println("                 'deltaCheckSessions' - number of text sessions for which text and results are kept, so that requests of authenticated users with 'deltaCheck=true' only check the changed paragraphs (optional, default: 0 = disabled)");
+    for (CacheSetting setting : CacheSetting.values()) {
+      System.out.println("                 '" + setting.getOption() + "' - " + setting.getDescription() + " (optional, default: " + setting.getDefaultValue() + ")");
+    }
     System.out.println("                 Spellcheck-only languages: You can add simple spellcheck-only support for languages that LT doesn't");
     System.out.println("                                            support by defining two optional properties:");
     System.out.println("                   'lang-xx' - set name of the language, use language code instead of 'xx', e.g. lang-tr=Turkish");
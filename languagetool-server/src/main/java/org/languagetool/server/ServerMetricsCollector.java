@@ -32,6 +32,7 @@ import org.languagetool.Premium;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.function.DoubleSupplier;
 
 public class ServerMetricsCollector {
 
@@ -112,6 +113,9 @@ public class ServerMetricsCollector {
     .build("languagetool_configuration_values", "Configuration settings").labelNames("name").register();
 
 
+  private final Gauge cacheBytes = Gauge
+    .build("languagetool_cache_size_bytes", "Estimated heap memory used by cache entries").labelNames("cache").register();
+
   private final CacheMetricsCollector cacheMetrics = new CacheMetricsCollector().register();
 
 
@@ -126,7 +130,12 @@ public class ServerMetricsCollector {
     c.labels("maxCheckThreads").set(config.getMaxCheckThreads());
     c.labels("maxWorkQueueSize").set(config.getMaxWorkQueueSize());
     c.labels("cacheSize").set(config.getCacheSize());
+    c.labels("cacheSizeMB").set(config.getCacheSizeMB());
     c.labels("cacheTTLSeconds").set(config.getCacheTTLSeconds());
+    c.labels("cacheOffHeapSizeMB").set(config.getCacheOffHeapSizeMB());
+    for (CacheSetting setting : CacheSetting.values()) {
+      c.labels(setting.getOption()).set(config.getCacheSetting(setting));
+    }
     c.labels("maxCheckTimeMillisAnonymous").set(config.getMaxCheckTimeMillisAnonymous());
     c.labels("maxCheckTimeMillisLoggedIn").set(config.getMaxCheckTimeMillisLoggedIn());
     c.labels("maxCheckTimeMillisPremium").set(config.getMaxCheckTimeMillisPremium());
@@ -160,6 +169,19 @@ public class ServerMetricsCollector {
     cacheMetrics.addCache(name, cache);
   }
 
+  /**
+   * @param bytes supplies the current memory used by the cache, called whenever metrics are collected
+   * @since 6.4
+   */
+  public void monitorCacheBytes(String name, DoubleSupplier bytes) {
+    cacheBytes.setChild(new Gauge.Child() {
+      @Override
+      public double get() {
+        return bytes.getAsDouble();
+      }
+    }, name);
+  }
+
   public void logCheck(Language language, long milliseconds, int textSize, int matchCount,
                        JLanguageTool.Mode mode) {
     String langLabel = language != null ? language.getShortCode() : UNKNOWN;
@@ -0,0 +1,100 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+
+/**
+ * The body of a successful response that's sent while it's written. The first {@code bufferSize}
+ * bytes are buffered and the headers are only sent when the buffer is full, so a response whose
+ * serialization fails early still gets an error status. A response that fits into the buffer is
+ * sent with its length, a longer one with chunked transfer encoding. If writing fails after the
+ * headers have been sent, {@link LanguageToolHttpHandler} aborts the connection, so the client
+ * doesn't take the truncated response as complete.
+ * @since 6.4
+ */
+class StreamedResponse extends OutputStream {
+
+  private final HttpExchange httpExchange;
+  private final int bufferSize;
+
+  private ByteArrayOutputStream buffer;
+  private OutputStream body;
+
+  StreamedResponse(HttpExchange httpExchange, int bufferSize) {
+    this.httpExchange = httpExchange;
+    this.bufferSize = bufferSize;
+    this.buffer = new ByteArrayOutputStream(Math.min(bufferSize, 8192));
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (body != null) {
+      body.write(b, off, len);
+      return;
+    }
+    buffer.write(b, off, len);
+    if (buffer.size() >= bufferSize) {
+      // length 0 means chunked transfer encoding:
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+      body = httpExchange.getResponseBody();
+      buffer.writeTo(body);
+      buffer = null;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // the buffer is only sent when it's full or the response is finished
+    if (body != null) {
+      body.flush();
+    }
+  }
+
+  /**
+   * Send what's still buffered. Call this after the response has been written completely.
+   */
+  void finish() throws IOException {
+    if (body == null) {
+      // -1 means no body:
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, buffer.size() > 0 ? buffer.size() : -1);
+      body = httpExchange.getResponseBody();
+      buffer.writeTo(body);
+      buffer = null;
+    }
+    body.flush();
+  }
+
+  /**
+   * @return whether the headers have been sent, i.e. it's too late to send an error status
+   */
+  boolean isCommitted() {
+    return body != null;
+  }
+}
@@ -25,7 +25,6 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.ibatis.session.RowBounds;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.languagetool.*;
@@ -43,6 +42,9 @@ import org.slf4j.MDC;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -69,10 +71,20 @@ abstract class TextChecker {
   protected abstract void setHeaders(HttpExchange httpExchange);
   protected abstract String getResponse(AnnotatedText text, Language language, DetectedLanguage lang, Language motherTongue, List<CheckResults> matches,
                                         List<RuleMatch> hiddenMatches, String incompleteResultReason, int compactMode, boolean showPremiumHint, JLanguageTool.Mode mode);
+  /**
+   * Write the response to {@code writer}, used if responses are streamed. This implementation
+   * writes the result of {@link #getResponse}.
+   * @since 6.4
+   */
+  protected void writeResponse(Writer writer, AnnotatedText text, Language language, DetectedLanguage lang, Language motherTongue, List<CheckResults> matches,
+                               List<RuleMatch> hiddenMatches, String incompleteResultReason, int compactMode, boolean showPremiumHint, JLanguageTool.Mode mode) throws IOException {
+    writer.write(getResponse(text, language, lang, motherTongue, matches, hiddenMatches, incompleteResultReason, compactMode, showPremiumHint, mode));
+  }
   @NotNull
   protected abstract List<String> getPreferredVariants(Map<String, String> parameters);
   protected abstract DetectedLanguage getLanguage(String text, Map<String, String> parameters, List<String> preferredVariants,
-                                                  List<String> additionalDetectLangs, List<String> preferredLangs, boolean testMode);
+                                                  List<String> additionalDetectLangs, List<String> preferredLangs, boolean testMode,
+                                                  @Nullable Long userId);
   protected abstract boolean getLanguageAutoDetect(Map<String, String> parameters);
   @NotNull
   protected abstract List<String> getEnabledRuleIds(Map<String, String> parameters);
@@ -86,6 +98,8 @@ abstract class TextChecker {
 
   private static final String ENCODING = "UTF-8";
   private static final int CACHE_STATS_PRINT = 500; // print cache stats every n cache requests
+  private static final int STREAMED_RESPONSE_BUFFER_SIZE = 64 * 1024;
+  private static final long DELTA_CHECK_SESSION_SECONDS = 30 * 60;  // text sessions not used for this long are forgotten
   
   private final Map<String,Integer> languageCheckCounts = new HashMap<>();
   private final Queue<Runnable> workQueue;
@@ -93,6 +107,9 @@ abstract class TextChecker {
   private final LanguageIdentifier languageIdentifier;
   private final ExecutorService executorService;
   private final ResultCache cache;
+  private final DeltaCheckSessions deltaCheckSessions;
+  private final LanguageDetectionCache languageDetectionCache;
+  private final DatabaseLookups databaseLookups;
   private final DatabaseLogger databaseLogger;
   private final Long logServerId;
   private final Random random = new Random();
@@ -112,7 +129,8 @@ abstract class TextChecker {
               0,
               config.getNgramLangIdentData(),
               config.getFasttextBinary(),
-              config.getFasttextModel());
+              config.getFasttextModel(),
+              config.isFasttextInProcess());
     }
     this.executorService = LtThreadPoolFactory.createFixedThreadPoolExecutor(
       LtThreadPoolFactory.TEXT_CHECKER_POOL,
@@ -146,8 +164,22 @@ abstract class TextChecker {
       );
     }
 
-    this.cache = config.getCacheSize() > 0 ? new ResultCache(
-      config.getCacheSize(), config.getCacheTTLSeconds(), TimeUnit.SECONDS) : null;
+    long cacheOffHeapBytes = config.getCacheOffHeapSizeMB() * 1024L * 1024L;
+    if (config.getCacheSizeMB() > 0) {
+      this.cache = ResultCache.withMaxBytes(config.getCacheSizeMB() * 1024L * 1024L, config.getCacheTTLSeconds(), TimeUnit.SECONDS, cacheOffHeapBytes);
+    } else if (config.getCacheSize() > 0) {
+      this.cache = new ResultCache(config.getCacheSize(), config.getCacheTTLSeconds(), TimeUnit.SECONDS, cacheOffHeapBytes);
+    } else {
+      this.cache = null;
+    }
+    this.deltaCheckSessions = config.getDeltaCheckSessions() > 0 ? new DeltaCheckSessions(config.getDeltaCheckSessions(), DELTA_CHECK_SESSION_SECONDS) : null;
+    // without fastText or ngrams, only the fallback detector is used, whose results are not cached:
+    boolean cacheableDetection = !config.isLocalApiMode() && (config.getFasttextModel() != null && (config.getFasttextBinary() != null || config.isFasttextInProcess())
+      || config.getNgramLangIdentData() != null);
+    long languageDetectionCacheSize = config.getCacheSetting(CacheSetting.LANGUAGE_DETECTION_CACHE_SIZE);
+    this.languageDetectionCache = languageDetectionCacheSize > 0 && cacheableDetection ?
+      new LanguageDetectionCache((int) languageDetectionCacheSize) : null;
+    this.databaseLookups = new DatabaseLookups(config);
     this.databaseLogger = DatabaseLogger.getInstance();
     if (databaseLogger.isLogging()) {
       this.logServerId = DatabaseAccess.getInstance().getOrCreateServerId();
@@ -160,6 +192,14 @@ abstract class TextChecker {
       ServerMetricsCollector.getInstance().monitorCache("languagetool_remote_matches_cache", cache.getRemoteMatchesCache());
       ServerMetricsCollector.getInstance().monitorCache("languagetool_sentences_cache", cache.getSentenceCache());
       ServerMetricsCollector.getInstance().monitorCache("languagetool_remote_matches_cache", cache.getRemoteMatchesCache());
+      if (config.getCacheSizeMB() > 0) {
+        ServerMetricsCollector.getInstance().monitorCacheBytes("languagetool_matches_cache", cache::getMatchesCacheBytes);
+        ServerMetricsCollector.getInstance().monitorCacheBytes("languagetool_remote_matches_cache", cache::getRemoteMatchesCacheBytes);
+        ServerMetricsCollector.getInstance().monitorCacheBytes("languagetool_sentences_cache", cache::getSentenceCacheBytes);
+      }
+    }
+    if (languageDetectionCache != null && !config.isLocalApiMode()) {
+      ServerMetricsCollector.getInstance().monitorCache("languagetool_language_detection_cache", languageDetectionCache.getResultCache());
     }
 
     pipelinePool = new PipelinePool(config, cache, internalServer);
@@ -258,8 +298,7 @@ abstract class TextChecker {
     String agent = params.get("useragent") != null ? params.get("useragent") : "-";
     Long agentId = null, userId = null;
     if (databaseLogger.isLogging()) {
-      DatabaseAccess db = DatabaseAccess.getInstance();
-      agentId = db.getOrCreateClientId(params.get("useragent"));
+      agentId = databaseLookups.getClientId(params.get("useragent"));
       userId = limits.getPremiumUid();
     }
     String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
@@ -399,7 +438,7 @@ abstract class TextChecker {
     List<String> preferredLangs = params.get("preferredLanguages") != null ?
             Arrays.asList(params.get("preferredLanguages").split(",")) : Collections.emptyList();
     DetectedLanguage detLang = TelemetryProvider.INSTANCE.createSpan(SPAN_NAME_PREFIX + "DetetectLanguage", Attributes.empty(), () -> getLanguage(aText.getPlainText(), params, preferredVariants, noopLangs, preferredLangs,
-      params.getOrDefault("ld", "control").equalsIgnoreCase("test")));
+      params.getOrDefault("ld", "control").equalsIgnoreCase("test"), limits.getPremiumUid()));
     Language lang = detLang.getGivenLanguage();
 
     List<Rule> userRules = TelemetryProvider.INSTANCE.createSpan(SPAN_NAME_PREFIX + "GetUserRules", Attributes.empty(), () -> getUserRules(limits, lang, finalDictGroups));
@@ -632,18 +671,42 @@ abstract class TextChecker {
     }
 
     int compactMode = Integer.parseInt(params.getOrDefault("c", "0"));
-    String response = getResponse(aText, lang, detLang, motherTongue, res, hiddenMatches, incompleteResultReason, compactMode,
-      limits.getPremiumUid() == null, qParams.mode);
-    if (qParams.callback != null) {
-      // JSONP - still needed today for the special case of hosting your own on-premise LT without SSL
-      // and using it from a local MS Word (not Online Word) - issue #89 in the add-in repo:
-      response = qParams.callback + "(" + response + ");";
-    }
     String messageSent = "sent";
     String languageMessage = lang.getShortCodeWithCountryAndVariant();
     try {
-      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
-      httpExchange.getResponseBody().write(response.getBytes(ENCODING));
+      if (config.isStreamResponses()) {
+        // the response is never in memory as a whole, only its first part is buffered:
+        StreamedResponse body = new StreamedResponse(httpExchange, STREAMED_RESPONSE_BUFFER_SIZE);
+        try {
+          Writer writer = new OutputStreamWriter(body, ENCODING);
+          // JSONP - still needed today for the special case of hosting your own on-premise LT without SSL
+          // and using it from a local MS Word (not Online Word) - issue #89 in the add-in repo:
+          if (qParams.callback != null) {
+            writer.write(qParams.callback + "(");
+          }
+          writeResponse(writer, aText, lang, detLang, motherTongue, res, hiddenMatches, incompleteResultReason, compactMode,
+            limits.getPremiumUid() == null, qParams.mode);
+          if (qParams.callback != null) {
+            writer.write(");");
+          }
+          writer.flush();
+          body.finish();
+        } catch (IOException e) {
+          // not just a disconnected client: before the headers are sent, it's an error of the serialization, which gets
+          // an error status, after that the connection needs to be aborted (see LanguageToolHttpHandler):
+          throw new UncheckedIOException("Could not write the response" + (body.isCommitted() ? " after sending its headers" : ""), e);
+        }
+      } else {
+        String response = getResponse(aText, lang, detLang, motherTongue, res, hiddenMatches, incompleteResultReason, compactMode,
+          limits.getPremiumUid() == null, qParams.mode);
+        // JSONP, see above:
+        if (qParams.callback != null) {
+          response = qParams.callback + "(" + response + ");";
+        }
+        byte[] responseBytes = response.getBytes(ENCODING);
+        httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, responseBytes.length);
+        httpExchange.getResponseBody().write(responseBytes);
+      }
       ServerMetricsCollector.getInstance().logResponse(HttpURLConnection.HTTP_OK);
     } catch (IOException exception) {
       // the client is disconnected
@@ -770,19 +833,37 @@ abstract class TextChecker {
   }
 
   private List<String> getUserDictWords(UserLimits limits, List<String> groups) {
-    DatabaseAccess db = DatabaseAccess.getInstance();
-    return db.getWords(limits, groups, RowBounds.NO_ROW_OFFSET, RowBounds.NO_ROW_LIMIT);
+    return databaseLookups.getWords(limits, groups);
   }
 
   private List<Rule> getUserRules(UserLimits limits, Language lang, List<String> groups) {
     if (limits.getPremiumUid() != null && DatabaseAccess.isReady()) {
-      DatabaseAccess db = DatabaseAccess.getInstance();
-      return db.getRules(limits, lang, groups);
+      return databaseLookups.getRules(limits, lang, groups);
     } else {
       return Collections.emptyList();
     }
   }
 
+  DatabaseLookups getDatabaseLookups() {
+    return databaseLookups;
+  }
+
+  /**
+   * The plain text to check, which for a delta check may be the text of the session's previous check
+   * with a part replaced by the 'text' parameter.
+   * @since 6.4
+   */
+  String getPlainText(Map<String, String> parameters) {
+    if (deltaCheckSessions == null) {
+      if (parameters.get("deltaOffset") != null) {
+        throw new BadRequestException("Delta checks are not enabled on this server, please send the complete text");
+      }
+      return parameters.get("text");
+    }
+    Long userId = parameters.get("deltaOffset") != null ? ServerTools.getUserLimits(parameters, config).getPremiumUid() : null;
+    return deltaCheckSessions.getText(parameters, userId);
+  }
+
   protected void checkParams(Map<String, String> parameters) {
     if (parameters.get("text") == null && parameters.get("data") == null) {
       throw new BadRequestException("Missing 'text' or 'data' parameter");
@@ -799,7 +880,13 @@ abstract class TextChecker {
       String sentenceHitPercentage = String.format(Locale.ENGLISH, "%.2f", cache.getSentenceCache().stats().hitRate() * 100.0f);
       String matchesHitPercentage = String.format(Locale.ENGLISH, "%.2f", cache.getMatchesCache().stats().hitRate() * 100.0f);
       String remoteHitPercentage = String.format(Locale.ENGLISH, "%.2f", cache.getRemoteMatchesCache().stats().hitRate() * 100.0f);
-      log.info("Cache stats: " + sentenceHitPercentage + "% / " + matchesHitPercentage + "% / " + remoteHitPercentage + "% hit rate");
+      String bytes = config.getCacheSizeMB() > 0 ? ", " + cache.getSentenceCacheBytes() / 1024 / 1024 + "MB / " +
+        cache.getMatchesCacheBytes() / 1024 / 1024 + "MB / " + cache.getRemoteMatchesCacheBytes() / 1024 / 1024 + "MB" : "";
+      log.info("Cache stats: " + sentenceHitPercentage + "% / " + matchesHitPercentage + "% / " + remoteHitPercentage + "% hit rate" + bytes);
+      if (config.getCacheOffHeapSizeMB() > 0) {
+        log.info("Off-heap cache stats: " + cache.offHeapSize() + " sentences, " + cache.offHeapUsedBytes() / 1024 / 1024 + "MB, " +
+          cache.offHeapHitCount() + " hits, " + cache.offHeapMissCount() + " misses");
+      }
     }
 
     if (parameters.get("sourceText") != null) {
@@ -818,7 +905,7 @@ abstract class TextChecker {
       );
     } else {
       List<CheckResults> res = new ArrayList<>();
-      res.addAll(getPipelineResults(aText, lang, motherTongue, params, userConfig, listener));
+      res.addAll(getPipelineResults(aText, lang, motherTongue, parameters, params, userConfig, listener));
       return res;
     }
   }
@@ -832,7 +919,8 @@ abstract class TextChecker {
     return parseLanguage(langCode);
   }
 
-  private List<CheckResults> getPipelineResults(AnnotatedText aText, Language lang, Language motherTongue, QueryParams params, UserConfig userConfig, RuleMatchListener listener) throws Exception {
+  private List<CheckResults> getPipelineResults(AnnotatedText aText, Language lang, Language motherTongue, Map<String, String> parameters,
+                                                QueryParams params, UserConfig userConfig, RuleMatchListener listener) throws Exception {
     PipelineSettings settings = null;
     Pipeline lt = null;
     List<CheckResults> res = new ArrayList<>();
@@ -843,8 +931,21 @@ abstract class TextChecker {
       if (params.regressionTestMode) {
         textSessionId = -2L; // magic value for remote rule roll-out - includes all results, even from disabled models
       }
-      res.add(lt.check2(aText, true, JLanguageTool.ParagraphHandling.NORMAL, listener,
-        params.mode, params.level, params.toneTags, textSessionId));
+      String deltaSessionKey = deltaCheckSessions != null ? DeltaCheckSessions.getSessionKey(parameters, userConfig.getPremiumUid()) : null;
+      if (deltaSessionKey != null) {
+        Pipeline pipeline = lt;
+        Long sessionId = textSessionId;
+        String paragraphSeparator = lang.getSentenceTokenizer().singleLineBreaksMarksPara() ? "\n" : "\n\n";
+        res.add(deltaCheckSessions.check(deltaSessionKey, settings, aText, paragraphSeparator, (text, offset) ->
+          pipeline.check2(text, true, JLanguageTool.ParagraphHandling.NORMAL, offset == 0 ? listener : match -> {
+              RuleMatch shifted = new RuleMatch(match);
+              shifted.setOffsetPosition(match.getFromPos() + offset, match.getToPos() + offset);
+              listener.matchFound(shifted);
+            }, params.mode, params.level, params.toneTags, sessionId)));
+      } else {
+        res.add(lt.check2(aText, true, JLanguageTool.ParagraphHandling.NORMAL, listener,
+          params.mode, params.level, params.toneTags, textSessionId));
+      }
     } finally {
       if (lt != null) {
         pipelinePool.returnPipeline(settings, lt);
@@ -899,9 +1000,24 @@ abstract class TextChecker {
 
   DetectedLanguage detectLanguageOfString(String text, String fallbackLanguage, List<String> preferredVariants,
                                           List<String> noopLangs, List<String> preferredLangs, boolean forcePreferredLanguages) {
+    return detectLanguageOfString(text, fallbackLanguage, preferredVariants, noopLangs, preferredLangs, forcePreferredLanguages, null);
+  }
+
+  /**
+   * @param sessionKey the text session of the request (see {@link LanguageDetectionCache#getSessionKey(Map, Long)}), if any
+   */
+  DetectedLanguage detectLanguageOfString(String text, String fallbackLanguage, List<String> preferredVariants,
+                                          List<String> noopLangs, List<String> preferredLangs, boolean forcePreferredLanguages,
+                                          @Nullable String sessionKey) {
     Language lang;
     String cleanText = languageIdentifier.cleanAndShortenText(text);
-    DetectedLanguage detected = languageIdentifier.detectLanguage(cleanText, noopLangs, preferredLangs, forcePreferredLanguages);
+    DetectedLanguage detected;
+    if (languageDetectionCache != null) {
+      detected = languageDetectionCache.detect(cleanText, noopLangs, preferredLangs, forcePreferredLanguages, sessionKey,
+        () -> languageIdentifier.detectLanguage(cleanText, noopLangs, preferredLangs, forcePreferredLanguages));
+    } else {
+      detected = languageIdentifier.detectLanguage(cleanText, noopLangs, preferredLangs, forcePreferredLanguages);
+    }
     if (detected == null) {
       lang = parseLanguage(fallbackLanguage != null ? fallbackLanguage : "en");
     } else {
@@ -995,6 +1111,43 @@ abstract class TextChecker {
       this.inputLogging = inputLogging;
     }
 
+    private QueryParams(QueryParams params) {
+      this.altLanguages = params.altLanguages;
+      this.enabledRules = Collections.emptyList();
+      this.disabledRules = Collections.emptyList();
+      this.enabledCategories = Collections.emptyList();
+      this.disabledCategories = Collections.emptyList();
+      this.useEnabledOnly = false;
+      this.useQuerySettings = false;
+      this.allowIncompleteResults = false;
+      this.enableHiddenRules = params.enableHiddenRules;
+      this.premium = params.premium;
+      this.enableTempOffRules = false;
+      this.regressionTestMode = params.regressionTestMode;
+      this.mode = params.mode;
+      this.level = params.level;
+      this.toneTags = params.toneTags;
+      this.callback = null;
+      this.inputLogging = params.inputLogging;
+    }
+
+    /**
+     * @return a copy without the rules and categories to enable or disable and without the
+     * settings that don't affect the setup of a {@link Pipeline}
+     * @since 6.4
+     */
+    QueryParams withoutRuleSelection() {
+      return new QueryParams(this);
+    }
+
+    /**
+     * @return the rules and categories to enable or disable, as a key for caching the selection
+     * @since 6.4
+     */
+    List<Object> getRuleSelection() {
+      return Arrays.asList(enabledRules, disabledRules, enabledCategories, disabledCategories, useEnabledOnly, enableTempOffRules);
+    }
+
     @Override
     public int hashCode() {
       return new HashCodeBuilder()
@@ -20,6 +20,7 @@ package org.languagetool.server;
 
 import com.sun.net.httpserver.HttpExchange;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.languagetool.*;
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.rules.RuleMatch;
@@ -29,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
@@ -95,6 +97,15 @@ class V2TextChecker extends TextChecker {
       showPremiumHint, mode);
   }
 
+  @Override
+  protected void writeResponse(Writer writer, AnnotatedText text, Language usedLang, DetectedLanguage lang, Language motherTongue, List<CheckResults> matches,
+                               List<RuleMatch> hiddenMatches, String incompleteResultsReason, int compactMode, boolean showPremiumHint, JLanguageTool.Mode mode) throws IOException {
+    RuleMatchesAsJsonSerializer serializer = new RuleMatchesAsJsonSerializer(compactMode, usedLang);
+    serializer.setRuleIdToConfidenceMap(ruleIdToConfidence);
+    serializer.ruleMatchesToJson2(matches, hiddenMatches, text, CONTEXT_SIZE, lang, incompleteResultsReason,
+      showPremiumHint, mode, writer);
+  }
+
   @NotNull
   @Override
   protected List<String> getEnabledRuleIds(Map<String, String> parameters) {
@@ -140,10 +151,12 @@ class V2TextChecker extends TextChecker {
   @Override
   @NotNull
   protected DetectedLanguage getLanguage(String text, Map<String, String> parameters, List<String> preferredVariants,
-                                         List<String> noopLangs, List<String> preferredLangs, boolean testMode) {
+                                         List<String> noopLangs, List<String> preferredLangs, boolean testMode,
+                                         @Nullable Long userId) {
     String langParam = parameters.get("language");
     boolean forcePreferredLanguages = "true".equals(parameters.get("forcePreferredLanguages"));
-    DetectedLanguage detectedLang = detectLanguageOfString(text, null, preferredVariants, noopLangs, preferredLangs, forcePreferredLanguages);
+    DetectedLanguage detectedLang = detectLanguageOfString(text, null, preferredVariants, noopLangs, preferredLangs, forcePreferredLanguages,
+      LanguageDetectionCache.getSessionKey(parameters, userId));
     Language givenLang;
     if (getLanguageAutoDetect(parameters)) {
       givenLang = detectedLang.getDetectedLanguage();
@@ -98,7 +98,7 @@ public class ApiV2Test {
       return new ArrayList<>();
     }
     @Override
-    protected DetectedLanguage getLanguage(String text, Map<String, String> parameters, List<String> preferredVariants, List<String> additionalDetectLangs, List<String> preferredLangs, boolean testMode) {
+    protected DetectedLanguage getLanguage(String text, Map<String, String> parameters, List<String> preferredVariants, List<String> additionalDetectLangs, List<String> preferredLangs, boolean testMode, Long userId) {
       return new DetectedLanguage(new FakeLanguage(), new FakeLanguage());
     }
     @Override
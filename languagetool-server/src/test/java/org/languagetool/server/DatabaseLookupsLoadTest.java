@@ -0,0 +1,96 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.TestTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Per-request database lookups from many threads, against an in-memory database.
+ */
+public class DatabaseLookupsLoadTest {
+
+  // we keep these numbers low so the tests stay fast - increase them for serious testing:
+  private static final int THREAD_COUNT = 8;
+  private static final int REPEAT_COUNT = 200;
+
+  @Test
+  public void testConcurrentLookups() throws Exception {
+    HTTPServerConfig config = new HTTPServerConfig(HTTPTestTools.getDefaultPort());
+    config.setDatabaseDriver("org.hsqldb.jdbcDriver");
+    config.setDatabaseUrl("jdbc:hsqldb:mem:testdb");
+    config.setDatabaseUsername("");
+    config.setDatabasePassword("");
+    config.setDbCacheRefreshSeconds(60);
+    DatabaseAccess.init(config);
+    // no need to also create test tables for logging
+    DatabaseLogger.getInstance().disableLogging();
+    try {
+      DatabaseAccess.getInstance().deleteTestTables();
+      DatabaseAccess.getInstance().createAndFillTestTables();
+      Map<String, String> params = new HashMap<>();
+      params.put("username", HTTPTestTools.TestData.USERNAME1);
+      params.put("apiKey", HTTPTestTools.TestData.API_KEY1);
+      UserLimits limits = ServerTools.getUserLimits(params, config);
+      DatabaseAccess.getInstance().addWord("foo", limits.getPremiumUid(), null);
+      DatabaseAccess.getInstance().addWord("bar", limits.getPremiumUid(), null);
+
+      DatabaseLookups lookups = new DatabaseLookups(config);
+      ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+      List<Future<?>> futures = new ArrayList<>();
+      long startTime = System.currentTimeMillis();
+      for (int i = 0; i < THREAD_COUNT; i++) {
+        int thread = i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < REPEAT_COUNT; j++) {
+            List<String> words = lookups.getWords(limits, null);
+            assertTrue(words.contains("foo") && words.contains("bar"));
+            assertEquals(0, lookups.getRules(limits, TestTools.getDemoLanguage(), null).size());
+            lookups.getClientId("client" + (thread + j) % 5);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+      System.out.println(THREAD_COUNT * REPEAT_COUNT + " lookups with " + THREAD_COUNT + " threads in " +
+        (System.currentTimeMillis() - startTime) + "ms");
+
+      // words added on this server are used for the next check:
+      DatabaseAccess.getInstance().addWord("baz", limits.getPremiumUid(), null);
+      assertFalse(lookups.getWords(limits, null).contains("baz"));
+      lookups.invalidateWords(limits.getPremiumUid());
+      assertTrue(lookups.getWords(limits, null).contains("baz"));
+    } finally {
+      DatabaseAccess.getInstance().deleteTestTables();
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.CheckResults;
+import org.languagetool.SentenceRange;
+import org.languagetool.TestTools;
+import org.languagetool.UserConfig;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class DeltaCheckSessionsTest {
+
+  private static final String SEP = "\n\n";
+  private static final String TEXT = String.join(SEP, Arrays.asList("One xx.", "Two.", "Three xx.", "Four.", "Five xx.",
+    "Six.", "Seven xx.", "Eight.", "Nine xx.", "Ten."));
+  private static final Pattern ERROR = Pattern.compile("\\bxx\\b");
+
+  private final PipelineSettings settings = new PipelineSettings(TestTools.getDemoLanguage(), new UserConfig());
+  private final List<String> checkedTexts = new ArrayList<>();
+
+  @Test
+  public void testInsert() throws IOException {
+    assertDeltaCheck(TEXT.replace("Five xx.", "Five xx xx."), "Five xx xx.");
+    assertDeltaCheck(TEXT.replace("Five xx.", "Five.\n\nNew xx paragraph."), "Five.\n\nNew xx paragraph.");
+  }
+
+  @Test
+  public void testDelete() throws IOException {
+    assertDeltaCheck(TEXT.replace("Five xx.", "Five."), "Five.");
+    // deleting a paragraph boundary joins two paragraphs:
+    assertDeltaCheck(TEXT.replace("Five xx.\n\nSix.", "Five xx. Six."), "Five xx. Six.");
+  }
+
+  @Test
+  public void testReplace() throws IOException {
+    assertDeltaCheck(TEXT.replace("Five xx.", "Five yy."), "Five yy.");
+    assertDeltaCheck(TEXT.replace("xx.\n\nSix", "yy xx.\n\nxx Six"), "Five yy xx.\n\nxx Six.");
+  }
+
+  @Test
+  public void testNoChange() throws IOException {
+    DeltaCheckSessions sessions = new DeltaCheckSessions(10, 60);
+    sessions.check("1/1", settings, text(TEXT), SEP, this::check);
+    checkedTexts.clear();
+    assertEquals(asString(check(text(TEXT), 0)), asString(sessions.check("1/1", settings, text(TEXT), SEP, this::check)));
+    assertEquals(1, checkedTexts.size());
+  }
+
+  @Test
+  public void testSessionKey() {
+    Map<String, String> params = new HashMap<>();
+    params.put("text", "xx");
+    params.put("deltaCheck", "true");
+    params.put("textSessionId", "42");
+    assertEquals("7/42", DeltaCheckSessions.getSessionKey(params, 7L));
+    // anonymous requests can't use sessions, as the session id isn't a secret:
+    assertNull(DeltaCheckSessions.getSessionKey(params, null));
+    params.remove("deltaCheck");
+    assertNull(DeltaCheckSessions.getSessionKey(params, 7L));
+  }
+
+  @Test
+  public void testGetText() throws IOException {
+    DeltaCheckSessions sessions = new DeltaCheckSessions(10, 60);
+    sessions.check("7/42", settings, text(TEXT), SEP, this::check);
+    Map<String, String> params = new HashMap<>();
+    params.put("text", "Fünf");
+    params.put("deltaCheck", "true");
+    params.put("textSessionId", "42");
+    params.put("deltaOffset", String.valueOf(TEXT.indexOf("Five")));
+    params.put("deltaLength", "4");
+    assertEquals(TEXT.replace("Five", "Fünf"), sessions.getText(params, 7L));
+    try {
+      sessions.getText(params, 8L);
+      fail();
+    } catch (BadRequestException ignored) {}
+    try {
+      sessions.getText(params, null);
+      fail();
+    } catch (AuthException ignored) {}
+  }
+
+  @Test
+  public void testSentenceRangeShift() {
+    List<SentenceRange> ranges = SentenceRange.getRangesFromSentences(text("One. Two."), Arrays.asList("One. ", "Two."));
+    SentenceRange shifted = ranges.get(1).shift(10);
+    assertEquals(15, shifted.getFromPos());
+    assertEquals(19, shifted.getToPos());
+    assertEquals(5, ranges.get(1).getFromPos());
+  }
+
+  /**
+   * Checks {@code TEXT} and then {@code newText} in the same session, and asserts that the delta check
+   * gives the same results as a check of the complete new text, but only checked the changed paragraphs
+   * plus one paragraph of context on each side.
+   */
+  private void assertDeltaCheck(String newText, String changedParagraphs) throws IOException {
+    DeltaCheckSessions sessions = new DeltaCheckSessions(10, 60);
+    sessions.check("1/1", settings, text(TEXT), SEP, this::check);
+    checkedTexts.clear();
+    CheckResults results = sessions.check("1/1", settings, text(newText), SEP, this::check);
+    assertEquals(1, checkedTexts.size());
+    String window = checkedTexts.get(0);
+    assertTrue(window, window.contains(changedParagraphs));
+    assertTrue(window, window.length() < newText.length() / 2);
+    assertEquals(asString(check(text(newText), 0)), asString(results));
+  }
+
+  private CheckResults check(AnnotatedText aText, int offset) {
+    String text = aText.getPlainText();
+    checkedTexts.add(text);
+    List<RuleMatch> matches = new ArrayList<>();
+    Matcher m = ERROR.matcher(text);
+    while (m.find()) {
+      matches.add(new RuleMatch(new FakeRule(), null, m.start(), m.end(), "error"));
+    }
+    List<String> paragraphs = new ArrayList<>();
+    int start = 0;
+    int end;
+    while ((end = text.indexOf(SEP, start)) != -1) {
+      paragraphs.add(text.substring(start, end + SEP.length()));
+      start = end + SEP.length();
+    }
+    paragraphs.add(text.substring(start));
+    CheckResults results = new CheckResults(matches, new ArrayList<>());
+    results.addSentenceRanges(SentenceRange.getRangesFromSentences(aText, paragraphs));
+    return results;
+  }
+
+  private static AnnotatedText text(String s) {
+    return new AnnotatedTextBuilder().addText(s).build();
+  }
+
+  private static String asString(CheckResults results) {
+    return results.getRuleMatches().stream().map(m -> m.getFromPos() + "-" + m.getToPos()).collect(Collectors.joining(",")) +
+      " / " + results.getSentenceRanges().stream().map(r -> r.getFromPos() + "-" + r.getToPos()).collect(Collectors.joining(","));
+  }
+
+  private static class FakeRule extends Rule {
+    @Override
+    public String getId() {
+      return "FAKE_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "fake rule";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) {
+      return new RuleMatch[0];
+    }
+  }
+
+}
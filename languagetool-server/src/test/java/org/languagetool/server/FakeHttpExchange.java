@@ -41,6 +41,8 @@ public class FakeHttpExchange extends HttpExchange {
   private final String method;
   
   private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+  private int responseCode = -1;
+  private long responseLength;
 
   @Override
   public Headers getRequestHeaders() {
@@ -75,6 +77,8 @@ public class FakeHttpExchange extends HttpExchange {
   }
   @Override
   public void sendResponseHeaders(int i, long l) {
+    responseCode = i;
+    responseLength = l;
   }
   @Override
   public InetSocketAddress getRemoteAddress() {
@@ -82,7 +86,7 @@ public class FakeHttpExchange extends HttpExchange {
   }
   @Override
   public int getResponseCode() {
-    return 0;
+    return responseCode;
   }
   @Override
   public InetSocketAddress getLocalAddress() {
@@ -107,6 +111,10 @@ public class FakeHttpExchange extends HttpExchange {
     return null;
   }
 
+  long getResponseLength() {
+    return responseLength;
+  }
+
   public String getOutput() {
     return new String(bos.toByteArray(), StandardCharsets.UTF_8);
   }
@@ -19,14 +19,24 @@
 package org.languagetool.server;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
 public class HTTPServerConfigTest {
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Test
   public void testArgumentParsing() {
     HTTPServerConfig config1 = new HTTPServerConfig(new String[]{});
@@ -66,4 +76,31 @@ public class HTTPServerConfigTest {
     Assert.assertTrue(config.languageModelDir.getAbsolutePath().endsWith(languageModelDirectory));
   }
 
+  @Test
+  public void testFasttextModelWithoutBinary() throws IOException {
+    File model = tempFolder.newFile("lid.176.bin");
+    String modelOption = "fasttextModel=" + model.getAbsolutePath().replace('\\', '/');
+    // without a binary, the model is only used if using it in-process is enabled explicitly:
+    File configFile1 = tempFolder.newFile("server1.properties");
+    Files.write(configFile1.toPath(), Collections.singletonList(modelOption));
+    HTTPServerConfig config1 = new HTTPServerConfig(new String[]{"--config", configFile1.getPath()});
+    Assert.assertNull(config1.getFasttextModel());
+    Assert.assertFalse(config1.isFasttextInProcess());
+    File configFile2 = tempFolder.newFile("server2.properties");
+    Files.write(configFile2.toPath(), Arrays.asList(modelOption, "fasttextInProcess=true"));
+    HTTPServerConfig config2 = new HTTPServerConfig(new String[]{"--config", configFile2.getPath()});
+    Assert.assertEquals(model.getAbsolutePath(), config2.getFasttextModel().getAbsolutePath());
+    Assert.assertNull(config2.getFasttextBinary());
+    Assert.assertTrue(config2.isFasttextInProcess());
+  }
+
+  @Test
+  public void testCacheSettings() throws IOException {
+    File configFile = tempFolder.newFile("server.properties");
+    Files.write(configFile.toPath(), Collections.singletonList("wordTagCacheSize=0"));
+    HTTPServerConfig config = new HTTPServerConfig(new String[]{"--config", configFile.getPath()});
+    assertThat(config.getCacheSetting(CacheSetting.WORD_TAG_CACHE_SIZE), is(0L));
+    assertThat(config.getCacheSetting(CacheSetting.NGRAM_CACHE_SIZE), is(CacheSetting.NGRAM_CACHE_SIZE.getDefaultValue()));
+  }
+
 }
@@ -0,0 +1,110 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.DetectedLanguage;
+import org.languagetool.TestTools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LanguageDetectionCacheTest {
+
+  private final List<String> noLangs = Collections.emptyList();
+  private final AtomicInteger detections = new AtomicInteger();
+
+  @Test
+  public void testCache() {
+    LanguageDetectionCache cache = new LanguageDetectionCache(100);
+    DetectedLanguage result = detect(cache, "This is a test.", noLangs, null, 0.99f);
+    assertSame(result, detect(cache, "This is a test.", noLangs, null, 0.99f));
+    assertEquals(1, detections.get());
+    detect(cache, "This is a test.", Arrays.asList("de"), null, 0.99f);
+    detect(cache, "This is another test.", noLangs, null, 0.99f);
+    assertEquals(3, detections.get());
+    // no language detected, e.g. because the detector failed temporarily, so don't cache that:
+    assertNull(detect(cache, "???", noLangs, null, -1));
+    assertNull(detect(cache, "???", noLangs, null, -1));
+    assertEquals(5, detections.get());
+  }
+
+  @Test
+  public void testFallbackNotCached() {
+    LanguageDetectionCache cache = new LanguageDetectionCache(100);
+    for (int i = 0; i < 3; i++) {
+      cache.detect("This is a test.", noLangs, noLangs, false, "s1", () -> {
+        detections.incrementAndGet();
+        return new DetectedLanguage(null, TestTools.getDemoLanguage(), 0.99f, "+fallback");
+      });
+    }
+    assertEquals(3, detections.get());
+    assertEquals(0, cache.getResultCache().size());
+  }
+
+  @Test
+  public void testSessionKey() {
+    Map<String, String> params = new HashMap<>();
+    params.put("textSessionId", "42");
+    assertEquals("7/42", LanguageDetectionCache.getSessionKey(params, 7L));
+    // the session id comes from the client, so anonymous requests can't use sessions:
+    assertNull(LanguageDetectionCache.getSessionKey(params, null));
+  }
+
+  @Test
+  public void testSession() {
+    LanguageDetectionCache cache = new LanguageDetectionCache(100);
+    detect(cache, "This is a test", noLangs, "s1", 0.99f);
+    detect(cache, "This is a test.", noLangs, "s1", 0.99f);
+    assertEquals(2, detections.get());
+    // two confident detections, so small edits don't need detection anymore:
+    detect(cache, "This is a test. And", noLangs, "s1", 0.99f);
+    detect(cache, "This is a test. And more", noLangs, "s1", 0.99f);
+    assertEquals(2, detections.get());
+    // other session:
+    detect(cache, "This is a test. And", noLangs, "s2", 0.99f);
+    assertEquals(3, detections.get());
+    // the text changed a lot:
+    detect(cache, "Something completely different that is a lot longer than before", noLangs, "s1", 0.99f);
+    assertEquals(4, detections.get());
+  }
+
+  @Test
+  public void testSessionWithLowConfidence() {
+    LanguageDetectionCache cache = new LanguageDetectionCache(100);
+    detect(cache, "Test", noLangs, "s1", 0.3f);
+    detect(cache, "Test.", noLangs, "s1", 0.3f);
+    detect(cache, "Tests.", noLangs, "s1", 0.3f);
+    assertEquals(3, detections.get());
+  }
+
+  private DetectedLanguage detect(LanguageDetectionCache cache, String text, List<String> preferredLangs, String session, float confidence) {
+    return cache.detect(text, noLangs, preferredLangs, false, session, () -> {
+      detections.incrementAndGet();
+      return confidence < 0 ? null : new DetectedLanguage(null, TestTools.getDemoLanguage(), confidence, "fasttext");
+    });
+  }
+
+}
@@ -0,0 +1,86 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+import org.languagetool.GlobalConfig;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.TestTools;
+import org.languagetool.UserConfig;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PipelinePoolRuleSelectionTest {
+
+  private static final String TEXT = "This is foo bar. A small toast.";
+
+  @Test
+  public void testRuleSelectionOfSharedPipeline() throws Exception {
+    Language lang = TestTools.getDemoLanguage();
+    PipelineSettings noSelection = getSettings(lang, null);
+    PipelineSettings noRule1 = getSettings(lang, "REGEX_DEMO_PARTIAL_MARK");
+    PipelineSettings noRule2 = getSettings(lang, "test_unification_with_negation");
+    // what pipelines created for just one of the settings find:
+    PipelinePool unpooled = new PipelinePool(new HTTPServerConfig(HTTPTestTools.getDefaultPort()), null, false);
+    String expectedAll = check(unpooled, noSelection);
+    String expected1 = check(unpooled, noRule1);
+    String expected2 = check(unpooled, noRule2);
+    assertNotEquals(expectedAll, expected1);
+    assertNotEquals(expectedAll, expected2);
+    assertNotEquals(expected1, expected2);
+
+    HTTPServerConfig config = new HTTPServerConfig(HTTPTestTools.getDefaultPort());
+    config.setPipelineCaching(true);
+    config.setMaxPipelinePoolSize(1);
+    PipelinePool pool = new PipelinePool(config, null, false);
+    Pipeline pipeline = pool.getPipeline(noSelection);
+    pool.returnPipeline(noSelection, pipeline);
+    for (int i = 0; i < 2; i++) {
+      assertEquals(expected1, check(pool, noRule1));
+      assertEquals(expected2, check(pool, noRule2));
+      assertEquals(expectedAll, check(pool, noSelection));
+    }
+    // all requests shared the same pipeline:
+    assertSame(pipeline, pool.getPipeline(noSelection));
+  }
+
+  private String check(PipelinePool pool, PipelineSettings settings) throws Exception {
+    Pipeline pipeline = pool.getPipeline(settings);
+    try {
+      return pipeline.check(TEXT).stream()
+        .map(match -> match.getRule().getFullId() + "@" + match.getFromPos())
+        .collect(Collectors.joining(", "));
+    } finally {
+      pool.returnPipeline(settings, pipeline);
+    }
+  }
+
+  private PipelineSettings getSettings(Language lang, @Nullable String disabledRule) {
+    TextChecker.QueryParams params = new TextChecker.QueryParams(Collections.emptyList(), Collections.emptyList(),
+      disabledRule != null ? Collections.singletonList(disabledRule) : Collections.emptyList(),
+      Collections.emptyList(), Collections.emptyList(), false, disabledRule != null, false, false, false, false,
+      JLanguageTool.Mode.ALL, JLanguageTool.Level.DEFAULT, null);
+    return new PipelineSettings(lang, null, params, new GlobalConfig(), new UserConfig());
+  }
+}
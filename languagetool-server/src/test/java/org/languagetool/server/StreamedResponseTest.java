@@ -0,0 +1,63 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2026 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class StreamedResponseTest {
+
+  @Test
+  public void testShortResponse() throws IOException {
+    FakeHttpExchange httpExchange = new FakeHttpExchange();
+    StreamedResponse response = new StreamedResponse(httpExchange, 10);
+    response.write("12345".getBytes(StandardCharsets.UTF_8));
+    response.flush();
+    // nothing is sent before the response is finished, so an error status is still possible:
+    assertFalse(response.isCommitted());
+    assertEquals(-1, httpExchange.getResponseCode());
+    assertEquals("", httpExchange.getOutput());
+    response.finish();
+    assertTrue(response.isCommitted());
+    assertEquals(200, httpExchange.getResponseCode());
+    assertEquals(5, httpExchange.getResponseLength());
+    assertEquals("12345", httpExchange.getOutput());
+  }
+
+  @Test
+  public void testLongResponse() throws IOException {
+    FakeHttpExchange httpExchange = new FakeHttpExchange();
+    StreamedResponse response = new StreamedResponse(httpExchange, 10);
+    response.write("12345".getBytes(StandardCharsets.UTF_8));
+    assertFalse(response.isCommitted());
+    response.write("67890abc".getBytes(StandardCharsets.UTF_8));
+    // the full buffer has been sent, with chunked transfer encoding:
+    assertTrue(response.isCommitted());
+    assertEquals(200, httpExchange.getResponseCode());
+    assertEquals(0, httpExchange.getResponseLength());
+    assertEquals("1234567890abc", httpExchange.getOutput());
+    response.write('d');
+    response.finish();
+    assertEquals("1234567890abcd", httpExchange.getOutput());
+  }
+}
@@ -48,6 +48,23 @@ public class TextCheckerTest {
     assertTrue(httpExchange.getOutput().endsWith(");"));
   }
   
+  @Test
+  public void testJSONPStreamed() throws Exception {
+    Map<String, String> params = new HashMap<>();
+    params.put("text", "not used");
+    params.put("language", "en");
+    params.put("callback", "myCallback");
+    HTTPServerConfig config1 = new HTTPServerConfig(HTTPTestTools.getDefaultPort());
+    config1.setStreamResponses(true);
+    TextChecker checker = new V2TextChecker(config1, false, null, new RequestCounter());
+    FakeHttpExchange httpExchange = new FakeHttpExchange();
+    checker.checkText(new AnnotatedTextBuilder().addText("some random text").build(), httpExchange, params, null, null);
+    assertTrue(httpExchange.getOutput().startsWith("myCallback("));
+    assertTrue(httpExchange.getOutput().endsWith(");"));
+    // a short response is sent with its length, not chunked:
+    assertThat(httpExchange.getResponseLength(), is((long) httpExchange.getOutput().getBytes("UTF-8").length));
+  }
+
   @Test
   public void testMaxTextLength() throws Exception {
     Map<String, String> params = new HashMap<>();